@@ -52,6 +52,7 @@
 #include "exec/vectorized/mysql_scan_node.h"
 #include "exec/vectorized/olap_meta_scan_node.h"
 #include "exec/vectorized/olap_scan_node.h"
+#include "exec/vectorized/partition_topn_node.h"
 #include "exec/vectorized/project_node.h"
 #include "exec/vectorized/repeat_node.h"
 #include "exec/vectorized/schema_scan_node.h"
@@ -435,6 +436,9 @@ Status ExecNode::create_vectorized_node(starrocks::RuntimeState* state, starrock
     case TPlanNodeType::SORT_NODE:
         *node = pool->add(new vectorized::TopNNode(pool, tnode, descs));
         return Status::OK();
+    case TPlanNodeType::PARTITION_TOPN_NODE:
+        *node = pool->add(new vectorized::PartitionTopNNode(pool, tnode, descs));
+        return Status::OK();
     case TPlanNodeType::CROSS_JOIN_NODE:
         *node = pool->add(new vectorized::CrossJoinNode(pool, tnode, descs));
         return Status::OK();
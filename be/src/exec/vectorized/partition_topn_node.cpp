@@ -0,0 +1,254 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+#include "exec/vectorized/partition_topn_node.h"
+
+#include <memory>
+
+#include "column/column_helper.h"
+#include "exec/vectorized/chunks_sorter.h"
+#include "exec/vectorized/chunks_sorter_full_sort.h"
+#include "exprs/expr.h"
+#include "exprs/expr_context.h"
+#include "runtime/current_thread.h"
+
+namespace starrocks::vectorized {
+
+PartitionTopNNode::PartitionTopNNode(ObjectPool* pool, const TPlanNode& tnode, const DescriptorTbl& descs)
+        : ExecNode(pool, tnode, descs) {
+    _partition_limit = tnode.partition_topn_node.partition_limit;
+    _topn_type = tnode.partition_topn_node.type;
+}
+
+PartitionTopNNode::~PartitionTopNNode() {
+    if (runtime_state() != nullptr) {
+        close(runtime_state());
+    }
+}
+
+Status PartitionTopNNode::init(const TPlanNode& tnode, RuntimeState* state) {
+    RETURN_IF_ERROR(ExecNode::init(tnode, state));
+
+    const TPartitionTopNNode& topn_node = tnode.partition_topn_node;
+    RETURN_IF_ERROR(Expr::create_expr_trees(_pool, topn_node.partition_exprs, &_partition_expr_ctxs));
+    RETURN_IF_ERROR(Expr::create_expr_trees(_pool, topn_node.sort_info.ordering_exprs, &_order_expr_ctxs));
+
+    // rows of the same partition are adjacent after sorting, the order of partitions doesn't matter
+    _sort_expr_ctxs = _partition_expr_ctxs;
+    _sort_expr_ctxs.insert(_sort_expr_ctxs.end(), _order_expr_ctxs.begin(), _order_expr_ctxs.end());
+    _is_asc_order.assign(_partition_expr_ctxs.size(), true);
+    _is_asc_order.insert(_is_asc_order.end(), topn_node.sort_info.is_asc_order.begin(),
+                         topn_node.sort_info.is_asc_order.end());
+    _is_null_first.assign(_partition_expr_ctxs.size(), true);
+    _is_null_first.insert(_is_null_first.end(), topn_node.sort_info.nulls_first.begin(),
+                          topn_node.sort_info.nulls_first.end());
+
+    if (topn_node.__isset.sql_sort_keys) {
+        _runtime_profile->add_info_string("SortKeys", topn_node.sql_sort_keys);
+    }
+    _runtime_profile->add_info_string("PartitionLimit", std::to_string(_partition_limit));
+    return Status::OK();
+}
+
+Status PartitionTopNNode::prepare(RuntimeState* state) {
+    SCOPED_TIMER(_runtime_profile->total_time_counter());
+
+    RETURN_IF_ERROR(ExecNode::prepare(state));
+    RETURN_IF_ERROR(Expr::prepare(_partition_expr_ctxs, state));
+    RETURN_IF_ERROR(Expr::prepare(_order_expr_ctxs, state));
+
+    _sort_timer = ADD_TIMER(runtime_profile(), "ChunksSorter");
+    _filter_timer = ADD_TIMER(runtime_profile(), "PartitionFilterTime");
+    return Status::OK();
+}
+
+Status PartitionTopNNode::open(RuntimeState* state) {
+    SCOPED_TIMER(_runtime_profile->total_time_counter());
+
+    RETURN_IF_ERROR(ExecNode::open(state));
+    RETURN_IF_CANCELLED(state);
+    RETURN_IF_ERROR(Expr::open(_partition_expr_ctxs, state));
+    RETURN_IF_ERROR(Expr::open(_order_expr_ctxs, state));
+
+    ExecNode* data_source = child(0);
+    RETURN_IF_ERROR(data_source->open(state));
+    Status status = _consume_chunks(state, data_source);
+    data_source->close(state);
+
+    _mem_tracker->set(_chunks_sorter->mem_usage());
+    return status;
+}
+
+Status PartitionTopNNode::get_next(RuntimeState* state, ChunkPtr* chunk, bool* eos) {
+    SCOPED_TIMER(_runtime_profile->total_time_counter());
+    RETURN_IF_ERROR(exec_debug_action(TExecNodePhase::GETNEXT));
+    RETURN_IF_CANCELLED(state);
+
+    *eos = false;
+    while (true) {
+        if (_chunks_sorter == nullptr || reached_limit()) {
+            *eos = true;
+            *chunk = nullptr;
+            return Status::OK();
+        }
+
+        {
+            SCOPED_TIMER(_sort_timer);
+            _chunks_sorter->get_next(chunk, eos);
+        }
+        if (*eos) {
+            _chunks_sorter = nullptr;
+            continue;
+        }
+
+        {
+            SCOPED_TIMER(_filter_timer);
+            if (_filter_chunk(chunk->get()) == 0) {
+                continue;
+            }
+            ExecNode::eval_conjuncts(_conjunct_ctxs, chunk->get());
+        }
+        if ((*chunk)->num_rows() > 0) {
+            break;
+        }
+    }
+
+    _num_rows_returned += (*chunk)->num_rows();
+    if (reached_limit()) {
+        int64_t num_rows_over = _num_rows_returned - _limit;
+        (*chunk)->set_num_rows((*chunk)->num_rows() - num_rows_over);
+        _num_rows_returned = _limit;
+    }
+    COUNTER_SET(_rows_returned_counter, _num_rows_returned);
+
+    DCHECK_CHUNK(*chunk);
+    return Status::OK();
+}
+
+Status PartitionTopNNode::close(RuntimeState* state) {
+    if (is_closed()) {
+        return Status::OK();
+    }
+    _chunks_sorter = nullptr;
+    _last_partition_columns.clear();
+    _last_order_columns.clear();
+
+    Expr::close(_partition_expr_ctxs, state);
+    Expr::close(_order_expr_ctxs, state);
+    return ExecNode::close(state);
+}
+
+Status PartitionTopNNode::_consume_chunks(RuntimeState* state, ExecNode* child) {
+    static const uint SIZE_OF_CHUNK_FOR_FULL_SORT = 5000;
+
+    ScopedTimer<MonotonicStopWatch> timer(_sort_timer);
+    _chunks_sorter = std::make_unique<ChunksSorterFullSort>(state, &_sort_expr_ctxs, &_is_asc_order,
+                                                            &_is_null_first, SIZE_OF_CHUNK_FOR_FULL_SORT);
+    _chunks_sorter->setup_runtime(runtime_profile(), "ChunksSorter");
+
+    bool eos = false;
+    do {
+        RETURN_IF_CANCELLED(state);
+        ChunkPtr chunk;
+        timer.stop();
+        RETURN_IF_ERROR(child->get_next(state, &chunk, &eos));
+        timer.start();
+        if (chunk != nullptr && chunk->num_rows() > 0) {
+            // the sorter keeps the input rows as they are, which can't be constant
+            for (auto& column : chunk->columns()) {
+                if (column->is_constant()) {
+                    column = ColumnHelper::unpack_and_duplicate_const_column(chunk->num_rows(), column);
+                }
+            }
+            TRY_CATCH_BAD_ALLOC(RETURN_IF_ERROR(_chunks_sorter->update(state, chunk)));
+        }
+    } while (!eos);
+
+    TRY_CATCH_BAD_ALLOC(RETURN_IF_ERROR(_chunks_sorter->done(state)));
+    return Status::OK();
+}
+
+size_t PartitionTopNNode::_filter_chunk(Chunk* chunk) {
+    size_t num_rows = chunk->num_rows();
+    Columns partition_columns = _evaluate(_partition_expr_ctxs, chunk);
+    Columns order_columns = _evaluate(_order_expr_ctxs, chunk);
+
+    Filter selection(num_rows);
+    for (size_t i = 0; i < num_rows; ++i) {
+        bool is_new_partition;
+        bool is_new_peer;
+        if (i == 0) {
+            is_new_partition = _last_partition_columns.empty() ||
+                               !_equals(partition_columns, 0, _last_partition_columns, 0);
+            is_new_peer = is_new_partition || !_equals(order_columns, 0, _last_order_columns, 0);
+        } else {
+            is_new_partition = !_equals(partition_columns, i, partition_columns, i - 1);
+            is_new_peer = is_new_partition || !_equals(order_columns, i, order_columns, i - 1);
+        }
+
+        if (is_new_partition) {
+            _row_number = 1;
+            _rank = 1;
+            _dense_rank = 1;
+        } else {
+            ++_row_number;
+            if (is_new_peer) {
+                _rank = _row_number;
+                ++_dense_rank;
+            }
+        }
+
+        int64_t value;
+        switch (_topn_type) {
+        case TTopNType::ROW_NUMBER:
+            value = _row_number;
+            break;
+        case TTopNType::RANK:
+            value = _rank;
+            break;
+        default:
+            value = _dense_rank;
+            break;
+        }
+        selection[i] = value <= _partition_limit;
+    }
+
+    // remember the last row, the next chunk may continue its partition
+    _last_partition_columns.clear();
+    _last_order_columns.clear();
+    for (const auto& column : partition_columns) {
+        auto last = column->clone_empty();
+        last->append(*column, num_rows - 1, 1);
+        _last_partition_columns.emplace_back(std::move(last));
+    }
+    for (const auto& column : order_columns) {
+        auto last = column->clone_empty();
+        last->append(*column, num_rows - 1, 1);
+        _last_order_columns.emplace_back(std::move(last));
+    }
+
+    return chunk->filter(selection);
+}
+
+Columns PartitionTopNNode::_evaluate(const std::vector<ExprContext*>& ctxs, Chunk* chunk) {
+    Columns columns;
+    columns.reserve(ctxs.size());
+    for (ExprContext* ctx : ctxs) {
+        ColumnPtr column = ctx->evaluate(chunk);
+        if (column->is_constant()) {
+            column = ColumnHelper::unpack_and_duplicate_const_column(chunk->num_rows(), column);
+        }
+        columns.emplace_back(std::move(column));
+    }
+    return columns;
+}
+
+bool PartitionTopNNode::_equals(const Columns& lhs, size_t lhs_row, const Columns& rhs, size_t rhs_row) {
+    for (size_t i = 0; i < lhs.size(); ++i) {
+        if (lhs[i]->compare_at(lhs_row, rhs_row, *rhs[i], 1) != 0) {
+            return false;
+        }
+    }
+    return true;
+}
+
+} // namespace starrocks::vectorized
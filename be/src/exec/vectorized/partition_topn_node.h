@@ -0,0 +1,59 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+#pragma once
+
+#include "exec/exec_node.h"
+
+namespace starrocks::vectorized {
+
+class ChunksSorter;
+
+// Node for the TopN of each partition (ROW_NUMBER/RANK/DENSE_RANK() OVER (PARTITION BY ... ORDER BY ...) <= N).
+//
+// It sorts all the input rows by the partition exprs and the ordering exprs at the open stage, then computes
+// the rank of the sorted rows in their partition and outputs the rows whose rank is not greater than the
+// partition limit. The rows keep the tuples of the child.
+class PartitionTopNNode final : public ::starrocks::ExecNode {
+public:
+    PartitionTopNNode(ObjectPool* pool, const TPlanNode& tnode, const DescriptorTbl& descs);
+    ~PartitionTopNNode() override;
+
+    Status init(const TPlanNode& tnode, RuntimeState* state = nullptr) override;
+    Status prepare(RuntimeState* state) override;
+    Status open(RuntimeState* state) override;
+    Status get_next(RuntimeState* state, ChunkPtr* chunk, bool* eos) override;
+
+    Status close(RuntimeState* state) override;
+
+private:
+    Status _consume_chunks(RuntimeState* state, ExecNode* child);
+    // keep the rows whose rank is not greater than the partition limit, return the number of the kept rows
+    size_t _filter_chunk(Chunk* chunk);
+
+    static Columns _evaluate(const std::vector<ExprContext*>& ctxs, Chunk* chunk);
+    static bool _equals(const Columns& lhs, size_t lhs_row, const Columns& rhs, size_t rhs_row);
+
+    std::vector<ExprContext*> _partition_expr_ctxs;
+    std::vector<ExprContext*> _order_expr_ctxs;
+    // the partition exprs followed by the ordering exprs, by which the input rows are sorted
+    std::vector<ExprContext*> _sort_expr_ctxs;
+    std::vector<bool> _is_asc_order;
+    std::vector<bool> _is_null_first;
+
+    int64_t _partition_limit;
+    TTopNType::type _topn_type;
+
+    std::unique_ptr<ChunksSorter> _chunks_sorter;
+
+    // the partition and ordering columns of the last output row, and its rank
+    Columns _last_partition_columns;
+    Columns _last_order_columns;
+    int64_t _row_number = 0;
+    int64_t _rank = 0;
+    int64_t _dense_rank = 0;
+
+    RuntimeProfile::Counter* _sort_timer = nullptr;
+    RuntimeProfile::Counter* _filter_timer = nullptr;
+};
+
+} // namespace starrocks::vectorized
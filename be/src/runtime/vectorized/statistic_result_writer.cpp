@@ -13,6 +13,7 @@
 namespace starrocks::vectorized {
 
 const int STATISTIC_DATA_VERSION1 = 1;
+const int PARTITION_STATISTIC_DATA_VERSION = 2;
 const int DICT_STATISTIC_DATA_VERSION = 101;
 
 StatisticResultWriter::StatisticResultWriter(BufferControlBlock* sinker,
@@ -64,6 +65,8 @@ Status StatisticResultWriter::append_chunk(vectorized::Chunk* chunk) {
     // Step 3: fill statistic data
     if (version == STATISTIC_DATA_VERSION1) {
         _fill_statistic_data_v1(version, result_columns, chunk, result);
+    } else if (version == PARTITION_STATISTIC_DATA_VERSION) {
+        _fill_partition_statistic_data(version, result_columns, chunk, result);
     } else if (version == DICT_STATISTIC_DATA_VERSION) {
         _fill_dict_statistic_data(version, result_columns, chunk, result);
     }
@@ -156,6 +159,55 @@ void StatisticResultWriter::_fill_statistic_data_v1(int version, const vectorize
     }
 }
 
+void StatisticResultWriter::_fill_partition_statistic_data(int version, const vectorized::Columns& columns,
+                                                           const vectorized::Chunk* chunk, TFetchDataResult* result) {
+    SCOPED_TIMER(_serialize_timer);
+
+    // mapping with Data.thrift.TStatisticData, partition version is set to meta_version
+    DCHECK(columns.size() == 13);
+
+    // skip read version
+    auto& updateTimes = ColumnHelper::cast_to_raw<TYPE_DATETIME>(columns[1])->get_data();
+    auto& dbIds = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[2])->get_data();
+    auto& tableIds = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[3])->get_data();
+    auto& partitionIds = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[4])->get_data();
+    BinaryColumn* nameColumn = ColumnHelper::cast_to_raw<TYPE_VARCHAR>(columns[5]);
+    auto& rowCounts = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[6])->get_data();
+    auto& dataSizes = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[7])->get_data();
+    auto& countDistincts = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[8])->get_data();
+    auto& nullCounts = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[9])->get_data();
+    BinaryColumn* maxColumn = ColumnHelper::cast_to_raw<TYPE_VARCHAR>(columns[10]);
+    BinaryColumn* minColumn = ColumnHelper::cast_to_raw<TYPE_VARCHAR>(columns[11]);
+    auto& partitionVersions = ColumnHelper::cast_to_raw<TYPE_BIGINT>(columns[12])->get_data();
+
+    std::vector<TStatisticData> data_list;
+    int num_rows = chunk->num_rows();
+
+    data_list.resize(num_rows);
+    for (int i = 0; i < num_rows; ++i) {
+        data_list[i].__set_updateTime(updateTimes[i].to_string());
+        data_list[i].__set_dbId(dbIds[i]);
+        data_list[i].__set_tableId(tableIds[i]);
+        data_list[i].__set_partitionId(partitionIds[i]);
+        data_list[i].__set_columnName(nameColumn->get_slice(i).to_string());
+        data_list[i].__set_rowCount(rowCounts[i]);
+        data_list[i].__set_dataSize(dataSizes[i]);
+        data_list[i].__set_countDistinct(countDistincts[i]);
+        data_list[i].__set_nullCount(nullCounts[i]);
+        data_list[i].__set_max(maxColumn->get_slice(i).to_string());
+        data_list[i].__set_min(minColumn->get_slice(i).to_string());
+        data_list[i].__set_meta_version(partitionVersions[i]);
+    }
+
+    result->result_batch.rows.resize(num_rows);
+    result->result_batch.__set_statistic_version(version);
+
+    ThriftSerializer serializer(true, chunk->memory_usage());
+    for (int i = 0; i < num_rows; ++i) {
+        serializer.serialize(&data_list[i], &result->result_batch.rows[i]);
+    }
+}
+
 Status StatisticResultWriter::close() {
     COUNTER_SET(_sent_rows_counter, _written_rows);
     return Status::OK();
@@ -32,6 +32,8 @@ private:
 
     void _fill_statistic_data_v1(int version, const vectorized::Columns& columns, const vectorized::Chunk* chunk,
                                  TFetchDataResult* result);
+    void _fill_partition_statistic_data(int version, const vectorized::Columns& columns,
+                                        const vectorized::Chunk* chunk, TFetchDataResult* result);
     void _fill_dict_statistic_data(int version, const vectorized::Columns& columns, const vectorized::Chunk* chunk,
                                    TFetchDataResult* result);
 
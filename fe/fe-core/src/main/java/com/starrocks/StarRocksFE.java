@@ -191,6 +191,9 @@ public class StarRocksFE {
      *
      *          -s --stat
      *              Print statistic of a database, including count, first key, last key
+     *          -o --opsize
+     *              Print count, size and size in compact codec of journals of each op type,
+     *              between the start scan key and the end scan key
      *          -f --from
      *              Specify the start scan key
      *          -t --to
@@ -209,6 +212,7 @@ public class StarRocksFE {
         options.addOption("l", "listdb", false, "Print the list of databases in bdbje");
         options.addOption("d", "db", true, "Specify a database in bdbje");
         options.addOption("s", "stat", false, "Print statistic of a database, including count, first key, last key");
+        options.addOption("o", "opsize", false, "Print count and size of journals of each op type");
         options.addOption("f", "from", true, "Specify the start scan key");
         options.addOption("t", "to", true, "Specify the end scan key");
         options.addOption("m", "metaversion", true,
@@ -278,8 +282,9 @@ public class StarRocksFE {
                         }
                     }
 
-                    BDBToolOptions bdbOpts =
-                            new BDBToolOptions(false, dbName, false, fromKey, endKey, metaVersion, starrocksMetaVersion);
+                    boolean isOpSizeStat = cmd.hasOption('o') || cmd.hasOption("opsize");
+                    BDBToolOptions bdbOpts = new BDBToolOptions(false, dbName, false, isOpSizeStat, fromKey, endKey,
+                            metaVersion, starrocksMetaVersion);
                     return new CommandLineOptions(false, "", bdbOpts);
                 }
             } else {
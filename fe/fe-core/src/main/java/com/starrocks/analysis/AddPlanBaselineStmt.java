@@ -0,0 +1,50 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.analysis;
+
+import com.google.common.base.Strings;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.ErrorCode;
+import com.starrocks.common.ErrorReport;
+import com.starrocks.common.UserException;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.qe.ConnectContext;
+
+// ADD BASELINE "sql"
+// Pin the current plan of the query as the plan baseline of its digest.
+public class AddPlanBaselineStmt extends StatementBase {
+    private final String sql;
+
+    public AddPlanBaselineStmt(String sql) {
+        this.sql = sql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public void analyze(Analyzer analyzer) throws AnalysisException, UserException {
+        if (!Catalog.getCurrentCatalog().getAuth().checkGlobalPriv(ConnectContext.get(), PrivPredicate.ADMIN)) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_SPECIFIC_ACCESS_DENIED_ERROR, "ADMIN");
+        }
+
+        super.analyze(analyzer);
+
+        if (Strings.isNullOrEmpty(sql.trim())) {
+            throw new AnalysisException("The sql of plan baseline is empty");
+        }
+    }
+
+    @Override
+    public String toSql() {
+        return "ADD BASELINE \"" + sql + "\"";
+    }
+
+    // The baselines are persisted by the master
+    @Override
+    public RedirectStatus getRedirectStatus() {
+        return RedirectStatus.FORWARD_WITH_SYNC;
+    }
+}
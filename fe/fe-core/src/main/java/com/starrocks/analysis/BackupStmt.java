@@ -34,12 +34,18 @@ import java.util.Map;
 
 public class BackupStmt extends AbstractBackupStmt {
     private static final String PROP_TYPE = "type";
+    private static final String PROP_BASE_SNAPSHOT = "base_snapshot";
+    private static final String PROP_BASE_BACKUP_TIMESTAMP = "base_backup_timestamp";
 
     public enum BackupType {
         INCREMENTAL, FULL
     }
 
     private BackupType type = BackupType.FULL;
+    // base snapshot of incremental backup
+    private String baseSnapshot;
+    // null means the latest backup of base snapshot
+    private String baseBackupTimestamp;
 
     public BackupStmt(LabelName labelName, String repoName, List<TableRef> tblRefs, Map<String, String> properties) {
         super(labelName, repoName, tblRefs, properties);
@@ -53,6 +59,14 @@ public class BackupStmt extends AbstractBackupStmt {
         return type;
     }
 
+    public String getBaseSnapshot() {
+        return baseSnapshot;
+    }
+
+    public String getBaseBackupTimestamp() {
+        return baseBackupTimestamp;
+    }
+
     @Override
     public void analyze(Analyzer analyzer) throws UserException {
         super.analyze(analyzer);
@@ -82,6 +96,30 @@ public class BackupStmt extends AbstractBackupStmt {
             copiedProperties.remove(PROP_TYPE);
         }
 
+        // base snapshot
+        if (copiedProperties.containsKey(PROP_BASE_SNAPSHOT)) {
+            baseSnapshot = copiedProperties.get(PROP_BASE_SNAPSHOT);
+            if (baseSnapshot.equals(labelName.getLabelName())) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                        "Base snapshot can not be the same as the backup label: " + baseSnapshot);
+            }
+            // specifying a base snapshot implies an incremental backup
+            type = BackupType.INCREMENTAL;
+            copiedProperties.remove(PROP_BASE_SNAPSHOT);
+        }
+        if (copiedProperties.containsKey(PROP_BASE_BACKUP_TIMESTAMP)) {
+            baseBackupTimestamp = copiedProperties.get(PROP_BASE_BACKUP_TIMESTAMP);
+            copiedProperties.remove(PROP_BASE_BACKUP_TIMESTAMP);
+        }
+        if (type == BackupType.INCREMENTAL && baseSnapshot == null) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                    "Incremental backup must specify the base snapshot by property: " + PROP_BASE_SNAPSHOT);
+        }
+        if (baseBackupTimestamp != null && baseSnapshot == null) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                    PROP_BASE_BACKUP_TIMESTAMP + " must be specified with " + PROP_BASE_SNAPSHOT);
+        }
+
         if (!copiedProperties.isEmpty()) {
             ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
                     "Unknown backup job properties: " + copiedProperties.keySet());
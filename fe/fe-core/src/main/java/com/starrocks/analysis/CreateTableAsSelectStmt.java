@@ -21,6 +21,7 @@
 
 package com.starrocks.analysis;
 
+import com.google.common.collect.Maps;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.DdlException;
 import com.starrocks.qe.ConnectContext;
@@ -28,6 +29,7 @@ import com.starrocks.sql.ast.AstVisitor;
 import com.starrocks.sql.ast.QueryStatement;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a CREATE TABLE AS SELECT (CTAS) statement
@@ -40,6 +42,8 @@ public class CreateTableAsSelectStmt extends StatementBase {
     private final List<String> columnNames;
     private final QueryStatement queryStatement;
     private final InsertStmt insertStmt;
+    // properties of async materialized view, empty if the table is not an async materialized view
+    private Map<String, String> asyncMaterializedViewProperties = Maps.newHashMap();
 
     // This constructor is meaningless,
     // but currently cannot be deleted because CUP generates a code that calls this function.
@@ -108,6 +112,18 @@ public class CreateTableAsSelectStmt extends StatementBase {
         return insertStmt;
     }
 
+    public Map<String, String> getAsyncMaterializedViewProperties() {
+        return asyncMaterializedViewProperties;
+    }
+
+    public void setAsyncMaterializedViewProperties(Map<String, String> asyncMaterializedViewProperties) {
+        this.asyncMaterializedViewProperties = asyncMaterializedViewProperties;
+    }
+
+    public boolean isAsyncMaterializedView() {
+        return !asyncMaterializedViewProperties.isEmpty();
+    }
+
     @Override
     public RedirectStatus getRedirectStatus() {
         return RedirectStatus.FORWARD_WITH_SYNC;
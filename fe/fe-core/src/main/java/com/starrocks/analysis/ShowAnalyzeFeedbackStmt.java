@@ -0,0 +1,76 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.analysis;
+
+import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.ErrorCode;
+import com.starrocks.common.ErrorReport;
+import com.starrocks.common.UserException;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.ShowResultSetMetaData;
+
+// SHOW ANALYZE FEEDBACK [LIMIT n]
+// Show the statistics feedback of the scan predicates collected on this FE, the worst estimations first.
+public class ShowAnalyzeFeedbackStmt extends ShowStmt {
+
+    private static final ShowResultSetMetaData META_DATA =
+            ShowResultSetMetaData.builder()
+                    .addColumn(new Column("Table", ScalarType.createVarchar(60)))
+                    .addColumn(new Column("Predicate", ScalarType.createVarchar(500)))
+                    .addColumn(new Column("EstimatedRows", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("ActualRows", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("QError", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("Correction", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("Count", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("LastUpdateTime", ScalarType.createVarchar(60)))
+                    .build();
+
+    private final LimitElement limitElement;
+
+    public ShowAnalyzeFeedbackStmt(LimitElement limitElement) {
+        this.limitElement = limitElement;
+    }
+
+    public long getLimit() {
+        return limitElement == null || !limitElement.hasLimit() ? Long.MAX_VALUE : limitElement.getLimit();
+    }
+
+    public long getOffset() {
+        return limitElement == null ? 0 : limitElement.getOffset();
+    }
+
+    @Override
+    public ShowResultSetMetaData getMetaData() {
+        return META_DATA;
+    }
+
+    @Override
+    public void analyze(Analyzer analyzer) throws AnalysisException, UserException {
+        super.analyze(analyzer);
+
+        // the predicates may contain the literals of any table
+        if (!Catalog.getCurrentCatalog().getAuth().checkGlobalPriv(ConnectContext.get(), PrivPredicate.ADMIN)) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_SPECIFIC_ACCESS_DENIED_ERROR, "ADMIN");
+        }
+    }
+
+    @Override
+    public String toSql() {
+        return "SHOW ANALYZE FEEDBACK" + (limitElement == null ? "" : limitElement.toSql());
+    }
+
+    @Override
+    public String toString() {
+        return toSql();
+    }
+
+    // The feedback is kept in the memory of the FE which executes the queries
+    @Override
+    public RedirectStatus getRedirectStatus() {
+        return RedirectStatus.NO_FORWARD;
+    }
+}
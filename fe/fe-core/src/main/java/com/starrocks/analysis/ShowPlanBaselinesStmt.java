@@ -0,0 +1,63 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.analysis;
+
+import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.ErrorCode;
+import com.starrocks.common.ErrorReport;
+import com.starrocks.common.UserException;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.ShowResultSetMetaData;
+
+// SHOW BASELINES
+// Show the plan baselines, with the average latencies of the baseline plans and the candidate plans
+// executed on this FE. The latencies are not shared between FEs, and only the latencies collected on the
+// master evolve the baselines, so the candidate latencies shown on a follower never lead to an evolution.
+public class ShowPlanBaselinesStmt extends ShowStmt {
+
+    private static final ShowResultSetMetaData META_DATA =
+            ShowResultSetMetaData.builder()
+                    .addColumn(new Column("Id", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("Digest", ScalarType.createVarchar(60)))
+                    .addColumn(new Column("Sql", ScalarType.createVarchar(500)))
+                    .addColumn(new Column("PlanShape", ScalarType.createVarchar(500)))
+                    .addColumn(new Column("AvgLatencyMs", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("CandidateAvgLatencyMs", ScalarType.createVarchar(20)))
+                    .addColumn(new Column("CreateTime", ScalarType.createVarchar(60)))
+                    .addColumn(new Column("EvolveTime", ScalarType.createVarchar(60)))
+                    .build();
+
+    @Override
+    public ShowResultSetMetaData getMetaData() {
+        return META_DATA;
+    }
+
+    @Override
+    public void analyze(Analyzer analyzer) throws AnalysisException, UserException {
+        if (!Catalog.getCurrentCatalog().getAuth().checkGlobalPriv(ConnectContext.get(), PrivPredicate.ADMIN)) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_SPECIFIC_ACCESS_DENIED_ERROR, "ADMIN");
+        }
+
+        super.analyze(analyzer);
+    }
+
+    @Override
+    public String toSql() {
+        return "SHOW BASELINES";
+    }
+
+    @Override
+    public String toString() {
+        return toSql();
+    }
+
+    // The latencies are kept in the memory of the FE which executes the queries
+    @Override
+    public RedirectStatus getRedirectStatus() {
+        return RedirectStatus.NO_FORWARD;
+    }
+}
@@ -339,38 +339,22 @@ public class BackupHandler extends MasterDaemon implements Writable {
             ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, st.getErrMsg());
         }
         if (existSnapshotNames.contains(stmt.getLabel())) {
-            if (stmt.getType() == BackupType.FULL) {
-                ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Snapshot with name '"
-                        + stmt.getLabel() + "' already exist in repository");
-            } else {
-                ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Currently does not support "
-                        + "incremental backup");
-
-                // TODO:
-                // This is a incremental backup, the existing snapshot in repository will be treated
-                // as base snapshot.
-                // But first we need to check if the existing snapshot has same meta.
-                List<BackupMeta> backupMetas = Lists.newArrayList();
-                st = repository.getSnapshotMetaFile(stmt.getLabel(), backupMetas, -1, -1);
-                if (!st.ok()) {
-                    ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
-                            "Failed to get existing meta info for repository: "
-                                    + st.getErrMsg());
-                }
-                Preconditions.checkState(backupMetas.size() == 1);
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Snapshot with name '"
+                    + stmt.getLabel() + "' already exist in repository");
+        }
 
-                if (!curBackupMeta.compatibleWith(backupMetas.get(0))) {
-                    ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
-                            "Can not make incremental backup. Meta does not compatible");
-                }
-            }
+        // For incremental backup, the partitions which are not changed since the base snapshot
+        // will not be snapshotted, and the new snapshot refers to the files of base snapshot.
+        BackupJobInfo baseJobInfo = null;
+        if (stmt.getType() == BackupType.INCREMENTAL) {
+            baseJobInfo = getBaseJobInfo(repository, db, stmt, existSnapshotNames);
         }
 
         // Create a backup job
         BackupJob backupJob = new BackupJob(stmt.getLabel(), db.getId(),
                 ClusterNamespace.getNameFromFullName(db.getFullName()),
                 tblRefs, stmt.getTimeoutMs(),
-                catalog, repository.getId());
+                catalog, repository.getId(), baseJobInfo);
         // write log
         catalog.getEditLog().logBackupJob(backupJob);
 
@@ -380,6 +364,34 @@ public class BackupHandler extends MasterDaemon implements Writable {
         LOG.info("finished to submit backup job: {}", backupJob);
     }
 
+    private BackupJobInfo getBaseJobInfo(Repository repository, Database db, BackupStmt stmt,
+                                         List<String> existSnapshotNames) throws DdlException {
+        String baseSnapshot = stmt.getBaseSnapshot();
+        if (!existSnapshotNames.contains(baseSnapshot)) {
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Base snapshot '"
+                    + baseSnapshot + "' does not exist in repository");
+        }
+
+        List<BackupJobInfo> infos = Lists.newArrayList();
+        Status st;
+        if (stmt.getBaseBackupTimestamp() == null) {
+            st = repository.getLatestSnapshotInfoFile(baseSnapshot, infos);
+        } else {
+            st = repository.getSnapshotInfoFile(baseSnapshot, stmt.getBaseBackupTimestamp(), infos);
+        }
+        if (!st.ok()) {
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                    "Failed to get info of base snapshot '" + baseSnapshot + "' because: " + st.getErrMsg());
+        }
+        Preconditions.checkState(infos.size() == 1);
+        BackupJobInfo baseJobInfo = infos.get(0);
+        if (baseJobInfo.dbId != db.getId()) {
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                    "Base snapshot '" + baseSnapshot + "' is not a backup of database " + db.getFullName());
+        }
+        return baseJobInfo;
+    }
+
     private void restore(Repository repository, Database db, RestoreStmt stmt) throws DdlException {
         // Check if snapshot exist in repository
         List<BackupJobInfo> infos = Lists.newArrayList();
@@ -43,6 +43,8 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Table.TableType;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+import com.starrocks.common.StarRocksFEMetaVersion;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.common.util.UUIDUtil;
@@ -107,6 +109,9 @@ public class BackupJob extends AbstractJob {
     private BackupMeta backupMeta;
     // job info file content
     private BackupJobInfo jobInfo;
+    // job info of the base snapshot if this is an incremental backup.
+    // the partitions whose visible version is not advanced since the base snapshot will not be snapshotted.
+    private BackupJobInfo baseJobInfo;
 
     // save the local dir of this backup job
     // after job is done, this dir should be deleted
@@ -126,6 +131,12 @@ public class BackupJob extends AbstractJob {
         this.state = BackupJobState.PENDING;
     }
 
+    public BackupJob(String label, long dbId, String dbName, List<TableRef> tableRefs, long timeoutMs,
+                     Catalog catalog, long repoId, BackupJobInfo baseJobInfo) {
+        this(label, dbId, dbName, tableRefs, timeoutMs, catalog, repoId);
+        this.baseJobInfo = baseJobInfo;
+    }
+
     public BackupJobState getState() {
         return state;
     }
@@ -138,6 +149,10 @@ public class BackupJob extends AbstractJob {
         return jobInfo;
     }
 
+    public BackupJobInfo getBaseJobInfo() {
+        return baseJobInfo;
+    }
+
     public String getLocalJobInfoFilePath() {
         return localJobInfoFilePath;
     }
@@ -397,6 +412,11 @@ public class BackupJob extends AbstractJob {
                 // snapshot partitions
                 for (Partition partition : partitions) {
                     long visibleVersion = partition.getVisibleVersion();
+                    if (baseJobInfo != null && baseJobInfo.getUnchangedPartition(tbl, partition) != null) {
+                        LOG.info("skip snapshot for partition {}, version: {} is not changed since snapshot {}",
+                                partition.getId(), visibleVersion, baseJobInfo.name);
+                        continue;
+                    }
                     List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.VISIBLE);
                     for (MaterializedIndex index : indexes) {
                         int schemaHash = tbl.getSchemaHashByIndexId(index.getId());
@@ -486,8 +506,8 @@ public class BackupJob extends AbstractJob {
         for (Long beId : beToSnapshots.keySet()) {
             List<SnapshotInfo> infos = beToSnapshots.get(beId);
             int totalNum = infos.size();
-            // each backend allot at most 3 tasks
-            int batchNum = Math.min(totalNum, 3);
+            // each backend allot at most max_backup_restore_task_num_per_be tasks
+            int batchNum = Math.min(totalNum, Math.max(Config.max_backup_restore_task_num_per_be, 1));
             // each task contains several upload sub tasks
             int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
             LOG.info("backend {} has {} batch, total {} tasks, {}", beId, batchNum, totalNum, this);
@@ -580,7 +600,7 @@ public class BackupJob extends AbstractJob {
 
             // 3. save job info file
             jobInfo = BackupJobInfo.fromCatalog(createTime, label, dbName, dbId, backupMeta.getTables().values(),
-                    snapshotInfos);
+                    snapshotInfos, baseJobInfo);
             LOG.debug("job info: {}. {}", jobInfo, this);
             File jobInfoFile = new File(jobDir, Repository.PREFIX_JOB_INFO + createTimeStr);
             if (!jobInfoFile.createNewFile()) {
@@ -813,6 +833,14 @@ public class BackupJob extends AbstractJob {
             out.writeBoolean(true);
             Text.writeString(out, localJobInfoFilePath);
         }
+
+        // base job info of incremental backup
+        if (baseJobInfo == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            baseJobInfo.write(out);
+        }
     }
 
     public void readFields(DataInput in) throws IOException {
@@ -856,12 +884,21 @@ public class BackupJob extends AbstractJob {
         if (in.readBoolean()) {
             localJobInfoFilePath = Text.readString(in);
         }
+
+        if (Catalog.getCurrentCatalogStarRocksJournalVersion() >= StarRocksFEMetaVersion.VERSION_4) {
+            if (in.readBoolean()) {
+                baseJobInfo = BackupJobInfo.read(in);
+            }
+        }
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(super.toString());
         sb.append(", state: ").append(state.name());
+        if (baseJobInfo != null) {
+            sb.append(", base snapshot: ").append(baseJobInfo.name);
+        }
         return sb.toString();
     }
 }
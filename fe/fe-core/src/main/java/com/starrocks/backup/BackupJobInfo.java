@@ -75,6 +75,9 @@ public class BackupJobInfo implements Writable {
     public int metaVersion;
     public int starrocksMetaVersion;
 
+    // label of the base snapshot if this is an incremental backup, null otherwise
+    public String baseLabel;
+
     // This map is used to save the table alias mapping info when processing a restore job.
     // origin -> alias
     public Map<String, String> tblAlias = Maps.newHashMap();
@@ -152,11 +155,24 @@ public class BackupJobInfo implements Writable {
         public String name;
         public long id;
         public long version;
+        // label of the snapshot which holds the files of this partition.
+        // null means the files are in this snapshot, otherwise the partition is not changed since the
+        // base snapshot of an incremental backup, and its files are reused from the given snapshot.
+        public String snapshotLabel;
         public Map<String, BackupIndexInfo> indexes = Maps.newHashMap();
 
         public BackupIndexInfo getIdx(String idxName) {
             return indexes.get(idxName);
         }
+
+        public BackupIndexInfo getIdx(long idxId) {
+            for (BackupIndexInfo idxInfo : indexes.values()) {
+                if (idxInfo.id == idxId) {
+                    return idxInfo;
+                }
+            }
+            return null;
+        }
     }
 
     public static class BackupIndexInfo {
@@ -227,8 +243,68 @@ public class BackupJobInfo implements Writable {
         return Joiner.on("/").join(pathSeg);
     }
 
+    // Return the label of snapshot which holds the files of the given partition.
+    public String getSnapshotLabel(IdChain ids) {
+        for (BackupTableInfo tblInfo : tables.values()) {
+            if (tblInfo.id != ids.getTblId()) {
+                continue;
+            }
+            for (BackupPartitionInfo partInfo : tblInfo.partitions.values()) {
+                if (partInfo.id == ids.getPartId() && partInfo.snapshotLabel != null) {
+                    return partInfo.snapshotLabel;
+                }
+            }
+        }
+        return name;
+    }
+
+    /*
+     * Return the partition info in this snapshot if the partition is not changed since this snapshot,
+     * which means the partition, its visible indexes and tablets are the same, and its visible version
+     * is not advanced. Otherwise return null.
+     */
+    public BackupPartitionInfo getUnchangedPartition(OlapTable tbl, Partition partition) {
+        BackupTableInfo tblInfo = tables.get(tbl.getName());
+        if (tblInfo == null || tblInfo.id != tbl.getId()) {
+            return null;
+        }
+        BackupPartitionInfo partInfo = tblInfo.getPartInfo(partition.getName());
+        if (partInfo == null || partInfo.id != partition.getId() || partInfo.version != partition.getVisibleVersion()) {
+            return null;
+        }
+
+        List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.VISIBLE);
+        if (indexes.size() != partInfo.indexes.size()) {
+            return null;
+        }
+        for (MaterializedIndex index : indexes) {
+            BackupIndexInfo idxInfo = partInfo.getIdx(index.getId());
+            if (idxInfo == null || idxInfo.schemaHash != tbl.getSchemaHashByIndexId(index.getId())
+                    || idxInfo.tablets.size() != index.getTablets().size()) {
+                return null;
+            }
+            for (Tablet tablet : index.getTablets()) {
+                if (idxInfo.getTablet(tablet.getId()) == null) {
+                    return null;
+                }
+            }
+        }
+        return partInfo;
+    }
+
     public static BackupJobInfo fromCatalog(long backupTime, String label, String dbName, long dbId,
                                             Collection<Table> tbls, Map<Long, SnapshotInfo> snapshotInfos) {
+        return fromCatalog(backupTime, label, dbName, dbId, tbls, snapshotInfos, null);
+    }
+
+    /*
+     * Generate the job info from the copied tables.
+     * If baseJobInfo is not null, the partitions which are not changed since the base snapshot
+     * are not snapshotted, they refer to the files of the snapshot which holds them instead.
+     */
+    public static BackupJobInfo fromCatalog(long backupTime, String label, String dbName, long dbId,
+                                            Collection<Table> tbls, Map<Long, SnapshotInfo> snapshotInfos,
+                                            BackupJobInfo baseJobInfo) {
 
         BackupJobInfo jobInfo = new BackupJobInfo();
         jobInfo.backupTime = backupTime;
@@ -238,6 +314,9 @@ public class BackupJobInfo implements Writable {
         jobInfo.success = true;
         jobInfo.metaVersion = FeConstants.meta_version;
         jobInfo.starrocksMetaVersion = FeConstants.starrocks_meta_version;
+        if (baseJobInfo != null) {
+            jobInfo.baseLabel = baseJobInfo.name;
+        }
 
         // tbls
         for (Table tbl : tbls) {
@@ -253,6 +332,27 @@ public class BackupJobInfo implements Writable {
                 partitionInfo.name = partition.getName();
                 partitionInfo.version = partition.getVisibleVersion();
                 tableInfo.partitions.put(partitionInfo.name, partitionInfo);
+                BackupPartitionInfo basePartInfo = baseJobInfo == null ? null
+                        : baseJobInfo.getUnchangedPartition(olapTbl, partition);
+                if (basePartInfo != null) {
+                    // reuse the files of base snapshot, the base partition may also refer to an earlier one
+                    partitionInfo.snapshotLabel = basePartInfo.snapshotLabel != null ? basePartInfo.snapshotLabel
+                            : baseJobInfo.name;
+                    for (BackupIndexInfo baseIdxInfo : basePartInfo.indexes.values()) {
+                        BackupIndexInfo idxInfo = new BackupIndexInfo();
+                        idxInfo.id = baseIdxInfo.id;
+                        idxInfo.name = baseIdxInfo.name;
+                        idxInfo.schemaHash = baseIdxInfo.schemaHash;
+                        partitionInfo.indexes.put(idxInfo.name, idxInfo);
+                        for (BackupTabletInfo baseTabletInfo : baseIdxInfo.tablets) {
+                            BackupTabletInfo tabletInfo = new BackupTabletInfo();
+                            tabletInfo.id = baseTabletInfo.id;
+                            tabletInfo.files.addAll(baseTabletInfo.files);
+                            idxInfo.tablets.add(tabletInfo);
+                        }
+                    }
+                    continue;
+                }
                 // indexes
                 for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
                     BackupIndexInfo idxInfo = new BackupIndexInfo();
@@ -292,6 +392,7 @@ public class BackupJobInfo implements Writable {
          *   "backup_result": "succeed",
          *   "meta_version" : 40 // for community meta version, optional
          *   "starrocks_meta_version" : 1  //for starrocks meta version, optional
+         *   "base_label": "snapshot0" // for incremental backup, optional
          *   "backup_objects": {
          *       "table1": {
          *           "partitions": {
@@ -318,6 +419,7 @@ public class BackupJobInfo implements Writable {
          *                   },
          *                   "id": 10007
          *                   "version": 10
+         *                   "snapshot_label": "snapshot0" // only if reused from base snapshot, optional
          *               },
          *           },
          *           "id": 10001
@@ -343,6 +445,9 @@ public class BackupJobInfo implements Writable {
             // starrocks_meta_version does not exist
             jobInfo.starrocksMetaVersion = FeConstants.starrocks_meta_version;
         }
+        if (root.has("base_label")) {
+            jobInfo.baseLabel = root.getString("base_label");
+        }
 
         JSONObject backupObjs = root.getJSONObject("backup_objects");
         String[] tblNames = JSONObject.getNames(backupObjs);
@@ -359,6 +464,9 @@ public class BackupJobInfo implements Writable {
                 JSONObject part = parts.getJSONObject(partName);
                 partInfo.id = part.getLong("id");
                 partInfo.version = part.getLong("version");
+                if (part.has("snapshot_label")) {
+                    partInfo.snapshotLabel = part.getString("snapshot_label");
+                }
                 JSONObject indexes = part.getJSONObject("indexes");
                 String[] indexNames = JSONObject.getNames(indexes);
                 for (String idxName : indexNames) {
@@ -440,6 +548,9 @@ public class BackupJobInfo implements Writable {
         root.put("backup_objects", backupObj);
         root.put("meta_version", FeConstants.meta_version);
         root.put("starrocks_meta_version", FeConstants.starrocks_meta_version);
+        if (baseLabel != null) {
+            root.put("base_label", baseLabel);
+        }
 
         for (BackupTableInfo tblInfo : tables.values()) {
             JSONObject tbl = new JSONObject();
@@ -455,6 +566,9 @@ public class BackupJobInfo implements Writable {
                     part.put("version", partInfo.version);
                     // write a version_hash for compatibility
                     part.put("version_hash", 0);
+                    if (partInfo.snapshotLabel != null) {
+                        part.put("snapshot_label", partInfo.snapshotLabel);
+                    }
                     JSONObject indexes = new JSONObject();
                     part.put("indexes", indexes);
                     for (BackupIndexInfo idxInfo : partInfo.indexes.values()) {
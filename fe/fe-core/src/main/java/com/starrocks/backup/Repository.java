@@ -334,6 +334,34 @@ public class Repository implements Writable {
         return Status.OK;
     }
 
+    // get the job info file of the latest backup with the given label
+    public Status getLatestSnapshotInfoFile(String label, List<BackupJobInfo> infos) {
+        // eg: /location/__palo_repository_repo_name/__ss_my_snap/__info_*
+        String infoFilePath = assembleJobInfoFilePath(label, -1);
+        List<RemoteFile> results = Lists.newArrayList();
+        Status st = storage.list(infoFilePath + "*", results);
+        if (!st.ok()) {
+            return st;
+        }
+
+        // timestamp is formatted as yyyy-MM-dd-HH-mm-ss-SSS, so the latest one is the max one
+        String latestTimestamp = null;
+        for (RemoteFile file : results) {
+            Pair<String, String> pureFileName = decodeFileNameWithChecksum(file.getName());
+            if (pureFileName == null) {
+                continue;
+            }
+            String timestamp = disjoinPrefix(PREFIX_JOB_INFO, pureFileName.first);
+            if (latestTimestamp == null || timestamp.compareTo(latestTimestamp) > 0) {
+                latestTimestamp = timestamp;
+            }
+        }
+        if (latestTimestamp == null) {
+            return new Status(ErrCode.NOT_FOUND, "no job info file of snapshot " + label);
+        }
+        return getSnapshotInfoFile(label, latestTimestamp, infos);
+    }
+
     public Status getSnapshotMetaFile(String label, List<BackupMeta> backupMetas, int metaVersion,
                                       int starrocksMetaVersion) {
         String remoteMetaFilePath = assembleMetaInfoFilePath(label);
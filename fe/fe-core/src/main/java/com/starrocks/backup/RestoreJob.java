@@ -1013,8 +1013,8 @@ public class RestoreJob extends AbstractJob {
                 for (Long beId : beToSnapshots.keySet()) {
                     List<SnapshotInfo> beSnapshotInfos = beToSnapshots.get(beId);
                     int totalNum = beSnapshotInfos.size();
-                    // each backend allot at most 3 tasks
-                    int batchNum = Math.min(totalNum, 3);
+                    // each backend allot at most max_backup_restore_task_num_per_be tasks
+                    int batchNum = Math.min(totalNum, Math.max(Config.max_backup_restore_task_num_per_be, 1));
                     // each task contains several upload sub tasks
                     int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
                     LOG.debug("backend {} has {} batch, total {} tasks, {}",
@@ -1091,7 +1091,9 @@ public class RestoreJob extends AbstractJob {
                             // eg:
                             // bos://location/__starrocks_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
                             // __tbl_10001/__part_10002/_idx_10001/__10003
-                            String src = repo.getRepoPath(label, repoTabletPath);
+                            // the files of partition which is not changed in an incremental backup
+                            // are held by its base snapshot
+                            String src = repo.getRepoPath(jobInfo.getSnapshotLabel(repoIds), repoTabletPath);
                             SnapshotInfo snapshotInfo = snapshotInfos.get(info.getTabletId(), info.getBeId());
                             Preconditions.checkNotNull(snapshotInfo, info.getTabletId() + "-" + info.getBeId());
                             // download to previous exist snapshot dir
@@ -0,0 +1,220 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An async materialized view is an olap table created by CTAS with async materialized view properties.
+ * Its content is the result of the definition query, refreshed in background by
+ * {@link AsyncMaterializedViewRefresher}, and it can be used to rewrite SPJG queries on its base tables.
+ * <p>
+ * baseTableVersions records the visible version of every base table partition when the view was
+ * last refreshed, which is used to decide whether the view is fresh and which partitions to refresh.
+ */
+public class AsyncMaterializedView implements Writable {
+    public static final String PROPERTIES_REFRESH_INTERVAL = "async_mv_refresh_interval_sec";
+    public static final String PROPERTIES_PARTITION_REF_TABLE = "async_mv_partition_ref_table";
+
+    public static final long NONE_REF_TABLE = -1;
+
+    // equals to the id of the table which stores the view data
+    @SerializedName("id")
+    private long id;
+
+    @SerializedName("dbId")
+    private long dbId;
+
+    @SerializedName("definition")
+    private String definition;
+
+    // base table id -> db id
+    @SerializedName("baseTables")
+    private Map<Long, Long> baseTables;
+
+    @SerializedName("refreshIntervalSec")
+    private long refreshIntervalSec;
+
+    // the base table whose partition changes can be applied to the view partition by partition
+    @SerializedName("partitionRefTableId")
+    private long partitionRefTableId = NONE_REF_TABLE;
+
+    @SerializedName("lastRefreshTime")
+    private long lastRefreshTime;
+
+    // base table id -> (partition id -> visible version)
+    @SerializedName("baseTableVersions")
+    private Map<Long, Map<Long, Long>> baseTableVersions;
+
+    public AsyncMaterializedView(long id, long dbId, String definition, Map<Long, Long> baseTables,
+                                 long refreshIntervalSec, long partitionRefTableId) {
+        this.id = id;
+        this.dbId = dbId;
+        this.definition = definition;
+        this.baseTables = baseTables;
+        this.refreshIntervalSec = refreshIntervalSec;
+        this.partitionRefTableId = partitionRefTableId;
+        this.baseTableVersions = Maps.newHashMap();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getDbId() {
+        return dbId;
+    }
+
+    public String getDefinition() {
+        return definition;
+    }
+
+    public Map<Long, Long> getBaseTables() {
+        return baseTables;
+    }
+
+    public long getRefreshIntervalSec() {
+        return refreshIntervalSec;
+    }
+
+    public long getPartitionRefTableId() {
+        return partitionRefTableId;
+    }
+
+    public long getLastRefreshTime() {
+        return lastRefreshTime;
+    }
+
+    public Map<Long, Map<Long, Long>> getBaseTableVersions() {
+        return baseTableVersions;
+    }
+
+    public void setRefreshState(long lastRefreshTime, Map<Long, Map<Long, Long>> baseTableVersions) {
+        this.lastRefreshTime = lastRefreshTime;
+        this.baseTableVersions = baseTableVersions;
+    }
+
+    /**
+     * Return the view stored in another table, which is used when the view table is swapped with a table
+     * holding the recomputed data.
+     */
+    public AsyncMaterializedView moveTo(long tableId) {
+        AsyncMaterializedView mv = new AsyncMaterializedView(tableId, dbId, definition, baseTables,
+                refreshIntervalSec, partitionRefTableId);
+        mv.setRefreshState(lastRefreshTime, baseTableVersions);
+        return mv;
+    }
+
+    public OlapTable getTable() {
+        Database db = Catalog.getCurrentCatalog().getDb(dbId);
+        if (db == null) {
+            return null;
+        }
+        Table table = db.getTable(id);
+        if (!(table instanceof OlapTable)) {
+            return null;
+        }
+        return (OlapTable) table;
+    }
+
+    /**
+     * Collect the visible version of every partition of the base tables,
+     * return null if any base table has been dropped.
+     */
+    public Map<Long, Map<Long, Long>> collectBaseTableVersions() {
+        Map<Long, Map<Long, Long>> versions = Maps.newHashMap();
+        for (Map.Entry<Long, Long> entry : baseTables.entrySet()) {
+            Database db = Catalog.getCurrentCatalog().getDb(entry.getValue());
+            if (db == null) {
+                return null;
+            }
+            Table table = db.getTable(entry.getKey());
+            if (!(table instanceof OlapTable)) {
+                return null;
+            }
+            Map<Long, Long> partitionVersions = Maps.newHashMap();
+            for (Partition partition : ((OlapTable) table).getPartitions()) {
+                partitionVersions.put(partition.getId(), partition.getVisibleVersion());
+            }
+            versions.put(entry.getKey(), partitionVersions);
+        }
+        return versions;
+    }
+
+    /**
+     * The view is fresh if no base table partition has been loaded, added or dropped since the last refresh.
+     */
+    public boolean isFresh() {
+        return baseTableVersions.equals(collectBaseTableVersions());
+    }
+
+    /**
+     * Whether the view can be used to answer queries, the view can be stale within the given tolerance.
+     */
+    public boolean isUsable(long stalenessSecond) {
+        if (lastRefreshTime <= 0) {
+            return false;
+        }
+        if (stalenessSecond > 0 && System.currentTimeMillis() - lastRefreshTime <= stalenessSecond * 1000) {
+            return true;
+        }
+        return isFresh();
+    }
+
+    public boolean needRefresh(long now) {
+        return now - lastRefreshTime >= refreshIntervalSec * 1000;
+    }
+
+    /**
+     * Remove the async materialized view properties from table properties, and return them.
+     */
+    public static Map<String, String> extractProperties(Map<String, String> properties) {
+        Map<String, String> mvProperties = Maps.newHashMap();
+        if (properties == null) {
+            return mvProperties;
+        }
+        Iterator<Map.Entry<String, String>> iterator = properties.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, String> entry = iterator.next();
+            if (entry.getKey().equalsIgnoreCase(PROPERTIES_REFRESH_INTERVAL) ||
+                    entry.getKey().equalsIgnoreCase(PROPERTIES_PARTITION_REF_TABLE)) {
+                mvProperties.put(entry.getKey().toLowerCase(), entry.getValue());
+                iterator.remove();
+            }
+        }
+        return mvProperties;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        String s = GsonUtils.GSON.toJson(this);
+        Text.writeString(out, s);
+    }
+
+    public static AsyncMaterializedView read(DataInput in) throws IOException {
+        String s = Text.readString(in);
+        return GsonUtils.GSON.fromJson(s, AsyncMaterializedView.class);
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncMaterializedView{" +
+                "id=" + id +
+                ", dbId=" + dbId +
+                ", baseTables=" + baseTables +
+                ", refreshIntervalSec=" + refreshIntervalSec +
+                ", partitionRefTableId=" + partitionRefTableId +
+                ", lastRefreshTime=" + lastRefreshTime +
+                '}';
+    }
+}
@@ -0,0 +1,265 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.analysis.CreateTableAsSelectStmt;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.SlotRef;
+import com.starrocks.analysis.TableName;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.Pair;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.analyzer.Field;
+import com.starrocks.sql.analyzer.FieldId;
+import com.starrocks.sql.analyzer.ViewDefBuilder;
+import com.starrocks.sql.ast.JoinRelation;
+import com.starrocks.sql.ast.QueryRelation;
+import com.starrocks.sql.ast.Relation;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.SubqueryRelation;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.optimizer.rule.mv.AsyncMaterializedViewRule;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AsyncMaterializedViewMgr is employed by Catalog to manage the metadata of async materialized views.
+ */
+public class AsyncMaterializedViewMgr implements Writable {
+    private static final Logger LOG = LogManager.getLogger(AsyncMaterializedViewMgr.class);
+
+    // materialized view id -> materialized view
+    private final Map<Long, AsyncMaterializedView> materializedViews = Maps.newConcurrentMap();
+
+    /**
+     * Build the async materialized view from CTAS statement after the table has been created,
+     * the base table versions must be collected before the table is populated.
+     */
+    public AsyncMaterializedView prepareAsyncMaterializedView(CreateTableAsSelectStmt stmt) throws DdlException {
+        Catalog catalog = Catalog.getCurrentCatalog();
+        TableName mvName = stmt.getCreateTableStmt().getDbTbl();
+        Database db = catalog.getDb(mvName.getDb());
+        if (db == null) {
+            throw new DdlException("Unknown database " + mvName.getDb());
+        }
+        Table mvTable = db.getTable(mvName.getTbl());
+        if (!(mvTable instanceof OlapTable)) {
+            throw new DdlException("Async materialized view only supports olap table");
+        }
+
+        Map<String, String> properties = stmt.getAsyncMaterializedViewProperties();
+        long refreshIntervalSec;
+        try {
+            refreshIntervalSec = Long.parseLong(properties.get(AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL));
+        } catch (NumberFormatException e) {
+            throw new DdlException("Invalid " + AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL + ": "
+                    + properties.get(AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL));
+        }
+        if (refreshIntervalSec <= 0) {
+            throw new DdlException(AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL + " must be positive");
+        }
+
+        Map<Long, Long> baseTables = Maps.newHashMap();
+        Map<String, Table> nameToBaseTable = Maps.newHashMap();
+        for (Map.Entry<TableName, Table> entry : AnalyzerUtils.collectAllTable(stmt.getQueryStatement()).entrySet()) {
+            Table table = entry.getValue();
+            if (!(table instanceof OlapTable)) {
+                throw new DdlException("Async materialized view only supports olap base tables, "
+                        + table.getName() + " is not");
+            }
+            Database baseDb = catalog.getDb(entry.getKey().getDb());
+            if (baseDb == null) {
+                throw new DdlException("Unknown database " + entry.getKey().getDb());
+            }
+            baseTables.put(table.getId(), baseDb.getId());
+            nameToBaseTable.put(table.getName(), table);
+        }
+
+        long partitionRefTableId = AsyncMaterializedView.NONE_REF_TABLE;
+        String refTableName = properties.get(AsyncMaterializedView.PROPERTIES_PARTITION_REF_TABLE);
+        if (refTableName != null) {
+            Table refTable = nameToBaseTable.get(refTableName);
+            if (refTable == null) {
+                throw new DdlException("Partition ref table " + refTableName + " is not a base table");
+            }
+            if (!isSingleColumnRangePartitioned((OlapTable) refTable)) {
+                throw new DdlException("Partition ref table " + refTableName
+                        + " must be range partitioned by single column");
+            }
+            if (!isSingleColumnRangePartitioned((OlapTable) mvTable)) {
+                throw new DdlException("Async materialized view with partition ref table"
+                        + " must be range partitioned by single column");
+            }
+            checkPartitionColumnDerived(stmt, (OlapTable) mvTable, (OlapTable) refTable);
+            partitionRefTableId = refTable.getId();
+        }
+
+        String definition = ViewDefBuilder.build(stmt.getQueryStatement());
+        AsyncMaterializedView mv = new AsyncMaterializedView(mvTable.getId(), db.getId(), definition, baseTables,
+                refreshIntervalSec, partitionRefTableId);
+        mv.setRefreshState(System.currentTimeMillis(), mv.collectBaseTableVersions());
+        return mv;
+    }
+
+    /**
+     * The view is refreshed by the changed ranges of the ref table partitions, which is only correct if
+     * the view partition column is copied from the ref table partition column.
+     */
+    private static void checkPartitionColumnDerived(CreateTableAsSelectStmt stmt, OlapTable mvTable,
+                                                    OlapTable refTable) throws DdlException {
+        Column mvColumn = ((RangePartitionInfo) mvTable.getPartitionInfo()).getPartitionColumns().get(0);
+        Column refColumn = ((RangePartitionInfo) refTable.getPartitionInfo()).getPartitionColumns().get(0);
+        int index = mvTable.getBaseSchema().indexOf(mvColumn);
+        Pair<Table, Column> source = index < 0 ? null :
+                getSourceColumn(stmt.getQueryStatement().getQueryRelation(), index);
+        if (source == null || source.first.getId() != refTable.getId() ||
+                !source.second.getName().equalsIgnoreCase(refColumn.getName())) {
+            throw new DdlException("Partition column " + mvColumn.getName() + " of async materialized view"
+                    + " must be the partition column " + refColumn.getName() + " of partition ref table "
+                    + refTable.getName());
+        }
+    }
+
+    /**
+     * Trace an output column of the analyzed query back to the base table column it is copied from,
+     * return null if the column is computed or comes from a set operation.
+     */
+    public static Pair<Table, Column> getSourceColumn(QueryRelation query, int index) {
+        if (!(query instanceof SelectRelation)) {
+            return null;
+        }
+        SelectRelation select = (SelectRelation) query;
+        Expr expr = select.getOutputExpression().get(index);
+        if (!(expr instanceof SlotRef)) {
+            return null;
+        }
+        FieldId fieldId = select.getColumnReferences().get(expr);
+        Relation from = select.getRelation();
+        if (fieldId == null || !fieldId.getRelationId().equals(from.getScope().getRelationId())) {
+            return null;
+        }
+        return getSourceColumn(from, from.getRelationFields().getFieldByIndex(fieldId.getFieldIndex()));
+    }
+
+    private static Pair<Table, Column> getSourceColumn(Relation relation, Field field) {
+        if (relation instanceof TableRelation) {
+            TableRelation tableRelation = (TableRelation) relation;
+            Column column = tableRelation.getColumn(field);
+            return column == null ? null : new Pair<>(tableRelation.getTable(), column);
+        } else if (relation instanceof JoinRelation) {
+            Pair<Table, Column> source = getSourceColumn(((JoinRelation) relation).getLeft(), field);
+            return source != null ? source : getSourceColumn(((JoinRelation) relation).getRight(), field);
+        } else if (relation instanceof SubqueryRelation) {
+            SubqueryRelation subquery = (SubqueryRelation) relation;
+            int index = subquery.getRelationFields().indexOf(field);
+            return index < 0 ? null : getSourceColumn(subquery.getQuery(), index);
+        }
+        return null;
+    }
+
+    public static boolean isSingleColumnRangePartitioned(OlapTable table) {
+        PartitionInfo partitionInfo = table.getPartitionInfo();
+        return partitionInfo.getType() == PartitionType.RANGE &&
+                ((RangePartitionInfo) partitionInfo).getPartitionColumns().size() == 1;
+    }
+
+    public void addAsyncMaterializedView(AsyncMaterializedView mv) {
+        materializedViews.put(mv.getId(), mv);
+        Catalog.getCurrentCatalog().getEditLog().logAddAsyncMaterializedView(mv);
+        LOG.info("add async materialized view: {}", mv);
+    }
+
+    public void updateRefreshState(AsyncMaterializedView mv, long refreshTime,
+                                   Map<Long, Map<Long, Long>> baseTableVersions) {
+        mv.setRefreshState(refreshTime, baseTableVersions);
+        Catalog.getCurrentCatalog().getEditLog().logAddAsyncMaterializedView(mv);
+    }
+
+    /**
+     * Replace the view by the one stored in another table, the new view is added before the old one is
+     * removed, so there is always a view with complete data.
+     */
+    public void replaceAsyncMaterializedView(AsyncMaterializedView oldMv, AsyncMaterializedView newMv) {
+        addAsyncMaterializedView(newMv);
+        removeAsyncMaterializedView(oldMv.getId());
+    }
+
+    public void removeAsyncMaterializedView(long id) {
+        AsyncMaterializedView mv = materializedViews.remove(id);
+        if (mv != null) {
+            AsyncMaterializedViewRule.invalidateViewDescriptor(id);
+            Catalog.getCurrentCatalog().getEditLog().logRemoveAsyncMaterializedView(mv);
+            LOG.info("remove async materialized view: {}", mv);
+        }
+    }
+
+    public void replayAddAsyncMaterializedView(AsyncMaterializedView mv) {
+        materializedViews.put(mv.getId(), mv);
+    }
+
+    public void replayRemoveAsyncMaterializedView(AsyncMaterializedView mv) {
+        materializedViews.remove(mv.getId());
+        AsyncMaterializedViewRule.invalidateViewDescriptor(mv.getId());
+    }
+
+    public AsyncMaterializedView getAsyncMaterializedView(long id) {
+        return materializedViews.get(id);
+    }
+
+    public List<AsyncMaterializedView> getAllAsyncMaterializedViews() {
+        return Lists.newArrayList(materializedViews.values());
+    }
+
+    /**
+     * Return the materialized views whose base tables are exactly the given tables.
+     */
+    public List<AsyncMaterializedView> getAsyncMaterializedViews(Set<Long> baseTableIds) {
+        List<AsyncMaterializedView> result = Lists.newArrayList();
+        for (AsyncMaterializedView mv : materializedViews.values()) {
+            if (mv.getBaseTables().keySet().equals(baseTableIds)) {
+                result.add(mv);
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return materializedViews.isEmpty();
+    }
+
+    public void readFields(DataInputStream dis) throws IOException {
+        String s = Text.readString(dis);
+        SerializeData data = GsonUtils.GSON.fromJson(s, SerializeData.class);
+        if (null != data && null != data.materializedViews) {
+            for (AsyncMaterializedView mv : data.materializedViews) {
+                replayAddAsyncMaterializedView(mv);
+            }
+        }
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        SerializeData data = new SerializeData();
+        data.materializedViews = getAllAsyncMaterializedViews();
+        String s = GsonUtils.GSON.toJson(data);
+        Text.writeString(out, s);
+    }
+
+    private static class SerializeData {
+        @SerializedName("materializedViews")
+        public List<AsyncMaterializedView> materializedViews;
+    }
+}
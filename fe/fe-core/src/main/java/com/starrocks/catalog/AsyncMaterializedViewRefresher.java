@@ -0,0 +1,298 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.cluster.ClusterNamespace;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.util.MasterDaemon;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryState;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.statistic.StatisticExecutor;
+import com.starrocks.statistic.StatisticUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Refresh async materialized views in background.
+ * <p>
+ * If the view is range partitioned by a single column, the view is refreshed partition by partition:
+ * the data of each partition is recomputed into a temporary partition, and then swapped in atomically.
+ * If only the partition ref table has changed since the last refresh, only the view partitions whose
+ * ranges intersect the changed ref table partitions are refreshed, otherwise all partitions are refreshed.
+ * If a changed ref table range is not fully covered by the view partitions, the rows out of the view partitions
+ * would be lost by the partition refresh, so the view is refreshed completely instead.
+ * Other views are fully recomputed into a temporary table, which is swapped with the view table.
+ */
+public class AsyncMaterializedViewRefresher extends MasterDaemon {
+    private static final Logger LOG = LogManager.getLogger(AsyncMaterializedViewRefresher.class);
+
+    private static final String TEMP_PARTITION_PREFIX = "mv_tmp_";
+    private static final String TEMP_TABLE_PREFIX = "mv_tmp_";
+
+    public AsyncMaterializedViewRefresher() {
+        super("AsyncMaterializedViewRefresher", Config.async_materialized_view_check_interval_seconds * 1000);
+    }
+
+    @Override
+    protected void runAfterCatalogReady() {
+        // update interval
+        if (getInterval() != Config.async_materialized_view_check_interval_seconds * 1000) {
+            setInterval(Config.async_materialized_view_check_interval_seconds * 1000);
+        }
+
+        if (!Config.enable_async_materialized_view_refresh) {
+            return;
+        }
+
+        AsyncMaterializedViewMgr mgr = Catalog.getCurrentCatalog().getAsyncMaterializedViewMgr();
+        for (AsyncMaterializedView mv : mgr.getAllAsyncMaterializedViews()) {
+            OlapTable table = mv.getTable();
+            if (table == null) {
+                mgr.removeAsyncMaterializedView(mv.getId());
+                continue;
+            }
+            if (!mv.needRefresh(System.currentTimeMillis())) {
+                continue;
+            }
+            try {
+                refresh(mv, table);
+            } catch (Exception e) {
+                LOG.warn("refresh async materialized view {} failed", table.getName(), e);
+            }
+        }
+    }
+
+    private void refresh(AsyncMaterializedView mv, OlapTable table) throws Exception {
+        AsyncMaterializedViewMgr mgr = Catalog.getCurrentCatalog().getAsyncMaterializedViewMgr();
+        Database db = Catalog.getCurrentCatalog().getDb(mv.getDbId());
+        if (db == null) {
+            mgr.removeAsyncMaterializedView(mv.getId());
+            return;
+        }
+
+        long refreshTime = System.currentTimeMillis();
+        Map<Long, Map<Long, Long>> versions;
+        db.readLock();
+        try {
+            versions = mv.collectBaseTableVersions();
+        } finally {
+            db.readUnlock();
+        }
+        if (versions == null) {
+            LOG.warn("base table of async materialized view {} has been dropped, remove it", table.getName());
+            mgr.removeAsyncMaterializedView(mv.getId());
+            return;
+        }
+        if (versions.equals(mv.getBaseTableVersions())) {
+            return;
+        }
+
+        if (AsyncMaterializedViewMgr.isSingleColumnRangePartitioned(table)) {
+            List<Partition> partitions = getPartitionsToRefresh(mv, table, versions);
+            if (partitions != null) {
+                LOG.info("refresh {} partitions of async materialized view {}", partitions.size(), table.getName());
+                for (Partition partition : partitions) {
+                    refreshPartition(db, table, mv, partition);
+                }
+                mgr.updateRefreshState(mv, refreshTime, versions);
+                return;
+            }
+            LOG.warn("changed ranges of partition ref table are not covered by partitions of"
+                    + " async materialized view {}", table.getName());
+        }
+        LOG.info("refresh async materialized view {} completely", table.getName());
+        refreshCompletely(db, table, mv, refreshTime, versions);
+    }
+
+    /**
+     * Recompute the view into a temporary table and swap it with the view table, so the readers see either
+     * the old or the new data of the view. The swapped in table has a new id, the view is moved to it.
+     */
+    private void refreshCompletely(Database db, OlapTable table, AsyncMaterializedView mv, long refreshTime,
+                                   Map<Long, Map<Long, Long>> versions) throws Exception {
+        String tableSql = getTableSql(db, table);
+        String tempTableName = TEMP_TABLE_PREFIX + table.getName();
+        String tempTableSql = getTableSql(db, tempTableName);
+
+        if (db.getTable(tempTableName) != null) {
+            executeSql(db, "DROP TABLE " + tempTableSql + " FORCE");
+        }
+        executeSql(db, "CREATE TABLE " + tempTableSql + " LIKE " + tableSql);
+        try {
+            executeSql(db, "INSERT INTO " + tempTableSql + " " + mv.getDefinition());
+            executeSql(db, "ALTER TABLE " + tableSql + " SWAP WITH `" + tempTableName + "`");
+        } catch (Exception e) {
+            dropTempTable(db, tempTableSql);
+            throw e;
+        }
+
+        Table refreshedTable = db.getTable(table.getName());
+        if (refreshedTable == null) {
+            throw new DdlException("Async materialized view " + table.getName() + " is dropped while refreshing");
+        }
+        AsyncMaterializedView refreshed = mv.moveTo(refreshedTable.getId());
+        refreshed.setRefreshState(refreshTime, versions);
+        Catalog.getCurrentCatalog().getAsyncMaterializedViewMgr().replaceAsyncMaterializedView(mv, refreshed);
+        // the old data of the view
+        dropTempTable(db, tempTableSql);
+    }
+
+    private static void dropTempTable(Database db, String tempTableSql) {
+        try {
+            executeSql(db, "DROP TABLE IF EXISTS " + tempTableSql + " FORCE");
+        } catch (Exception e) {
+            LOG.warn("drop temporary table {} failed", tempTableSql, e);
+        }
+    }
+
+    /**
+     * Return the view partitions to refresh, or null if the view must be refreshed completely.
+     */
+    private List<Partition> getPartitionsToRefresh(AsyncMaterializedView mv, OlapTable table,
+                                                   Map<Long, Map<Long, Long>> versions) {
+        List<Partition> allPartitions = Lists.newArrayList(table.getPartitions());
+        long refTableId = mv.getPartitionRefTableId();
+        if (refTableId == AsyncMaterializedView.NONE_REF_TABLE) {
+            return allPartitions;
+        }
+
+        Map<Long, Map<Long, Long>> lastVersions = mv.getBaseTableVersions();
+        for (Long tableId : versions.keySet()) {
+            if (tableId != refTableId && !Objects.equals(versions.get(tableId), lastVersions.get(tableId))) {
+                return allPartitions;
+            }
+        }
+
+        Map<Long, Long> refVersions = versions.get(refTableId);
+        Map<Long, Long> lastRefVersions = lastVersions.get(refTableId);
+        if (lastRefVersions == null || !refVersions.keySet().containsAll(lastRefVersions.keySet())) {
+            // some ref table partitions were dropped, their ranges are unknown now
+            return allPartitions;
+        }
+
+        Database refDb = Catalog.getCurrentCatalog().getDb(mv.getBaseTables().get(refTableId));
+        Table refTable = refDb == null ? null : refDb.getTable(refTableId);
+        if (!(refTable instanceof OlapTable)) {
+            return allPartitions;
+        }
+        RangePartitionInfo refPartitionInfo = (RangePartitionInfo) ((OlapTable) refTable).getPartitionInfo();
+        RangePartitionInfo mvPartitionInfo = (RangePartitionInfo) table.getPartitionInfo();
+        if (!refPartitionInfo.getPartitionColumns().get(0).getType()
+                .equals(mvPartitionInfo.getPartitionColumns().get(0).getType())) {
+            return allPartitions;
+        }
+
+        List<Range<PartitionKey>> changedRanges = Lists.newArrayList();
+        for (Map.Entry<Long, Long> entry : refVersions.entrySet()) {
+            if (!entry.getValue().equals(lastRefVersions.get(entry.getKey()))) {
+                Range<PartitionKey> range = refPartitionInfo.getIdToRange(false).get(entry.getKey());
+                if (range == null) {
+                    return allPartitions;
+                }
+                changedRanges.add(range);
+            }
+        }
+
+        RangeSet<PartitionKey> mvRanges = TreeRangeSet.create();
+        for (Partition partition : allPartitions) {
+            mvRanges.add(mvPartitionInfo.getRange(partition.getId()));
+        }
+        for (Range<PartitionKey> changedRange : changedRanges) {
+            if (!mvRanges.encloses(changedRange)) {
+                return null;
+            }
+        }
+
+        List<Partition> partitions = Lists.newArrayList();
+        for (Partition partition : allPartitions) {
+            Range<PartitionKey> mvRange = mvPartitionInfo.getRange(partition.getId());
+            for (Range<PartitionKey> changedRange : changedRanges) {
+                if (mvRange.isConnected(changedRange) && !mvRange.intersection(changedRange).isEmpty()) {
+                    partitions.add(partition);
+                    break;
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private void refreshPartition(Database db, OlapTable table, AsyncMaterializedView mv, Partition partition)
+            throws Exception {
+        RangePartitionInfo partitionInfo = (RangePartitionInfo) table.getPartitionInfo();
+        Range<PartitionKey> range = partitionInfo.getRange(partition.getId());
+        String columnName = partitionInfo.getPartitionColumns().get(0).getName();
+        String tableSql = getTableSql(db, table);
+        String tempPartitionName = TEMP_PARTITION_PREFIX + partition.getName();
+
+        if (table.getPartition(tempPartitionName, true) != null) {
+            executeSql(db, "ALTER TABLE " + tableSql + " DROP TEMPORARY PARTITION `" + tempPartitionName + "`");
+        }
+        executeSql(db, "ALTER TABLE " + tableSql + " ADD TEMPORARY PARTITION `" + tempPartitionName + "` VALUES ["
+                + range.lowerEndpoint().toSql() + ", " + range.upperEndpoint().toSql() + ")");
+
+        try {
+            StringBuilder insertSql = new StringBuilder();
+            insertSql.append("INSERT INTO ").append(tableSql)
+                    .append(" TEMPORARY PARTITION(`").append(tempPartitionName).append("`)")
+                    .append(" SELECT * FROM (").append(mv.getDefinition()).append(") mv_source");
+            List<String> predicates = Lists.newArrayList();
+            if (!range.lowerEndpoint().isMinValue()) {
+                predicates.add("mv_source.`" + columnName + "` >= "
+                        + range.lowerEndpoint().getKeys().get(0).toSql());
+            }
+            if (!range.upperEndpoint().isMaxValue()) {
+                predicates.add("mv_source.`" + columnName + "` < "
+                        + range.upperEndpoint().getKeys().get(0).toSql());
+            }
+            if (!predicates.isEmpty()) {
+                insertSql.append(" WHERE ").append(String.join(" AND ", predicates));
+            }
+            executeSql(db, insertSql.toString());
+
+            executeSql(db, "ALTER TABLE " + tableSql + " REPLACE PARTITION (`" + partition.getName()
+                    + "`) WITH TEMPORARY PARTITION (`" + tempPartitionName + "`)");
+        } catch (Exception e) {
+            try {
+                executeSql(db, "ALTER TABLE " + tableSql + " DROP TEMPORARY PARTITION `" + tempPartitionName + "`");
+            } catch (Exception dropException) {
+                LOG.warn("drop temporary partition {} failed", tempPartitionName, dropException);
+            }
+            throw e;
+        }
+    }
+
+    private static String getTableSql(Database db, OlapTable table) {
+        return getTableSql(db, table.getName());
+    }
+
+    private static String getTableSql(Database db, String tableName) {
+        return "`" + ClusterNamespace.getNameFromFullName(db.getFullName()) + "`.`" + tableName + "`";
+    }
+
+    private static void executeSql(Database db, String sql) throws Exception {
+        LOG.debug("Refresh async materialized view SQL: {}", sql);
+
+        ConnectContext context = StatisticUtils.buildConnectContext();
+        context.setDatabase(db.getFullName());
+        // the view itself must not be used to answer its own refresh query
+        context.getSessionVariable().setEnableAsyncMaterializedViewRewrite(false);
+        StatementBase parsedStmt = StatisticExecutor.parseSQL(sql, context);
+        StmtExecutor executor = new StmtExecutor(context, parsedStmt);
+        executor.execute();
+
+        if (context.getState().getStateType() == QueryState.MysqlStateType.ERR) {
+            throw new DdlException(context.getState().getErrorMessage());
+        }
+    }
+}
@@ -151,6 +151,7 @@ import com.starrocks.ha.MasterInfo;
 import com.starrocks.http.meta.MetaBaseAction;
 import com.starrocks.journal.JournalCursor;
 import com.starrocks.journal.JournalEntity;
+import com.starrocks.journal.PipelinedJournalReplayer;
 import com.starrocks.journal.bdbje.Timestamp;
 import com.starrocks.load.DeleteHandler;
 import com.starrocks.load.ExportChecker;
@@ -206,6 +207,7 @@ import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.VariableMgr;
 import com.starrocks.rpc.FrontendServiceProxy;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.optimizer.baseline.PlanBaselineMgr;
 import com.starrocks.sql.optimizer.statistics.CachedStatisticStorage;
 import com.starrocks.sql.optimizer.statistics.StatisticStorage;
 import com.starrocks.statistic.AnalyzeManager;
@@ -356,6 +358,10 @@ public class Catalog {
     private String token;
     // For checkpoint and observer memory replayed marker
     private AtomicLong replayedJournalId;
+    // the journal id which the running replay is going to replay to, used to compute the replay lag
+    private volatile long replayToJournalId = 0L;
+    // created on first use when pipelined journal replay is enabled
+    private PipelinedJournalReplayer pipelinedJournalReplayer;
 
     private static Catalog CHECKPOINT = null;
     private static long checkpointThreadId = -1;
@@ -436,6 +442,12 @@ public class Catalog {
 
     private WorkGroupMgr workGroupMgr;
 
+    private AsyncMaterializedViewMgr asyncMaterializedViewMgr;
+
+    private AsyncMaterializedViewRefresher asyncMaterializedViewRefresher;
+
+    private PlanBaselineMgr planBaselineMgr;
+
     private StarOSAgent starOSAgent;
 
     public List<Frontend> getFrontends(FrontendNodeType nodeType) {
@@ -575,6 +587,9 @@ public class Catalog {
         this.domainResolver = new DomainResolver(auth);
 
         this.workGroupMgr = new WorkGroupMgr(this);
+        this.asyncMaterializedViewMgr = new AsyncMaterializedViewMgr();
+        this.asyncMaterializedViewRefresher = new AsyncMaterializedViewRefresher();
+        this.planBaselineMgr = new PlanBaselineMgr();
 
         this.esRepository = new EsRepository();
         this.starRocksRepository = new StarRocksRepository();
@@ -674,6 +689,14 @@ public class Catalog {
         return workGroupMgr;
     }
 
+    public AsyncMaterializedViewMgr getAsyncMaterializedViewMgr() {
+        return asyncMaterializedViewMgr;
+    }
+
+    public PlanBaselineMgr getPlanBaselineMgr() {
+        return planBaselineMgr;
+    }
+
     public TabletScheduler getTabletScheduler() {
         return tabletScheduler;
     }
@@ -1369,6 +1392,7 @@ public class Catalog {
         updateDbUsedDataQuotaDaemon.start();
         statisticsMetaManager.start();
         statisticAutoCollector.start();
+        asyncMaterializedViewRefresher.start();
     }
 
     // start threads that should running on all FE
@@ -1566,6 +1590,10 @@ public class Catalog {
             checksum = loadAnalyze(dis, checksum);
             remoteChecksum = dis.readLong();
             checksum = loadWorkGroups(dis, checksum);
+            remoteChecksum = dis.readLong();
+            checksum = loadAsyncMaterializedViews(dis, checksum);
+            remoteChecksum = dis.readLong();
+            checksum = loadPlanBaselines(dis, checksum);
         } catch (EOFException exception) {
             LOG.warn("load image eof.", exception);
         } finally {
@@ -1913,6 +1941,36 @@ public class Catalog {
         return checksum;
     }
 
+    public long loadAsyncMaterializedViews(DataInputStream dis, long checksum) throws IOException {
+        try {
+            this.getAsyncMaterializedViewMgr().readFields(dis);
+            LOG.info("finished replaying async materialized views from image");
+        } catch (EOFException e) {
+            LOG.info("no async materialized views to replay.");
+        }
+        return checksum;
+    }
+
+    public long saveAsyncMaterializedViews(DataOutputStream dos, long checksum) throws IOException {
+        getAsyncMaterializedViewMgr().write(dos);
+        return checksum;
+    }
+
+    public long loadPlanBaselines(DataInputStream dis, long checksum) throws IOException {
+        try {
+            this.getPlanBaselineMgr().readFields(dis);
+            LOG.info("finished replaying plan baselines from image");
+        } catch (EOFException e) {
+            LOG.info("no plan baselines to replay.");
+        }
+        return checksum;
+    }
+
+    public long savePlanBaselines(DataOutputStream dos, long checksum) throws IOException {
+        getPlanBaselineMgr().write(dos);
+        return checksum;
+    }
+
     public long loadAuth(DataInputStream dis, long checksum) throws IOException {
         if (Catalog.getCurrentCatalogJournalVersion() >= FeMetaVersion.VERSION_43) {
             // CAN NOT use Auth.read(), cause this auth instance is already passed to DomainResolver
@@ -2044,6 +2102,10 @@ public class Catalog {
             checksum = saveAnalyze(dos, checksum);
             dos.writeLong(checksum);
             checksum = saveWorkGroups(dos, checksum);
+            dos.writeLong(checksum);
+            checksum = saveAsyncMaterializedViews(dos, checksum);
+            dos.writeLong(checksum);
+            checksum = savePlanBaselines(dos, checksum);
         }
 
         long saveImageEndTime = System.currentTimeMillis();
@@ -2517,23 +2579,26 @@ public class Catalog {
             return false;
         }
 
+        replayToJournalId = newToJournalId;
         long startTime = System.currentTimeMillis();
-        boolean hasLog = false;
-        while (true) {
-            JournalEntity entity = cursor.next();
-            if (entity == null) {
-                break;
-            }
-            hasLog = true;
-            EditLog.loadJournal(this, entity);
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-            if (feType != FrontendNodeType.MASTER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
-            }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+        boolean hasLog;
+        if (Config.enable_pipelined_journal_replay && !isCheckpointThread()) {
+            if (pipelinedJournalReplayer == null) {
+                pipelinedJournalReplayer = new PipelinedJournalReplayer(metaContext,
+                        Config.pipelined_journal_replay_apply_lanes, Config.pipelined_journal_replay_prefetch_num);
+            }
+            hasLog = pipelinedJournalReplayer.replay(cursor, entity -> EditLog.loadJournal(this, entity),
+                    this::onJournalReplayed) > 0;
+        } else {
+            hasLog = false;
+            while (true) {
+                JournalEntity entity = cursor.next();
+                if (entity == null) {
+                    break;
+                }
+                hasLog = true;
+                EditLog.loadJournal(this, entity);
+                onJournalReplayed(1);
             }
         }
         long cost = System.currentTimeMillis() - startTime;
@@ -2544,6 +2609,38 @@ public class Catalog {
         return hasLog;
     }
 
+    private void onJournalReplayed(long num) {
+        replayedJournalId.addAndGet(num);
+        LOG.debug("journal {} replayed.", replayedJournalId);
+        if (feType != FrontendNodeType.MASTER) {
+            journalObservable.notifyObservers(replayedJournalId.get());
+        }
+        if (MetricRepo.isInit) {
+            // Metric repo may not init after this replay thread start
+            MetricRepo.COUNTER_EDIT_LOG_READ.increase(num);
+        }
+    }
+
+    /**
+     * Number of journals which are known but not replayed yet, 0 on master.
+     */
+    public long getReplayLagJournalNum() {
+        if (isMaster()) {
+            return 0L;
+        }
+        return Math.max(replayToJournalId - replayedJournalId.get(), 0L);
+    }
+
+    /**
+     * Time since the last replayed timestamp journal of master, 0 on master.
+     */
+    public long getReplayDelayMs() {
+        if (isMaster() || synchronizedTimeMs <= 0) {
+            return 0L;
+        }
+        return Math.max(System.currentTimeMillis() - synchronizedTimeMs, 0L);
+    }
+
     public void createTimePrinter() {
         // time printer will write timestamp edit log every 10 seconds
         timePrinter = new MasterDaemon("timePrinter", 10 * 1000L) {
@@ -85,6 +85,8 @@ public class Database extends MetaObject implements Writable {
     // table family group map
     private Map<Long, Table> idToTable;
     private Map<String, Table> nameToTable;
+    // increased every time a table is created or dropped, not persisted
+    private volatile long tableSetVersion = 0;
 
     // user define function
     private ConcurrentMap<String, ImmutableList<Function>> name2Function = Maps.newConcurrentMap();
@@ -303,6 +305,7 @@ public class Database extends MetaObject implements Writable {
             } else {
                 idToTable.put(table.getId(), table);
                 nameToTable.put(table.getName(), table);
+                tableSetVersion++;
 
                 if (!isReplay) {
                     // Write edit log
@@ -326,6 +329,7 @@ public class Database extends MetaObject implements Writable {
         } else {
             idToTable.put(table.getId(), table);
             nameToTable.put(table.getName(), table);
+            tableSetVersion++;
         }
         return result;
     }
@@ -337,6 +341,7 @@ public class Database extends MetaObject implements Writable {
             if (table != null) {
                 this.nameToTable.remove(tableName);
                 this.idToTable.remove(table.getId());
+                tableSetVersion++;
             }
         } finally {
             writeUnlock();
@@ -348,9 +353,14 @@ public class Database extends MetaObject implements Writable {
         if (table != null) {
             this.nameToTable.remove(tableName);
             this.idToTable.remove(table.getId());
+            tableSetVersion++;
         }
     }
 
+    public long getTableSetVersion() {
+        return tableSetVersion;
+    }
+
     public List<Table> getTables() {
         return new ArrayList<Table>(idToTable.values());
     }
@@ -0,0 +1,47 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.catalog;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query counters of builtin function resolution in {@link FunctionSet#getFunction}.
+ * Owned by the ConnectContext of the query and reset when a new statement starts.
+ */
+public class FunctionResolveStats {
+    private long resolveCount = 0;
+    private long cacheHitCount = 0;
+    private long resolveTimeNs = 0;
+
+    public void update(boolean cacheHit, long costNs) {
+        resolveCount++;
+        if (cacheHit) {
+            cacheHitCount++;
+        }
+        resolveTimeNs += costNs;
+    }
+
+    public void reset() {
+        resolveCount = 0;
+        cacheHitCount = 0;
+        resolveTimeNs = 0;
+    }
+
+    public long getResolveCount() {
+        return resolveCount;
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    public long getResolveTimeNs() {
+        return resolveTimeNs;
+    }
+
+    @Override
+    public String toString() {
+        return "count: " + resolveCount + ", cacheHit: " + cacheHitCount +
+                ", time: " + TimeUnit.NANOSECONDS.toMicros(resolveTimeNs) + "us";
+    }
+}
@@ -21,14 +21,20 @@
 
 package com.starrocks.catalog;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.starrocks.analysis.ArithmeticExpr;
 import com.starrocks.analysis.FunctionName;
 import com.starrocks.builtins.VectorizedBuiltinFunctions;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.qe.ConnectContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -37,6 +43,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -106,6 +113,10 @@ public class FunctionSet {
     public static final String MULTIPLY = "multiply";
     public static final String DIVIDE = "divide";
 
+    // Math functions:
+    public static final String RAND = "rand";
+    public static final String FLOOR = "floor";
+
     // date functions
     public static final String YEAR = "year";
     public static final String YEARS_ADD = "years_add";
@@ -186,6 +197,17 @@ public class FunctionSet {
      */
     private final Map<String, List<Function>> vectorizedFunctions;
 
+    // Index from the exact signature of a builtin, e.g. `substr(STRING,INT)`, to its overloads, used to
+    // find IS_IDENTICAL matches without scanning all overloads of the name. Types that only match by
+    // wildcard (string lengths, decimal precisions) are normalized to the same key and the candidates
+    // are confirmed with Function.compare. Names with pseudo-type overloads are not indexed.
+    private final Map<String, List<Function>> signatureIndex;
+    private final Set<String> unindexedFunctionNames;
+
+    // Cache of the builtin chosen for (name, argument types, compare mode). Values hold the matched
+    // builtin before polymorphic deduction, so the deduced function is still created per call.
+    private final Cache<String, Optional<Function>> resolvedFunctionCache;
+
     // This contains the nullable functions, which cannot return NULL result directly for the NULL parameter.
     // This does not contain any user defined functions. All UDFs handle null values by themselves.
     private final ImmutableSet<String> notAlwaysNullResultWithNullParamFunctions = ImmutableSet.of("if",
@@ -255,6 +277,11 @@ public class FunctionSet {
 
     public FunctionSet() {
         vectorizedFunctions = Maps.newHashMap();
+        signatureIndex = Maps.newHashMap();
+        unindexedFunctionNames = Sets.newHashSet();
+        resolvedFunctionCache = Caffeine.newBuilder()
+                .maximumSize(Config.function_resolve_cache_size)
+                .build();
     }
 
     /**
@@ -325,25 +352,67 @@ public class FunctionSet {
     }
 
     public Function getFunction(Function desc, Function.CompareMode mode) {
+        long startTime = System.nanoTime();
+        String cacheKey = resolveCacheKey(desc, mode);
+        Optional<Function> cached = resolvedFunctionCache.getIfPresent(cacheKey);
+        boolean cacheHit = cached != null;
+        if (!cacheHit) {
+            cached = Optional.ofNullable(resolveFunction(desc, mode));
+            resolvedFunctionCache.put(cacheKey, cached);
+        }
+        Function fn = cached.map(f -> checkPolymorphicFunction(f, desc.getArgs())).orElse(null);
+        updateResolveCounters(cacheHit, System.nanoTime() - startTime);
+        return fn;
+    }
+
+    private void updateResolveCounters(boolean cacheHit, long costNs) {
+        ConnectContext ctx = ConnectContext.get();
+        if (ctx != null) {
+            ctx.getFunctionResolveStats().update(cacheHit, costNs);
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_FUNCTION_RESOLVE_TOTAL.increase(1L);
+            if (cacheHit) {
+                MetricRepo.COUNTER_FUNCTION_RESOLVE_CACHE_HIT.increase(1L);
+            }
+        }
+    }
+
+    private static String resolveCacheKey(Function desc, Function.CompareMode mode) {
+        StringBuilder sb = new StringBuilder(desc.functionName()).append('(');
+        Type[] argTypes = desc.getArgs();
+        for (int i = 0; i < argTypes.length; ++i) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(argTypes[i].toSql());
+        }
+        if (desc.hasVarArgs()) {
+            sb.append("...");
+        }
+        return sb.append(')').append(mode.ordinal()).toString();
+    }
+
+    /**
+     * Returns the first builtin of desc's name that matches desc in the given mode, checking the
+     * stricter compare modes first. The result has not been deduced by checkPolymorphicFunction.
+     */
+    private Function resolveFunction(Function desc, Function.CompareMode mode) {
         List<Function> fns = vectorizedFunctions.get(desc.functionName());
         if (fns == null) {
             return null;
         }
 
         // First check for identical
-        for (Function f : fns) {
-            if (f.compare(desc, Function.CompareMode.IS_IDENTICAL)) {
-                return checkPolymorphicFunction(f, desc.getArgs());
-            }
-        }
-        if (mode == Function.CompareMode.IS_IDENTICAL) {
-            return null;
+        Function identical = findIdenticalFunction(desc, fns);
+        if (identical != null || mode == Function.CompareMode.IS_IDENTICAL) {
+            return identical;
         }
 
         // Next check for indistinguishable
         for (Function f : fns) {
             if (f.compare(desc, Function.CompareMode.IS_INDISTINGUISHABLE)) {
-                return checkPolymorphicFunction(f, desc.getArgs());
+                return f;
             }
         }
         if (mode == Function.CompareMode.IS_INDISTINGUISHABLE) {
@@ -353,7 +422,7 @@ public class FunctionSet {
         // Next check for strict supertypes
         for (Function f : fns) {
             if (f.compare(desc, Function.CompareMode.IS_SUPERTYPE_OF) && isCastMatchAllowed(desc, f)) {
-                return checkPolymorphicFunction(f, desc.getArgs());
+                return f;
             }
         }
         if (mode == Function.CompareMode.IS_SUPERTYPE_OF) {
@@ -363,20 +432,84 @@ public class FunctionSet {
         // Finally check for non-strict supertypes
         for (Function f : fns) {
             if (f.compare(desc, Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF) && isCastMatchAllowed(desc, f)) {
-                return checkPolymorphicFunction(f, desc.getArgs());
+                return f;
+            }
+        }
+        return null;
+    }
+
+    private Function findIdenticalFunction(Function desc, List<Function> fns) {
+        String signature = unindexedFunctionNames.contains(desc.functionName()) ? null :
+                signatureKey(desc.functionName(), desc.getArgs());
+        if (signature != null) {
+            List<Function> candidates = signatureIndex.getOrDefault(signature, Collections.emptyList());
+            for (Function f : candidates) {
+                if (f.compare(desc, Function.CompareMode.IS_IDENTICAL)) {
+                    return f;
+                }
+            }
+            return null;
+        }
+
+        for (Function f : fns) {
+            if (f.compare(desc, Function.CompareMode.IS_IDENTICAL)) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    private void indexFunction(Function fn) {
+        String signature = signatureKey(fn.functionName(), fn.getArgs());
+        if (signature == null) {
+            unindexedFunctionNames.add(fn.functionName());
+        } else {
+            signatureIndex.computeIfAbsent(signature, k -> Lists.newArrayList()).add(fn);
+        }
+        resolvedFunctionCache.invalidateAll();
+    }
+
+    /**
+     * Two concrete types which match each other by Type.matchesType always have the same
+     * normalized name, so every builtin identical to desc is found under desc's signature.
+     * Returns null if some argument type can't be normalized, e.g. a pseudo type.
+     */
+    private static String signatureKey(String functionName, Type[] argTypes) {
+        StringBuilder sb = new StringBuilder(functionName).append('(');
+        for (int i = 0; i < argTypes.length; ++i) {
+            String typeName = normalizedTypeName(argTypes[i]);
+            if (typeName == null) {
+                return null;
             }
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(typeName);
+        }
+        return sb.append(')').toString();
+    }
+
+    private static String normalizedTypeName(Type type) {
+        if (type.isScalarType()) {
+            return type.isStringType() ? "STRING" : type.getPrimitiveType().toString();
+        }
+        if (type.isArrayType()) {
+            String itemTypeName = normalizedTypeName(((ArrayType) type).getItemType());
+            return itemTypeName == null ? null : "ARRAY<" + itemTypeName + ">";
         }
         return null;
     }
 
     private void addBuiltInFunction(Function fn) {
         Preconditions.checkArgument(!fn.getReturnType().isPseudoType() || fn.isPolymorphic(), fn.toString());
-        if (getFunction(fn, Function.CompareMode.IS_INDISTINGUISHABLE) != null) {
+        Function existing = resolveFunction(fn, Function.CompareMode.IS_INDISTINGUISHABLE);
+        if (existing != null && checkPolymorphicFunction(existing, fn.getArgs()) != null) {
             return;
         }
         fn.setIsNullable(!alwaysReturnNonNullableFunctions.contains(fn.functionName()));
         List<Function> fns = vectorizedFunctions.computeIfAbsent(fn.functionName(), k -> Lists.newArrayList());
         fns.add(fn);
+        indexFunction(fn);
     }
 
     // for vectorized engine
@@ -395,6 +528,7 @@ public class FunctionSet {
         fn.setIsNullable(!alwaysReturnNonNullableFunctions.contains(fn.functionName()));
         List<Function> fns = vectorizedFunctions.computeIfAbsent(fn.functionName(), k -> Lists.newArrayList());
         fns.add(fn);
+        indexFunction(fn);
     }
 
     private Function findVectorizedFunction(Function desc) {
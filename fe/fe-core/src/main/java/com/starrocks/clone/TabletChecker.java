@@ -68,6 +68,9 @@ public class TabletChecker extends MasterDaemon {
     private SystemInfoService infoService;
     private TabletScheduler tabletScheduler;
     private TabletSchedulerStat stat;
+    // unhealthy tablet num found in the last round, it may be less than the actual num
+    // if the checking stopped because too many tablets are being scheduled
+    private volatile long lastUnhealthyTabletNum = 0;
 
     // db id -> (tbl id -> PrioPart)
     // priority of replicas of partitions in this table will be set to VERY_HIGH if not healthy
@@ -309,12 +312,17 @@ public class TabletChecker extends MasterDaemon {
         stat.counterTabletCheckCostMs.addAndGet(cost);
         stat.counterTabletChecked.addAndGet(totalTabletNum);
         stat.counterUnhealthyTabletNum.addAndGet(unhealthyTabletNum);
+        lastUnhealthyTabletNum = unhealthyTabletNum;
         stat.counterTabletAddToBeScheduled.addAndGet(addToSchedulerTabletNum);
 
         LOG.info("finished to check tablets. unhealth/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, cost: {} ms",
                 unhealthyTabletNum, totalTabletNum, addToSchedulerTabletNum, tabletInScheduler, tabletNotReady, cost);
     }
 
+    public long getLastUnhealthyTabletNum() {
+        return lastUnhealthyTabletNum;
+    }
+
     private boolean isInPrios(long dbId, long tblId, long partId) {
         synchronized (prios) {
             if (prios.contains(dbId, tblId)) {
@@ -26,6 +26,7 @@ import com.google.common.collect.EvictingQueue;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.ColocateTableIndex;
@@ -50,6 +51,7 @@ import com.starrocks.clone.TabletSchedCtx.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.MasterDaemon;
 import com.starrocks.persist.ReplicaPersistInfo;
 import com.starrocks.system.Backend;
@@ -67,9 +69,14 @@ import org.apache.logging.log4j.Logger;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -109,14 +116,25 @@ public class TabletScheduler extends MasterDaemon {
      *
      * pendingTablets + runningTablets = allTabletIds
      *
-     * pendingTablets, allTabletIds, runningTablets and schedHistory are protected by 'synchronized'
+     * pendingTablets, allTabletIds, runningTablets and schedHistory are concurrent containers,
+     * so that tablets can be added, scheduled and finished by different threads without a global lock.
+     * A tablet ctx is owned by the thread which takes it out of pendingTablets or runningTablets.
      */
-    private PriorityQueue<TabletSchedCtx> pendingTablets = new PriorityQueue<>();
-    private Set<Long> allTabletIds = Sets.newHashSet();
+    private final PriorityBlockingQueue<TabletSchedCtx> pendingTablets = new PriorityBlockingQueue<>();
+    private final Set<Long> allTabletIds = ConcurrentHashMap.newKeySet();
     // contains all tabletCtxs which state are RUNNING
-    private Map<Long, TabletSchedCtx> runningTablets = Maps.newHashMap();
+    private final Map<Long, TabletSchedCtx> runningTablets = Maps.newConcurrentMap();
     // save the latest 1000 scheduled tablet info
-    private Queue<TabletSchedCtx> schedHistory = EvictingQueue.create(1000);
+    private final Queue<TabletSchedCtx> schedHistory = Queues.synchronizedQueue(EvictingQueue.create(1000));
+
+    // schedule the REPAIR tablets of different databases in parallel
+    private final ExecutorService scheduleExecutor;
+
+    // repair throughput, the finished REPAIR tablets are counted in a window of REPAIR_RATE_WINDOW_MS
+    private static final long REPAIR_RATE_WINDOW_MS = 60 * 1000L;
+    private final AtomicLong repairFinishedInWindow = new AtomicLong(0);
+    private long repairWindowStartTime = System.currentTimeMillis();
+    private volatile double repairTabletsPerSecond = 0;
 
     // be id -> #working slots
     private Map<Long, PathSlot> backendsWorkingSlots = Maps.newConcurrentMap();
@@ -161,6 +179,8 @@ public class TabletScheduler extends MasterDaemon {
         this.invertedIndex = invertedIndex;
         this.colocateTableIndex = catalog.getColocateTableIndex();
         this.stat = stat;
+        this.scheduleExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
+                Math.max(1, Config.tablet_schedule_thread_num), Integer.MAX_VALUE, "tablet-schedule-pool", false);
 
         if (TabletBalancerStrategy.isTabletAndDiskStrategy(Config.tablet_balancer_strategy)) {
             this.rebalancer = new DiskAndTabletLoadReBalancer(infoService, invertedIndex);
@@ -233,7 +253,7 @@ public class TabletScheduler extends MasterDaemon {
      * add a ready-to-be-scheduled tablet to pendingTablets, if it has not being added before.
      * if force is true, do not check if tablet is already added before.
      */
-    public synchronized AddResult addTablet(TabletSchedCtx tablet, boolean force) {
+    public AddResult addTablet(TabletSchedCtx tablet, boolean force) {
         if (!force && containsTablet(tablet.getTabletId())) {
             return AddResult.ALREADY_IN;
         }
@@ -247,28 +267,33 @@ public class TabletScheduler extends MasterDaemon {
             return AddResult.LIMIT_EXCEED;
         }
 
-        allTabletIds.add(tablet.getTabletId());
+        // the id set decides who adds the tablet when it is added concurrently
+        if (!allTabletIds.add(tablet.getTabletId()) && !force) {
+            return AddResult.ALREADY_IN;
+        }
         pendingTablets.offer(tablet);
         return AddResult.ADDED;
     }
 
-    public synchronized boolean containsTablet(long tabletId) {
+    public boolean containsTablet(long tabletId) {
         return allTabletIds.contains(tabletId);
     }
 
     /**
      * Iterate current tablets, change their priority to VERY_HIGH if necessary.
      */
-    public synchronized void changeTabletsPriorityToVeryHigh(long dbId, long tblId, List<Long> partitionIds) {
-        PriorityQueue<TabletSchedCtx> newPendingTablets = new PriorityQueue<>();
-        for (TabletSchedCtx tabletCtx : pendingTablets) {
-            if (tabletCtx.getDbId() == dbId && tabletCtx.getTblId() == tblId
-                    && partitionIds.contains(tabletCtx.getPartitionId())) {
+    public void changeTabletsPriorityToVeryHigh(long dbId, long tblId, List<Long> partitionIds) {
+        List<TabletSchedCtx> changedTablets = pendingTablets.stream()
+                .filter(t -> t.getDbId() == dbId && t.getTblId() == tblId && partitionIds.contains(t.getPartitionId()))
+                .collect(Collectors.toList());
+        // the priority can not be changed in the queue, take the tablet out first.
+        // the tablet may be taken away by scheduler in the meantime, leave it to be scheduled.
+        for (TabletSchedCtx tabletCtx : changedTablets) {
+            if (pendingTablets.remove(tabletCtx)) {
                 tabletCtx.setOrigPriority(Priority.VERY_HIGH);
+                pendingTablets.offer(tabletCtx);
             }
-            newPendingTablets.add(tabletCtx);
         }
-        pendingTablets = newPendingTablets;
     }
 
     /**
@@ -302,6 +327,8 @@ public class TabletScheduler extends MasterDaemon {
 
         handleRunningTablets();
 
+        updateRepairThroughput();
+
         if (TabletBalancerStrategy.isTabletAndDiskStrategy(Config.tablet_balancer_strategy)) {
             // selectTabletsForBalance should depend on latest load statistics
             // do not select others balance task when there is running or pending balance tasks
@@ -363,23 +390,18 @@ public class TabletScheduler extends MasterDaemon {
     /**
      * adjust priorities of all tablet infos
      */
-    private synchronized void adjustPriorities() {
-        int size = pendingTablets.size();
+    private void adjustPriorities() {
+        List<TabletSchedCtx> tablets = Lists.newArrayList();
+        pendingTablets.drainTo(tablets);
         int changedNum = 0;
-        TabletSchedCtx tabletCtx;
-        for (int i = 0; i < size; i++) {
-            tabletCtx = pendingTablets.poll();
-            if (tabletCtx == null) {
-                break;
-            }
-
+        for (TabletSchedCtx tabletCtx : tablets) {
             if (tabletCtx.adjustPriority(stat)) {
                 changedNum++;
             }
-            pendingTablets.add(tabletCtx);
         }
+        pendingTablets.addAll(tablets);
 
-        LOG.info("adjust priority for all tablets. changed: {}, total: {}", changedNum, size);
+        LOG.info("adjust priority for all tablets. changed: {}, total: {}", changedNum, tablets.size());
     }
 
     /**
@@ -390,6 +412,12 @@ public class TabletScheduler extends MasterDaemon {
      * 3. or in pendingTablets with state PENDING, if failed to be scheduled.
      * <p>
      * if in schedHistory, it should be removed from allTabletIds.
+     * <p>
+     * REPAIR tablets are scheduled in parallel by scheduleExecutor. Scheduling a tablet holds the write lock
+     * of its database, so the tablets of one database are scheduled by one thread in priority order, and the
+     * threads only share the backend path slots, which are synchronized by PathSlot.
+     * BALANCE tablets depend on the state of rebalancer, they are scheduled in this thread.
+     * All the clone tasks of this round are sent together, one batch per backend.
      */
     private void schedulePendingTablets() {
         long start = System.currentTimeMillis();
@@ -397,7 +425,74 @@ public class TabletScheduler extends MasterDaemon {
         LOG.debug("get {} tablets to schedule", currentBatch.size());
 
         AgentBatchTask batchTask = new AgentBatchTask();
-        for (TabletSchedCtx tabletCtx : currentBatch) {
+        List<List<TabletSchedCtx>> repairGroups = groupRepairTabletsByDb(currentBatch);
+        if (repairGroups.size() <= 1) {
+            scheduleTablets(currentBatch, batchTask);
+        } else {
+            List<Future<AgentBatchTask>> futures = Lists.newArrayList();
+            for (List<TabletSchedCtx> group : repairGroups) {
+                futures.add(scheduleExecutor.submit(() -> {
+                    AgentBatchTask groupBatchTask = new AgentBatchTask();
+                    scheduleTablets(group, groupBatchTask);
+                    return groupBatchTask;
+                }));
+            }
+            // schedule the BALANCE tablets while the REPAIR tablets are being scheduled
+            scheduleTablets(currentBatch.stream().filter(t -> t.getType() != Type.REPAIR)
+                    .collect(Collectors.toList()), batchTask);
+            for (Future<AgentBatchTask> future : futures) {
+                try {
+                    future.get().getAllTasks().forEach(batchTask::addTask);
+                } catch (InterruptedException | ExecutionException e) {
+                    LOG.warn("failed to get the result of scheduling tablets", e);
+                }
+            }
+        }
+
+        // must send task after adding tablet info to runningTablets.
+        for (AgentTask task : batchTask.getAllTasks()) {
+            if (AgentTaskQueue.addTask(task)) {
+                stat.counterCloneTask.incrementAndGet();
+            }
+            LOG.info("add clone task to agent task queue: {}", task);
+        }
+
+        // send task immediately
+        AgentTaskExecutor.submit(batchTask);
+
+        long cost = System.currentTimeMillis() - start;
+        stat.counterTabletScheduleCostMs.addAndGet(cost);
+    }
+
+    /**
+     * Group the REPAIR tablets by database, and merge the groups into at most
+     * Config.tablet_schedule_thread_num groups. Tablets keep their priority order in each group.
+     */
+    private List<List<TabletSchedCtx>> groupRepairTabletsByDb(List<TabletSchedCtx> tablets) {
+        int threadNum = Config.tablet_schedule_thread_num;
+        List<List<TabletSchedCtx>> groups = Lists.newArrayList();
+        if (threadNum <= 1) {
+            return groups;
+        }
+        Map<Long, List<TabletSchedCtx>> dbToTablets = Maps.newLinkedHashMap();
+        for (TabletSchedCtx tabletCtx : tablets) {
+            if (tabletCtx.getType() == Type.REPAIR) {
+                dbToTablets.computeIfAbsent(tabletCtx.getDbId(), k -> Lists.newArrayList()).add(tabletCtx);
+            }
+        }
+        for (List<TabletSchedCtx> dbTablets : dbToTablets.values()) {
+            if (groups.size() < threadNum) {
+                groups.add(dbTablets);
+            } else {
+                // add to the smallest group
+                groups.stream().min((g1, g2) -> Integer.compare(g1.size(), g2.size())).get().addAll(dbTablets);
+            }
+        }
+        return groups;
+    }
+
+    private void scheduleTablets(List<TabletSchedCtx> tablets, AgentBatchTask batchTask) {
+        for (TabletSchedCtx tabletCtx : tablets) {
             try {
                 // reset errMsg for new scheduler round
                 tabletCtx.setErrMsg(null);
@@ -455,23 +550,9 @@ public class TabletScheduler extends MasterDaemon {
             stat.counterTabletScheduledSucceeded.incrementAndGet();
             addToRunningTablets(tabletCtx);
         }
-
-        // must send task after adding tablet info to runningTablets.
-        for (AgentTask task : batchTask.getAllTasks()) {
-            if (AgentTaskQueue.addTask(task)) {
-                stat.counterCloneTask.incrementAndGet();
-            }
-            LOG.info("add clone task to agent task queue: {}", task);
-        }
-
-        // send task immediately
-        AgentTaskExecutor.submit(batchTask);
-
-        long cost = System.currentTimeMillis() - start;
-        stat.counterTabletScheduleCostMs.addAndGet(cost);
     }
 
-    private synchronized void addToRunningTablets(TabletSchedCtx tabletCtx) {
+    private void addToRunningTablets(TabletSchedCtx tabletCtx) {
         runningTablets.put(tabletCtx.getTabletId(), tabletCtx);
     }
 
@@ -480,7 +561,7 @@ public class TabletScheduler extends MasterDaemon {
      * avoid other threads see it.
      * Whoever takes this tablet, make sure to put it to the schedHistory or back to runningTablets.
      */
-    private synchronized TabletSchedCtx takeRunningTablets(long tabletId) {
+    private TabletSchedCtx takeRunningTablets(long tabletId) {
         return runningTablets.remove(tabletId);
     }
 
@@ -1202,7 +1283,7 @@ public class TabletScheduler extends MasterDaemon {
         tabletCtx.setFinishedTime(System.currentTimeMillis());
     }
 
-    private synchronized void removeTabletCtx(TabletSchedCtx tabletCtx, String reason) {
+    private void removeTabletCtx(TabletSchedCtx tabletCtx, String reason) {
         runningTablets.remove(tabletCtx.getTabletId());
         allTabletIds.remove(tabletCtx.getTabletId());
         schedHistory.add(tabletCtx);
@@ -1210,7 +1291,7 @@ public class TabletScheduler extends MasterDaemon {
     }
 
     // get next batch of tablets from queue.
-    private synchronized List<TabletSchedCtx> getNextTabletCtxBatch() {
+    private List<TabletSchedCtx> getNextTabletCtxBatch() {
         List<TabletSchedCtx> list = Lists.newArrayList();
         int count = Math.max(MIN_BATCH_NUM, getCurrentAvailableSlotNum());
         while (count > 0) {
@@ -1275,6 +1356,9 @@ public class TabletScheduler extends MasterDaemon {
 
         Preconditions.checkState(tabletCtx.getState() == TabletSchedCtx.State.FINISHED);
         stat.counterCloneTaskSucceeded.incrementAndGet();
+        if (tabletCtx.getType() == Type.REPAIR) {
+            repairFinishedInWindow.incrementAndGet();
+        }
         gatherStatistics(tabletCtx);
         finalizeTabletCtx(tabletCtx, TabletSchedCtx.State.FINISHED, "finished");
         return true;
@@ -1330,11 +1414,11 @@ public class TabletScheduler extends MasterDaemon {
     public void handleRunningTablets() {
         // 1. remove the tablet ctx if timeout
         List<TabletSchedCtx> timeoutTablets = Lists.newArrayList();
-        synchronized (this) {
-            runningTablets.values().stream().filter(TabletSchedCtx::isTimeout).forEach(timeoutTablets::add);
-
-            for (TabletSchedCtx tabletSchedCtx : timeoutTablets) {
+        for (TabletSchedCtx tabletSchedCtx : runningTablets.values()) {
+            // the tablet may be taken by finishCloneTask() at the same time, only the one who takes it handles it
+            if (tabletSchedCtx.isTimeout() && runningTablets.remove(tabletSchedCtx.getTabletId(), tabletSchedCtx)) {
                 removeTabletCtx(tabletSchedCtx, "timeout");
+                timeoutTablets.add(tabletSchedCtx);
             }
         }
 
@@ -1345,6 +1429,41 @@ public class TabletScheduler extends MasterDaemon {
         });
     }
 
+    private void updateRepairThroughput() {
+        long now = System.currentTimeMillis();
+        if (now - repairWindowStartTime < REPAIR_RATE_WINDOW_MS) {
+            return;
+        }
+        repairTabletsPerSecond = repairFinishedInWindow.getAndSet(0) * 1000.0 / (now - repairWindowStartTime);
+        repairWindowStartTime = now;
+    }
+
+    /**
+     * Number of REPAIR tablets finished per second in the last window.
+     */
+    public double getRepairTabletsPerSecond() {
+        return repairTabletsPerSecond;
+    }
+
+    /**
+     * Estimated seconds to repair all the unhealthy tablets, 0 if there is nothing to repair,
+     * -1 if the tablets are not being repaired. The unhealthy tablets not added to scheduler yet
+     * are counted by the last round of tablet checker.
+     */
+    public long getRepairEtaSeconds(long unhealthyTabletNum) {
+        long repairingNum = pendingTablets.stream().filter(t -> t.getType() == Type.REPAIR).count()
+                + runningTablets.values().stream().filter(t -> t.getType() == Type.REPAIR).count();
+        long remainNum = Math.max(repairingNum, unhealthyTabletNum);
+        if (remainNum == 0) {
+            return 0;
+        }
+        double rate = repairTabletsPerSecond;
+        if (rate <= 0) {
+            return -1;
+        }
+        return (long) Math.ceil(remainNum / rate);
+    }
+
     public List<List<String>> getPendingTabletsInfo(int limit) {
         List<TabletSchedCtx> tabletCtxs = getCopiedTablets(pendingTablets, limit);
         return collectTabletCtx(tabletCtxs);
@@ -1356,7 +1475,11 @@ public class TabletScheduler extends MasterDaemon {
     }
 
     public List<List<String>> getHistoryTabletsInfo(int limit) {
-        List<TabletSchedCtx> tabletCtxs = getCopiedTablets(schedHistory, limit);
+        List<TabletSchedCtx> tabletCtxs;
+        // schedHistory is a synchronized queue, which must be locked when being iterated
+        synchronized (schedHistory) {
+            tabletCtxs = getCopiedTablets(schedHistory, limit);
+        }
         return collectTabletCtx(tabletCtxs);
     }
 
@@ -1368,7 +1491,7 @@ public class TabletScheduler extends MasterDaemon {
         return result;
     }
 
-    private synchronized List<TabletSchedCtx> getCopiedTablets(Collection<TabletSchedCtx> source, int limit) {
+    private List<TabletSchedCtx> getCopiedTablets(Collection<TabletSchedCtx> source, int limit) {
         List<TabletSchedCtx> tabletCtxs = Lists.newArrayList();
         source.stream().limit(limit).forEach(t -> {
             tabletCtxs.add(t);
@@ -1376,23 +1499,23 @@ public class TabletScheduler extends MasterDaemon {
         return tabletCtxs;
     }
 
-    public synchronized int getPendingNum() {
+    public int getPendingNum() {
         return pendingTablets.size();
     }
 
-    public synchronized int getRunningNum() {
+    public int getRunningNum() {
         return runningTablets.size();
     }
 
-    public synchronized int getHistoryNum() {
+    public int getHistoryNum() {
         return schedHistory.size();
     }
 
-    public synchronized int getTotalNum() {
+    public int getTotalNum() {
         return allTabletIds.size();
     }
 
-    public synchronized long getBalanceTabletsNumber() {
+    public long getBalanceTabletsNumber() {
         return pendingTablets.stream().filter(t -> t.getType() == Type.BALANCE).count()
                 + runningTablets.values().stream().filter(t -> t.getType() == Type.BALANCE).count();
     }
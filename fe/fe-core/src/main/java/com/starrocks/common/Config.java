@@ -252,6 +252,40 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int meta_delay_toleration_second = 300;    // 5 min
 
+    /**
+     * Non-master FE replays journals in pipeline if this is true:
+     * journals are read and deserialized ahead of the apply by a prefetch thread,
+     * and transaction state journals of different databases are applied in parallel.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_pipelined_journal_replay = false;
+
+    /**
+     * Number of threads which apply transaction state journals in parallel in pipelined journal replay.
+     */
+    @ConfField
+    public static int pipelined_journal_replay_apply_lanes = 4;
+
+    /**
+     * Max number of journals which are prefetched, or applied in parallel, in pipelined journal replay.
+     */
+    @ConfField
+    public static int pipelined_journal_replay_prefetch_num = 1024;
+
+    /**
+     * Write hot journals, such as transaction state and replica info, in the compact binary codec.
+     * Only enable it after all frontends are upgraded, old frontends can not read such journals.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_journal_compact_codec = false;
+
+    /**
+     * Journals in the compact codec are compressed if the payload is not smaller than this size,
+     * -1 to disable the compression.
+     */
+    @ConfField(mutable = true)
+    public static int journal_compress_threshold_bytes = 1024;
+
     /**
      * Master FE sync policy of bdbje.
      * If you only deploy one Follower FE, set this to 'SYNC'. If you deploy more than 3 Follower FE,
@@ -826,6 +860,18 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long dynamic_partition_check_interval_seconds = 600;
 
+    /**
+     * If set to true, async materialized views will be refreshed in background
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_async_materialized_view_refresh = true;
+
+    /**
+     * Decide how often to check whether async materialized views need refresh
+     */
+    @ConfField(mutable = true)
+    public static long async_materialized_view_check_interval_seconds = 60;
+
     /**
      * The number of query retries.
      * A query may retry if we encounter RPC exception and no result has been sent to user.
@@ -852,6 +898,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int backup_job_default_timeout_ms = 86400 * 1000; // 1 day
 
+    /**
+     * Max number of upload or download tasks sent to each backend by a backup or restore job.
+     * The snapshots on a backend are divided into this number of tasks, which run in parallel on the backend.
+     */
+    @ConfField(mutable = true)
+    public static int max_backup_restore_task_num_per_be = 3;
+
     // If use k8s deploy manager locally, set this to true and prepare the certs files
     @ConfField
     public static boolean with_k8s_certs = false;
@@ -934,6 +987,13 @@ public class Config extends ConfigBase {
     @ConfField
     public static int schedule_slot_num_per_path = 2;
 
+    /**
+     * the thread num to schedule the REPAIR tablets of different databases in parallel in tablet scheduler.
+     * set to 1 to schedule all the tablets in the tablet scheduler thread.
+     */
+    @ConfField
+    public static int tablet_schedule_thread_num = 4;
+
     @ConfField
     public static String tablet_balancer_strategy = "disk_and_tablet";
 
@@ -1034,6 +1094,33 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long routine_load_task_timeout_second = 15;
 
+    /**
+     * Whether to schedule routine load tasks by the lag of job.
+     * If enabled, the tasks of job with larger lag are scheduled first, tasks of a lagging job consume longer
+     * in one txn, and the partitions of a quiet job are merged into fewer tasks.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_routine_load_adaptive_schedule = false;
+
+    /**
+     * The max consume time of a routine load task when adaptive schedule is enabled
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_task_max_consume_second = 15;
+
+    /**
+     * The min interval to change the task num of a running routine load job by its lag
+     * when adaptive schedule is enabled
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_adaptive_reschedule_interval_second = 300;
+
+    /**
+     * The thread num to schedule routine load tasks to BE
+     */
+    @ConfField
+    public static int routine_load_task_scheduler_thread_num = 10;
+
     /**
      * it can't auto-resume routine load job as long as one of the backends is down
      */
@@ -1214,6 +1301,12 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long max_planner_scalar_rewrite_num = 100000;
 
+    /**
+     * The max number of folded constant function calls cached per query
+     */
+    @ConfField(mutable = true)
+    public static long max_planner_constant_folding_cache_size = 10000;
+
     /**
      * a period of create statistics table automatically by the StatisticsMetaManager
      */
@@ -1224,6 +1317,31 @@ public class Config extends ConfigBase {
     @ConfField
     public static long statistic_cache_columns = 100000;
 
+    /**
+     * The max number of scan predicates whose actual rows are kept as statistics feedback, the least
+     * recently used ones are evicted
+     */
+    @ConfField(mutable = true)
+    public static long statistic_feedback_max_entries = 10000;
+
+    /**
+     * A plan baseline evolves to another plan of the query if both of them are executed at least
+     * plan_baseline_evolve_min_executions times and the average latency of the other plan is less than
+     * plan_baseline_evolve_ratio of the baseline's. The other plans are executed with enable_plan_baseline = false.
+     * Only the queries executed on the master FE are counted.
+     */
+    @ConfField(mutable = true)
+    public static int plan_baseline_evolve_min_executions = 3;
+
+    @ConfField(mutable = true)
+    public static double plan_baseline_evolve_ratio = 0.8;
+
+    /**
+     * The max number of resolved (function name, argument types) signatures cached by FunctionSet
+     */
+    @ConfField
+    public static long function_resolve_cache_size = 100000;
+
     /**
      * The collect thread work interval
      */
@@ -1248,6 +1366,39 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_statistic_collect = true;
 
+    /**
+     * If set to true, full statistics are collected by partition, only the partitions whose data changed
+     * since the last collection are scanned, and the statistics of partitions are used for pruned scans
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_partition_statistic_collect = false;
+
+    /**
+     * The max times to merge new values into a global dict incrementally, the codes of existing values are kept
+     * during merging. After that the dict is replaced by the reloaded one to drop the values no longer exist.
+     */
+    @ConfField(mutable = true)
+    public static int low_cardinality_dict_max_merge_times = 16;
+
+    /**
+     * If set to true, the table names, schemas and the tables visible to users served to information_schema
+     * and SHOW statements are cached, and refreshed when the tables or privileges are changed
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_information_schema_cache = true;
+
+    /**
+     * The max number of (user, database) entries in the cache of tables visible to users
+     */
+    @ConfField
+    public static long information_schema_privilege_cache_size = 10000;
+
+    /**
+     * The max number of resolved db or table privileges cached for each user
+     */
+    @ConfField
+    public static long privilege_index_cache_size = 10000;
+
     /**
      * If set to true, Planner will try to select replica of tablet on same host as this Frontend.
      * This may reduce network transmission in following case:
@@ -1382,6 +1533,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_routine_load_lag_metrics = false;
 
+    /**
+     * The metrics in prometheus format are cached for this time, and shared by concurrent scrapers.
+     * Set to 0 to disable the cache.
+     */
+    @ConfField(mutable = true)
+    public static long metrics_snapshot_ttl_ms = 1000;
+
+    /**
+     * Max number of series of a metric name in one scrape, the extra series are dropped
+     * and counted by metrics_series_dropped. -1 means unlimited.
+     */
+    @ConfField(mutable = true)
+    public static int metrics_max_series_per_name = -1;
+
     @ConfField(mutable = true)
     public static boolean enable_collect_query_detail_info = false;
 
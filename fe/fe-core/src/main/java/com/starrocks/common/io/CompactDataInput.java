@@ -0,0 +1,173 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.io;
+
+import com.google.common.collect.Lists;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link DataInput} which reads data written by {@link CompactDataOutput}.
+ */
+public class CompactDataInput implements DataInput {
+    private final byte[] data;
+    private int pos;
+    private final int end;
+    private final List<String> strings = Lists.newArrayList();
+    private long lastLong = 0;
+
+    public CompactDataInput(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public CompactDataInput(byte[] data, int offset, int length) {
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        if (len > end - pos) {
+            throw new EOFException();
+        }
+        System.arraycopy(data, pos, b, off, len);
+        pos += len;
+    }
+
+    @Override
+    public int skipBytes(int n) {
+        int skip = Math.max(Math.min(n, end - pos), 0);
+        pos += skip;
+        return skip;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readUnsignedByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return (byte) readUnsignedByte();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        if (pos >= end) {
+            throw new EOFException();
+        }
+        return data[pos++] & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return (short) readUnsignedShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return (readUnsignedByte() << 8) | readUnsignedByte();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return (char) readUnsignedShort();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        int v = (int) readUnsignedVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        long v = readUnsignedVarLong();
+        lastLong += (v >>> 1) ^ -(v & 1);
+        return lastLong;
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readFixedInt());
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        long high = readFixedInt() & 0xFFFFFFFFL;
+        long low = readFixedInt() & 0xFFFFFFFFL;
+        return Double.longBitsToDouble((high << 32) | low);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (pos >= end) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        while (pos < end) {
+            int c = readUnsignedByte();
+            if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                if (pos < end && data[pos] == '\n') {
+                    pos++;
+                }
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    /**
+     * Read an interned UTF8 string written by {@link CompactDataOutput#writeString}.
+     */
+    public String readString() throws IOException {
+        int index = (int) readUnsignedVarLong();
+        if (index > 0) {
+            if (index > strings.size()) {
+                throw new IOException("invalid string index " + index);
+            }
+            return strings.get(index - 1);
+        }
+        int length = (int) readUnsignedVarLong();
+        byte[] bytes = new byte[length];
+        readFully(bytes);
+        String s = Text.decode(bytes);
+        strings.add(s);
+        return s;
+    }
+
+    private int readFixedInt() throws IOException {
+        return (readUnsignedByte() << 24) | (readUnsignedByte() << 16) | (readUnsignedByte() << 8)
+                | readUnsignedByte();
+    }
+
+    private long readUnsignedVarLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+}
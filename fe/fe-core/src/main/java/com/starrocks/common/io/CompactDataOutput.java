@@ -0,0 +1,152 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.io;
+
+import com.google.common.collect.Maps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * A {@link DataOutput} which writes data in compact binary form, it must be read by {@link CompactDataInput}.
+ * <ul>
+ * <li>int is written as zigzag varint</li>
+ * <li>long is written as zigzag varint of the delta to the previous written long, ids and timestamps
+ * written one after another are usually close to each other</li>
+ * <li>string written by {@link Text#writeString} is interned, a repeated string is written as its index</li>
+ * </ul>
+ * Other types are written as they are in {@link DataOutputStream}.
+ */
+public class CompactDataOutput implements DataOutput {
+    private final ByteArrayOutputStream buffer;
+    private final Map<String, Integer> strings = Maps.newHashMap();
+    private long lastLong = 0;
+
+    public CompactDataOutput() {
+        this.buffer = new ByteArrayOutputStream(128);
+    }
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.write(b);
+    }
+
+    @Override
+    public void write(byte[] b) {
+        buffer.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        buffer.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        buffer.write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        buffer.write(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        buffer.write((v >>> 8) & 0xFF);
+        buffer.write(v & 0xFF);
+    }
+
+    @Override
+    public void writeChar(int v) {
+        writeShort(v);
+    }
+
+    @Override
+    public void writeInt(int v) {
+        writeUnsignedVarLong(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void writeLong(long v) {
+        long delta = v - lastLong;
+        lastLong = v;
+        writeUnsignedVarLong((delta << 1) ^ (delta >> 63));
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        writeFixedInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        long bits = Double.doubleToLongBits(v);
+        writeFixedInt((int) (bits >>> 32));
+        writeFixedInt((int) bits);
+    }
+
+    @Override
+    public void writeBytes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            buffer.write((byte) s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            writeChar(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeUTF(String s) throws IOException {
+        new DataOutputStream(buffer).writeUTF(s);
+    }
+
+    /**
+     * Write an interned UTF8 string, return the length of the encoded string.
+     */
+    public int writeString(String s) throws IOException {
+        Integer index = strings.get(s);
+        if (index != null) {
+            writeUnsignedVarLong(index + 1);
+            return 0;
+        }
+        ByteBuffer bytes = Text.encode(s);
+        int length = bytes.limit();
+        writeUnsignedVarLong(0);
+        writeUnsignedVarLong(length);
+        buffer.write(bytes.array(), 0, length);
+        strings.put(s, strings.size());
+        return length;
+    }
+
+    private void writeFixedInt(int v) {
+        buffer.write((v >>> 24) & 0xFF);
+        buffer.write((v >>> 16) & 0xFF);
+        buffer.write((v >>> 8) & 0xFF);
+        buffer.write(v & 0xFF);
+    }
+
+    private void writeUnsignedVarLong(long v) {
+        while ((v & ~0x7FL) != 0) {
+            buffer.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.write((int) v);
+    }
+}
@@ -384,6 +384,9 @@ public class Text implements Writable {
      * Read a UTF8 encoded string from in
      */
     public static String readString(DataInput in) throws IOException {
+        if (in instanceof CompactDataInput) {
+            return ((CompactDataInput) in).readString();
+        }
         int length = in.readInt();
         byte[] bytes = new byte[length];
         in.readFully(bytes, 0, length);
@@ -395,6 +398,9 @@ public class Text implements Writable {
      * Write a UTF8 encoded string to out
      */
     public static int writeString(DataOutput out, String s) throws IOException {
+        if (out instanceof CompactDataOutput) {
+            return ((CompactDataOutput) out).writeString(s);
+        }
         ByteBuffer bytes = encode(s);
         int length = bytes.limit();
         out.writeInt(length);
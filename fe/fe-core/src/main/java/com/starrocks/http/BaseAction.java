@@ -107,16 +107,20 @@ public abstract class BaseAction implements IAction {
         // HttpResponseStatus.CONTINUE));
         // }
 
-        FullHttpResponse responseObj = null;
+        ByteBuf content;
         try {
-            responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
-                    Unpooled.wrappedBuffer(response.getContent().toString().getBytes("UTF-8")));
+            content = Unpooled.wrappedBuffer(response.getContent().toString().getBytes("UTF-8"));
         } catch (UnsupportedEncodingException e) {
             LOG.warn("get exception.", e);
-            responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
-                    Unpooled.wrappedBuffer(response.getContent().toString().getBytes()));
+            content = Unpooled.wrappedBuffer(response.getContent().toString().getBytes());
         }
-        Preconditions.checkNotNull(responseObj);
+        writeResponse(request, response, status, content);
+    }
+
+    // write the content directly instead of the content of response
+    protected void writeResponse(BaseRequest request, BaseResponse response, HttpResponseStatus status,
+                                 ByteBuf content) {
+        FullHttpResponse responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
         HttpMethod method = request.getRequest().method();
 
         checkDefaultContentTypeHeader(response, responseObj);
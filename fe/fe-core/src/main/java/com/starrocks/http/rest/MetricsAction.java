@@ -21,6 +21,7 @@
 
 package com.starrocks.http.rest;
 
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.common.DdlException;
@@ -30,17 +31,22 @@ import com.starrocks.http.BaseResponse;
 import com.starrocks.http.IllegalArgException;
 import com.starrocks.metric.JsonMetricVisitor;
 import com.starrocks.metric.MetricRepo;
+import com.starrocks.metric.MetricRepo.MetricGroup;
 import com.starrocks.metric.MetricVisitor;
-import com.starrocks.metric.PrometheusMetricVisitor;
 import com.starrocks.metric.SimpleCoreMetricVisitor;
 import com.starrocks.mysql.privilege.PrivPredicate;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 //fehost:port/metrics
 //fehost:port/metrics?type=core
 //fehost:port/metrics?type=json
+//fehost:port/metrics?metric_groups=jvm,starrocks,histogram,routine_load,node_info
 public class MetricsAction extends RestBaseAction {
 
     private static final Logger LOG = LogManager.getLogger(MetricsAction.class);
@@ -50,6 +56,8 @@ public class MetricsAction extends RestBaseAction {
     protected static final String WITH_TABLE_METRICS_PARAM = "with_table_metrics";
     protected static final String WITH_TABLE_METRICS_MINIFIED = "minified";
     protected static final String WITH_TABLE_METRICS_ALL = "all";
+    // comma separated metric groups to be collected, only for prometheus format
+    protected static final String METRIC_GROUPS_PARAM = "metric_groups";
     public static final String API_PATH = "/metrics";
 
     public MetricsAction(ActionController controller) {
@@ -68,8 +76,6 @@ public class MetricsAction extends RestBaseAction {
             visitor = new SimpleCoreMetricVisitor("starrocks_fe");
         } else if (!Strings.isNullOrEmpty(type) && type.equalsIgnoreCase("json")) {
             visitor = new JsonMetricVisitor("starrocks_fe");
-        } else {
-            visitor = new PrometheusMetricVisitor("starrocks_fe");
         }
         boolean collectTableMetrics = false;
         boolean minifyTableMetrics = true;
@@ -90,7 +96,37 @@ public class MetricsAction extends RestBaseAction {
             }
         }
         response.setContentType("text/plain");
-        response.getContent().append(MetricRepo.getMetric(visitor, collectTableMetrics, minifyTableMetrics));
-        sendResult(request, response);
+        if (visitor != null) {
+            response.getContent().append(MetricRepo.getMetric(visitor, collectTableMetrics, minifyTableMetrics));
+            sendResult(request, response);
+            return;
+        }
+
+        Set<MetricGroup> groups;
+        try {
+            groups = parseMetricGroups(request.getSingleParameter(METRIC_GROUPS_PARAM));
+        } catch (IllegalArgumentException e) {
+            response.appendContent(e.getMessage());
+            writeResponse(request, response, HttpResponseStatus.BAD_REQUEST);
+            return;
+        }
+        // prometheus metrics are written from the shared snapshot without copying
+        writeResponse(request, response, HttpResponseStatus.OK,
+                MetricRepo.getPrometheusMetric(groups, collectTableMetrics, minifyTableMetrics));
+    }
+
+    private static Set<MetricGroup> parseMetricGroups(String metricGroups) {
+        if (Strings.isNullOrEmpty(metricGroups)) {
+            return MetricRepo.getDefaultMetricGroups();
+        }
+        Set<MetricGroup> groups = EnumSet.noneOf(MetricGroup.class);
+        for (String group : Splitter.on(',').trimResults().omitEmptyStrings().split(metricGroups)) {
+            try {
+                groups.add(MetricGroup.valueOf(group.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown metric group: " + group);
+            }
+        }
+        return groups;
     }
 }
@@ -0,0 +1,119 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal;
+
+import com.google.common.collect.ImmutableSet;
+import com.starrocks.common.Config;
+import com.starrocks.common.io.CompactDataInput;
+import com.starrocks.common.io.CompactDataOutput;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.OperationType;
+import org.xerial.snappy.Snappy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Compact binary codec of journal payloads.
+ * <p>
+ * The op code of a journal written by this codec is marked by {@link #COMPACT_OP_CODE_FLAG}, so journals
+ * written in the original encoding are still readable. The payload is written by {@link CompactDataOutput},
+ * and is compressed by snappy if it is not smaller than {@link Config#journal_compress_threshold_bytes}.
+ * The layout of the payload is:
+ * <pre>
+ *   codec version: byte
+ *   compression: byte, 0 for none, 1 for snappy
+ *   raw length: int
+ *   stored length: int
+ *   stored bytes
+ * </pre>
+ */
+public class JournalCodec {
+    public static final short COMPACT_OP_CODE_FLAG = 0x4000;
+
+    private static final byte CODEC_VERSION_1 = 1;
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_SNAPPY = 1;
+
+    // hot journals which dominate the size of edit log
+    private static final Set<Short> COMPACT_OP_CODES = ImmutableSet.of(
+            OperationType.OP_UPSERT_TRANSACTION_STATE,
+            OperationType.OP_DELETE_TRANSACTION_STATE,
+            OperationType.OP_ADD_REPLICA,
+            OperationType.OP_UPDATE_REPLICA,
+            OperationType.OP_DELETE_REPLICA,
+            OperationType.OP_BACKEND_TABLETS_INFO,
+            OperationType.OP_CHANGE_ROUTINE_LOAD_JOB,
+            OperationType.OP_UPDATE_LOAD_JOB,
+            OperationType.OP_END_LOAD_JOB);
+
+    public static boolean isCompactOpCode(short opCode) {
+        return COMPACT_OP_CODES.contains(opCode);
+    }
+
+    public static boolean useCompactCodec(short opCode) {
+        return Config.enable_journal_compact_codec && isCompactOpCode(opCode);
+    }
+
+    public static boolean isCompactEncoded(short opCode) {
+        return (opCode & COMPACT_OP_CODE_FLAG) != 0;
+    }
+
+    public static short encodeOpCode(short opCode) {
+        return (short) (opCode | COMPACT_OP_CODE_FLAG);
+    }
+
+    public static short decodeOpCode(short opCode) {
+        return (short) (opCode & ~COMPACT_OP_CODE_FLAG);
+    }
+
+    public static void write(DataOutput out, Writable data) throws IOException {
+        CompactDataOutput compactOut = new CompactDataOutput();
+        data.write(compactOut);
+        byte[] raw = compactOut.toByteArray();
+
+        byte compression = COMPRESSION_NONE;
+        byte[] stored = raw;
+        if (Config.journal_compress_threshold_bytes >= 0 && raw.length >= Config.journal_compress_threshold_bytes) {
+            byte[] compressed = Snappy.compress(raw);
+            if (compressed.length < raw.length) {
+                compression = COMPRESSION_SNAPPY;
+                stored = compressed;
+            }
+        }
+
+        out.writeByte(CODEC_VERSION_1);
+        out.writeByte(compression);
+        out.writeInt(raw.length);
+        out.writeInt(stored.length);
+        out.write(stored);
+    }
+
+    /**
+     * Read the payload written by {@link #write}, return the input to read the journal data from.
+     */
+    public static DataInput read(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != CODEC_VERSION_1) {
+            throw new IOException("unknown journal codec version " + version);
+        }
+        byte compression = in.readByte();
+        int rawLength = in.readInt();
+        byte[] stored = new byte[in.readInt()];
+        in.readFully(stored);
+
+        if (compression == COMPRESSION_NONE) {
+            return new CompactDataInput(stored);
+        } else if (compression == COMPRESSION_SNAPPY) {
+            byte[] raw = Snappy.uncompress(stored);
+            if (raw.length != rawLength) {
+                throw new IOException("journal payload length mismatch, expect " + rawLength + ", got " + raw.length);
+            }
+            return new CompactDataInput(raw);
+        } else {
+            throw new IOException("unknown journal compression " + compression);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.starrocks.analysis.UserIdentity;
 import com.starrocks.backup.BackupJob;
 import com.starrocks.backup.Repository;
 import com.starrocks.backup.RestoreJob;
+import com.starrocks.catalog.AsyncMaterializedView;
 import com.starrocks.catalog.BrokerMgr;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Function;
@@ -90,6 +91,7 @@ import com.starrocks.persist.TruncateTableInfo;
 import com.starrocks.persist.WorkGroupOpEntry;
 import com.starrocks.plugin.PluginInfo;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.optimizer.baseline.PlanBaseline;
 import com.starrocks.statistic.AnalyzeJob;
 import com.starrocks.system.Backend;
 import com.starrocks.system.Frontend;
@@ -130,12 +132,21 @@ public class JournalEntity implements Writable {
 
     @Override
     public void write(DataOutput out) throws IOException {
+        if (JournalCodec.useCompactCodec(opCode)) {
+            out.writeShort(JournalCodec.encodeOpCode(opCode));
+            JournalCodec.write(out, data);
+            return;
+        }
         out.writeShort(opCode);
         data.write(out);
     }
 
     public void readFields(DataInput in) throws IOException {
         opCode = in.readShort();
+        if (JournalCodec.isCompactEncoded(opCode)) {
+            opCode = JournalCodec.decodeOpCode(opCode);
+            in = JournalCodec.read(in);
+        }
         // set it to true after the entity is truly read,
         // to avoid someone forget to call read method.
         boolean isRead = false;
@@ -578,6 +589,18 @@ public class JournalEntity implements Writable {
                 isRead = true;
                 break;
             }
+            case OperationType.OP_ADD_ASYNC_MATERIALIZED_VIEW:
+            case OperationType.OP_REMOVE_ASYNC_MATERIALIZED_VIEW: {
+                data = AsyncMaterializedView.read(in);
+                isRead = true;
+                break;
+            }
+            case OperationType.OP_ADD_PLAN_BASELINE:
+            case OperationType.OP_REMOVE_PLAN_BASELINE: {
+                data = PlanBaseline.read(in);
+                isRead = true;
+                break;
+            }
             default: {
                 if (Config.ignore_unknown_log_id) {
                     LOG.warn("UNKNOWN Operation Type {}", opCode);
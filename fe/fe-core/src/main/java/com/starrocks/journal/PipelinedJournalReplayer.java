@@ -0,0 +1,248 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.OperationType;
+import com.starrocks.transaction.TransactionState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Replay journals in pipeline on non-master FE.
+ * <p>
+ * Journals are read from the journal cursor and deserialized by a prefetch thread ahead of the apply.
+ * Transaction state journals of different databases are applied in parallel on the apply lanes, journals
+ * of one database always go to the same lane, so they are applied in order. A journal of any other type
+ * is a barrier: it waits for all applying journals and then it is applied on the replay thread.
+ * <p>
+ * The prefetch thread deserializes journals with its own copy of the meta context. A meta version journal
+ * changes how the journals after it are deserialized, so the prefetch thread stops reading ahead after it,
+ * and refreshes its copy once the meta version journal is applied.
+ * <p>
+ * It must not be used by the checkpoint thread, because the apply lanes see the serving catalog only.
+ */
+public class PipelinedJournalReplayer {
+    private static final Logger LOG = LogManager.getLogger(PipelinedJournalReplayer.class);
+
+    // marks the end of the prefetched journals
+    private static final JournalEntity END_OF_CURSOR = new JournalEntity();
+
+    private final MetaContext metaContext;
+    private final int prefetchNum;
+    private final ExecutorService prefetchExecutor;
+    private final ExecutorService[] applyLanes;
+
+    public PipelinedJournalReplayer(MetaContext metaContext, int laneNum, int prefetchNum) {
+        this.metaContext = metaContext;
+        this.prefetchNum = Math.max(prefetchNum, 1);
+        this.prefetchExecutor = ThreadPoolManager.newDaemonFixedThreadPool(1, 1, "journal-prefetch", false);
+        this.applyLanes = new ExecutorService[Math.max(laneNum, 1)];
+        for (int i = 0; i < applyLanes.length; i++) {
+            applyLanes[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, this.prefetchNum,
+                    "journal-apply-lane-" + i, false);
+        }
+    }
+
+    /**
+     * Replay all journals of the cursor.
+     *
+     * @param applier   apply one journal, it is called on the replay thread or on the apply lanes
+     * @param onApplied called on the replay thread with the number of journals newly applied,
+     *                  all journals before them are applied too
+     * @return the number of replayed journals
+     */
+    public long replay(JournalCursor cursor, Consumer<JournalEntity> applier, LongConsumer onApplied) {
+        PrefetchCursor prefetchCursor = new PrefetchCursor(cursor);
+        List<Future<?>> applying = Lists.newArrayList();
+        long replayed = 0;
+        try {
+            while (true) {
+                JournalEntity entity = prefetchCursor.next();
+                if (entity == null) {
+                    break;
+                }
+                replayed++;
+                long dbId = getParallelApplyDbId(entity);
+                if (dbId < 0) {
+                    waitApplying(applying, onApplied);
+                    applier.accept(entity);
+                    onApplied.accept(1);
+                    if (isMetaVersionJournal(entity)) {
+                        prefetchCursor.resume();
+                    }
+                    continue;
+                }
+
+                ExecutorService lane = applyLanes[(int) (dbId % applyLanes.length)];
+                applying.add(lane.submit(() -> {
+                    metaContext.setThreadLocalInfo();
+                    applier.accept(entity);
+                }));
+                if (applying.size() >= prefetchNum) {
+                    waitApplying(applying, onApplied);
+                }
+            }
+            waitApplying(applying, onApplied);
+        } finally {
+            prefetchCursor.close();
+        }
+        return replayed;
+    }
+
+    private void waitApplying(List<Future<?>> applying, LongConsumer onApplied) {
+        if (applying.isEmpty()) {
+            return;
+        }
+        try {
+            for (Future<?> future : applying) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for journal apply", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("failed to apply journal", e.getCause());
+        }
+        onApplied.accept(applying.size());
+        applying.clear();
+    }
+
+    // Only the transaction state journals are applied in parallel, they only touch the transaction manager
+    // and the tables of their own database, under the locks of that database.
+    private static long getParallelApplyDbId(JournalEntity entity) {
+        switch (entity.getOpCode()) {
+            case OperationType.OP_UPSERT_TRANSACTION_STATE:
+            case OperationType.OP_DELETE_TRANSACTION_STATE:
+                return ((TransactionState) entity.getData()).getDbId();
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isMetaVersionJournal(JournalEntity entity) {
+        return entity.getOpCode() == OperationType.OP_META_VERSION ||
+                entity.getOpCode() == OperationType.OP_META_VERSION_V2;
+    }
+
+    /**
+     * Read and deserialize journals of the underlying cursor on the prefetch thread.
+     */
+    private class PrefetchCursor implements JournalCursor {
+        private final BlockingQueue<JournalEntity> queue = new LinkedBlockingQueue<>(prefetchNum);
+        // released by the replay thread after a meta version journal is applied
+        private final Semaphore metaVersionApplied = new Semaphore(0);
+        private final MetaContext prefetchContext = new MetaContext();
+        private final Future<?> prefetchFuture;
+        private volatile boolean closed = false;
+        private boolean finished = false;
+
+        PrefetchCursor(JournalCursor cursor) {
+            prefetchFuture = prefetchExecutor.submit(() -> prefetch(cursor));
+        }
+
+        private void prefetch(JournalCursor cursor) {
+            refreshMetaContext();
+            prefetchContext.setThreadLocalInfo();
+            try {
+                while (!closed) {
+                    JournalEntity entity = cursor.next();
+                    if (!put(entity == null ? END_OF_CURSOR : entity) || entity == null) {
+                        return;
+                    }
+                    if (isMetaVersionJournal(entity)) {
+                        if (!awaitMetaVersionApplied()) {
+                            return;
+                        }
+                        refreshMetaContext();
+                    }
+                }
+            } catch (Throwable t) {
+                LOG.warn("failed to prefetch journal", t);
+                put(END_OF_CURSOR);
+            }
+        }
+
+        private void refreshMetaContext() {
+            prefetchContext.setMetaVersion(metaContext.getMetaVersion());
+            prefetchContext.setStarRocksMetaVersion(metaContext.getStarRocksMetaVersion());
+        }
+
+        private boolean awaitMetaVersionApplied() {
+            try {
+                while (!closed) {
+                    if (metaVersionApplied.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        // called on the replay thread after the meta version journal is applied
+        void resume() {
+            metaVersionApplied.release();
+        }
+
+        private boolean put(JournalEntity entity) {
+            try {
+                while (!closed) {
+                    if (queue.offer(entity, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public JournalEntity next() {
+            if (finished) {
+                return null;
+            }
+            try {
+                JournalEntity entity = queue.take();
+                if (entity == END_OF_CURSOR) {
+                    finished = true;
+                    return null;
+                }
+                return entity;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finished = true;
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+            try {
+                // the underlying cursor must not be used after close
+                prefetchFuture.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOG.warn("journal prefetch failed", e.getCause());
+            }
+        }
+    }
+}
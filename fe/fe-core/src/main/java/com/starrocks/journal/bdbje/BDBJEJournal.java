@@ -143,7 +143,8 @@ public class BDBJEJournal implements Journal {
         } catch (IOException e) {
             e.printStackTrace();
         }
-        DatabaseEntry theData = new DatabaseEntry(buffer.getData());
+        // only the valid part of the buffer is written
+        DatabaseEntry theData = new DatabaseEntry(buffer.getData(), 0, buffer.getLength());
         if (MetricRepo.isInit) {
             MetricRepo.COUNTER_EDIT_LOG_SIZE_BYTES.increase((long) theData.getSize());
         }
@@ -34,6 +34,8 @@ import com.sleepycat.je.EnvironmentConfig;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.OperationStatus;
 import com.starrocks.catalog.Catalog;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.journal.JournalCodec;
 import com.starrocks.journal.JournalEntity;
 import com.starrocks.meta.MetaContext;
 import org.json.JSONArray;
@@ -42,6 +44,7 @@ import org.json.JSONObject;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.Map;
@@ -128,6 +131,10 @@ public class BDBTool {
                         metaContext.setStarRocksMetaVersion(options.getStarRocksMetaVersion());
                         metaContext.setThreadLocalInfo();
 
+                        if (options.isOpSizeStat()) {
+                            statOpSize(db, fromKey, endKey);
+                            return true;
+                        }
                         for (long key = fromKey; key <= endKey; key++) {
                             getValueByKey(db, key);
                         }
@@ -142,6 +149,44 @@ public class BDBTool {
         return true;
     }
 
+    // print count, stored size and size in compact codec of journals of each op type
+    private void statOpSize(Database db, long fromKey, long endKey) throws IOException {
+        Map<Short, long[]> opStats = Maps.newTreeMap();
+        TupleBinding<Long> myBinding = TupleBinding.getPrimitiveBinding(Long.class);
+        for (long key = fromKey; key <= endKey; key++) {
+            DatabaseEntry queryKey = new DatabaseEntry();
+            myBinding.objectToEntry(key, queryKey);
+            DatabaseEntry value = new DatabaseEntry();
+            if (db.get(null, queryKey, value, LockMode.READ_COMMITTED) != OperationStatus.SUCCESS) {
+                continue;
+            }
+            JournalEntity entity = new JournalEntity();
+            entity.readFields(new DataInputStream(new ByteArrayInputStream(value.getData())));
+
+            long compactSize = value.getSize();
+            if (JournalCodec.isCompactOpCode(entity.getOpCode())) {
+                DataOutputBuffer buffer = new DataOutputBuffer(128);
+                buffer.writeShort(JournalCodec.encodeOpCode(entity.getOpCode()));
+                JournalCodec.write(buffer, entity.getData());
+                compactSize = buffer.getLength();
+            }
+            long[] stat = opStats.computeIfAbsent(entity.getOpCode(), k -> new long[3]);
+            stat[0]++;
+            stat[1] += value.getSize();
+            stat[2] += compactSize;
+        }
+
+        JSONObject result = new JSONObject();
+        for (Map.Entry<Short, long[]> entry : opStats.entrySet()) {
+            JSONObject stat = new JSONObject();
+            stat.put("count", entry.getValue()[0]);
+            stat.put("bytes", entry.getValue()[1]);
+            stat.put("compact_bytes", entry.getValue()[2]);
+            result.put(String.valueOf(entry.getKey()), stat);
+        }
+        System.out.println(result.toString());
+    }
+
     private void getValueByKey(Database db, Long key)
             throws UnsupportedEncodingException {
 
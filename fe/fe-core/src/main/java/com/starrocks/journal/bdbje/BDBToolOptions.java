@@ -28,6 +28,7 @@ public class BDBToolOptions {
     private boolean isListDbs;
     private String dbName;
     private boolean isDbStat;
+    private boolean isOpSizeStat;
     private boolean hasFromKey;
     private String fromKey;
     private boolean hasEndKey;
@@ -37,9 +38,15 @@ public class BDBToolOptions {
 
     public BDBToolOptions(boolean isListDbs, String dbName, boolean isDbStat,
                           String fromKey, String endKey, int metaVersion, int starrocksMetaVersion) {
+        this(isListDbs, dbName, isDbStat, false, fromKey, endKey, metaVersion, starrocksMetaVersion);
+    }
+
+    public BDBToolOptions(boolean isListDbs, String dbName, boolean isDbStat, boolean isOpSizeStat,
+                          String fromKey, String endKey, int metaVersion, int starrocksMetaVersion) {
         this.isListDbs = isListDbs;
         this.dbName = dbName;
         this.isDbStat = isDbStat;
+        this.isOpSizeStat = isOpSizeStat;
         this.fromKey = fromKey;
         this.hasFromKey = !Strings.isNullOrEmpty(fromKey);
         this.endKey = endKey;
@@ -60,6 +67,10 @@ public class BDBToolOptions {
         return isDbStat;
     }
 
+    public boolean isOpSizeStat() {
+        return isOpSizeStat;
+    }
+
     public boolean hasFromKey() {
         return hasFromKey;
     }
@@ -90,6 +101,7 @@ public class BDBToolOptions {
         sb.append("list bdb database: " + isListDbs).append("\n");
         sb.append("bdb database name: " + dbName).append("\n");
         sb.append("get bdb database stat: " + isDbStat).append("\n");
+        sb.append("get journal size of op types: " + isOpSizeStat).append("\n");
         sb.append("from key" + fromKey).append("\n");
         sb.append("end key: " + endKey).append("\n");
         sb.append("meta version: " + metaVersion + "," + starrocksMetaVersion).append("\n");
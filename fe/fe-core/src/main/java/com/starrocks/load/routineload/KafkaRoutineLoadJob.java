@@ -86,6 +86,11 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     // kafka properties, property prefix will be mapped to kafka custom parameters, which can be extended in the future
     private Map<String, String> customProperties = Maps.newHashMap();
     private Map<String, String> convertedCustomProperties = Maps.newHashMap();
+    // the latest offsets of partitions fetched when scheduling tasks, used to calculate the lag of job.
+    // offset is the latest existing message offset + 1
+    private final Map<Integer, Long> latestPartitionOffsets = Maps.newConcurrentMap();
+    // last time the job is divided into tasks, used to limit the rescheduling of adaptive task num
+    private long lastDivideTimeMs = -1;
 
     public KafkaRoutineLoadJob() {
         // for serialization, id is dummy
@@ -112,6 +117,30 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return convertedCustomProperties;
     }
 
+    public void updateLatestPartitionOffsets(Map<Integer, Long> latestOffsets) {
+        latestPartitionOffsets.putAll(latestOffsets);
+    }
+
+    // the sum of lag of current kafka partitions, the partitions whose offsets are unknown are skipped
+    @Override
+    public long getLag() {
+        if (latestPartitionOffsets.isEmpty()) {
+            return -1;
+        }
+        KafkaProgress kafkaProgress = (KafkaProgress) progress;
+        long lag = 0;
+        for (Integer partition : currentKafkaPartitions) {
+            Long latestOffset = latestPartitionOffsets.get(partition);
+            Long consumedOffset = kafkaProgress.getOffsetByPartition(partition);
+            // consumed offset may be OFFSET_BEGINNING_VAL or OFFSET_END_VAL before the first task committed
+            if (latestOffset == null || consumedOffset == null || consumedOffset < 0) {
+                continue;
+            }
+            lag += Math.max(0, latestOffset - consumedOffset);
+        }
+        return lag;
+    }
+
     @Override
     public void prepare() throws UserException {
         super.prepare();
@@ -205,8 +234,11 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         LOG.debug("current concurrent task number is min"
                         + "(partition num: {}, desire task concurrent num: {}, alive be num: {}, config: {})",
                 partitionNum, desireTaskConcurrentNum, aliveBeNum, Config.max_routine_load_task_concurrent_num);
-        currentTaskConcurrentNum = Math.min(Math.min(partitionNum, Math.min(desireTaskConcurrentNum, aliveBeNum)),
+        int maxTaskNum = Math.min(Math.min(partitionNum, Math.min(desireTaskConcurrentNum, aliveBeNum)),
                 Config.max_routine_load_task_concurrent_num);
+        // merge the partitions of a quiet job into fewer tasks
+        currentTaskConcurrentNum = maxTaskNum > 0 ? getAdaptiveTaskNum(maxTaskNum) : maxTaskNum;
+        lastDivideTimeMs = System.currentTimeMillis();
         return currentTaskConcurrentNum;
     }
 
@@ -266,6 +298,35 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return kafkaTaskInfo;
     }
 
+    // when adaptive scheduling is enabled, a running job is rescheduled if its lag needs a different number of tasks,
+    // at most once per Config.routine_load_adaptive_reschedule_interval_second
+    private boolean needAdaptiveReschedule() {
+        if (!Config.enable_routine_load_adaptive_schedule || state != JobState.RUNNING) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastDivideTimeMs
+                < Config.routine_load_adaptive_reschedule_interval_second * 1000L) {
+            return false;
+        }
+        int aliveBeNum = Catalog.getCurrentSystemInfo().getClusterBackendIds(clusterName, true).size();
+        int maxTaskNum = Math.min(Math.min(currentKafkaPartitions.size(),
+                Math.min(desireTaskConcurrentNum, aliveBeNum)), Config.max_routine_load_task_concurrent_num);
+        if (maxTaskNum <= 0) {
+            return false;
+        }
+        int adaptiveTaskNum = getAdaptiveTaskNum(maxTaskNum);
+        if (adaptiveTaskNum != routineLoadTaskInfoList.size()) {
+            LOG.info(new LogBuilder(LogKey.ROUTINE_LOAD_JOB, id)
+                    .add("current_task_num", routineLoadTaskInfoList.size())
+                    .add("adaptive_task_num", adaptiveTaskNum)
+                    .add("lag", getLag())
+                    .add("msg", "task num of job will be changed by lag")
+                    .build());
+            return true;
+        }
+        return false;
+    }
+
     @Override
     protected void unprotectUpdateProgress() {
         updateNewPartitionProgress();
@@ -282,7 +343,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         if (this.state == JobState.RUNNING || this.state == JobState.NEED_SCHEDULE) {
             if (customKafkaPartitions != null && customKafkaPartitions.size() != 0) {
                 currentKafkaPartitions = customKafkaPartitions;
-                return false;
+                return needAdaptiveReschedule();
             } else {
                 List<Integer> newCurrentKafkaPartition;
                 try {
@@ -310,7 +371,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
                         }
                         return true;
                     } else {
-                        return false;
+                        return needAdaptiveReschedule();
                     }
                 } else {
                     currentKafkaPartitions = newCurrentKafkaPartition;
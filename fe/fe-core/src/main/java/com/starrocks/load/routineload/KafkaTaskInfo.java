@@ -59,6 +59,9 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
     // offset is the latest existing message offset + 1
     private Map<Integer, Long> latestPartOffset;
 
+    // the time to consume data, adjusted by the lag and throughput of job when adaptive scheduling is enabled
+    private long consumeSecond = Config.routine_load_task_consume_second;
+
     public KafkaTaskInfo(UUID id, long jobId, String clusterName, long taskScheduleIntervalMs, long timeToExecuteMs,
                          Map<Integer, Long> partitionIdToOffset) {
         super(id, jobId, clusterName, taskScheduleIntervalMs, timeToExecuteMs);
@@ -87,6 +90,7 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
                 kafkaRoutineLoadJob.getTopic(),
                 ImmutableMap.copyOf(kafkaRoutineLoadJob.getConvertedCustomProperties()),
                 new ArrayList<>(partitionIdToOffset.keySet()));
+        kafkaRoutineLoadJob.updateLatestPartitionOffsets(latestOffsets);
         for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
             int partitionId = entry.getKey();
             Long latestOffset = latestOffsets.get(partitionId);
@@ -94,6 +98,10 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
             if (latestOffset != null) {
                 if (latestOffset > consumeOffset) {
                     this.latestPartOffset = latestOffsets;
+                    this.consumeSecond = kafkaRoutineLoadJob.getTaskConsumeSecond();
+                    // the txn of task is begun after ready, make sure the task consumes in time
+                    this.timeoutMs = Math.max(1000 * Config.routine_load_task_timeout_second,
+                            2000 * consumeSecond);
                     return true;
                 } else if (latestOffset < consumeOffset) {
                     throw new RoutineLoadPauseException(
@@ -156,9 +164,14 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         tRoutineLoadTask.setKafka_load_info(tKafkaLoadInfo);
         tRoutineLoadTask.setType(TLoadSourceType.KAFKA);
         tRoutineLoadTask.setParams(plan(routineLoadJob));
-        tRoutineLoadTask.setMax_interval_s(Config.routine_load_task_consume_second);
+        tRoutineLoadTask.setMax_interval_s(consumeSecond);
         tRoutineLoadTask.setMax_batch_rows(routineLoadJob.getMaxBatchRows());
-        tRoutineLoadTask.setMax_batch_size(Config.max_routine_load_batch_size);
+        // scale the batch size with consume time, so a task consuming longer is not cut by the size limit
+        long batchSize = Config.max_routine_load_batch_size;
+        if (consumeSecond > Config.routine_load_task_consume_second && Config.routine_load_task_consume_second > 0) {
+            batchSize = batchSize / Config.routine_load_task_consume_second * consumeSecond;
+        }
+        tRoutineLoadTask.setMax_batch_size(batchSize);
         if (!routineLoadJob.getFormat().isEmpty() && routineLoadJob.getFormat().equalsIgnoreCase("json")) {
             tRoutineLoadTask.setFormat(TFileFormatType.FORMAT_JSON);
         } else {
@@ -231,6 +231,18 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
     protected long committedTaskNum = 0;
     protected long abortedTaskNum = 0;
 
+    /*
+     * The following variables are for adaptive scheduling, they are not persisted
+     * taskRowsPerSecond: moving average of the consume rate of a single task
+     * rowsPerSecond: loaded rows per second of the job in the last throughput window
+     */
+    private static final double THROUGHPUT_SMOOTHING_FACTOR = 0.3;
+    private static final long THROUGHPUT_WINDOW_MS = 10000L;
+    protected volatile double taskRowsPerSecond = 0;
+    protected volatile double rowsPerSecond = 0;
+    private long throughputWindowStartMs = System.currentTimeMillis();
+    private long throughputWindowRows = 0;
+
     // The tasks belong to this job
     protected List<RoutineLoadTaskInfo> routineLoadTaskInfoList = Lists.newArrayList();
 
@@ -602,6 +614,76 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
         updateNumOfData(attachment.getTotalRows(), attachment.getFilteredRows(), attachment.getUnselectedRows(),
                 attachment.getReceivedBytes(), attachment.getTaskExecutionTimeMs(),
                 false /* not replay */);
+        updateThroughput(attachment.getTotalRows(), attachment.getTaskExecutionTimeMs());
+    }
+
+    private void updateThroughput(long numOfTotalRows, long taskExecutionTimeMs) {
+        if (numOfTotalRows > 0 && taskExecutionTimeMs > 0) {
+            double taskRate = numOfTotalRows * 1000.0 / taskExecutionTimeMs;
+            taskRowsPerSecond = taskRowsPerSecond == 0 ? taskRate :
+                    taskRowsPerSecond * (1 - THROUGHPUT_SMOOTHING_FACTOR) + taskRate * THROUGHPUT_SMOOTHING_FACTOR;
+        }
+
+        long now = System.currentTimeMillis();
+        throughputWindowRows += numOfTotalRows;
+        if (now - throughputWindowStartMs >= THROUGHPUT_WINDOW_MS) {
+            rowsPerSecond = throughputWindowRows * 1000.0 / (now - throughputWindowStartMs);
+            throughputWindowStartMs = now;
+            throughputWindowRows = 0;
+        }
+    }
+
+    public double getTaskRowsPerSecond() {
+        return taskRowsPerSecond;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * The number of messages which are not consumed yet, -1 if it is unknown.
+     */
+    public long getLag() {
+        return -1;
+    }
+
+    /**
+     * Consume time of the next task. When adaptive scheduling is enabled and the job falls behind,
+     * tasks consume longer to load the lag in bigger batches, which saves txns.
+     */
+    public long getTaskConsumeSecond() {
+        long consumeSecond = Config.routine_load_task_consume_second;
+        if (!Config.enable_routine_load_adaptive_schedule) {
+            return consumeSecond;
+        }
+        long lag = getLag();
+        double taskRate = taskRowsPerSecond;
+        if (lag <= 0 || taskRate <= 0) {
+            return consumeSecond;
+        }
+        // the time for all the tasks to consume the lag
+        int taskNum = Math.max(1, getSizeOfRoutineLoadTaskInfoList());
+        long drainSecond = (long) Math.ceil(lag / (taskRate * taskNum));
+        return Math.max(consumeSecond, Math.min(drainSecond, Config.routine_load_task_max_consume_second));
+    }
+
+    /**
+     * The number of tasks to consume the lag in one round, which is used to merge the partitions of
+     * a quiet job into fewer tasks. Return maxTaskNum if the lag or the throughput is unknown.
+     */
+    protected int getAdaptiveTaskNum(int maxTaskNum) {
+        if (!Config.enable_routine_load_adaptive_schedule) {
+            return maxTaskNum;
+        }
+        long lag = getLag();
+        double taskRate = taskRowsPerSecond;
+        if (lag < 0 || taskRate <= 0) {
+            return maxTaskNum;
+        }
+        double rowsPerTask = taskRate * Config.routine_load_task_consume_second;
+        int taskNum = (int) Math.min(maxTaskNum, Math.ceil(lag / rowsPerTask));
+        return Math.max(1, taskNum);
     }
 
     private void updateNumOfData(long numOfTotalRows, long numOfErrorRows, long unselectedRows, long receivedBytes,
@@ -84,6 +84,11 @@ public abstract class RoutineLoadTaskInfo {
     // record task schedule info
     protected String msg;
 
+    // the order of task in the queue of RoutineLoadTaskScheduler, task with higher priority is scheduled first,
+    // and tasks with the same priority are scheduled by sequence
+    private long schedulePriority = 0;
+    private long scheduleSequence = 0;
+
     public RoutineLoadTaskInfo(UUID id, long jobId, String clusterName, long taskScheduleIntervalMs,
                                long timeToExecuteMs) {
         this.id = id;
@@ -129,6 +134,22 @@ public abstract class RoutineLoadTaskInfo {
         return beId;
     }
 
+    public long getSchedulePriority() {
+        return schedulePriority;
+    }
+
+    public void setSchedulePriority(long schedulePriority) {
+        this.schedulePriority = schedulePriority;
+    }
+
+    public long getScheduleSequence() {
+        return scheduleSequence;
+    }
+
+    public void setScheduleSequence(long scheduleSequence) {
+        this.scheduleSequence = scheduleSequence;
+    }
+
     public long getTxnId() {
         return txnId;
     }
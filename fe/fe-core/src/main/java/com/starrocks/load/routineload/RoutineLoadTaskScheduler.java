@@ -23,7 +23,6 @@ package com.starrocks.load.routineload;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.common.ClientPool;
 import com.starrocks.common.Config;
@@ -45,12 +44,15 @@ import com.starrocks.thrift.TStatusCode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Routine load task scheduler is a function which allocate task to be.
@@ -59,6 +61,9 @@ import java.util.concurrent.TimeUnit;
  * Step3: take a task from queue and schedule this task
  * <p>
  * The scheduler will be blocked in step3 till the queue receive a new task
+ * <p>
+ * When Config.enable_routine_load_adaptive_schedule is true, the tasks of job with larger lag are taken first,
+ * otherwise the tasks are taken in the order they are added.
  */
 public class RoutineLoadTaskScheduler extends MasterDaemon {
 
@@ -68,9 +73,13 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
     private static final long SLOT_FULL_SLEEP_MS = 10000; // 10s
 
     private final RoutineLoadManager routineLoadManager;
-    private final LinkedBlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingQueue();
+    private final AtomicLong taskSequence = new AtomicLong(0);
+    private final BlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = new PriorityBlockingQueue<>(64,
+            Comparator.comparingLong(RoutineLoadTaskInfo::getSchedulePriority).reversed()
+                    .thenComparingLong(RoutineLoadTaskInfo::getScheduleSequence));
     private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-    private final ExecutorService threadPool = Executors.newFixedThreadPool(10);
+    private final ExecutorService threadPool =
+            Executors.newFixedThreadPool(Config.routine_load_task_scheduler_thread_num);
 
     private long lastBackendSlotUpdateTime = -1;
 
@@ -137,11 +146,7 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
             routineLoadTaskInfo.setMsg(msg);
         }
         scheduledExecutorService.schedule(() -> {
-            try {
-                needScheduleTasksQueue.put(routineLoadTaskInfo);
-            } catch (InterruptedException exception) {
-                LOG.warn("put task to queue failed", exception);
-            }
+            addTaskInQueue(routineLoadTaskInfo);
         }, 1L, TimeUnit.SECONDS);
     }
 
@@ -292,15 +297,30 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
     }
 
     public void addTaskInQueue(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        prepareSchedule(routineLoadTaskInfo);
         needScheduleTasksQueue.add(routineLoadTaskInfo);
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
     }
 
     public void addTasksInQueue(List<RoutineLoadTaskInfo> routineLoadTaskInfoList) {
+        routineLoadTaskInfoList.forEach(this::prepareSchedule);
         needScheduleTasksQueue.addAll(routineLoadTaskInfoList);
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
     }
 
+    // the priority must not be changed when task is in queue, so it is calculated before adding task to queue
+    private void prepareSchedule(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        long priority = 0;
+        if (Config.enable_routine_load_adaptive_schedule) {
+            RoutineLoadJob job = routineLoadManager.getJob(routineLoadTaskInfo.getJobId());
+            if (job != null) {
+                priority = Math.max(0, job.getLag());
+            }
+        }
+        routineLoadTaskInfo.setSchedulePriority(priority);
+        routineLoadTaskInfo.setScheduleSequence(taskSequence.incrementAndGet());
+    }
+
     private void submitTask(long beId, TRoutineLoadTask tTask) throws LoadException {
         Backend backend = Catalog.getCurrentSystemInfo().getBackend(beId);
         if (backend == null) {
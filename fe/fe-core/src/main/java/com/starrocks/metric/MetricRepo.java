@@ -50,14 +50,23 @@ import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.proto.PKafkaOffsetProxyRequest;
 import com.starrocks.proto.PKafkaOffsetProxyResult;
 import com.starrocks.service.ExecuteEnv;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.system.Backend;
 import com.starrocks.system.SystemInfoService;
+import com.starrocks.task.AgentTaskQueue;
+import com.starrocks.thrift.TTaskType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -70,6 +79,30 @@ public final class MetricRepo {
     private static final StarRocksMetricRegistry STARROCKS_METRIC_REGISTER = new StarRocksMetricRegistry();
 
     public static volatile boolean isInit = false;
+
+    // groups of metrics which can be selected by scrapers, table metrics are selected separately
+    public enum MetricGroup {
+        JVM,
+        STARROCKS,
+        HISTOGRAM,
+        // routine load lag, it calls kafka api to get the latest offsets
+        ROUTINE_LOAD,
+        NODE_INFO
+    }
+
+    private static class MetricSnapshot {
+        private final long createTime;
+        // owned by the snapshot, released when the snapshot is replaced
+        private final ByteBuf content;
+
+        MetricSnapshot(long createTime, ByteBuf content) {
+            this.createTime = createTime;
+            this.content = content;
+        }
+    }
+
+    // metric groups and table metrics options -> prometheus metrics
+    private static final Map<String, MetricSnapshot> PROMETHEUS_SNAPSHOTS = new HashMap<>();
     public static final SystemMetrics SYSTEM_METRICS = new SystemMetrics();
 
     public static final String TABLET_NUM = "tablet_num";
@@ -81,6 +114,10 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_TIMEOUT;
     public static LongCounterMetric COUNTER_QUERY_SUCCESS;
     public static LongCounterMetric COUNTER_SLOW_QUERY;
+    public static LongCounterMetric COUNTER_LOW_CARDINALITY_COLUMN;
+    public static LongCounterMetric COUNTER_GLOBAL_DICT_HIT;
+    public static LongCounterMetric COUNTER_GLOBAL_DICT_MERGE;
+    public static LongCounterMetric COUNTER_QUERY_GLOBAL_DICT_OPTIMIZED;
     public static LongCounterMetric COUNTER_LOAD_ADD;
     public static LongCounterMetric COUNTER_LOAD_FINISHED;
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
@@ -96,14 +133,20 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
+    public static LongCounterMetric COUNTER_FUNCTION_RESOLVE_TOTAL;
+    public static LongCounterMetric COUNTER_FUNCTION_RESOLVE_CACHE_HIT;
+    public static LongCounterMetric COUNTER_AGENT_TASK_ADD_CONFLICT;
 
     public static Histogram HISTO_QUERY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
+    public static Map<PlannerProfile.Phase, Histogram> HISTO_PLANNER_PHASE_LATENCY;
+    public static Histogram HISTO_PLANNER_MEMO_GROUPS;
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
     public static GaugeMetricImpl<Double> GAUGE_REQUEST_PER_SECOND;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_ERR_RATE;
+    public static GaugeMetricImpl<Double> GAUGE_JOURNAL_REPLAY_PER_SECOND;
     // these query latency is different from HISTO_QUERY_LATENCY, for these only summarize the latest queries, but HISTO_QUERY_LATENCY summarizes all queries.
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_MEAN;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_MEDIAN;
@@ -211,6 +254,25 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(metaLogCount);
 
+        // journal replay lag of non-master frontends
+        GaugeMetric<Long> replayLag = new GaugeMetric<Long>(
+                "journal_replay_lag", MetricUnit.NOUNIT, "number of journals not replayed yet") {
+            @Override
+            public Long getValue() {
+                return Catalog.getCurrentCatalog().getReplayLagJournalNum();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(replayLag);
+
+        GaugeMetric<Long> replayDelay = new GaugeMetric<Long>(
+                "journal_replay_delay_ms", MetricUnit.MILLISECONDS, "time since the last replayed timestamp journal") {
+            @Override
+            public Long getValue() {
+                return Catalog.getCurrentCatalog().getReplayDelayMs();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(replayDelay);
+
         // scheduled tablet num
         GaugeMetric<Long> scheduledTabletNum = (GaugeMetric<Long>) new GaugeMetric<Long>(
                 "scheduled_tablet_num", MetricUnit.NOUNIT, "number of tablets being scheduled") {
@@ -224,6 +286,59 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(scheduledTabletNum);
 
+        // ratio of low cardinality string columns scanned with usable global dict
+        GaugeMetric<Double> globalDictCoverage = (GaugeMetric<Double>) new GaugeMetric<Double>(
+                "global_dict_coverage", MetricUnit.PERCENT,
+                "percentage of low cardinality string columns scanned by queries with usable global dict") {
+            @Override
+            public Double getValue() {
+                long total = COUNTER_LOW_CARDINALITY_COLUMN.getValue();
+                return total == 0 ? 0.0 : COUNTER_GLOBAL_DICT_HIT.getValue() * 100.0 / total;
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(globalDictCoverage);
+
+        // tablet repair throughput and the estimated time to repair all the unhealthy tablets
+        GaugeMetric<Double> tabletRepairRate = (GaugeMetric<Double>) new GaugeMetric<Double>(
+                "tablet_repair_rate", MetricUnit.NOUNIT, "number of tablets repaired per second") {
+            @Override
+            public Double getValue() {
+                if (!Catalog.getCurrentCatalog().isMaster()) {
+                    return 0.0;
+                }
+                return Catalog.getCurrentCatalog().getTabletScheduler().getRepairTabletsPerSecond();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(tabletRepairRate);
+
+        GaugeMetric<Long> tabletRepairEta = (GaugeMetric<Long>) new GaugeMetric<Long>(
+                "tablet_repair_eta_seconds", MetricUnit.SECONDS,
+                "estimated seconds to repair all the unhealthy tablets, -1 if the tablets are not being repaired") {
+            @Override
+            public Long getValue() {
+                if (!Catalog.getCurrentCatalog().isMaster()) {
+                    return 0L;
+                }
+                Catalog catalog = Catalog.getCurrentCatalog();
+                return catalog.getTabletScheduler().getRepairEtaSeconds(
+                        catalog.getTabletChecker().getLastUnhealthyTabletNum());
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(tabletRepairEta);
+
+        // agent tasks in queue
+        for (TTaskType taskType : TTaskType.values()) {
+            GaugeMetric<Long> gauge = new GaugeMetric<Long>("agent_task_queue_size",
+                    MetricUnit.NOUNIT, "number of agent tasks in queue") {
+                @Override
+                public Long getValue() {
+                    return (long) AgentTaskQueue.getTaskNum(taskType);
+                }
+            };
+            gauge.addLabel(new MetricLabel("type", taskType.name()));
+            STARROCKS_METRIC_REGISTER.addMetric(gauge);
+        }
+
         // routine load jobs
         RoutineLoadManager routineLoadManger = Catalog.getCurrentCatalog().getRoutineLoadManager();
         for (RoutineLoadJob.JobState state : RoutineLoadJob.JobState.values()) {
@@ -255,6 +370,11 @@ public final class MetricRepo {
         GAUGE_QUERY_ERR_RATE.setValue(0.0);
         STARROCKS_METRIC_REGISTER.addMetric(GAUGE_QUERY_ERR_RATE);
 
+        GAUGE_JOURNAL_REPLAY_PER_SECOND = new GaugeMetricImpl<>("journal_replay_per_second", MetricUnit.NOUNIT,
+                "journals replayed per second");
+        GAUGE_JOURNAL_REPLAY_PER_SECOND.setValue(0.0);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_JOURNAL_REPLAY_PER_SECOND);
+
         GAUGE_MAX_TABLET_COMPACTION_SCORE = new GaugeMetricImpl<>("max_tablet_compaction_score",
                 MetricUnit.NOUNIT, "max tablet compaction score of all backends");
         GAUGE_MAX_TABLET_COMPACTION_SCORE.setValue(0L);
@@ -315,6 +435,18 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_SUCCESS);
         COUNTER_SLOW_QUERY = new LongCounterMetric("slow_query", MetricUnit.REQUESTS, "total slow query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SLOW_QUERY);
+        COUNTER_LOW_CARDINALITY_COLUMN = new LongCounterMetric("low_cardinality_column_total", MetricUnit.NOUNIT,
+                "total low cardinality string columns scanned by queries");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOW_CARDINALITY_COLUMN);
+        COUNTER_GLOBAL_DICT_HIT = new LongCounterMetric("global_dict_hit", MetricUnit.NOUNIT,
+                "total low cardinality string columns scanned by queries with usable global dict");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_GLOBAL_DICT_HIT);
+        COUNTER_GLOBAL_DICT_MERGE = new LongCounterMetric("global_dict_merge", MetricUnit.NOUNIT,
+                "total incremental merges of global dicts");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_GLOBAL_DICT_MERGE);
+        COUNTER_QUERY_GLOBAL_DICT_OPTIMIZED = new LongCounterMetric("query_global_dict_optimized",
+                MetricUnit.REQUESTS, "total queries optimized by global dicts");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_GLOBAL_DICT_OPTIMIZED);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
         COUNTER_ROUTINE_LOAD_PAUSED =
@@ -358,10 +490,28 @@ public final class MetricRepo {
                 "total error rows of routine load");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_ERROR_ROWS);
 
+        COUNTER_FUNCTION_RESOLVE_TOTAL = new LongCounterMetric("function_resolve_total", MetricUnit.REQUESTS,
+                "total builtin function resolutions during analysis");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_FUNCTION_RESOLVE_TOTAL);
+        COUNTER_FUNCTION_RESOLVE_CACHE_HIT = new LongCounterMetric("function_resolve_cache_hit", MetricUnit.REQUESTS,
+                "builtin function resolutions served by the resolution cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_FUNCTION_RESOLVE_CACHE_HIT);
+
+        COUNTER_AGENT_TASK_ADD_CONFLICT = new LongCounterMetric("agent_task_add_conflict", MetricUnit.REQUESTS,
+                "agent tasks rejected because a task with the same signature is queued");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_AGENT_TASK_ADD_CONFLICT);
+
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
         HISTO_EDIT_LOG_WRITE_LATENCY =
                 METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "write", "latency", "ms"));
+        Map<PlannerProfile.Phase, Histogram> plannerPhaseLatency = new EnumMap<>(PlannerProfile.Phase.class);
+        for (PlannerProfile.Phase phase : PlannerProfile.Phase.values()) {
+            plannerPhaseLatency.put(phase,
+                    METRIC_REGISTER.histogram(MetricRegistry.name("planner", phase.getMetricName(), "latency", "ms")));
+        }
+        HISTO_PLANNER_PHASE_LATENCY = plannerPhaseLatency;
+        HISTO_PLANNER_MEMO_GROUPS = METRIC_REGISTER.histogram(MetricRegistry.name("planner", "memo", "groups"));
 
         // init system metrics
         initSystemMetrics();
@@ -475,17 +625,74 @@ public final class MetricRepo {
             return "";
         }
 
+        visitMetrics(visitor, getDefaultMetricGroups(), collectTableMetrics, minifyTableMetrics);
+        return visitor.build();
+    }
+
+    public static Set<MetricGroup> getDefaultMetricGroups() {
+        Set<MetricGroup> groups = EnumSet.of(MetricGroup.JVM, MetricGroup.STARROCKS, MetricGroup.HISTOGRAM,
+                MetricGroup.NODE_INFO);
+        if (Config.enable_routine_load_lag_metrics) {
+            groups.add(MetricGroup.ROUTINE_LOAD);
+        }
+        return groups;
+    }
+
+    /**
+     * Get the metrics in prometheus format. The metrics are written into a byte buffer as they are visited,
+     * and the result is cached for Config.metrics_snapshot_ttl_ms, so concurrent scrapers share one visit.
+     * A retained duplicate of the cached buffer is returned without copying, the caller must release it,
+     * which is done by netty after the buffer is written to the response.
+     */
+    public static synchronized ByteBuf getPrometheusMetric(Set<MetricGroup> groups, boolean collectTableMetrics,
+                                                           boolean minifyTableMetrics) {
+        if (!isInit) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+
+        String key = groups + "," + collectTableMetrics + "," + minifyTableMetrics;
+        MetricSnapshot snapshot = PROMETHEUS_SNAPSHOTS.get(key);
+        long now = System.currentTimeMillis();
+        if (snapshot != null && now - snapshot.createTime < Config.metrics_snapshot_ttl_ms) {
+            return snapshot.content.retainedDuplicate();
+        }
+
+        // size the buffer by the last snapshot to avoid growing it
+        ByteBuf buffer = Unpooled.buffer(snapshot == null ? 64 * 1024 : snapshot.content.readableBytes() + 1024);
+        try {
+            PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe", buffer);
+            visitMetrics(visitor, groups, collectTableMetrics, minifyTableMetrics);
+            visitor.build();
+        } catch (RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+        // the responses still writing the old snapshot hold their own references
+        if (snapshot != null) {
+            snapshot.content.release();
+        }
+        PROMETHEUS_SNAPSHOTS.put(key, new MetricSnapshot(now, buffer));
+        return buffer.retainedDuplicate();
+    }
+
+    private static void visitMetrics(MetricVisitor visitor, Set<MetricGroup> groups, boolean collectTableMetrics,
+                                     boolean minifyTableMetrics) {
         // update the metrics first
         updateMetrics();
 
         // jvm
-        JvmService jvmService = new JvmService();
-        JvmStats jvmStats = jvmService.stats();
-        visitor.visitJvm(jvmStats);
+        if (groups.contains(MetricGroup.JVM)) {
+            JvmService jvmService = new JvmService();
+            JvmStats jvmStats = jvmService.stats();
+            visitor.visitJvm(jvmStats);
+        }
 
         // starrocks metrics
-        for (Metric metric : STARROCKS_METRIC_REGISTER.getMetrics()) {
-            visitor.visit(metric);
+        if (groups.contains(MetricGroup.STARROCKS)) {
+            for (Metric metric : STARROCKS_METRIC_REGISTER.getMetrics()) {
+                visitor.visit(metric);
+            }
+            collectRoutineLoadJobMetrics(visitor);
         }
 
         // table metrics
@@ -494,19 +701,22 @@ public final class MetricRepo {
         }
 
         // histogram
-        SortedMap<String, Histogram> histograms = METRIC_REGISTER.getHistograms();
-        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
-            visitor.visitHistogram(entry.getKey(), entry.getValue());
+        if (groups.contains(MetricGroup.HISTOGRAM)) {
+            SortedMap<String, Histogram> histograms = METRIC_REGISTER.getHistograms();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                visitor.visitHistogram(entry.getKey(), entry.getValue());
+            }
         }
 
         // collect routine load process metrics
-        if (Config.enable_routine_load_lag_metrics) {
+        if (groups.contains(MetricGroup.ROUTINE_LOAD)) {
             collectRoutineLoadProcessMetrics(visitor);
         }
 
         // node info
-        visitor.getNodeInfo();
-        return visitor.build();
+        if (groups.contains(MetricGroup.NODE_INFO)) {
+            visitor.getNodeInfo();
+        }
     }
 
     // update some metrics to make a ready to be visited
@@ -545,6 +755,34 @@ public final class MetricRepo {
         }
     }
 
+    // collect the lag and throughput of routine load jobs recorded when scheduling, it does not call kafka api
+    static void collectRoutineLoadJobMetrics(MetricVisitor visitor) {
+        RoutineLoadManager routineLoadManager = Catalog.getCurrentCatalog().getRoutineLoadManager();
+        if (routineLoadManager == null) {
+            return;
+        }
+        List<RoutineLoadJob> jobs = routineLoadManager.getRoutineLoadJobByState(
+                Sets.newHashSet(RoutineLoadJob.JobState.NEED_SCHEDULE, RoutineLoadJob.JobState.RUNNING));
+        // samples of a metric family must be contiguous, so write all the lags before all the rates
+        for (RoutineLoadJob job : jobs) {
+            long lag = job.getLag();
+            if (lag >= 0) {
+                GaugeMetricImpl<Long> lagMetric =
+                        new GaugeMetricImpl<>("routine_load_job_lag", MetricUnit.NOUNIT, "lag of routine load job");
+                lagMetric.addLabel(new MetricLabel("job_name", job.getName()));
+                lagMetric.setValue(lag);
+                visitor.visit(lagMetric);
+            }
+        }
+        for (RoutineLoadJob job : jobs) {
+            GaugeMetricImpl<Double> rateMetric = new GaugeMetricImpl<>("routine_load_job_rows_per_second",
+                    MetricUnit.ROWS, "loaded rows per second of routine load job");
+            rateMetric.addLabel(new MetricLabel("job_name", job.getName()));
+            rateMetric.setValue(job.getRowsPerSecond());
+            visitor.visit(rateMetric);
+        }
+    }
+
     private static void collectRoutineLoadProcessMetrics(MetricVisitor visitor) {
         List<RoutineLoadJob> jobs = Catalog.getCurrentCatalog().getRoutineLoadManager().getRoutineLoadJobByState(
                 Sets.newHashSet(RoutineLoadJob.JobState.NEED_SCHEDULE, RoutineLoadJob.JobState.RUNNING));
@@ -25,16 +25,19 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Snapshot;
 import com.google.common.base.Joiner;
 import com.starrocks.catalog.Catalog;
+import com.starrocks.common.Config;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.monitor.jvm.JvmStats.BufferPool;
 import com.starrocks.monitor.jvm.JvmStats.GarbageCollector;
 import com.starrocks.monitor.jvm.JvmStats.MemoryPool;
 import com.starrocks.monitor.jvm.JvmStats.Threads;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /*
@@ -42,6 +45,9 @@ import java.util.stream.Collectors;
  * # HELP starrocks_fe_job_load_broker_cost_ms starrocks_fe_job_load_broker_cost_ms
  * # TYPE starrocks_fe_job_load_broker_cost_ms gauge
  * starrocks_fe_job{job="load", type="mini", state="pending"} 0
+ *
+ * If an output buffer is given, the text is flushed into it as it is built, instead of being kept in
+ * one big string. The series of a metric name are limited by Config.metrics_max_series_per_name.
  */
 public class PrometheusMetricVisitor extends MetricVisitor {
     // jvm
@@ -54,15 +60,41 @@ public class PrometheusMetricVisitor extends MetricVisitor {
     private static final String JVM_OLD_GC = "jvm_old_gc";
     private static final String JVM_THREAD = "jvm_thread";
 
+    private static final String SERIES_DROPPED = "metrics_series_dropped";
+
     private static final String HELP = "# HELP ";
     private static final String TYPE = "# TYPE ";
 
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
     private StringBuilder sb;
-    private Set<String> metricNames = new HashSet();
+    // full metric name -> number of series
+    private Map<String, Integer> metricSeries = new HashMap<>();
+    private long droppedSeries = 0;
+    private final ByteBuf out;
 
     public PrometheusMetricVisitor(String prefix) {
+        this(prefix, null);
+    }
+
+    public PrometheusMetricVisitor(String prefix, ByteBuf out) {
         super(prefix);
-        sb = new StringBuilder();
+        this.sb = new StringBuilder();
+        this.out = out;
+    }
+
+    private void maybeFlush() {
+        if (out != null && sb.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Write all the text built so far into the output buffer, should be called after all metrics are visited
+     */
+    public void flush() {
+        ByteBufUtil.writeUtf8(out, sb);
+        sb.setLength(0);
     }
 
     @Override
@@ -151,6 +183,7 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         sb.append(Joiner.on(" ").join(TYPE, JVM_THREAD, "gauge\n"));
         sb.append(JVM_THREAD).append("{type=\"count\"} ").append(threads.getCount()).append("\n");
         sb.append(JVM_THREAD).append("{type=\"peak_count\"} ").append(threads.getPeakCount()).append("\n");
+        maybeFlush();
         return;
     }
 
@@ -158,11 +191,15 @@ public class PrometheusMetricVisitor extends MetricVisitor {
     public void visit(@SuppressWarnings("rawtypes") Metric metric) {
         // title
         final String fullName = prefix + "_" + metric.getName();
+        int seriesNum = metricSeries.merge(fullName, 1, Integer::sum);
+        if (Config.metrics_max_series_per_name >= 0 && seriesNum > Config.metrics_max_series_per_name) {
+            droppedSeries++;
+            return;
+        }
         // SR-57 : Fix prometheus parse error : 'second HELP line for metric name ..'
-        if (!metricNames.contains(fullName)) {
+        if (seriesNum == 1) {
             sb.append(HELP).append(fullName).append(" ").append(metric.getDescription()).append("\n");
             sb.append(TYPE).append(fullName).append(" ").append(metric.getType().name().toLowerCase()).append("\n");
-            metricNames.add(fullName);
         }
         sb.append(fullName);
 
@@ -179,6 +216,7 @@ public class PrometheusMetricVisitor extends MetricVisitor {
 
         // value
         sb.append(" ").append(metric.getValue().toString()).append("\n");
+        maybeFlush();
         return;
     }
 
@@ -196,6 +234,7 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         sb.append(fullName).append("{quantile=\"0.999\"} ").append(snapshot.get999thPercentile()).append("\n");
         sb.append(fullName).append("_sum ").append(histogram.getCount() * snapshot.getMean()).append("\n");
         sb.append(fullName).append("_count ").append(histogram.getCount()).append("\n");
+        maybeFlush();
         return;
     }
 
@@ -219,11 +258,27 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         if (Catalog.getCurrentCatalog().isMaster()) {
             sb.append(NODE_INFO).append("{type=\"is_master\"} ").append(1).append("\n");
         }
+        maybeFlush();
         return;
     }
 
+    private void visitDroppedSeries() {
+        if (droppedSeries > 0) {
+            final String fullName = prefix + "_" + SERIES_DROPPED;
+            sb.append(HELP).append(fullName).append(" series dropped by metrics_max_series_per_name\n");
+            sb.append(TYPE).append(fullName).append(" gauge\n");
+            sb.append(fullName).append(" ").append(droppedSeries).append("\n");
+            droppedSeries = 0;
+        }
+    }
+
     @Override
     public String build() {
+        visitDroppedSeries();
+        if (out != null) {
+            flush();
+            return "";
+        }
         return sb.toString();
     }
 }
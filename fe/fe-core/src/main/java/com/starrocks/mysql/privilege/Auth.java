@@ -89,6 +89,11 @@ public class Auth implements Writable {
 
     private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private Class<?> authClazz = null;
+    // increased every time the privileges may be changed, used to invalidate the cached results of privilege checks
+    private volatile long version = 0;
+    // the index of privileges built at the version, rebuilt lazily after the privileges are changed
+    private volatile PrivIndex privIndex = null;
+    private final Object privIndexLock = new Object();
 
     private void readLock() {
         lock.readLock().lock();
@@ -103,9 +108,35 @@ public class Auth implements Writable {
     }
 
     private void writeUnlock() {
+        version++;
         lock.writeLock().unlock();
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    private PrivIndex getPrivIndex() {
+        PrivIndex index = privIndex;
+        if (index != null && index.getVersion() == version) {
+            return index;
+        }
+        synchronized (privIndexLock) {
+            index = privIndex;
+            if (index != null && index.getVersion() == version) {
+                return index;
+            }
+            readLock();
+            try {
+                index = PrivIndex.build(version, index, userPrivTable, dbPrivTable, tablePrivTable);
+            } finally {
+                readUnlock();
+            }
+            privIndex = index;
+            return index;
+        }
+    }
+
     public enum PrivLevel {
         GLOBAL, DATABASE, TABLE, RESOURCE
     }
@@ -339,12 +370,7 @@ public class Auth implements Writable {
      * if so, the database should be visible to this user.
      */
     private boolean checkTblWithDb(UserIdentity currentUser, String db) {
-        readLock();
-        try {
-            return tablePrivTable.hasPrivsOfDb(currentUser, db);
-        } finally {
-            readUnlock();
-        }
+        return getPrivIndex().hasTblPrivsOfDb(currentUser, db);
     }
 
     public boolean checkTblPriv(ConnectContext ctx, String qualifiedDb, String tbl, PrivPredicate wanted) {
@@ -442,45 +468,22 @@ public class Auth implements Writable {
         return false;
     }
 
+    // the global, db and table level privileges are read from the index without lock
     private boolean checkGlobalInternal(UserIdentity currentUser, PrivPredicate wanted, PrivBitSet savedPrivs) {
-        readLock();
-        try {
-            userPrivTable.getPrivs(currentUser, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
-            return false;
-        } finally {
-            readUnlock();
-        }
+        savedPrivs.or(getPrivIndex().getGlobalPrivs(currentUser));
+        return Privilege.satisfy(savedPrivs, wanted);
     }
 
     private boolean checkDbInternal(UserIdentity currentUser, String db, PrivPredicate wanted,
                                     PrivBitSet savedPrivs) {
-        readLock();
-        try {
-            dbPrivTable.getPrivs(currentUser, db, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
-        } finally {
-            readUnlock();
-        }
-        return false;
+        savedPrivs.or(getPrivIndex().getDbPrivs(currentUser, db));
+        return Privilege.satisfy(savedPrivs, wanted);
     }
 
     private boolean checkTblInternal(UserIdentity currentUser, String db, String tbl,
                                      PrivPredicate wanted, PrivBitSet savedPrivs) {
-        readLock();
-        try {
-            tablePrivTable.getPrivs(currentUser, db, tbl, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
-            return false;
-        } finally {
-            readUnlock();
-        }
+        savedPrivs.or(getPrivIndex().getTblPrivs(currentUser, db, tbl));
+        return Privilege.satisfy(savedPrivs, wanted);
     }
 
     private boolean checkResourceInternal(UserIdentity currentUser, String resourceName,
@@ -503,6 +506,7 @@ public class Auth implements Writable {
         dbPrivTable.clear();
         tablePrivTable.clear();
         resourcePrivTable.clear();
+        version++;
     }
 
     // create user
@@ -1475,6 +1479,7 @@ public class Auth implements Writable {
             // init root and admin user
             initUser();
         }
+        version++;
     }
 
     @Override
@@ -142,6 +142,22 @@ public class PrivBitSet implements Writable {
         return newSet;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PrivBitSet)) {
+            return false;
+        }
+        return set == ((PrivBitSet) obj).set;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(set);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
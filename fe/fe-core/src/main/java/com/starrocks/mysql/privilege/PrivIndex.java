@@ -0,0 +1,246 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql.privilege;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.common.PatternMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable index of the global, db and table level privileges of users, built from the privilege tables
+ * of {@link Auth}. It can be read without the lock of Auth.
+ * <p>
+ * The privileges of a user on a db or table come from the first entry of the user matching the db or table,
+ * as what the privilege tables do. The result is resolved when the db or table is checked at the first time,
+ * and saved in per-db and per-table caches, so the following checks don't match the patterns of entries again.
+ * The caches are bounded by Config.privilege_index_cache_size, since the checked names are given by the users
+ * and may not exist.
+ * <p>
+ * When the privileges are changed, a new index is built. The users whose entries are not changed keep their
+ * resolved privileges in the new index.
+ */
+public class PrivIndex {
+    private static final PrivBitSet EMPTY_PRIVS = PrivBitSet.of();
+
+    private final long version;
+    // (qualified user, host) -> privileges of user
+    private final Map<Pair<String, String>, UserPrivs> userToPrivs;
+
+    private PrivIndex(long version, Map<Pair<String, String>, UserPrivs> userToPrivs) {
+        this.version = version;
+        this.userToPrivs = userToPrivs;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public PrivBitSet getGlobalPrivs(UserIdentity currentUser) {
+        UserPrivs privs = getUserPrivs(currentUser);
+        return privs == null ? EMPTY_PRIVS : privs.globalPrivs;
+    }
+
+    public PrivBitSet getDbPrivs(UserIdentity currentUser, String db) {
+        UserPrivs privs = getUserPrivs(currentUser);
+        return privs == null ? EMPTY_PRIVS : privs.getDbPrivs(db);
+    }
+
+    public PrivBitSet getTblPrivs(UserIdentity currentUser, String db, String tbl) {
+        UserPrivs privs = getUserPrivs(currentUser);
+        return privs == null ? EMPTY_PRIVS : privs.getTblPrivs(db, tbl);
+    }
+
+    public boolean hasTblPrivsOfDb(UserIdentity currentUser, String db) {
+        UserPrivs privs = getUserPrivs(currentUser);
+        return privs != null && privs.hasTblPrivsOfDb(db);
+    }
+
+    private UserPrivs getUserPrivs(UserIdentity currentUser) {
+        return userToPrivs.get(Pair.create(currentUser.getQualifiedUser(), currentUser.getHost()));
+    }
+
+    /**
+     * Build the index from the privilege tables, the invoker should hold the read lock of Auth.
+     * The resolved privileges of users are reused from oldIndex if their entries are not changed.
+     */
+    public static PrivIndex build(long version, PrivIndex oldIndex, UserPrivTable userPrivTable,
+                                  DbPrivTable dbPrivTable, TablePrivTable tablePrivTable) {
+        Map<Pair<String, String>, PrivBitSet> globalPrivs = Maps.newHashMap();
+        for (PrivEntry entry : userPrivTable.entries) {
+            globalPrivs.putIfAbsent(getUserKey(entry), entry.getPrivSet().copy());
+        }
+        Map<Pair<String, String>, ImmutableList.Builder<DbRule>> dbRules = Maps.newHashMap();
+        for (PrivEntry entry : dbPrivTable.entries) {
+            dbRules.computeIfAbsent(getUserKey(entry), k -> ImmutableList.builder())
+                    .add(new DbRule((DbPrivEntry) entry));
+        }
+        Map<Pair<String, String>, ImmutableList.Builder<TblRule>> tblRules = Maps.newHashMap();
+        for (PrivEntry entry : tablePrivTable.entries) {
+            tblRules.computeIfAbsent(getUserKey(entry), k -> ImmutableList.builder())
+                    .add(new TblRule((TablePrivEntry) entry));
+        }
+
+        Set<Pair<String, String>> users = Sets.newHashSet(globalPrivs.keySet());
+        users.addAll(dbRules.keySet());
+        users.addAll(tblRules.keySet());
+        ImmutableMap.Builder<Pair<String, String>, UserPrivs> userToPrivs = ImmutableMap.builder();
+        for (Pair<String, String> user : users) {
+            UserPrivs privs = new UserPrivs(globalPrivs.getOrDefault(user, EMPTY_PRIVS),
+                    dbRules.containsKey(user) ? dbRules.get(user).build() : ImmutableList.of(),
+                    tblRules.containsKey(user) ? tblRules.get(user).build() : ImmutableList.of());
+            UserPrivs oldPrivs = oldIndex == null ? null : oldIndex.userToPrivs.get(user);
+            userToPrivs.put(user, privs.sameRules(oldPrivs) ? oldPrivs : privs);
+        }
+        return new PrivIndex(version, userToPrivs.build());
+    }
+
+    private static Pair<String, String> getUserKey(PrivEntry entry) {
+        return Pair.create(entry.getOrigUser(), entry.getOrigHost());
+    }
+
+    private static class UserPrivs {
+        private final PrivBitSet globalPrivs;
+        private final List<DbRule> dbRules;
+        private final List<TblRule> tblRules;
+
+        // resolved privileges: db -> privs, (db, tbl) -> privs
+        private final Cache<String, PrivBitSet> dbToPrivs = newCache();
+        private final Cache<Pair<String, String>, PrivBitSet> tblToPrivs = newCache();
+        private final Cache<String, Boolean> dbToHasTblPrivs = newCache();
+
+        UserPrivs(PrivBitSet globalPrivs, List<DbRule> dbRules, List<TblRule> tblRules) {
+            this.globalPrivs = globalPrivs;
+            this.dbRules = dbRules;
+            this.tblRules = tblRules;
+        }
+
+        private static <K, V> Cache<K, V> newCache() {
+            return Caffeine.newBuilder().maximumSize(Config.privilege_index_cache_size).build();
+        }
+
+        boolean sameRules(UserPrivs other) {
+            return other != null && globalPrivs.equals(other.globalPrivs) && dbRules.equals(other.dbRules)
+                    && tblRules.equals(other.tblRules);
+        }
+
+        PrivBitSet getDbPrivs(String db) {
+            if (dbRules.isEmpty()) {
+                return EMPTY_PRIVS;
+            }
+            if (db == null) {
+                return resolveDbPrivs(null);
+            }
+            return dbToPrivs.get(db, this::resolveDbPrivs);
+        }
+
+        PrivBitSet getTblPrivs(String db, String tbl) {
+            if (tblRules.isEmpty()) {
+                return EMPTY_PRIVS;
+            }
+            if (db == null || tbl == null) {
+                return resolveTblPrivs(db, tbl);
+            }
+            return tblToPrivs.get(Pair.create(db, tbl), k -> resolveTblPrivs(db, tbl));
+        }
+
+        boolean hasTblPrivsOfDb(String db) {
+            if (tblRules.isEmpty()) {
+                return false;
+            }
+            if (db == null) {
+                return tblRules.stream().anyMatch(rule -> rule.dbPattern.match(null));
+            }
+            return dbToHasTblPrivs.get(db,
+                    k -> tblRules.stream().anyMatch(rule -> rule.dbPattern.match(db)));
+        }
+
+        private PrivBitSet resolveDbPrivs(String db) {
+            for (DbRule rule : dbRules) {
+                if (rule.anyDb || rule.dbPattern.match(db)) {
+                    return rule.privs;
+                }
+            }
+            return EMPTY_PRIVS;
+        }
+
+        private PrivBitSet resolveTblPrivs(String db, String tbl) {
+            for (TblRule rule : tblRules) {
+                if (rule.dbPattern.match(db) && rule.tblPattern.match(tbl)) {
+                    return rule.privs;
+                }
+            }
+            return EMPTY_PRIVS;
+        }
+    }
+
+    private static class DbRule {
+        private final String origDb;
+        private final boolean anyDb;
+        private final PatternMatcher dbPattern;
+        private final PrivBitSet privs;
+
+        DbRule(DbPrivEntry entry) {
+            this.origDb = entry.getOrigDb();
+            this.anyDb = entry.isAnyDb();
+            this.dbPattern = entry.getDbPattern();
+            this.privs = entry.getPrivSet().copy();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DbRule)) {
+                return false;
+            }
+            DbRule other = (DbRule) obj;
+            return Objects.equals(origDb, other.origDb) && privs.equals(other.privs);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origDb, privs);
+        }
+    }
+
+    private static class TblRule {
+        private final String origDb;
+        private final String origTbl;
+        private final PatternMatcher dbPattern;
+        private final PatternMatcher tblPattern;
+        private final PrivBitSet privs;
+
+        TblRule(TablePrivEntry entry) {
+            this.origDb = entry.getOrigDb();
+            this.origTbl = entry.getOrigTbl();
+            this.dbPattern = entry.getDbPattern();
+            this.tblPattern = entry.getTblPattern();
+            this.privs = entry.getPrivSet().copy();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TblRule)) {
+                return false;
+            }
+            TblRule other = (TblRule) obj;
+            return Objects.equals(origDb, other.origDb) && Objects.equals(origTbl, other.origTbl)
+                    && privs.equals(other.privs);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origDb, origTbl, privs);
+        }
+    }
+}
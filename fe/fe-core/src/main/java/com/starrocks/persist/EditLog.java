@@ -31,6 +31,7 @@ import com.starrocks.analysis.UserIdentity;
 import com.starrocks.backup.BackupJob;
 import com.starrocks.backup.Repository;
 import com.starrocks.backup.RestoreJob;
+import com.starrocks.catalog.AsyncMaterializedView;
 import com.starrocks.catalog.BrokerMgr;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
@@ -65,6 +66,7 @@ import com.starrocks.metric.MetricRepo;
 import com.starrocks.mysql.privilege.UserPropertyInfo;
 import com.starrocks.plugin.PluginInfo;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.optimizer.baseline.PlanBaseline;
 import com.starrocks.statistic.AnalyzeJob;
 import com.starrocks.system.Backend;
 import com.starrocks.system.Frontend;
@@ -803,6 +805,26 @@ public class EditLog {
                     catalog.getAnalyzeManager().replayRemoveAnalyzeJob(analyzeJob);
                     break;
                 }
+                case OperationType.OP_ADD_ASYNC_MATERIALIZED_VIEW: {
+                    AsyncMaterializedView mv = (AsyncMaterializedView) journal.getData();
+                    catalog.getAsyncMaterializedViewMgr().replayAddAsyncMaterializedView(mv);
+                    break;
+                }
+                case OperationType.OP_REMOVE_ASYNC_MATERIALIZED_VIEW: {
+                    AsyncMaterializedView mv = (AsyncMaterializedView) journal.getData();
+                    catalog.getAsyncMaterializedViewMgr().replayRemoveAsyncMaterializedView(mv);
+                    break;
+                }
+                case OperationType.OP_ADD_PLAN_BASELINE: {
+                    PlanBaseline baseline = (PlanBaseline) journal.getData();
+                    catalog.getPlanBaselineMgr().replayAddPlanBaseline(baseline);
+                    break;
+                }
+                case OperationType.OP_REMOVE_PLAN_BASELINE: {
+                    PlanBaseline baseline = (PlanBaseline) journal.getData();
+                    catalog.getPlanBaselineMgr().replayRemovePlanBaseline(baseline);
+                    break;
+                }
                 default: {
                     if (Config.ignore_unknown_log_id) {
                         LOG.warn("UNKNOWN Operation Type {}", opCode);
@@ -1372,4 +1394,20 @@ public class EditLog {
     public void logRemoveAnalyzeJob(AnalyzeJob job) {
         logEdit(OperationType.OP_REMOVE_ANALYZER_JOB, job);
     }
+
+    public void logAddAsyncMaterializedView(AsyncMaterializedView mv) {
+        logEdit(OperationType.OP_ADD_ASYNC_MATERIALIZED_VIEW, mv);
+    }
+
+    public void logRemoveAsyncMaterializedView(AsyncMaterializedView mv) {
+        logEdit(OperationType.OP_REMOVE_ASYNC_MATERIALIZED_VIEW, mv);
+    }
+
+    public void logAddPlanBaseline(PlanBaseline baseline) {
+        logEdit(OperationType.OP_ADD_PLAN_BASELINE, baseline);
+    }
+
+    public void logRemovePlanBaseline(PlanBaseline baseline) {
+        logEdit(OperationType.OP_REMOVE_PLAN_BASELINE, baseline);
+    }
 }
@@ -202,4 +202,12 @@ public class OperationType {
 
     // workgroup 10021 ~ 10030
     public static final short OP_WORKGROUP = 10021;
+
+    // async materialized view 10031 ~ 10040
+    public static final short OP_ADD_ASYNC_MATERIALIZED_VIEW = 10031;
+    public static final short OP_REMOVE_ASYNC_MATERIALIZED_VIEW = 10032;
+
+    // plan baseline 10041 ~ 10050
+    public static final short OP_ADD_PLAN_BASELINE = 10041;
+    public static final short OP_REMOVE_PLAN_BASELINE = 10042;
 }
@@ -39,6 +39,9 @@ import com.starrocks.common.IdGenerator;
 import com.starrocks.common.UserException;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.sql.optimizer.statistics.Statistics;
 import com.starrocks.thrift.TEqJoinCondition;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.THashJoinNode;
@@ -49,7 +52,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -72,6 +77,8 @@ public class HashJoinNode extends PlanNode {
     private boolean isPushDown;
     private DistributionMode distrMode;
     private String colocateReason = ""; // if can not do colocate join, set reason here
+    // the join keys are skewed, shuffle is avoided if possible
+    private boolean skewed = false;
     // the flag for local bucket shuffle join
     private boolean isLocalHashBucket = false;
     // the flag for runtime bucket shuffle join
@@ -81,6 +88,9 @@ public class HashJoinNode extends PlanNode {
     private final List<Integer> filter_null_value_columns = Lists.newArrayList();
     private List<Expr> partitionExprs;
     private List<Integer> outputSlots;
+    // slot id -> statistics of the join keys, used to estimate the runtime filters
+    private final Map<Integer, ColumnStatistic> joinKeyStatistics = new HashMap<>();
+    private double buildRowCount = -1;
 
     public List<RuntimeFilterDescription> getBuildRuntimeFilters() {
         return buildRuntimeFilters;
@@ -157,6 +167,33 @@ public class HashJoinNode extends PlanNode {
         }
     }
 
+    /**
+     * Set the statistics of children to estimate the runtime filters, the slot id of a column is the id of
+     * the column ref in optimizer.
+     */
+    public void setRuntimeFilterStatistics(Statistics probeStatistics, Statistics buildStatistics) {
+        if (probeStatistics == null || buildStatistics == null) {
+            return;
+        }
+        for (BinaryPredicate eqJoinConjunct : eqJoinConjuncts) {
+            for (Expr child : eqJoinConjunct.getChildren()) {
+                if (!(child instanceof SlotRef)) {
+                    continue;
+                }
+                int slotId = ((SlotRef) child).getSlotId().asInt();
+                for (Statistics statistics : Lists.newArrayList(probeStatistics, buildStatistics)) {
+                    for (Map.Entry<ColumnRefOperator, ColumnStatistic> entry :
+                            statistics.getColumnStatistics().entrySet()) {
+                        if (entry.getKey().getId() == slotId) {
+                            joinKeyStatistics.put(slotId, entry.getValue());
+                        }
+                    }
+                }
+            }
+        }
+        buildRowCount = buildStatistics.getOutputRowCount();
+    }
+
     public void buildRuntimeFilters(IdGenerator<RuntimeFilterId> runtimeFilterIdIdGenerator,
                                     PlanNode inner, List<BinaryPredicate> eqJoinConjuncts,
                                     JoinOperator joinOp) {
@@ -198,6 +235,17 @@ public class HashJoinNode extends PlanNode {
                 right = temp;
             }
 
+            if (sessionVariable.isEnableCostBasedRuntimeFilter() && left instanceof SlotRef &&
+                    right instanceof SlotRef) {
+                rf.estimate(joinKeyStatistics.get(((SlotRef) left).getSlotId().asInt()), buildRowCount,
+                        joinKeyStatistics.get(((SlotRef) right).getSlotId().asInt()));
+                // the filter is too big to be built and shipped
+                if (rf.hasEstimate() && rf.getEstimatedSize() > sessionVariable.getGlobalRuntimeFilterBuildMaxBytes()
+                        && !rf.isLocalApplicable()) {
+                    continue;
+                }
+            }
+
             // push down rf to child nodes, and build it only when it
             // can be accepted by child nodes.
             rf.setBuildExpr(left);
@@ -239,6 +287,10 @@ public class HashJoinNode extends PlanNode {
         return isLocalHashBucket;
     }
 
+    public void setSkewed(boolean skewed) {
+        this.skewed = skewed;
+    }
+
     public void setColocate(boolean colocate, String reason) {
         isColocate = colocate;
         colocateReason = reason;
@@ -436,6 +488,9 @@ public class HashJoinNode extends PlanNode {
 
         output.append(detailPrefix).append("colocate: ").append(isColocate)
                 .append(isColocate ? "" : ", reason: " + colocateReason).append("\n");
+        if (skewed) {
+            output.append(detailPrefix).append("skew: true\n");
+        }
 
         for (BinaryPredicate eqJoinPredicate : eqJoinConjuncts) {
             output.append(detailPrefix).append("equal join conjunct: ").append(eqJoinPredicate.toSql() + "\n");
@@ -461,6 +516,9 @@ public class HashJoinNode extends PlanNode {
         if (isColocate) {
             output.append(detailPrefix).append("colocate: ").append(isColocate).append("\n");
         }
+        if (skewed) {
+            output.append(detailPrefix).append("skew: true\n");
+        }
 
         for (BinaryPredicate eqJoinPredicate : eqJoinConjuncts) {
             output.append(detailPrefix).append("equal join conjunct: ").
@@ -122,6 +122,8 @@ public class OlapScanNode extends ScanNode {
     private Collection<Long> selectedPartitionIds = Lists.newArrayList();
     private long totalBytes = 0;
     private long actualRows = 0;
+    // The normalized predicate to collect the statistics feedback, null if the feedback is disabled
+    private String feedbackPredicate = null;
 
     // List of tablets will be scanned by current olap_scan_node
     private ArrayList<Long> scanTabletIds = Lists.newArrayList();
@@ -302,6 +304,14 @@ public class OlapScanNode extends ScanNode {
         return olapTable;
     }
 
+    public String getFeedbackPredicate() {
+        return feedbackPredicate;
+    }
+
+    public void setFeedbackPredicate(String feedbackPredicate) {
+        this.feedbackPredicate = feedbackPredicate;
+    }
+
     @Override
     protected String debugString() {
         MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
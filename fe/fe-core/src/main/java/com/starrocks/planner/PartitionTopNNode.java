@@ -0,0 +1,87 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.planner;
+
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.SortInfo;
+import com.starrocks.sql.optimizer.operator.SortPhase;
+import com.starrocks.sql.optimizer.operator.TopNType;
+import com.starrocks.thrift.TExplainLevel;
+import com.starrocks.thrift.TPartitionTopNNode;
+import com.starrocks.thrift.TPlanNode;
+import com.starrocks.thrift.TPlanNodeType;
+import com.starrocks.thrift.TSortInfo;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Output the rows whose rank in their partition is not greater than the partition limit, the rows are not
+ * materialized into a sort tuple, so the node has the same tuples as its child.
+ */
+public class PartitionTopNNode extends PlanNode {
+    private final List<Expr> partitionExprs;
+    private final SortInfo info;
+    private final long partitionLimit;
+    private final TopNType topNType;
+    private final SortPhase sortPhase;
+
+    public PartitionTopNNode(PlanNodeId id, PlanNode child, List<Expr> partitionExprs, SortInfo info,
+                             long partitionLimit, TopNType topNType, SortPhase sortPhase) {
+        super(id, child.getTupleIds(), "PARTITION-TOP-N");
+        addChild(child);
+        this.nullableTupleIds = child.nullableTupleIds;
+        this.partitionExprs = partitionExprs;
+        this.info = info;
+        this.partitionLimit = partitionLimit;
+        this.topNType = topNType;
+        this.sortPhase = sortPhase;
+    }
+
+    @Override
+    protected void toThrift(TPlanNode msg) {
+        msg.node_type = TPlanNodeType.PARTITION_TOPN_NODE;
+        TSortInfo sortInfo = new TSortInfo(
+                Expr.treesToThrift(info.getOrderingExprs()),
+                info.getIsAscOrder(),
+                info.getNullsFirst());
+        msg.partition_topn_node = new TPartitionTopNNode(Expr.treesToThrift(partitionExprs), sortInfo,
+                partitionLimit, topNType.toThrift());
+        msg.partition_topn_node.setSql_sort_keys(getSortKeysString(false));
+    }
+
+    private String getSortKeysString(boolean verbose) {
+        StringBuilder output = new StringBuilder();
+        Iterator<Expr> expr = info.getOrderingExprs().iterator();
+        Iterator<Boolean> isAsc = info.getIsAscOrder().iterator();
+        while (expr.hasNext()) {
+            if (output.length() > 0) {
+                output.append(", ");
+            }
+            output.append(verbose ? expr.next().explain() : expr.next().toSql()).append(" ");
+            output.append(isAsc.next() ? "ASC" : "DESC");
+        }
+        return output.toString();
+    }
+
+    @Override
+    protected String getNodeExplainString(String prefix, TExplainLevel detailLevel) {
+        boolean verbose = !detailLevel.equals(TExplainLevel.NORMAL);
+        StringBuilder output = new StringBuilder();
+        output.append(prefix).append("partition by: ").append(getVerboseExplain(partitionExprs, detailLevel))
+                .append("\n");
+        output.append(prefix).append("order by: ").append(getSortKeysString(verbose)).append("\n");
+        output.append(prefix).append("type: ").append(topNType).append("\n");
+        output.append(prefix).append("partition limit: ").append(partitionLimit).append("\n");
+        output.append(prefix).append("phase: ").append(sortPhase).append("\n");
+        if (!conjuncts.isEmpty()) {
+            output.append(prefix).append("predicates: ").append(getExplainString(conjuncts)).append("\n");
+        }
+        return output.toString();
+    }
+
+    @Override
+    public int getNumInstances() {
+        return children.get(0).getNumInstances();
+    }
+}
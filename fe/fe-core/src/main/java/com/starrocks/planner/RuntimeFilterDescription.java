@@ -4,6 +4,7 @@ package com.starrocks.planner;
 
 import com.starrocks.analysis.Expr;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TRuntimeFilterBuildJoinMode;
 import com.starrocks.thrift.TRuntimeFilterDescription;
@@ -19,6 +20,19 @@ import java.util.Map;
 // but comparing to thrift definition, this class has some handy methods and
 // `toExplainString()` for explaining sql
 public class RuntimeFilterDescription {
+    // The kind of filter which is expected to be effective, it's only used by the planner to estimate the
+    // filter and shown in EXPLAIN. BE builds IN filter for the local runtime filter whose build side is small
+    // enough, and bloom filter with min-max values for the others.
+    public enum RuntimeFilterType {
+        IN,
+        MIN_MAX,
+        BLOOM
+    }
+
+    // false positive probability of bloom filter
+    private static final double BLOOM_FILTER_FPP = 0.05;
+    private static final double BLOOM_FILTER_BITS_PER_KEY = 10;
+
     private int filterId;
     private int buildPlanNodeId;
     private Expr buildExpr;
@@ -35,6 +49,15 @@ public class RuntimeFilterDescription {
     private long buildCardinality;
     private SessionVariable sessionVariable;
 
+    // estimated from column statistics if cost based runtime filter is enabled
+    private RuntimeFilterType filterType;
+    // the fraction of probe rows filtered, negative means unknown
+    private double estimatedSelectivity = -1;
+    // the bytes of filter sent to each remote target
+    private long estimatedSize = 0;
+    // the number of values inserted into the filter
+    private long estimatedKeys = 0;
+
     public RuntimeFilterDescription(SessionVariable sv) {
         nodeIdToProbeExpr = new HashMap<>();
         mergeNodes = new ArrayList<>();
@@ -74,6 +97,66 @@ public class RuntimeFilterDescription {
         buildCardinality = value;
     }
 
+    /**
+     * Estimate the selectivity and size of the filter from the statistics of build and probe columns,
+     * and choose the kind of filter which is expected to be effective.
+     * The selectivity of min-max filter is the fraction of probe value range out of the build value range,
+     * and the selectivity of bloom filter is the fraction of probe values not in build side.
+     */
+    public void estimate(ColumnStatistic buildStatistic, double buildRows, ColumnStatistic probeStatistic) {
+        if (buildStatistic == null || probeStatistic == null || buildStatistic.isUnknown() ||
+                probeStatistic.isUnknown() || buildRows <= 0) {
+            return;
+        }
+        double buildNdv = Math.max(1, Math.min(buildRows, buildStatistic.getDistinctValuesCount()));
+        double probeNdv = Math.max(1, probeStatistic.getDistinctValuesCount());
+        double keySelectivity = 1 - Math.min(1, buildNdv / probeNdv);
+
+        double minMaxSelectivity = 0;
+        if (!buildStatistic.isInfiniteRange() && !probeStatistic.isInfiniteRange() &&
+                !buildStatistic.hasNaNValue() && !probeStatistic.hasNaNValue() &&
+                probeStatistic.getMaxValue() > probeStatistic.getMinValue()) {
+            double overlap = Math.min(buildStatistic.getMaxValue(), probeStatistic.getMaxValue()) -
+                    Math.max(buildStatistic.getMinValue(), probeStatistic.getMinValue());
+            double probeRange = probeStatistic.getMaxValue() - probeStatistic.getMinValue();
+            minMaxSelectivity = 1 - Math.max(0, Math.min(1, overlap / probeRange));
+        }
+        double keySize = Math.max(1, buildStatistic.getAverageRowSize());
+
+        if (buildRows <= sessionVariable.getRuntimeJoinFilterPushDownLimit() && isLocalApplicable()) {
+            filterType = RuntimeFilterType.IN;
+            estimatedSelectivity = Math.max(keySelectivity, minMaxSelectivity);
+            estimatedSize = (long) (buildNdv * keySize);
+            estimatedKeys = (long) buildNdv;
+        } else if (minMaxSelectivity >= keySelectivity * (1 - BLOOM_FILTER_FPP)) {
+            filterType = RuntimeFilterType.MIN_MAX;
+            estimatedSelectivity = minMaxSelectivity;
+            estimatedSize = (long) (2 * keySize);
+            estimatedKeys = 2;
+        } else {
+            filterType = RuntimeFilterType.BLOOM;
+            estimatedSelectivity = Math.max(keySelectivity * (1 - BLOOM_FILTER_FPP), minMaxSelectivity);
+            estimatedSize = (long) (buildNdv * BLOOM_FILTER_BITS_PER_KEY / 8 + 2 * keySize);
+            estimatedKeys = (long) buildNdv;
+        }
+    }
+
+    public boolean hasEstimate() {
+        return estimatedSelectivity >= 0;
+    }
+
+    public RuntimeFilterType getFilterType() {
+        return filterType;
+    }
+
+    public double getEstimatedSelectivity() {
+        return estimatedSelectivity;
+    }
+
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
     public boolean canProbeUse(PlanNode node) {
         // if we don't across exchange node, that's to say this is in local fragment instance.
         // we don't need to use adaptive strategy now. we are using a conservative way.
@@ -85,6 +168,11 @@ public class RuntimeFilterDescription {
         if (card < sessionVariable.getGlobalRuntimeFilterProbeMinSize()) {
             return false;
         }
+        if (hasEstimate()) {
+            // the filtered probe rows must pay for building, shipping and probing the filter keys
+            return estimatedSelectivity >= sessionVariable.getGlobalRuntimeFilterProbeMinSelectivity() &&
+                    card * estimatedSelectivity > estimatedKeys;
+        }
         float sel = (1.0f - buildCardinality * 1.0f / card);
         return !(sel < sessionVariable.getGlobalRuntimeFilterProbeMinSelectivity());
     }
@@ -180,6 +268,11 @@ public class RuntimeFilterDescription {
         } else {
             sb.append(", build_expr = (").append(buildExpr.toSql()).append(")");
             sb.append(", remote = ").append(hasRemoteTargets);
+            if (hasEstimate()) {
+                sb.append(", type = ").append(filterType);
+                sb.append(", selectivity = ").append(String.format("%.2f", estimatedSelectivity));
+                sb.append(", size = ").append(estimatedSize);
+            }
         }
         return sb.toString();
     }
@@ -25,14 +25,17 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.FunctionResolveStats;
 import com.starrocks.cluster.ClusterNamespace;
 import com.starrocks.mysql.MysqlCapability;
 import com.starrocks.mysql.MysqlChannel;
 import com.starrocks.mysql.MysqlCommand;
 import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.plugin.AuditEvent.AuditEventBuilder;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.optimizer.dump.DumpInfo;
 import com.starrocks.sql.optimizer.dump.QueryDumpInfo;
+import com.starrocks.sql.optimizer.rewrite.ConstantFoldingCache;
 import com.starrocks.thrift.TResourceInfo;
 import com.starrocks.thrift.TUniqueId;
 import org.apache.logging.log4j.LogManager;
@@ -136,6 +139,13 @@ public class ConnectContext {
     // The related db ids for current sql
     protected Set<Long> currentSqlDbIds = Sets.newHashSet();
 
+    // Builtin function resolution counters of current sql
+    protected FunctionResolveStats functionResolveStats = new FunctionResolveStats();
+    protected PlannerProfile plannerProfile = new PlannerProfile();
+
+    // Constant folding results of current sql
+    protected ConstantFoldingCache constantFoldingCache = new ConstantFoldingCache();
+
     public static ConnectContext get() {
         return threadLocalInfo.get();
     }
@@ -290,6 +300,21 @@ public class ConnectContext {
     public void setStartTime() {
         startTime = System.currentTimeMillis();
         returnRows = 0;
+        functionResolveStats.reset();
+        plannerProfile.reset();
+        constantFoldingCache.clear();
+    }
+
+    public FunctionResolveStats getFunctionResolveStats() {
+        return functionResolveStats;
+    }
+
+    public PlannerProfile getPlannerProfile() {
+        return plannerProfile;
+    }
+
+    public ConstantFoldingCache getConstantFoldingCache() {
+        return constantFoldingCache;
     }
 
     public void updateReturnRows(int returnRows) {
@@ -52,6 +52,7 @@ import com.starrocks.mysql.MysqlServerStatusFlag;
 import com.starrocks.plugin.AuditEvent.EventType;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.common.SqlDigestBuilder;
 import com.starrocks.sql.parser.ParsingException;
 import com.starrocks.thrift.TMasterOpRequest;
@@ -159,6 +160,11 @@ public class ConnectProcessor {
                 // ok query
                 MetricRepo.COUNTER_QUERY_SUCCESS.increase(1L);
                 MetricRepo.HISTO_QUERY_LATENCY.update(elapseMs);
+                ctx.getPlannerProfile().updateMetrics();
+                if (parsedStmt != null && !parsedStmt.isExplain()) {
+                    Catalog.getCurrentCatalog().getPlanBaselineMgr()
+                            .onQueryFinished(ctx.getPlannerProfile(), elapseMs);
+                }
                 if (elapseMs > Config.qe_slow_log_ms || ctx.getSessionVariable().isEnableSQLDigest()) {
                     MetricRepo.COUNTER_SLOW_QUERY.increase(1L);
                     ctx.getAuditEventBuilder().setDigest(computeStatementDigest(parsedStmt));
@@ -258,12 +264,14 @@ public class ConnectProcessor {
         try {
             ctx.setQueryId(UUIDUtil.genUUID());
             List<StatementBase> stmts;
-            try {
-                stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable().getSqlMode());
-            } catch (ParsingException parsingException) {
-                throw new AnalysisException(parsingException.getMessage());
-            } catch (Exception e) {
-                stmts = analyze(originStmt);
+            try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.PARSE)) {
+                try {
+                    stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable().getSqlMode());
+                } catch (ParsingException parsingException) {
+                    throw new AnalysisException(parsingException.getMessage());
+                } catch (Exception e) {
+                    stmts = analyze(originStmt);
+                }
             }
 
             for (int i = 0; i < stmts.size(); ++i) {
@@ -57,6 +57,8 @@ public class QueryDetail implements Serializable {
     private String errorMessage;
     private String explain;
     private String profile;
+    // planner trace of the query, see PlannerProfile
+    private String plannerProfile;
 
     public QueryDetail() {
     }
@@ -99,6 +101,7 @@ public class QueryDetail implements Serializable {
         queryDetail.errorMessage = this.errorMessage;
         queryDetail.explain = this.explain;
         queryDetail.profile = this.profile;
+        queryDetail.plannerProfile = this.plannerProfile;
         return queryDetail;
     }
 
@@ -210,6 +213,14 @@ public class QueryDetail implements Serializable {
         return profile;
     }
 
+    public String getPlannerProfile() {
+        return plannerProfile;
+    }
+
+    public void setPlannerProfile(String plannerProfile) {
+        this.plannerProfile = plannerProfile;
+    }
+
     public void setProfile(String profile) {
         this.profile = profile;
     }
@@ -163,13 +163,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_MAX_MEMO_EXPRESSIONS = "cbo_max_memo_expressions";
+    public static final String CBO_ENABLE_COST_LOWER_BOUND_PRUNE = "cbo_enable_cost_lower_bound_prune";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE = "cbo_enable_low_cardinality_optimize";
+    public static final String CBO_ENABLE_EAGER_AGGREGATION = "cbo_enable_eager_aggregation";
+    public static final String CBO_ENABLE_UNIQUE_KEY_OPTIMIZE = "cbo_enable_unique_key_optimize";
+    public static final String CBO_ENABLE_SKEW_OPTIMIZE = "cbo_enable_skew_optimize";
+    public static final String CBO_SKEW_FACTOR_THRESHOLD = "cbo_skew_factor_threshold";
+    public static final String CBO_ENABLE_COST_BASED_AGG_STAGE = "cbo_enable_cost_based_agg_stage";
     public static final String CBO_USE_NTH_EXEC_PLAN = "cbo_use_nth_exec_plan";
     public static final String CBO_CTE_REUSE = "cbo_cte_reuse";
     public static final String CBO_CTE_REUSE_RATE = "cbo_cte_reuse_rate";
     public static final String ENABLE_SQL_DIGEST = "enable_sql_digest";
+    public static final String ENABLE_ASYNC_MATERIALIZED_VIEW_REWRITE = "enable_async_materialized_view_rewrite";
+    public static final String ASYNC_MATERIALIZED_VIEW_STALENESS_SECOND = "async_materialized_view_staleness_second";
     // --------  New planner session variables end --------
 
     // Type of compression of transmitted data
@@ -184,6 +193,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String GLOBAL_RUNTIME_FILTER_PROBE_MIN_SIZE = "global_runtime_filter_probe_min_size";
     public static final String GLOBAL_RUNTIME_FILTER_PROBE_MIN_SELECTIVITY =
             "global_runtime_filter_probe_min_selectivity";
+    public static final String ENABLE_COST_BASED_RUNTIME_FILTER = "enable_cost_based_runtime_filter";
+    public static final String GLOBAL_RUNTIME_FILTER_BUILD_MAX_BYTES = "global_runtime_filter_build_max_bytes";
+
+    public static final String ENABLE_STATISTICS_FEEDBACK = "enable_statistics_feedback";
+
+    public static final String ENABLE_PARTITION_TOPN = "enable_partition_topn";
+
+    public static final String ENABLE_PLAN_BASELINE = "enable_plan_baseline";
 
     public static final String ENABLE_COLUMN_EXPR_PREDICATE = "enable_column_expr_predicate";
     public static final String ENABLE_EXCHANGE_PASS_THROUGH = "enable_exchange_pass_through";
@@ -403,6 +420,15 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    // the max group expressions of memo, join orders are not explored any more when memo exceeds it,
+    // and the exhaustive join reorder falls back to the greedy join reorder if it's expected to exceed it
+    @VariableMgr.VarAttr(name = CBO_MAX_MEMO_EXPRESSIONS)
+    private int cboMaxMemoExpressions = 100000;
+
+    // prune the group expressions whose cost lower bound exceeds the cost of the best plan found
+    @VariableMgr.VarAttr(name = CBO_ENABLE_COST_LOWER_BOUND_PRUNE)
+    private boolean cboEnableCostLowerBoundPrune = false;
+
     @VariableMgr.VarAttr(name = CBO_ENABLE_REPLICATED_JOIN)
     private boolean enableReplicationJoin = true;
 
@@ -428,6 +454,28 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE)
     private boolean enableLowCardinalityOptimize = true;
 
+    // push the partial aggregation below inner and semi joins if it reduces the rows of join input
+    @VariableMgr.VarAttr(name = CBO_ENABLE_EAGER_AGGREGATION)
+    private boolean enableEagerAggregation = false;
+
+    // use the unique keys of PRIMARY_KEYS/UNIQUE_KEYS tables and aggregations to eliminate outer joins,
+    // convert semi joins to inner joins and prune the dependent grouping keys
+    @VariableMgr.VarAttr(name = CBO_ENABLE_UNIQUE_KEY_OPTIMIZE)
+    private boolean enableUniqueKeyOptimize = false;
+
+    @VariableMgr.VarAttr(name = CBO_ENABLE_SKEW_OPTIMIZE)
+    private boolean enableSkewOptimize = false;
+
+    // the data of shuffle or aggregation is regarded as skewed if the hottest instance
+    // receives more than this times of the average rows
+    @VariableMgr.VarAttr(name = CBO_SKEW_FACTOR_THRESHOLD)
+    private double skewFactorThreshold = 4.0;
+
+    // estimate the rows of local aggregation in each instance by the group NDV, and cost the local
+    // aggregation as streaming if it reduces few rows, so the aggregation stages are chosen by cost
+    @VariableMgr.VarAttr(name = CBO_ENABLE_COST_BASED_AGG_STAGE)
+    private boolean enableCostBasedAggStage = false;
+
     // value should be 0~4
     // 0 represents automatic selection, and 1, 2, 3, and 4 represent forced selection of AGG of
     // corresponding stages respectively. However, stages 3 and 4 can only be generated in
@@ -446,10 +494,31 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     @VariableMgr.VarAttr(name = GLOBAL_RUNTIME_FILTER_BUILD_MAX_SIZE, flag = VariableMgr.INVISIBLE)
     private long globalRuntimeFilterBuildMaxSize = 64 * 1024 * 1024;
+    // the max estimated bytes of a global runtime filter, only checked by the cost based runtime filter
+    @VariableMgr.VarAttr(name = GLOBAL_RUNTIME_FILTER_BUILD_MAX_BYTES, flag = VariableMgr.INVISIBLE)
+    private long globalRuntimeFilterBuildMaxBytes = 64 * 1024 * 1024;
     @VariableMgr.VarAttr(name = GLOBAL_RUNTIME_FILTER_PROBE_MIN_SIZE, flag = VariableMgr.INVISIBLE)
     private long globalRuntimeFilterProbeMinSize = 100 * 1024;
     @VariableMgr.VarAttr(name = GLOBAL_RUNTIME_FILTER_PROBE_MIN_SELECTIVITY, flag = VariableMgr.INVISIBLE)
     private float globalRuntimeFilterProbeMinSelectivity = 0.5f;
+    // estimate the selectivity and size of runtime filters from column statistics, and use them to
+    // decide which global runtime filters are worth building and shipping
+    @VariableMgr.VarAttr(name = ENABLE_COST_BASED_RUNTIME_FILTER)
+    private boolean enableCostBasedRuntimeFilter = false;
+
+    // collect the actual rows of scans from the query profile, and correct the estimated rows of the
+    // recurring scan predicates by them
+    @VariableMgr.VarAttr(name = ENABLE_STATISTICS_FEEDBACK)
+    private boolean enableStatisticsFeedback = false;
+
+    // push down the rank predicate of row_number/rank/dense_rank window as a partition TopN below the window
+    @VariableMgr.VarAttr(name = ENABLE_PARTITION_TOPN)
+    private boolean enablePartitionTopN = false;
+
+    // plan the queries by their plan baselines, the queries planned without baselines are candidates of
+    // the baseline evolution
+    @VariableMgr.VarAttr(name = ENABLE_PLAN_BASELINE)
+    private boolean enablePlanBaseline = true;
 
     //In order to be compatible with the logic of the old planner,
     //When the column name is the same as the alias name,
@@ -463,6 +532,15 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_EXCHANGE_PASS_THROUGH)
     private boolean enableExchangePassThrough = true;
 
+    @VariableMgr.VarAttr(name = ENABLE_ASYNC_MATERIALIZED_VIEW_REWRITE)
+    private boolean enableAsyncMaterializedViewRewrite = true;
+
+    // An async materialized view whose base tables have changed since its last refresh
+    // is still used for rewrite if it was refreshed within this many seconds.
+    // 0 means only fully fresh materialized views are used.
+    @VariableMgr.VarAttr(name = ASYNC_MATERIALIZED_VIEW_STALENESS_SECOND)
+    private long asyncMaterializedViewStalenessSecond = 0;
+
     // The following variables are deprecated and invisible //
     // ----------------------------------------------------------------------------//
 
@@ -715,6 +793,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboEnableGreedyJoinReorder = true;
     }
 
+    public int getCboMaxMemoExpressions() {
+        return cboMaxMemoExpressions;
+    }
+
+    public void setCboMaxMemoExpressions(int cboMaxMemoExpressions) {
+        this.cboMaxMemoExpressions = cboMaxMemoExpressions;
+    }
+
+    public boolean isCboEnableCostLowerBoundPrune() {
+        return cboEnableCostLowerBoundPrune;
+    }
+
+    public void setCboEnableCostLowerBoundPrune(boolean cboEnableCostLowerBoundPrune) {
+        this.cboEnableCostLowerBoundPrune = cboEnableCostLowerBoundPrune;
+    }
+
     public long getTransactionVisibleWaitTimeout() {
         return transactionVisibleWaitTimeout;
     }
@@ -727,6 +821,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboMaxReorderNodeUseExhaustive;
     }
 
+    public boolean isEnableAsyncMaterializedViewRewrite() {
+        return enableAsyncMaterializedViewRewrite;
+    }
+
+    public void setEnableAsyncMaterializedViewRewrite(boolean enableAsyncMaterializedViewRewrite) {
+        this.enableAsyncMaterializedViewRewrite = enableAsyncMaterializedViewRewrite;
+    }
+
+    public long getAsyncMaterializedViewStalenessSecond() {
+        return asyncMaterializedViewStalenessSecond;
+    }
+
+    public void setAsyncMaterializedViewStalenessSecond(long asyncMaterializedViewStalenessSecond) {
+        this.asyncMaterializedViewStalenessSecond = asyncMaterializedViewStalenessSecond;
+    }
+
     public int getNewPlannerAggStage() {
         return newPlannerAggStage;
     }
@@ -775,6 +885,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return globalRuntimeFilterBuildMaxSize;
     }
 
+    public long getGlobalRuntimeFilterBuildMaxBytes() {
+        return globalRuntimeFilterBuildMaxBytes;
+    }
+
     public long getGlobalRuntimeFilterProbeMinSize() {
         return globalRuntimeFilterProbeMinSize;
     }
@@ -783,6 +897,42 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return globalRuntimeFilterProbeMinSelectivity;
     }
 
+    public long getRuntimeJoinFilterPushDownLimit() {
+        return runtimeJoinFilterPushDownLimit;
+    }
+
+    public boolean isEnableCostBasedRuntimeFilter() {
+        return enableCostBasedRuntimeFilter;
+    }
+
+    public void setEnableCostBasedRuntimeFilter(boolean enableCostBasedRuntimeFilter) {
+        this.enableCostBasedRuntimeFilter = enableCostBasedRuntimeFilter;
+    }
+
+    public boolean isEnableStatisticsFeedback() {
+        return enableStatisticsFeedback;
+    }
+
+    public void setEnableStatisticsFeedback(boolean enableStatisticsFeedback) {
+        this.enableStatisticsFeedback = enableStatisticsFeedback;
+    }
+
+    public boolean isEnablePartitionTopN() {
+        return enablePartitionTopN;
+    }
+
+    public void setEnablePartitionTopN(boolean enablePartitionTopN) {
+        this.enablePartitionTopN = enablePartitionTopN;
+    }
+
+    public boolean isEnablePlanBaseline() {
+        return enablePlanBaseline;
+    }
+
+    public void setEnablePlanBaseline(boolean enablePlanBaseline) {
+        this.enablePlanBaseline = enablePlanBaseline;
+    }
+
     public boolean isEnablePipelineEngine() {
         return enablePipelineEngine;
     }
@@ -855,6 +1005,46 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.enableLowCardinalityOptimize = enableLowCardinalityOptimize;
     }
 
+    public boolean isEnableEagerAggregation() {
+        return enableEagerAggregation;
+    }
+
+    public void setEnableEagerAggregation(boolean enableEagerAggregation) {
+        this.enableEagerAggregation = enableEagerAggregation;
+    }
+
+    public boolean isEnableUniqueKeyOptimize() {
+        return enableUniqueKeyOptimize;
+    }
+
+    public void setEnableUniqueKeyOptimize(boolean enableUniqueKeyOptimize) {
+        this.enableUniqueKeyOptimize = enableUniqueKeyOptimize;
+    }
+
+    public boolean isEnableSkewOptimize() {
+        return enableSkewOptimize;
+    }
+
+    public void setEnableSkewOptimize(boolean enableSkewOptimize) {
+        this.enableSkewOptimize = enableSkewOptimize;
+    }
+
+    public boolean isEnableCostBasedAggStage() {
+        return enableCostBasedAggStage;
+    }
+
+    public void setEnableCostBasedAggStage(boolean enableCostBasedAggStage) {
+        this.enableCostBasedAggStage = enableCostBasedAggStage;
+    }
+
+    public double getSkewFactorThreshold() {
+        return skewFactorThreshold;
+    }
+
+    public void setSkewFactorThreshold(double skewFactorThreshold) {
+        this.skewFactorThreshold = skewFactorThreshold;
+    }
+
     public boolean isEnableColumnExprPredicate() {
         return enableColumnExprPredicate;
     }
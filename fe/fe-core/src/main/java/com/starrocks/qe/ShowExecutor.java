@@ -33,6 +33,7 @@ import com.starrocks.analysis.DescribeStmt;
 import com.starrocks.analysis.HelpStmt;
 import com.starrocks.analysis.PartitionNames;
 import com.starrocks.analysis.ShowAlterStmt;
+import com.starrocks.analysis.ShowAnalyzeFeedbackStmt;
 import com.starrocks.analysis.ShowAnalyzeStmt;
 import com.starrocks.analysis.ShowAuthorStmt;
 import com.starrocks.analysis.ShowBackendsStmt;
@@ -57,6 +58,7 @@ import com.starrocks.analysis.ShowLoadStmt;
 import com.starrocks.analysis.ShowMaterializedViewStmt;
 import com.starrocks.analysis.ShowMigrationsStmt;
 import com.starrocks.analysis.ShowPartitionsStmt;
+import com.starrocks.analysis.ShowPlanBaselinesStmt;
 import com.starrocks.analysis.ShowPluginsStmt;
 import com.starrocks.analysis.ShowProcStmt;
 import com.starrocks.analysis.ShowProcesslistStmt;
@@ -120,6 +122,7 @@ import com.starrocks.common.proc.SchemaChangeProcDir;
 import com.starrocks.common.proc.TabletsProcDir;
 import com.starrocks.common.util.ListComparator;
 import com.starrocks.common.util.OrderByPair;
+import com.starrocks.common.util.TimeUtils;
 import com.starrocks.load.DeleteHandler;
 import com.starrocks.load.ExportJob;
 import com.starrocks.load.ExportMgr;
@@ -129,7 +132,9 @@ import com.starrocks.load.routineload.RoutineLoadJob;
 import com.starrocks.meta.BlackListSql;
 import com.starrocks.meta.SqlBlackList;
 import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.sql.optimizer.baseline.PlanBaseline;
 import com.starrocks.statistic.AnalyzeJob;
+import com.starrocks.statistic.StatisticFeedbackStore;
 import com.starrocks.transaction.GlobalTransactionMgr;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -256,8 +261,12 @@ public class ShowExecutor {
             handleShowSqlBlackListStmt();
         } else if (stmt instanceof ShowAnalyzeStmt) {
             handleShowAnalyze();
+        } else if (stmt instanceof ShowAnalyzeFeedbackStmt) {
+            handleShowAnalyzeFeedback();
         } else if (stmt instanceof ShowWorkGroupStmt) {
             handleShowWorkGroup();
+        } else if (stmt instanceof ShowPlanBaselinesStmt) {
+            handleShowPlanBaselines();
         } else {
             handleEmtpy();
         }
@@ -1518,6 +1527,33 @@ public class ShowExecutor {
         resultSet = new ShowResultSet(stmt.getMetaData(), rows);
     }
 
+    private void handleShowAnalyzeFeedback() {
+        ShowAnalyzeFeedbackStmt showStmt = (ShowAnalyzeFeedbackStmt) stmt;
+        List<StatisticFeedbackStore.Feedback> feedbacks = StatisticFeedbackStore.getInstance().getWorstFeedbacks();
+        List<List<String>> rows = Lists.newArrayList();
+        for (StatisticFeedbackStore.Feedback feedback : feedbacks.stream().skip(showStmt.getOffset())
+                .limit(showStmt.getLimit()).collect(Collectors.toList())) {
+            rows.add(Lists.newArrayList(feedback.getTableName(), feedback.getPredicate(),
+                    String.valueOf(feedback.getEstimatedRows()), String.valueOf(feedback.getActualRows()),
+                    String.format("%.2f", feedback.getQError()), String.format("%.4f", feedback.getCorrection()),
+                    String.valueOf(feedback.getCount()), TimeUtils.longToTimeString(feedback.getUpdateTime())));
+        }
+        resultSet = new ShowResultSet(stmt.getMetaData(), rows);
+    }
+
+    private void handleShowPlanBaselines() {
+        List<PlanBaseline> baselines = Catalog.getCurrentCatalog().getPlanBaselineMgr().getAllPlanBaselines();
+        baselines.sort(Comparator.comparingLong(PlanBaseline::getId));
+        List<List<String>> rows = Lists.newArrayList();
+        for (PlanBaseline baseline : baselines) {
+            rows.add(Lists.newArrayList(String.valueOf(baseline.getId()), baseline.getDigest(), baseline.getSql(),
+                    baseline.getPlanShape().toString(), String.valueOf(baseline.getAcceptedAvgMs()),
+                    String.valueOf(baseline.getCandidateAvgMs()), TimeUtils.longToTimeString(baseline.getCreateTime()),
+                    baseline.getEvolveTime() == 0 ? "" : TimeUtils.longToTimeString(baseline.getEvolveTime())));
+        }
+        resultSet = new ShowResultSet(stmt.getMetaData(), rows);
+    }
+
     private void handleShowWorkGroup() {
         ShowWorkGroupStmt showWorkGroupStmt = (ShowWorkGroupStmt) stmt;
         List<List<String>> rows = Catalog.getCurrentCatalog().getWorkGroupMgr().showWorkGroup(showWorkGroupStmt);
@@ -25,6 +25,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.starrocks.analysis.AddPlanBaselineStmt;
 import com.starrocks.analysis.AddSqlBlackListStmt;
 import com.starrocks.analysis.AlterViewStmt;
 import com.starrocks.analysis.AlterWorkGroupStmt;
@@ -35,6 +36,7 @@ import com.starrocks.analysis.CreateTableAsSelectStmt;
 import com.starrocks.analysis.CreateViewStmt;
 import com.starrocks.analysis.CreateWorkGroupStmt;
 import com.starrocks.analysis.DdlStmt;
+import com.starrocks.analysis.DelPlanBaselineStmt;
 import com.starrocks.analysis.DelSqlBlackListStmt;
 import com.starrocks.analysis.DeleteStmt;
 import com.starrocks.analysis.DmlStmt;
@@ -63,6 +65,7 @@ import com.starrocks.analysis.StringLiteral;
 import com.starrocks.analysis.UnsupportedStmt;
 import com.starrocks.analysis.UpdateStmt;
 import com.starrocks.analysis.UseStmt;
+import com.starrocks.catalog.AsyncMaterializedView;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
@@ -117,6 +120,7 @@ import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.statistic.AnalyzeJob;
 import com.starrocks.statistic.Constants;
 import com.starrocks.statistic.StatisticExecutor;
+import com.starrocks.statistic.StatisticFeedbackStore;
 import com.starrocks.task.LoadEtlTask;
 import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TExplainLevel;
@@ -189,6 +193,10 @@ public class StmtExecutor {
 
     // At the end of query execution, we begin to add up profile
     public void initProfile(long beginTimeInNanoSecond) {
+        initProfile(beginTimeInNanoSecond, null);
+    }
+
+    private void initProfile(long beginTimeInNanoSecond, ExecPlan execPlan) {
         profile = new RuntimeProfile("Query");
         RuntimeProfile summaryProfile = new RuntimeProfile("Summary");
         summaryProfile.addInfoString(ProfileManager.QUERY_ID, DebugUtil.printId(context.getExecutionId()));
@@ -205,10 +213,15 @@ public class StmtExecutor {
         summaryProfile.addInfoString(ProfileManager.USER, context.getQualifiedUser());
         summaryProfile.addInfoString(ProfileManager.DEFAULT_DB, context.getDatabase());
         summaryProfile.addInfoString(ProfileManager.SQL_STATEMENT, originStmt.originStmt);
+        summaryProfile.addInfoString("Function Resolve", context.getFunctionResolveStats().toString());
         profile.addChild(summaryProfile);
+        if (!context.getPlannerProfile().isEmpty()) {
+            profile.addChild(context.getPlannerProfile().buildProfile());
+        }
         if (coord != null) {
             coord.getQueryProfile().getCounterTotalTime().setValue(TimeUtils.getEstimatedTime(beginTimeInNanoSecond));
             coord.endProfile();
+            collectStatisticsFeedback(execPlan);
             coord.mergeIsomorphicProfiles();
             profile.addChild(coord.getQueryProfile());
             coord = null;
@@ -400,7 +413,7 @@ public class StmtExecutor {
                         }
 
                         if (context.getSessionVariable().isReportSucc()) {
-                            writeProfile(beginTimeInNanoSecond);
+                            writeProfile(beginTimeInNanoSecond, execPlan);
                         }
                         break;
                     } catch (RpcException e) {
@@ -463,6 +476,10 @@ public class StmtExecutor {
                 handleAddSqlBlackListStmt();
             } else if (parsedStmt instanceof DelSqlBlackListStmt) {
                 handleDelSqlBlackListStmt();
+            } else if (parsedStmt instanceof AddPlanBaselineStmt) {
+                handleAddPlanBaselineStmt();
+            } else if (parsedStmt instanceof DelPlanBaselineStmt) {
+                handleDelPlanBaselineStmt();
             } else {
                 context.getState().setError("Do not support this query.");
             }
@@ -521,6 +538,12 @@ public class StmtExecutor {
         // and for other cases the exception will throw and the rest of the code will not be executed.
         createTableAsSelectStmt.createTable(context);
         try {
+            // base table versions must be collected before the query is planned
+            AsyncMaterializedView asyncMaterializedView = null;
+            if (createTableAsSelectStmt.isAsyncMaterializedView()) {
+                asyncMaterializedView = context.getCatalog().getAsyncMaterializedViewMgr()
+                        .prepareAsyncMaterializedView(createTableAsSelectStmt);
+            }
             InsertStmt insertStmt = createTableAsSelectStmt.getInsertStmt();
             ExecPlan execPlan = new StatementPlanner().plan(insertStmt, context);
             handleInsertStmtWithNewPlanner(execPlan, ((CreateTableAsSelectStmt) parsedStmt).getInsertStmt());
@@ -529,6 +552,8 @@ public class StmtExecutor {
             }
             if (context.getState().getStateType() == MysqlStateType.ERR) {
                 ((CreateTableAsSelectStmt) parsedStmt).dropTable(context);
+            } else if (asyncMaterializedView != null) {
+                context.getCatalog().getAsyncMaterializedViewMgr().addAsyncMaterializedView(asyncMaterializedView);
             }
         } catch (Throwable t) {
             LOG.warn("handle create table as select stmt fail", t);
@@ -584,8 +609,22 @@ public class StmtExecutor {
         masterOpExecutor.execute();
     }
 
+    // The actual rows are only reported with the profile, they must be collected from the ended profile
+    // before the instance profiles are merged
+    private void collectStatisticsFeedback(ExecPlan execPlan) {
+        if (execPlan == null || !context.getSessionVariable().isEnableStatisticsFeedback()) {
+            return;
+        }
+        StatisticFeedbackStore.getInstance().collect(execPlan.getFragments(), execPlan.getScanNodes(),
+                coord.getQueryProfile());
+    }
+
     private void writeProfile(long beginTimeInNanoSecond) {
-        initProfile(beginTimeInNanoSecond);
+        writeProfile(beginTimeInNanoSecond, null);
+    }
+
+    private void writeProfile(long beginTimeInNanoSecond, ExecPlan execPlan) {
+        initProfile(beginTimeInNanoSecond, execPlan);
         profile.computeTimeInChildProfile();
         StringBuilder builder = new StringBuilder();
         profile.prettyPrint(builder, "");
@@ -828,6 +867,18 @@ public class StmtExecutor {
         }
     }
 
+    private void handleAddPlanBaselineStmt() throws UserException {
+        AddPlanBaselineStmt addPlanBaselineStmt = (AddPlanBaselineStmt) parsedStmt;
+        Catalog.getCurrentCatalog().getPlanBaselineMgr().addPlanBaseline(addPlanBaselineStmt.getSql(), context);
+        context.getState().setOk();
+    }
+
+    private void handleDelPlanBaselineStmt() {
+        DelPlanBaselineStmt delPlanBaselineStmt = (DelPlanBaselineStmt) parsedStmt;
+        Catalog.getCurrentCatalog().getPlanBaselineMgr().removePlanBaselines(delPlanBaselineStmt.getIds());
+        context.getState().setOk();
+    }
+
     private void handleUnsupportedStmt() {
         context.getMysqlChannel().reset();
         // do nothing
@@ -1004,6 +1055,9 @@ public class StmtExecutor {
                 context.getDatabase(),
                 sql,
                 context.getQualifiedUser());
+        if (!context.getPlannerProfile().isEmpty()) {
+            queryDetail.setPlannerProfile(context.getPlannerProfile().toString());
+        }
         context.setQueryDetail(queryDetail);
         //copy queryDetail, cause some properties can be changed in future
         QueryDetailQueue.addAndRemoveTimeoutQueryDetail(queryDetail.copy());
@@ -29,7 +29,6 @@ import com.starrocks.analysis.SetType;
 import com.starrocks.analysis.TableRef;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.Catalog;
-import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
@@ -77,7 +76,6 @@ import com.starrocks.thrift.TAbortRemoteTxnResponse;
 import com.starrocks.thrift.TBeginRemoteTxnRequest;
 import com.starrocks.thrift.TBeginRemoteTxnResponse;
 import com.starrocks.thrift.TColumnDef;
-import com.starrocks.thrift.TColumnDesc;
 import com.starrocks.thrift.TCommitRemoteTxnRequest;
 import com.starrocks.thrift.TCommitRemoteTxnResponse;
 import com.starrocks.thrift.TDBPrivDesc;
@@ -228,22 +226,27 @@ public class FrontendServiceImpl implements FrontendService.Iface {
             currentUser = UserIdentity.createAnalyzedUserIdentWithIp(params.user, params.user_ip);
         }
         if (db != null) {
-            for (String tableName : db.getTableNamesWithLock()) {
-                LOG.debug("get table: {}, wait to check", tableName);
-                if (!Catalog.getCurrentCatalog().getAuth().checkTblPriv(currentUser, params.db,
-                        tableName, PrivPredicate.SHOW)) {
-                    continue;
-                }
-
-                if (matcher != null && !matcher.match(tableName)) {
-                    continue;
-                }
-                tablesResult.add(tableName);
+            List<Table> tables = MetadataSnapshotCache.getInstance().getVisibleTables(currentUser, params.db, db);
+            for (Table table : filterTables(tables, matcher, params)) {
+                tablesResult.add(table.getName());
             }
         }
         return result;
     }
 
+    // filter the tables sorted by name with pattern, and return the requested page
+    private static List<Table> filterTables(List<Table> tables, PatternMatcher matcher, TGetTablesParams params) {
+        long offset = params.isSetOffset() ? Math.max(params.getOffset(), 0) : 0;
+        long limit = params.isSetLimit() && params.getLimit() >= 0 ? params.getLimit() : Long.MAX_VALUE;
+        boolean listingViews = params.isSetType() && TTableType.VIEW.equals(params.getType());
+        return tables.stream()
+                .filter(table -> !listingViews || table.getType() == TableType.VIEW)
+                .filter(table -> matcher == null || matcher.match(table.getName()))
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public TListTableStatusResult listTableStatus(TGetTablesParams params) throws TException {
         LOG.debug("get list table request: {}", params);
@@ -270,18 +273,12 @@ public class FrontendServiceImpl implements FrontendService.Iface {
             currentUser = UserIdentity.createAnalyzedUserIdentWithIp(params.user, params.user_ip);
         }
         if (db != null) {
+            List<Table> tables = MetadataSnapshotCache.getInstance().getVisibleTables(currentUser, params.db, db);
+            tables = filterTables(tables, matcher, params);
+            boolean listingViews = params.isSetType() && TTableType.VIEW.equals(params.getType());
             db.readLock();
             try {
-                boolean listingViews = params.isSetType() && TTableType.VIEW.equals(params.getType());
-                List<Table> tables = listingViews ? db.getViews() : db.getTables();
                 for (Table table : tables) {
-                    if (!Catalog.getCurrentCatalog().getAuth().checkTblPriv(currentUser, params.db,
-                            table.getName(), PrivPredicate.SHOW)) {
-                        continue;
-                    }
-                    if (matcher != null && !matcher.match(table.getName())) {
-                        continue;
-                    }
                     TTableStatus status = new TTableStatus();
                     status.setName(table.getName());
                     status.setType(table.getMysqlType());
@@ -466,52 +463,15 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         } else {
             currentUser = UserIdentity.createAnalyzedUserIdentWithIp(params.user, params.user_ip);
         }
-        if (!Catalog.getCurrentCatalog().getAuth().checkTblPriv(currentUser, params.db,
-                params.getTable_name(), PrivPredicate.SHOW)) {
-            return result;
-        }
         Database db = Catalog.getCurrentCatalog().getDb(params.db);
         if (db != null) {
-            db.readLock();
-            try {
-                Table table = db.getTable(params.getTable_name());
-                if (table != null) {
-                    String tableKeysType = "";
-                    if (TableType.OLAP.equals(table.getType())) {
-                        OlapTable olapTable = (OlapTable) table;
-                        tableKeysType = olapTable.getKeysType().name().substring(0, 3).toUpperCase();
-                    }
-                    for (Column column : table.getBaseSchema()) {
-                        final TColumnDesc desc =
-                                new TColumnDesc(column.getName(), column.getPrimitiveType().toThrift());
-                        final Integer precision = column.getType().getPrecision();
-                        if (precision != null) {
-                            desc.setColumnPrecision(precision);
-                        }
-                        final Integer columnLength = column.getType().getColumnSize();
-                        if (columnLength != null) {
-                            desc.setColumnLength(columnLength);
-                        }
-                        final Integer decimalDigits = column.getType().getDecimalDigits();
-                        if (decimalDigits != null) {
-                            desc.setColumnScale(decimalDigits);
-                        }
-                        if (column.isKey()) {
-                            // COLUMN_KEY (UNI, AGG, DUP, PRI)
-                            desc.setColumnKey(tableKeysType);
-                        } else {
-                            desc.setColumnKey("");
-                        }
-                        final TColumnDef colDef = new TColumnDef(desc);
-                        final String comment = column.getComment();
-                        if (comment != null) {
-                            colDef.setComment(comment);
-                        }
-                        columns.add(colDef);
-                    }
-                }
-            } finally {
-                db.readUnlock();
+            MetadataSnapshotCache cache = MetadataSnapshotCache.getInstance();
+            if (!cache.isTableVisible(currentUser, params.db, db, params.getTable_name())) {
+                return result;
+            }
+            Table table = db.getTable(params.getTable_name());
+            if (table != null) {
+                columns.addAll(cache.getColumnDefs(db, table));
             }
         }
         return result;
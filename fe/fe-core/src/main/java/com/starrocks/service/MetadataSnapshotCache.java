@@ -0,0 +1,214 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Table.TableType;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.mysql.privilege.Auth;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.thrift.TColumnDef;
+import com.starrocks.thrift.TColumnDesc;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the metadata of information_schema and SHOW statements without walking the catalog for every request.
+ * <ul>
+ * <li>The tables of a database are kept in a snapshot sorted by name, which is rebuilt when
+ * {@link Database#getTableSetVersion()} changes, that is a table is created, dropped or renamed.</li>
+ * <li>The column definitions of a table are kept until the base schema of the table is replaced,
+ * for example by a schema change.</li>
+ * <li>The tables visible to a user are kept until the snapshot of database or the privileges are changed.</li>
+ * </ul>
+ * The snapshots are keyed by the identity of catalog objects, so they are released once the objects are dropped.
+ */
+public class MetadataSnapshotCache {
+    private static final MetadataSnapshotCache INSTANCE = new MetadataSnapshotCache();
+
+    private final Cache<Database, DbSnapshot> dbSnapshots = Caffeine.newBuilder().weakKeys().build();
+    private final Cache<Table, ColumnDefsSnapshot> columnDefs = Caffeine.newBuilder().weakKeys().build();
+    // (user, qualified db name) -> tables visible to the user
+    private final Cache<Pair<UserIdentity, String>, VisibleTables> visibleTables = Caffeine.newBuilder()
+            .maximumSize(Config.information_schema_privilege_cache_size).build();
+
+    private static class DbSnapshot {
+        private final long version;
+        private final List<Table> tables;
+
+        DbSnapshot(long version, List<Table> tables) {
+            this.version = version;
+            this.tables = tables;
+        }
+    }
+
+    private static class ColumnDefsSnapshot {
+        private final List<Column> schema;
+        private final List<TColumnDef> columnDefs;
+
+        ColumnDefsSnapshot(List<Column> schema, List<TColumnDef> columnDefs) {
+            this.schema = schema;
+            this.columnDefs = columnDefs;
+        }
+    }
+
+    private static class VisibleTables {
+        private final Auth auth;
+        private final long authVersion;
+        private final DbSnapshot dbSnapshot;
+        private final List<Table> tables;
+        private final Set<String> tableNames;
+
+        VisibleTables(Auth auth, long authVersion, DbSnapshot dbSnapshot, List<Table> tables) {
+            this.auth = auth;
+            this.authVersion = authVersion;
+            this.dbSnapshot = dbSnapshot;
+            this.tables = tables;
+            this.tableNames = tables.stream().map(Table::getName).collect(ImmutableSet.toImmutableSet());
+        }
+    }
+
+    public static MetadataSnapshotCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Return all the tables of db sorted by name.
+     */
+    public List<Table> getTables(Database db) {
+        return getDbSnapshot(db).tables;
+    }
+
+    /**
+     * Return the tables of db which the user has SHOW privilege on, sorted by name.
+     */
+    public List<Table> getVisibleTables(UserIdentity currentUser, String dbName, Database db) {
+        DbSnapshot dbSnapshot = getDbSnapshot(db);
+        return getVisibleTables(currentUser, dbName, dbSnapshot).tables;
+    }
+
+    public boolean isTableVisible(UserIdentity currentUser, String dbName, Database db, String tableName) {
+        if (!Config.enable_information_schema_cache) {
+            return Catalog.getCurrentCatalog().getAuth().checkTblPriv(currentUser, dbName, tableName,
+                    PrivPredicate.SHOW);
+        }
+        return getVisibleTables(currentUser, dbName, getDbSnapshot(db)).tableNames.contains(tableName);
+    }
+
+    /**
+     * Return the definitions of base schema columns of table, the invoker should not modify the result.
+     */
+    public List<TColumnDef> getColumnDefs(Database db, Table table) {
+        ColumnDefsSnapshot snapshot = columnDefs.getIfPresent(table);
+        if (snapshot != null && snapshot.schema == table.getBaseSchema()) {
+            return snapshot.columnDefs;
+        }
+
+        db.readLock();
+        try {
+            List<Column> schema = table.getBaseSchema();
+            snapshot = new ColumnDefsSnapshot(schema, buildColumnDefs(table, schema));
+        } finally {
+            db.readUnlock();
+        }
+        if (Config.enable_information_schema_cache) {
+            columnDefs.put(table, snapshot);
+        }
+        return snapshot.columnDefs;
+    }
+
+    private DbSnapshot getDbSnapshot(Database db) {
+        DbSnapshot snapshot = dbSnapshots.getIfPresent(db);
+        if (snapshot != null && snapshot.version == db.getTableSetVersion()) {
+            return snapshot;
+        }
+
+        db.readLock();
+        try {
+            List<Table> tables = db.getTables();
+            tables.sort(Comparator.comparing(Table::getName));
+            snapshot = new DbSnapshot(db.getTableSetVersion(), ImmutableList.copyOf(tables));
+        } finally {
+            db.readUnlock();
+        }
+        if (Config.enable_information_schema_cache) {
+            dbSnapshots.put(db, snapshot);
+        }
+        return snapshot;
+    }
+
+    private VisibleTables getVisibleTables(UserIdentity currentUser, String dbName, DbSnapshot dbSnapshot) {
+        Auth auth = Catalog.getCurrentCatalog().getAuth();
+        if (!Config.enable_auth_check) {
+            return new VisibleTables(auth, auth.getVersion(), dbSnapshot, dbSnapshot.tables);
+        }
+        Pair<UserIdentity, String> key = Pair.create(currentUser, dbName);
+        VisibleTables visible = visibleTables.getIfPresent(key);
+        if (visible != null && visible.auth == auth && visible.authVersion == auth.getVersion()
+                && visible.dbSnapshot == dbSnapshot) {
+            return visible;
+        }
+
+        // read the version before checking, so the privileges changed during checking invalidate the result
+        long authVersion = auth.getVersion();
+        List<Table> tables = dbSnapshot.tables.stream()
+                .filter(table -> auth.checkTblPriv(currentUser, dbName, table.getName(), PrivPredicate.SHOW))
+                .collect(Collectors.toList());
+        visible = new VisibleTables(auth, authVersion, dbSnapshot, tables);
+        if (Config.enable_information_schema_cache) {
+            visibleTables.put(key, visible);
+        }
+        return visible;
+    }
+
+    private static List<TColumnDef> buildColumnDefs(Table table, List<Column> schema) {
+        String tableKeysType = "";
+        if (TableType.OLAP.equals(table.getType())) {
+            OlapTable olapTable = (OlapTable) table;
+            tableKeysType = olapTable.getKeysType().name().substring(0, 3).toUpperCase();
+        }
+        List<TColumnDef> columns = Lists.newArrayListWithCapacity(schema.size());
+        for (Column column : schema) {
+            final TColumnDesc desc = new TColumnDesc(column.getName(), column.getPrimitiveType().toThrift());
+            final Integer precision = column.getType().getPrecision();
+            if (precision != null) {
+                desc.setColumnPrecision(precision);
+            }
+            final Integer columnLength = column.getType().getColumnSize();
+            if (columnLength != null) {
+                desc.setColumnLength(columnLength);
+            }
+            final Integer decimalDigits = column.getType().getDecimalDigits();
+            if (decimalDigits != null) {
+                desc.setColumnScale(decimalDigits);
+            }
+            if (column.isKey()) {
+                // COLUMN_KEY (UNI, AGG, DUP, PRI)
+                desc.setColumnKey(tableKeysType);
+            } else {
+                desc.setColumnKey("");
+            }
+            final TColumnDef colDef = new TColumnDef(desc);
+            final String comment = column.getComment();
+            if (comment != null) {
+                colDef.setComment(comment);
+            }
+            columns.add(colDef);
+        }
+        return ImmutableList.copyOf(columns);
+    }
+}
@@ -43,6 +43,7 @@ import com.starrocks.sql.optimizer.operator.physical.PhysicalMetaScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalMysqlScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalSchemaScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalSetOperation;
@@ -329,6 +330,23 @@ public class Explain {
             return new OperatorStr(sb.toString(), context.step, Collections.singletonList(child));
         }
 
+        @Override
+        public OperatorStr visitPhysicalPartitionTopN(OptExpression optExpression,
+                                                      OperatorPrinter.ExplainContext context) {
+            OperatorStr child = visit(optExpression.getInputs().get(0), new ExplainContext(context.step + 1));
+            PhysicalPartitionTopNOperator topn = (PhysicalPartitionTopNOperator) optExpression.getOp();
+            StringBuilder sb = new StringBuilder("- PARTITION-TOP-N(").append(topn.getSortPhase()).append(") ");
+            sb.append(topn.getTopNType()).append(" <= ").append(topn.getPartitionLimit());
+            sb.append(" [").append(topn.getPartitionByColumns().stream().map(c -> new ExpressionPrinter().print(c))
+                    .collect(Collectors.joining(", "))).append("]");
+            sb.append(topn.getOrderByElements());
+            sb.append(buildOutputColumns(topn, ""));
+            sb.append("\n");
+
+            buildCostEstimate(sb, optExpression, context.step);
+            return new OperatorStr(sb.toString(), context.step, Collections.singletonList(child));
+        }
+
         @Override
         public OperatorStr visitPhysicalDistribution(OptExpression optExpression,
                                                      OperatorPrinter.ExplainContext context) {
@@ -0,0 +1,345 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.optimizer.baseline.PlanBaseline;
+import com.starrocks.sql.optimizer.baseline.PlanShape;
+import com.starrocks.sql.optimizer.rule.RuleType;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query planner trace, owned by the ConnectContext of the query and reset when a new statement starts.
+ * <p>
+ * It records the wall time of each planner phase, the apply count and time of each optimizer rule,
+ * the memo size and pruning, and the waits on statistics cache. Only counters are updated on the planning path,
+ * so it is always on.
+ */
+public class PlannerProfile {
+    public enum Phase {
+        PARSE("Parse", "parse"),
+        ANALYZE("Analyze", "analyze"),
+        TRANSFORM("Transform", "transform"),
+        RULE_REWRITE("RuleRewrite", "rule_rewrite"),
+        MEMO_OPTIMIZE("MemoOptimize", "memo_optimize"),
+        PHYSICAL_REWRITE("PhysicalRewrite", "physical_rewrite"),
+        BUILD_FRAGMENT("BuildFragment", "build_fragment"),
+        TOTAL("Total", "total");
+
+        private final String displayName;
+        private final String metricName;
+
+        Phase(String displayName, String metricName) {
+            this.displayName = displayName;
+            this.metricName = metricName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private final long[] phaseTimeNs = new long[Phase.values().length];
+
+    private final long[] ruleApplyCount = new long[RuleType.NUM_RULES.id()];
+    private final long[] ruleApplyTimeNs = new long[RuleType.NUM_RULES.id()];
+
+    private int memoGroupCount = 0;
+    private int memoExpressionCount = 0;
+    // the group expressions and groups pruned because their cost lower bound exceeds the upper bound
+    private long memoPrunedCount = 0;
+    // the join orders are not fully explored because of cbo_max_memo_expressions
+    private boolean memoBudgetExceeded = false;
+
+    private long statsLookupCount = 0;
+    // lookups which are not ready in statistics cache, unknown statistics are used for them
+    private long statsMissCount = 0;
+    private long statsLookupTimeNs = 0;
+
+    // the operators planned for skewed data, see SkewRewriteRule
+    private final List<String> skewDecisions = Lists.newArrayList();
+
+    // the digest of the query if it's tracked by the plan baselines, see PlanBaselineMgr
+    private String planDigest = null;
+    // capture the plan shape even if the query has no baseline, for ADD BASELINE
+    private boolean capturePlanShape = false;
+    // the baseline which constrains the plan, null if there is no baseline or it's disabled
+    private PlanBaseline planBaseline = null;
+    // the baseline doesn't fit the query, the query is planned without it
+    private boolean planBaselineMissed = false;
+    // the query has a baseline but is planned without it by enable_plan_baseline = false
+    private boolean planBaselineCandidate = false;
+    // the shape of the plan, captured if the digest is tracked
+    private PlanShape planShape = null;
+
+    /**
+     * Scoped timer of a planner phase, use it with try-with-resources.
+     */
+    public static class ScopedTimer implements AutoCloseable {
+        private final PlannerProfile profile;
+        private final Phase phase;
+        private final long startTime;
+
+        private ScopedTimer(PlannerProfile profile, Phase phase) {
+            this.profile = profile;
+            this.phase = phase;
+            this.startTime = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (profile != null) {
+                profile.addPhaseTime(phase, System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Get the scoped timer of the phase for the query of current thread.
+     */
+    public static ScopedTimer getScopedTimer(Phase phase) {
+        ConnectContext ctx = ConnectContext.get();
+        return new ScopedTimer(ctx == null ? null : ctx.getPlannerProfile(), phase);
+    }
+
+    public static void addStatsLookup(boolean hit, long costNs) {
+        ConnectContext ctx = ConnectContext.get();
+        if (ctx != null) {
+            PlannerProfile profile = ctx.getPlannerProfile();
+            profile.statsLookupCount++;
+            if (!hit) {
+                profile.statsMissCount++;
+            }
+            profile.statsLookupTimeNs += costNs;
+        }
+    }
+
+    public static void addSkewDecision(String decision) {
+        ConnectContext ctx = ConnectContext.get();
+        if (ctx != null) {
+            ctx.getPlannerProfile().skewDecisions.add(decision);
+        }
+    }
+
+    public void addPhaseTime(Phase phase, long costNs) {
+        phaseTimeNs[phase.ordinal()] += costNs;
+    }
+
+    public void addRuleApply(RuleType ruleType, long costNs) {
+        ruleApplyCount[ruleType.id()]++;
+        ruleApplyTimeNs[ruleType.id()] += costNs;
+    }
+
+    public void setMemoSize(int groupCount, int expressionCount) {
+        this.memoGroupCount = groupCount;
+        this.memoExpressionCount = expressionCount;
+    }
+
+    public void addMemoPruned() {
+        memoPrunedCount++;
+    }
+
+    public void setMemoBudgetExceeded() {
+        memoBudgetExceeded = true;
+    }
+
+    public void setPlanDigest(String planDigest) {
+        this.planDigest = planDigest;
+    }
+
+    public void setCapturePlanShape() {
+        capturePlanShape = true;
+    }
+
+    public void setPlanBaseline(PlanBaseline planBaseline) {
+        this.planBaseline = planBaseline;
+    }
+
+    public void setPlanBaselineMissed() {
+        planBaselineMissed = true;
+    }
+
+    public void setPlanBaselineCandidate() {
+        planBaselineCandidate = true;
+    }
+
+    public void setPlanShape(PlanShape planShape) {
+        this.planShape = planShape;
+    }
+
+    public long getPhaseTimeNs(Phase phase) {
+        return phaseTimeNs[phase.ordinal()];
+    }
+
+    public long getRuleApplyCount(RuleType ruleType) {
+        return ruleApplyCount[ruleType.id()];
+    }
+
+    public int getMemoGroupCount() {
+        return memoGroupCount;
+    }
+
+    public int getMemoExpressionCount() {
+        return memoExpressionCount;
+    }
+
+    public long getMemoPrunedCount() {
+        return memoPrunedCount;
+    }
+
+    public boolean isMemoBudgetExceeded() {
+        return memoBudgetExceeded;
+    }
+
+    public long getStatsLookupCount() {
+        return statsLookupCount;
+    }
+
+    public long getStatsMissCount() {
+        return statsMissCount;
+    }
+
+    public List<String> getSkewDecisions() {
+        return skewDecisions;
+    }
+
+    public String getPlanDigest() {
+        return planDigest;
+    }
+
+    public boolean isCapturePlanShape() {
+        return capturePlanShape;
+    }
+
+    public PlanBaseline getPlanBaseline() {
+        return planBaseline;
+    }
+
+    public boolean isPlanBaselineMissed() {
+        return planBaselineMissed;
+    }
+
+    public boolean isPlanBaselineCandidate() {
+        return planBaselineCandidate;
+    }
+
+    public PlanShape getPlanShape() {
+        return planShape;
+    }
+
+    public void reset() {
+        for (int i = 0; i < phaseTimeNs.length; i++) {
+            phaseTimeNs[i] = 0;
+        }
+        for (int i = 0; i < ruleApplyCount.length; i++) {
+            ruleApplyCount[i] = 0;
+            ruleApplyTimeNs[i] = 0;
+        }
+        memoGroupCount = 0;
+        memoExpressionCount = 0;
+        memoPrunedCount = 0;
+        memoBudgetExceeded = false;
+        statsLookupCount = 0;
+        statsMissCount = 0;
+        statsLookupTimeNs = 0;
+        skewDecisions.clear();
+        planDigest = null;
+        capturePlanShape = false;
+        planBaseline = null;
+        planBaselineMissed = false;
+        planBaselineCandidate = false;
+        planShape = null;
+    }
+
+    public boolean isEmpty() {
+        return phaseTimeNs[Phase.TOTAL.ordinal()] == 0;
+    }
+
+    /**
+     * Build the planner profile as a child of the query profile.
+     */
+    public RuntimeProfile buildProfile() {
+        RuntimeProfile profile = new RuntimeProfile("Planner");
+        for (Phase phase : Phase.values()) {
+            profile.addInfoString(phase.getDisplayName(), printNs(phaseTimeNs[phase.ordinal()]));
+        }
+        profile.addInfoString("MemoGroups", String.valueOf(memoGroupCount));
+        profile.addInfoString("MemoExpressions", String.valueOf(memoExpressionCount));
+        profile.addInfoString("MemoPruned", String.valueOf(memoPrunedCount));
+        profile.addInfoString("MemoBudgetExceeded", String.valueOf(memoBudgetExceeded));
+        profile.addInfoString("StatsLookup", printStats());
+        profile.addInfoString("Rules", printRules());
+        if (!skewDecisions.isEmpty()) {
+            profile.addInfoString("Skew", String.join("; ", skewDecisions));
+        }
+        if (planBaseline != null) {
+            profile.addInfoString("PlanBaseline", planBaseline.getId() + (planBaselineMissed ? " (missed)" : ""));
+        }
+        return profile;
+    }
+
+    /**
+     * Aggregate the phase time into histograms of MetricRepo.
+     */
+    public void updateMetrics() {
+        if (!MetricRepo.isInit || isEmpty()) {
+            return;
+        }
+        for (Phase phase : Phase.values()) {
+            MetricRepo.HISTO_PLANNER_PHASE_LATENCY.get(phase)
+                    .update(TimeUnit.NANOSECONDS.toMillis(phaseTimeNs[phase.ordinal()]));
+        }
+        MetricRepo.HISTO_PLANNER_MEMO_GROUPS.update(memoGroupCount);
+    }
+
+    private String printStats() {
+        return "count: " + statsLookupCount + ", miss: " + statsMissCount + ", time: " + printNs(statsLookupTimeNs);
+    }
+
+    // rules are ordered by apply time desc
+    private String printRules() {
+        List<RuleType> applied = Lists.newArrayList();
+        for (RuleType ruleType : RuleType.values()) {
+            if (ruleType != RuleType.NUM_RULES && ruleApplyCount[ruleType.id()] > 0) {
+                applied.add(ruleType);
+            }
+        }
+        applied.sort((r1, r2) -> Long.compare(ruleApplyTimeNs[r2.id()], ruleApplyTimeNs[r1.id()]));
+
+        StringJoiner joiner = new StringJoiner(", ");
+        for (RuleType ruleType : applied) {
+            joiner.add(ruleType.name() + ": " + ruleApplyCount[ruleType.id()] + "/"
+                    + printNs(ruleApplyTimeNs[ruleType.id()]));
+        }
+        return joiner.toString();
+    }
+
+    private static String printNs(long ns) {
+        return TimeUnit.NANOSECONDS.toMicros(ns) + "us";
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Phase phase : Phase.values()) {
+            joiner.add(phase.getDisplayName() + ": " + printNs(phaseTimeNs[phase.ordinal()]));
+        }
+        joiner.add("MemoGroups: " + memoGroupCount);
+        joiner.add("MemoExpressions: " + memoExpressionCount);
+        joiner.add("MemoPruned: " + memoPrunedCount);
+        joiner.add("MemoBudgetExceeded: " + memoBudgetExceeded);
+        joiner.add("StatsLookup: [" + printStats() + "]");
+        joiner.add("Rules: [" + printRules() + "]");
+        return joiner.toString();
+    }
+}
@@ -4,6 +4,7 @@ package com.starrocks.sql;
 import com.starrocks.analysis.InsertStmt;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.analysis.UpdateStmt;
+import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.planner.PlanFragment;
@@ -31,10 +32,19 @@ import java.util.stream.Collectors;
 
 public class StatementPlanner {
     public ExecPlan plan(StatementBase stmt, ConnectContext session) throws AnalysisException {
-        Analyzer.analyze(stmt, session);
-        PrivilegeChecker.check(stmt, session);
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.TOTAL)) {
+            return planInternal(stmt, session);
+        }
+    }
+
+    private ExecPlan planInternal(StatementBase stmt, ConnectContext session) throws AnalysisException {
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.ANALYZE)) {
+            Analyzer.analyze(stmt, session);
+            PrivilegeChecker.check(stmt, session);
+        }
 
         if (stmt instanceof QueryStatement) {
+            Catalog.getCurrentCatalog().getPlanBaselineMgr().matchPlanBaseline((QueryStatement) stmt, session);
             Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(session, stmt);
             try {
                 lock(dbs);
@@ -74,16 +84,27 @@ public class StatementPlanner {
 
         //1. Build Logical plan
         ColumnRefFactory columnRefFactory = new ColumnRefFactory();
-        LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, session).transformWithSelectLimit(query);
+        LogicalPlan logicalPlan;
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.TRANSFORM)) {
+            logicalPlan = new RelationTransformer(columnRefFactory, session).transformWithSelectLimit(query);
+        }
 
         //2. Optimize logical plan and build physical plan
         Optimizer optimizer = new Optimizer();
+        PlannerProfile profile = session.getPlannerProfile();
+        if (profile.getPlanBaseline() != null) {
+            optimizer.setPlanBaseline(profile.getPlanBaseline().getPlanShape());
+        }
         OptExpression optimizedPlan = optimizer.optimize(
                 session,
                 logicalPlan.getRoot(),
                 new PhysicalPropertySet(),
                 new ColumnRefSet(logicalPlan.getOutputColumn()),
                 columnRefFactory);
+        // the plan shape of the query tracked by the plan baselines is collected for the baseline evolution
+        if (profile.getPlanDigest() != null) {
+            profile.setPlanShape(optimizer.capturePlanShape(optimizedPlan));
+        }
 
         //3. Build fragment exec plan
         /*
@@ -91,12 +112,14 @@ public class StatementPlanner {
          * currently only used in Spark/Flink Connector
          * Because the connector sends only simple queries, it only needs to remove the output fragment
          */
-        if (session.getSessionVariable().isSingleNodeExecPlan()) {
-            return new PlanFragmentBuilder().createPhysicalPlanWithoutOutputFragment(
-                    optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
-        } else {
-            return new PlanFragmentBuilder().createPhysicalPlan(
-                    optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.BUILD_FRAGMENT)) {
+            if (session.getSessionVariable().isSingleNodeExecPlan()) {
+                return new PlanFragmentBuilder().createPhysicalPlanWithoutOutputFragment(
+                        optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+            } else {
+                return new PlanFragmentBuilder().createPhysicalPlan(
+                        optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+            }
         }
     }
 
@@ -14,6 +14,7 @@ import com.starrocks.analysis.SlotRef;
 import com.starrocks.analysis.TableName;
 import com.starrocks.analysis.TypeDef;
 import com.starrocks.catalog.ArrayType;
+import com.starrocks.catalog.AsyncMaterializedView;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.ScalarType;
@@ -85,6 +86,17 @@ public class CTASAnalyzer {
         }
 
         Map<String, String> stmtProperties = createTableStmt.getProperties();
+        Map<String, String> asyncMaterializedViewProperties = AsyncMaterializedView.extractProperties(stmtProperties);
+        if (!asyncMaterializedViewProperties.isEmpty()) {
+            if (columnNames != null) {
+                throw new SemanticException("Async materialized view does not support specifying column names");
+            }
+            if (!asyncMaterializedViewProperties.containsKey(AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL)) {
+                throw new SemanticException("Async materialized view must specify property "
+                        + AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL);
+            }
+            createTableAsSelectStmt.setAsyncMaterializedViewProperties(asyncMaterializedViewProperties);
+        }
         if (null == stmtProperties) {
             Map<String, String> properties = Maps.newHashMap();
             properties.put("replication_num", String.valueOf(defaultReplicationNum));
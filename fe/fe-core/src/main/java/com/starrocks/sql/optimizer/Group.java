@@ -9,6 +9,7 @@ import com.google.common.collect.Sets;
 import com.starrocks.common.Pair;
 import com.starrocks.sql.optimizer.base.LogicalProperty;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
+import com.starrocks.sql.optimizer.cost.CostModel;
 import com.starrocks.sql.optimizer.statistics.Statistics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -99,8 +100,9 @@ public class Group {
         groupExpression.setGroup(this);
     }
 
+    // The lower bound of the cost of any plan of this group, 0 if it's unknown yet
     public double getCostLowerBound() {
-        return -1000;
+        return Math.max(CostModel.calculateCostLowerBound(this), 0);
     }
 
     public void setBestExpression(GroupExpression expression, double cost, PhysicalPropertySet physicalPropertySet) {
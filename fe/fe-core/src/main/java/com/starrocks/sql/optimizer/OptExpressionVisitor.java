@@ -42,6 +42,10 @@ public abstract class OptExpressionVisitor<R, C> {
         return visit(optExpression, context);
     }
 
+    public R visitLogicalPartitionTopN(OptExpression optExpression, C context) {
+        return visit(optExpression, context);
+    }
+
     public R visitLogicalJoin(OptExpression optExpression, C context) {
         return visit(optExpression, context);
     }
@@ -145,6 +149,10 @@ public abstract class OptExpressionVisitor<R, C> {
         return visit(optExpression, context);
     }
 
+    public R visitPhysicalPartitionTopN(OptExpression optExpression, C context) {
+        return visit(optExpression, context);
+    }
+
     public R visitPhysicalDistribution(OptExpression optExpression, C context) {
         return visit(optExpression, context);
     }
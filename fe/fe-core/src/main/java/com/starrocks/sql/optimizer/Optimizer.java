@@ -5,19 +5,25 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
+import com.starrocks.sql.optimizer.baseline.PlanShape;
+import com.starrocks.sql.optimizer.baseline.PlanShapeMatcher;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.rewrite.AddDecodeNodeForDictStringRule;
 import com.starrocks.sql.optimizer.rewrite.ExchangeSortToMergeRule;
 import com.starrocks.sql.optimizer.rewrite.PruneAggregateNodeRule;
 import com.starrocks.sql.optimizer.rewrite.ScalarOperatorsReuseRule;
+import com.starrocks.sql.optimizer.rewrite.SkewRewriteRule;
 import com.starrocks.sql.optimizer.rule.Rule;
 import com.starrocks.sql.optimizer.rule.RuleSetType;
 import com.starrocks.sql.optimizer.rule.implementation.PreAggregateTurnOnRule;
 import com.starrocks.sql.optimizer.rule.join.ReorderJoinRule;
+import com.starrocks.sql.optimizer.rule.mv.AsyncMaterializedViewRule;
 import com.starrocks.sql.optimizer.rule.mv.MaterializedViewRule;
+import com.starrocks.sql.optimizer.rule.transformation.FilterNullJoinKeyRule;
 import com.starrocks.sql.optimizer.rule.transformation.JoinForceLimitRule;
 import com.starrocks.sql.optimizer.rule.transformation.LimitPruneTabletsRule;
 import com.starrocks.sql.optimizer.rule.transformation.MergeProjectWithChildRule;
@@ -26,8 +32,10 @@ import com.starrocks.sql.optimizer.rule.transformation.MergeTwoProjectRule;
 import com.starrocks.sql.optimizer.rule.transformation.PruneEmptyWindowRule;
 import com.starrocks.sql.optimizer.rule.transformation.PushDownAggToMetaScanRule;
 import com.starrocks.sql.optimizer.rule.transformation.PushDownJoinOnExpressionToChildProject;
+import com.starrocks.sql.optimizer.rule.transformation.PushDownPartialAggJoinRule;
 import com.starrocks.sql.optimizer.rule.transformation.PushLimitAndFilterToCTEProduceRule;
 import com.starrocks.sql.optimizer.rule.transformation.ReorderIntersectRule;
+import com.starrocks.sql.optimizer.rule.transformation.SaltSkewedAggregationRule;
 import com.starrocks.sql.optimizer.rule.transformation.SemiReorderRule;
 import com.starrocks.sql.optimizer.task.DeriveStatsTask;
 import com.starrocks.sql.optimizer.task.OptimizeGroupTask;
@@ -37,17 +45,43 @@ import com.starrocks.sql.optimizer.task.TopDownRewriteOnceTask;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Optimizer's entrance class
  */
 public class Optimizer {
     private OptimizerContext context;
+    private PlanShape planBaseline;
+    // the input tree, whose relations are labeled for the plan shape
+    private OptExpression logicalTree;
+    private Map<Integer, String> relationLabels;
 
     public OptimizerContext getContext() {
         return context;
     }
 
+    /**
+     * Constrain the plan to the shape of the plan baseline, see {@link PlanShapeMatcher}.
+     */
+    public void setPlanBaseline(PlanShape planBaseline) {
+        this.planBaseline = planBaseline;
+    }
+
+    /**
+     * Capture the shape of the optimized plan for the plan baselines.
+     */
+    public PlanShape capturePlanShape(OptExpression physicalPlan) {
+        return PlanShape.capture(physicalPlan, getRelationLabels(), context.getColumnRefFactory());
+    }
+
+    private Map<Integer, String> getRelationLabels() {
+        if (relationLabels == null) {
+            relationLabels = PlanShape.labelRelations(logicalTree, context.getColumnRefFactory());
+        }
+        return relationLabels;
+    }
+
     /**
      * Optimizer will transform and implement the logical operator based on
      * the {@see Rule}, then cost the physical operator, and finally find the
@@ -69,13 +103,19 @@ public class Optimizer {
         memo.init(logicOperatorTree);
 
         context = new OptimizerContext(memo, columnRefFactory, connectContext);
+        logicalTree = logicOperatorTree;
+        if (planBaseline != null) {
+            context.setPlanShapeMatcher(new PlanShapeMatcher(planBaseline, getRelationLabels(), columnRefFactory));
+        }
         TaskContext rootTaskContext =
                 new TaskContext(context, requiredProperty, (ColumnRefSet) requiredColumns.clone(), Double.MAX_VALUE);
 
         // Note: root group of memo maybe change after rewrite,
         // so we should always get root group and root group expression
         // directly from memo.
-        logicalRuleRewrite(memo, rootTaskContext);
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.RULE_REWRITE)) {
+            logicalRuleRewrite(memo, rootTaskContext);
+        }
 
         // collect all olap scan operator
         collectAllScanOperators(memo, rootTaskContext);
@@ -89,18 +129,32 @@ public class Optimizer {
         memo.deriveAllGroupLogicalProperty();
 
         // Phase 3: optimize based on memo and group
-        memoOptimize(connectContext, memo, rootTaskContext);
-
-        OptExpression result;
-        if (!connectContext.getSessionVariable().isSetUseNthExecPlan()) {
-            result = extractBestPlan(requiredProperty, memo.getRootGroup());
-        } else {
-            // extract the nth execution plan
-            int nthExecPlan = connectContext.getSessionVariable().getUseNthExecPlan();
-            result = EnumeratePlan.extractNthPlan(requiredProperty, memo.getRootGroup(), nthExecPlan);
+        try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.MEMO_OPTIMIZE)) {
+            memoOptimize(connectContext, memo, rootTaskContext);
+            if (context.getPlanShapeMatcher() != null && !memo.getRootGroup().hasBestExpression(requiredProperty)) {
+                // the plan baseline doesn't fit the query any more, cost the memo again without it
+                context.setPlanShapeMatcher(null);
+                context.getPlannerProfile().setPlanBaselineMissed();
+                rootTaskContext.setUpperBoundCost(Double.MAX_VALUE);
+                context.getTaskScheduler().pushTask(new OptimizeGroupTask(rootTaskContext, memo.getRootGroup()));
+                context.getTaskScheduler().executeTasks(rootTaskContext, memo.getRootGroup());
+            }
         }
+        context.getPlannerProfile().setMemoSize(memo.getGroups().size(), memo.getGroupExpressions().size());
+
+        try (PlannerProfile.ScopedTimer ignored =
+                PlannerProfile.getScopedTimer(PlannerProfile.Phase.PHYSICAL_REWRITE)) {
+            OptExpression result;
+            if (!connectContext.getSessionVariable().isSetUseNthExecPlan()) {
+                result = extractBestPlan(requiredProperty, memo.getRootGroup());
+            } else {
+                // extract the nth execution plan
+                int nthExecPlan = connectContext.getSessionVariable().getUseNthExecPlan();
+                result = EnumeratePlan.extractNthPlan(requiredProperty, memo.getRootGroup(), nthExecPlan);
+            }
 
-        return physicalRuleRewrite(rootTaskContext, result);
+            return physicalRuleRewrite(rootTaskContext, result);
+        }
     }
 
     void memoOptimize(ConnectContext connectContext, Memo memo, TaskContext rootTaskContext) {
@@ -109,7 +163,15 @@ public class Optimizer {
         // Join reorder
         SessionVariable sessionVariable = connectContext.getSessionVariable();
         if (!sessionVariable.isDisableJoinReorder()) {
-            if (Utils.countInnerJoinNodeSize(tree) > sessionVariable.getCboMaxReorderNodeUseExhaustive()) {
+            int innerJoinNodeSize = Utils.countInnerJoinNodeSize(tree);
+            boolean exceedMemoBudget = estimateJoinExpressions(innerJoinNodeSize + 1) >
+                    sessionVariable.getCboMaxMemoExpressions();
+            if (exceedMemoBudget) {
+                context.getPlannerProfile().setMemoBudgetExceeded();
+            }
+            // the join orders of the plan baseline are built by ReorderJoinRule
+            if (innerJoinNodeSize > sessionVariable.getCboMaxReorderNodeUseExhaustive() || exceedMemoBudget ||
+                    context.getPlanShapeMatcher() != null) {
                 new ReorderJoinRule().transform(tree, context);
                 context.getRuleSet().addJoinCommutativityWithOutInnerRule();
             } else {
@@ -120,6 +182,10 @@ public class Optimizer {
             }
         }
 
+        if (sessionVariable.isEnableEagerAggregation()) {
+            context.getRuleSet().getTransformRules().add(PushDownPartialAggJoinRule.getInstance());
+        }
+
         context.getTaskScheduler().pushTask(new OptimizeGroupTask(
                 rootTaskContext, memo.getRootGroup()));
 
@@ -129,6 +195,12 @@ public class Optimizer {
         context.getTaskScheduler().executeTasks(rootTaskContext, memo.getRootGroup());
     }
 
+    // The upper bound of the join expressions explored by the exhaustive join reorder of n tables, which is
+    // the number of the ordered pairs of the disjoint non-empty table sets
+    static double estimateJoinExpressions(int tableCount) {
+        return Math.pow(3, tableCount) - Math.pow(2, tableCount + 1) + 1;
+    }
+
     OptExpression physicalRuleRewrite(TaskContext rootTaskContext, OptExpression result) {
         Preconditions.checkState(result.getOp().isPhysical());
 
@@ -140,6 +212,7 @@ public class Optimizer {
         // Rewrite Exchange on top of Sort to Final Sort
         result = new ExchangeSortToMergeRule().rewrite(result);
         result = new PruneAggregateNodeRule().rewrite(result, rootTaskContext);
+        result = new SkewRewriteRule().rewrite(result, rootTaskContext);
         result = new AddDecodeNodeForDictStringRule().rewrite(result, rootTaskContext);
         // This rule should be last
         result = new ScalarOperatorsReuseRule().rewrite(result, rootTaskContext);
@@ -164,6 +237,7 @@ public class Optimizer {
 
         ruleRewriteIterative(memo, rootTaskContext, RuleSetType.MULTI_DISTINCT_REWRITE);
         ruleRewriteIterative(memo, rootTaskContext, RuleSetType.SUBQUERY_REWRITE);
+        ruleRewriteOnlyOnce(memo, rootTaskContext, new FilterNullJoinKeyRule());
         // Note: PUSH_DOWN_PREDICATE tasks should be executed before MERGE_LIMIT tasks
         // because of the Filter node needs to be merged first to avoid the Limit node
         // cannot merge
@@ -179,6 +253,7 @@ public class Optimizer {
         // After prune columns, the output column in the logical property may outdated, because of the following rule
         // will use the output column, we need to derive the logical property here.
         memo.deriveAllGroupLogicalProperty();
+        ruleRewriteIterative(memo, rootTaskContext, RuleSetType.UNIQUE_KEY_REWRITE);
 
         ruleRewriteIterative(memo, rootTaskContext, new PruneEmptyWindowRule());
         ruleRewriteIterative(memo, rootTaskContext, new MergeTwoProjectRule());
@@ -215,6 +290,7 @@ public class Optimizer {
         }
 
         OptExpression tree = memo.getRootGroup().extractLogicalTree();
+        tree = new AsyncMaterializedViewRule().transform(tree, context).get(0);
         tree = new MaterializedViewRule().transform(tree, context).get(0);
         memo.replaceRewriteExpression(memo.getRootGroup(), tree);
 
@@ -237,6 +313,8 @@ public class Optimizer {
         ruleRewriteIterative(memo, rootTaskContext, new MergeProjectWithChildRule());
         ruleRewriteOnlyOnce(memo, rootTaskContext, new JoinForceLimitRule());
         ruleRewriteOnlyOnce(memo, rootTaskContext, new ReorderIntersectRule());
+        // the skew is estimated from the statistics of the rewritten children
+        ruleRewriteOnlyOnce(memo, rootTaskContext, new SaltSkewedAggregationRule());
 
         cleanUpMemoGroup(memo);
     }
@@ -6,7 +6,9 @@ import com.starrocks.catalog.Catalog;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.VariableMgr;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.baseline.PlanShapeMatcher;
 import com.starrocks.sql.optimizer.dump.DumpInfo;
 import com.starrocks.sql.optimizer.rule.RuleSet;
 import com.starrocks.sql.optimizer.task.SeriallyTaskScheduler;
@@ -23,6 +25,9 @@ public class OptimizerContext {
     private DumpInfo dumpInfo;
     private CTEContext cteContext;
     private TaskContext currentTaskContext;
+    private PlannerProfile plannerProfile;
+    // constrain the plan to the baseline of the query, null if there is no baseline
+    private PlanShapeMatcher planShapeMatcher;
 
     public OptimizerContext(Memo memo, ColumnRefFactory columnRefFactory) {
         this.memo = memo;
@@ -31,6 +36,7 @@ public class OptimizerContext {
         this.taskScheduler = SeriallyTaskScheduler.create();
         this.columnRefFactory = columnRefFactory;
         this.sessionVariable = VariableMgr.newSessionVariable();
+        this.plannerProfile = new PlannerProfile();
     }
 
     public OptimizerContext(Memo memo, ColumnRefFactory columnRefFactory, ConnectContext connectContext) {
@@ -41,12 +47,17 @@ public class OptimizerContext {
         this.columnRefFactory = columnRefFactory;
         this.sessionVariable = connectContext.getSessionVariable();
         this.dumpInfo = connectContext.getDumpInfo();
+        this.plannerProfile = connectContext.getPlannerProfile();
         this.cteContext = new CTEContext();
         cteContext.reset();
         this.cteContext.setEnableCTE(sessionVariable.isCboCteReuse());
         this.cteContext.setInlineCTERatio(sessionVariable.getCboCTERuseRatio());
     }
 
+    public PlannerProfile getPlannerProfile() {
+        return plannerProfile;
+    }
+
     public Memo getMemo() {
         return memo;
     }
@@ -90,4 +101,12 @@ public class OptimizerContext {
     public TaskContext getTaskContext() {
         return currentTaskContext;
     }
+
+    public PlanShapeMatcher getPlanShapeMatcher() {
+        return planShapeMatcher;
+    }
+
+    public void setPlanShapeMatcher(PlanShapeMatcher planShapeMatcher) {
+        this.planShapeMatcher = planShapeMatcher;
+    }
 }
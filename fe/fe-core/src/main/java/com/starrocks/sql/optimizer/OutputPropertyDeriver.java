@@ -26,6 +26,7 @@ import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalLimitOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalNoCTEOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalProjectOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalTableFunctionOperator;
@@ -310,6 +311,14 @@ public class OutputPropertyDeriver extends OperatorVisitor<PhysicalPropertySet,
         return outputProperty;
     }
 
+    @Override
+    public PhysicalPropertySet visitPhysicalPartitionTopN(PhysicalPartitionTopNOperator node,
+                                                          ExpressionContext context) {
+        Preconditions.checkState(childrenOutputProperties.size() == 1);
+        // Keep the child distribution, the order of child is not kept
+        return new PhysicalPropertySet(childrenOutputProperties.get(0).getDistributionProperty());
+    }
+
     @Override
     public PhysicalPropertySet visitPhysicalAnalytic(PhysicalWindowOperator node, ExpressionContext context) {
         Preconditions.checkState(childrenOutputProperties.size() == 1);
@@ -23,6 +23,7 @@ import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalIntersectOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalLimitOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalNoCTEOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalUnionOperator;
@@ -200,6 +201,23 @@ public class RequiredPropertyDeriver extends OperatorVisitor<Void, ExpressionCon
         return null;
     }
 
+    @Override
+    public Void visitPhysicalPartitionTopN(PhysicalPartitionTopNOperator node, ExpressionContext context) {
+        // The partial phase limits the rows of each instance, the final phase needs the whole partition
+        if (node.getSortPhase().isPartial()) {
+            requiredProperties.add(Lists.newArrayList(PhysicalPropertySet.EMPTY));
+            return null;
+        }
+
+        List<Integer> partitionColumnRefSet = node.getPartitionByColumns().stream()
+                .map(ColumnRefOperator::getId).collect(Collectors.toList());
+        DistributionSpec distributionSpec = DistributionSpec.createHashDistributionSpec(
+                new HashDistributionDesc(partitionColumnRefSet, HashDistributionDesc.SourceType.SHUFFLE_AGG));
+        requiredProperties.add(
+                Lists.newArrayList(new PhysicalPropertySet(new DistributionProperty(distributionSpec))));
+        return null;
+    }
+
     @Override
     public Void visitPhysicalUnion(PhysicalUnionOperator node, ExpressionContext context) {
         processSetOperationChildProperty(context);
@@ -3,24 +3,45 @@
 package com.starrocks.sql.optimizer.base;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.JoinOperator;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.KeysType;
+import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.FeConstants;
 import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.operator.OperatorVisitor;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAssertOneRowOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalCTEAnchorOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalCTEConsumeOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalExceptOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalIntersectOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalJDBCScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalLimitOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalMysqlScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalPartitionTopNOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalTableFunctionOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalTopNOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalUnionOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalValuesOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalWindowOperator;
 import com.starrocks.sql.optimizer.operator.logical.MockOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.rule.transformation.JoinPredicateUtils;
+
+import java.util.List;
+import java.util.Map;
 
 public class LogicalProperty implements Property {
     // Operator's output columns
@@ -29,11 +50,45 @@ public class LogicalProperty implements Property {
     private int leftMostScanTabletsNum;
     // The flag for execute upon less than or equal one tablet
     private boolean isExecuteInOneTablet;
+    // The column sets which are unique in the output rows of operator. An empty set means there is
+    // at most one output row.
+    private List<ColumnRefSet> uniqueKeys = ImmutableList.of();
+    // The functional dependencies in the output rows, determinant columns -> dependent columns
+    private Map<ColumnRefSet, ColumnRefSet> functionalDependencies = ImmutableMap.of();
 
     public ColumnRefSet getOutputColumns() {
         return outputColumns;
     }
 
+    public List<ColumnRefSet> getUniqueKeys() {
+        return uniqueKeys;
+    }
+
+    // Whether the output rows are unique on the columns, that is the columns contain a unique key
+    public boolean isUnique(ColumnRefSet columns) {
+        return uniqueKeys.stream().anyMatch(columns::containsAll);
+    }
+
+    public Map<ColumnRefSet, ColumnRefSet> getFunctionalDependencies() {
+        return functionalDependencies;
+    }
+
+    // Return the columns whose values are determined by the values of columns, including the columns
+    public ColumnRefSet getDeterminedColumns(ColumnRefSet columns) {
+        ColumnRefSet result = (ColumnRefSet) columns.clone();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<ColumnRefSet, ColumnRefSet> dependency : functionalDependencies.entrySet()) {
+                if (result.containsAll(dependency.getKey()) && !result.containsAll(dependency.getValue())) {
+                    result.union(dependency.getValue());
+                    changed = true;
+                }
+            }
+        }
+        return result;
+    }
+
     public int getLeftMostScanTabletsNum() {
         return leftMostScanTabletsNum;
     }
@@ -59,6 +114,28 @@ public class LogicalProperty implements Property {
         outputColumns = op.getOutputColumns(expressionContext);
         leftMostScanTabletsNum = op.accept(new LeftMostScanTabletsNumVisitor(), expressionContext);
         isExecuteInOneTablet = op.accept(new OneTabletExecutorVisitor(), expressionContext);
+        // the unique keys which are not in output are pruned by projection
+        uniqueKeys = op.accept(new UniqueKeysVisitor(), expressionContext).stream()
+                .filter(outputColumns::containsAll).distinct().collect(ImmutableList.toImmutableList());
+        // a unique key determines all the output columns
+        Map<ColumnRefSet, ColumnRefSet> dependencies = Maps.newHashMap();
+        op.accept(new FunctionalDependencyVisitor(), expressionContext)
+                .forEach((determinant, dependent) -> addDependency(dependencies, determinant, dependent));
+        uniqueKeys.forEach(key -> addDependency(dependencies, key, outputColumns));
+        functionalDependencies = ImmutableMap.copyOf(dependencies);
+    }
+
+    private void addDependency(Map<ColumnRefSet, ColumnRefSet> dependencies, ColumnRefSet determinant,
+                               ColumnRefSet dependent) {
+        if (!outputColumns.containsAll(determinant)) {
+            return;
+        }
+        ColumnRefSet columns = (ColumnRefSet) dependent.clone();
+        columns.intersect(outputColumns);
+        columns.except(determinant);
+        if (!columns.isEmpty()) {
+            dependencies.computeIfAbsent(determinant, k -> new ColumnRefSet()).union(columns);
+        }
     }
 
     static class LeftMostScanTabletsNumVisitor extends OperatorVisitor<Integer, ExpressionContext> {
@@ -170,4 +247,189 @@ public class LogicalProperty implements Property {
             return false;
         }
     }
+
+    static class UniqueKeysVisitor extends OperatorVisitor<List<ColumnRefSet>, ExpressionContext> {
+        @Override
+        public List<ColumnRefSet> visitOperator(Operator node, ExpressionContext context) {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalTableScan(LogicalScanOperator node, ExpressionContext context) {
+            if (!(node.getTable() instanceof OlapTable)) {
+                return ImmutableList.of();
+            }
+            OlapTable table = (OlapTable) node.getTable();
+            if (table.getKeysType() != KeysType.PRIMARY_KEYS && table.getKeysType() != KeysType.UNIQUE_KEYS) {
+                return ImmutableList.of();
+            }
+            ColumnRefSet keyColumns = new ColumnRefSet();
+            for (Map.Entry<ColumnRefOperator, Column> entry : node.getColRefToColumnMetaMap().entrySet()) {
+                if (entry.getValue().isKey()) {
+                    keyColumns.union(entry.getKey());
+                }
+            }
+            // all the key columns must be scanned
+            if (keyColumns.cardinality() != table.getKeyColumnsByIndexId(table.getBaseIndexId()).size()) {
+                return ImmutableList.of();
+            }
+            return ImmutableList.of(keyColumns);
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalAggregation(LogicalAggregationOperator node,
+                                                          ExpressionContext context) {
+            if (!node.getType().isGlobal()) {
+                return ImmutableList.of();
+            }
+            return ImmutableList.of(new ColumnRefSet(node.getGroupingKeys()));
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalAssertOneRow(LogicalAssertOneRowOperator node,
+                                                           ExpressionContext context) {
+            return ImmutableList.of(new ColumnRefSet());
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalProject(LogicalProjectOperator node, ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getUniqueKeys();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalFilter(LogicalFilterOperator node, ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getUniqueKeys();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalLimit(LogicalLimitOperator node, ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getUniqueKeys();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalTopN(LogicalTopNOperator node, ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getUniqueKeys();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalPartitionTopN(LogicalPartitionTopNOperator node,
+                                                            ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getUniqueKeys();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalAnalytic(LogicalWindowOperator node, ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getUniqueKeys();
+        }
+
+        @Override
+        public List<ColumnRefSet> visitLogicalCTEAnchor(LogicalCTEAnchorOperator node, ExpressionContext context) {
+            return context.getChildLogicalProperty(1).getUniqueKeys();
+        }
+
+        // The unique keys of one child are kept if every row of it matches at most one row of the other
+        // child, that is the other child is unique on its equal on columns.
+        @Override
+        public List<ColumnRefSet> visitLogicalJoin(LogicalJoinOperator node, ExpressionContext context) {
+            JoinOperator joinType = node.getJoinType();
+            LogicalProperty left = context.getChildLogicalProperty(0);
+            LogicalProperty right = context.getChildLogicalProperty(1);
+            if (joinType.isLeftSemiAntiJoin()) {
+                return left.getUniqueKeys();
+            }
+            if (joinType.isRightSemiAntiJoin()) {
+                return right.getUniqueKeys();
+            }
+
+            List<ColumnRefSet> uniqueKeys = Lists.newArrayList();
+            if (!joinType.isRightOuterJoin() && !joinType.isFullOuterJoin() && right.isUnique(JoinPredicateUtils
+                    .getEqualOnColumns(node.getOnPredicate(), right.getOutputColumns(), left.getOutputColumns()))) {
+                uniqueKeys.addAll(left.getUniqueKeys());
+            }
+            if (!joinType.isLeftOuterJoin() && !joinType.isFullOuterJoin() && left.isUnique(JoinPredicateUtils
+                    .getEqualOnColumns(node.getOnPredicate(), left.getOutputColumns(), right.getOutputColumns()))) {
+                uniqueKeys.addAll(right.getUniqueKeys());
+            }
+            return uniqueKeys;
+        }
+    }
+
+    // The dependencies of children which still hold in the output rows, the dependencies which are not in
+    // output columns are pruned when deriving.
+    static class FunctionalDependencyVisitor
+            extends OperatorVisitor<Map<ColumnRefSet, ColumnRefSet>, ExpressionContext> {
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitOperator(Operator node, ExpressionContext context) {
+            return ImmutableMap.of();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalAggregation(LogicalAggregationOperator node,
+                                                                       ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalProject(LogicalProjectOperator node,
+                                                                   ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalFilter(LogicalFilterOperator node,
+                                                                  ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalLimit(LogicalLimitOperator node,
+                                                                 ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalTopN(LogicalTopNOperator node,
+                                                                ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalPartitionTopN(LogicalPartitionTopNOperator node,
+                                                                         ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalAnalytic(LogicalWindowOperator node,
+                                                                    ExpressionContext context) {
+            return context.getChildLogicalProperty(0).getFunctionalDependencies();
+        }
+
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalCTEAnchor(LogicalCTEAnchorOperator node,
+                                                                     ExpressionContext context) {
+            return context.getChildLogicalProperty(1).getFunctionalDependencies();
+        }
+
+        // The null-extended rows of outer join may break the dependencies, so only the dependencies
+        // of the preserved side are kept
+        @Override
+        public Map<ColumnRefSet, ColumnRefSet> visitLogicalJoin(LogicalJoinOperator node,
+                                                                ExpressionContext context) {
+            JoinOperator joinType = node.getJoinType();
+            Map<ColumnRefSet, ColumnRefSet> dependencies = Maps.newHashMap();
+            if (!joinType.isRightJoin() && !joinType.isFullOuterJoin()) {
+                dependencies.putAll(context.getChildLogicalProperty(0).getFunctionalDependencies());
+            }
+            if (!joinType.isLeftSemiAntiJoin() && !joinType.isLeftOuterJoin() && !joinType.isFullOuterJoin()) {
+                context.getChildLogicalProperty(1).getFunctionalDependencies().forEach((determinant, dependent) ->
+                        dependencies.merge(determinant, dependent, (a, b) -> {
+                            ColumnRefSet merged = (ColumnRefSet) a.clone();
+                            merged.union(b);
+                            return merged;
+                        }));
+            }
+            return dependencies;
+        }
+    }
 }
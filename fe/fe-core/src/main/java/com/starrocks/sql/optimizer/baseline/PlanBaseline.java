@@ -0,0 +1,143 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.baseline;
+
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A plan baseline pins the plan shape of the queries with the same digest, see {@link PlanBaselineMgr}.
+ * <p>
+ * The latencies of the queries planned with the baseline and of the queries planned with another shape
+ * (the candidate) are kept in memory, by which the baseline evolves to the candidate if it's faster.
+ */
+public class PlanBaseline implements Writable {
+    @SerializedName("id")
+    private long id;
+
+    @SerializedName("digest")
+    private String digest;
+
+    @SerializedName("sql")
+    private String sql;
+
+    @SerializedName("planShape")
+    private PlanShape planShape;
+
+    @SerializedName("createTime")
+    private long createTime;
+
+    // the time when the baseline is evolved, 0 if it's never evolved
+    @SerializedName("evolveTime")
+    private long evolveTime;
+
+    private transient long acceptedCount;
+    private transient long acceptedTotalMs;
+    private transient PlanShape candidateShape;
+    private transient long candidateCount;
+    private transient long candidateTotalMs;
+
+    public PlanBaseline(long id, String digest, String sql, PlanShape planShape, long createTime) {
+        this.id = id;
+        this.digest = digest;
+        this.sql = sql;
+        this.planShape = planShape;
+        this.createTime = createTime;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public PlanShape getPlanShape() {
+        return planShape;
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public long getEvolveTime() {
+        return evolveTime;
+    }
+
+    /**
+     * Return the baseline evolved to the given shape, it has the same id and digest.
+     */
+    public PlanBaseline evolve(PlanShape shape, long evolveTime) {
+        PlanBaseline baseline = new PlanBaseline(id, digest, sql, shape, createTime);
+        baseline.evolveTime = evolveTime;
+        return baseline;
+    }
+
+    public synchronized void addAcceptedLatency(long latencyMs) {
+        acceptedCount++;
+        acceptedTotalMs += latencyMs;
+    }
+
+    public synchronized void addCandidateLatency(PlanShape shape, long latencyMs) {
+        if (!shape.equals(candidateShape)) {
+            // only the latest candidate is kept
+            candidateShape = shape;
+            candidateCount = 0;
+            candidateTotalMs = 0;
+        }
+        candidateCount++;
+        candidateTotalMs += latencyMs;
+    }
+
+    /**
+     * Return the candidate shape if both the baseline and the candidate are executed at least minExecutions
+     * times, and the average latency of the candidate is less than ratio of the baseline's, otherwise null.
+     */
+    public synchronized PlanShape getFasterCandidate(int minExecutions, double ratio) {
+        if (candidateShape == null || acceptedCount < minExecutions || candidateCount < minExecutions) {
+            return null;
+        }
+        double acceptedAvgMs = (double) acceptedTotalMs / acceptedCount;
+        double candidateAvgMs = (double) candidateTotalMs / candidateCount;
+        return candidateAvgMs < acceptedAvgMs * ratio ? candidateShape : null;
+    }
+
+    public synchronized long getAcceptedAvgMs() {
+        return acceptedCount == 0 ? 0 : acceptedTotalMs / acceptedCount;
+    }
+
+    public synchronized long getCandidateAvgMs() {
+        return candidateCount == 0 ? 0 : candidateTotalMs / candidateCount;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        String s = GsonUtils.GSON.toJson(this);
+        Text.writeString(out, s);
+    }
+
+    public static PlanBaseline read(DataInput in) throws IOException {
+        String s = Text.readString(in);
+        return GsonUtils.GSON.fromJson(s, PlanBaseline.class);
+    }
+
+    @Override
+    public String toString() {
+        return "PlanBaseline{" +
+                "id=" + id +
+                ", digest='" + digest + '\'' +
+                ", planShape=" + planShape +
+                '}';
+    }
+}
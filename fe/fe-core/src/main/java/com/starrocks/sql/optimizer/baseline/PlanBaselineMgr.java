@@ -0,0 +1,203 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.baseline;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.UserException;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.PlannerProfile;
+import com.starrocks.sql.StatementPlanner;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.common.SqlDigestBuilder;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * PlanBaselineMgr is employed by Catalog to manage the plan baselines, which pin the plan shapes of the
+ * queries by their digests.
+ * <p>
+ * A baseline is added by ADD BASELINE "sql", which plans the query and captures its plan shape. The
+ * queries with the same digest are planned by the shape if enable_plan_baseline is true. The queries
+ * planned with enable_plan_baseline = false are the candidates, the baseline evolves to the shape of the
+ * candidate if it's measurably faster, see {@link PlanBaseline#getFasterCandidate}.
+ * <p>
+ * The latencies are kept in the memory of each FE and are not forwarded. The evolution is persisted, so only
+ * the master evolves the baselines, by the queries executed on the master. The candidates run on followers
+ * are only shown by SHOW BASELINES of the follower.
+ */
+public class PlanBaselineMgr implements Writable {
+    private static final Logger LOG = LogManager.getLogger(PlanBaselineMgr.class);
+
+    // digest -> baseline
+    private final ConcurrentMap<String, PlanBaseline> baselines = Maps.newConcurrentMap();
+
+    public static String computeDigest(StatementBase stmt) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            md.update(SqlDigestBuilder.build(stmt).getBytes(StandardCharsets.UTF_8));
+            return Hex.encodeHexString(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Record the digest of the analyzed query and its baseline in the planner profile, the digest is only
+     * computed if there are baselines.
+     */
+    public void matchPlanBaseline(QueryStatement stmt, ConnectContext session) {
+        PlannerProfile profile = session.getPlannerProfile();
+        if (baselines.isEmpty() && !profile.isCapturePlanShape()) {
+            return;
+        }
+        String digest = computeDigest(stmt);
+        profile.setPlanDigest(digest);
+        PlanBaseline baseline = baselines.get(digest);
+        if (baseline == null || profile.isCapturePlanShape()) {
+            return;
+        }
+        if (session.getSessionVariable().isEnablePlanBaseline()) {
+            profile.setPlanBaseline(baseline);
+        } else {
+            profile.setPlanBaselineCandidate();
+        }
+    }
+
+    /**
+     * Plan the query without baseline and pin its plan shape, the baseline of the same digest is replaced.
+     */
+    public PlanBaseline addPlanBaseline(String sql, ConnectContext session) throws UserException {
+        StatementBase stmt = SqlParser.parse(sql, session.getSessionVariable().getSqlMode()).get(0);
+        if (!(stmt instanceof QueryStatement)) {
+            throw new DdlException("Plan baseline only supports query statement");
+        }
+
+        PlannerProfile profile = session.getPlannerProfile();
+        profile.setCapturePlanShape();
+        new StatementPlanner().plan(stmt, session);
+
+        String digest = profile.getPlanDigest();
+        if (digest == null || profile.getPlanShape() == null) {
+            throw new DdlException("Failed to capture the plan of the query");
+        }
+        PlanBaseline existing = baselines.get(digest);
+        long id = existing != null ? existing.getId() : Catalog.getCurrentCatalog().getNextId();
+        PlanBaseline baseline = new PlanBaseline(id, digest, sql, profile.getPlanShape(), System.currentTimeMillis());
+        baselines.put(digest, baseline);
+        Catalog.getCurrentCatalog().getEditLog().logAddPlanBaseline(baseline);
+        LOG.info("add plan baseline: {}", baseline);
+        return baseline;
+    }
+
+    public void removePlanBaselines(List<Long> ids) {
+        for (PlanBaseline baseline : getAllPlanBaselines()) {
+            if (ids.contains(baseline.getId()) && baselines.remove(baseline.getDigest(), baseline)) {
+                Catalog.getCurrentCatalog().getEditLog().logRemovePlanBaseline(baseline);
+                LOG.info("remove plan baseline: {}", baseline);
+            }
+        }
+    }
+
+    /**
+     * Collect the latency of the query, and evolve its baseline if the candidate plan is faster. The evolution
+     * is persisted, so it's only done by the master, and the latencies collected on followers don't count.
+     * The queries which miss the baseline are planned under other constraints (e.g. hints), they are neither
+     * accepted nor candidates.
+     */
+    public void onQueryFinished(PlannerProfile profile, long latencyMs) {
+        String digest = profile.getPlanDigest();
+        PlanShape shape = profile.getPlanShape();
+        if (digest == null || shape == null) {
+            return;
+        }
+        PlanBaseline baseline = baselines.get(digest);
+        if (baseline == null) {
+            return;
+        }
+        // planned by the current baseline, not by a replaced one or without it because it's missed
+        if (profile.getPlanBaseline() == baseline && !profile.isPlanBaselineMissed()) {
+            baseline.addAcceptedLatency(latencyMs);
+            return;
+        }
+        // only the queries planned freely with enable_plan_baseline = false are candidates
+        if (!profile.isPlanBaselineCandidate() || shape.equals(baseline.getPlanShape())) {
+            return;
+        }
+
+        baseline.addCandidateLatency(shape, latencyMs);
+        PlanShape candidate = baseline.getFasterCandidate(Config.plan_baseline_evolve_min_executions,
+                Config.plan_baseline_evolve_ratio);
+        if (candidate == null || !Catalog.getCurrentCatalog().isMaster()) {
+            return;
+        }
+        PlanBaseline evolved = baseline.evolve(candidate, System.currentTimeMillis());
+        if (baselines.replace(digest, baseline, evolved)) {
+            Catalog.getCurrentCatalog().getEditLog().logAddPlanBaseline(evolved);
+            LOG.info("evolve plan baseline from {} ms to {} ms: {}", baseline.getAcceptedAvgMs(),
+                    baseline.getCandidateAvgMs(), evolved);
+        }
+    }
+
+    public void replayAddPlanBaseline(PlanBaseline baseline) {
+        baselines.put(baseline.getDigest(), baseline);
+    }
+
+    public void replayRemovePlanBaseline(PlanBaseline baseline) {
+        baselines.remove(baseline.getDigest());
+    }
+
+    public PlanBaseline getPlanBaseline(String digest) {
+        return baselines.get(digest);
+    }
+
+    public List<PlanBaseline> getAllPlanBaselines() {
+        return Lists.newArrayList(baselines.values());
+    }
+
+    public boolean isEmpty() {
+        return baselines.isEmpty();
+    }
+
+    public void readFields(DataInputStream dis) throws IOException {
+        String s = Text.readString(dis);
+        SerializeData data = GsonUtils.GSON.fromJson(s, SerializeData.class);
+        if (null != data && null != data.baselines) {
+            for (PlanBaseline baseline : data.baselines) {
+                replayAddPlanBaseline(baseline);
+            }
+        }
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        SerializeData data = new SerializeData();
+        data.baselines = getAllPlanBaselines();
+        String s = GsonUtils.GSON.toJson(data);
+        Text.writeString(out, s);
+    }
+
+    private static class SerializeData {
+        @SerializedName("baselines")
+        public List<PlanBaseline> baselines;
+    }
+}
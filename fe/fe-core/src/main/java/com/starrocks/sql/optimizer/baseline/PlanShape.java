@@ -0,0 +1,304 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.baseline;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.DistributionSpec;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalDecodeOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalDistributionOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * The shape of a physical plan which is pinned by a plan baseline: the order and the sides of the joins,
+ * the distribution of the joins and the rollup index selected for the olap scans.
+ * <p>
+ * The scans are identified by labels instead of the column ref ids, which change with the sql. The label of
+ * a scan is its table name, suffixed with "#n" by the order of the relations in the query if the table
+ * is scanned more than once.
+ */
+public class PlanShape {
+    public enum JoinDistribution {
+        BROADCAST,
+        SHUFFLE,
+        BUCKET_SHUFFLE,
+        // colocate or replicated join, there is no exchange for both sides
+        LOCAL
+    }
+
+    public static class JoinShape {
+        // the sorted labels of the scans of the left side and the right side
+        @SerializedName("left")
+        private final List<String> left;
+
+        @SerializedName("right")
+        private final List<String> right;
+
+        @SerializedName("distribution")
+        private final JoinDistribution distribution;
+
+        public JoinShape(Set<String> left, Set<String> right, JoinDistribution distribution) {
+            this.left = Lists.newArrayList(left);
+            this.right = Lists.newArrayList(right);
+            Collections.sort(this.left);
+            Collections.sort(this.right);
+            this.distribution = distribution;
+        }
+
+        public Set<String> getLeft() {
+            return Sets.newHashSet(left);
+        }
+
+        public Set<String> getRight() {
+            return Sets.newHashSet(right);
+        }
+
+        public Set<String> getTables() {
+            Set<String> tables = Sets.newHashSet(left);
+            tables.addAll(right);
+            return tables;
+        }
+
+        public JoinDistribution getDistribution() {
+            return distribution;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            JoinShape that = (JoinShape) o;
+            return left.equals(that.left) && right.equals(that.right) && distribution == that.distribution;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(left, right, distribution);
+        }
+    }
+
+    // the joins in post order, the top join is the last one
+    @SerializedName("joins")
+    private final List<JoinShape> joins = Lists.newArrayList();
+
+    // scan label -> the name of the selected index
+    @SerializedName("indexes")
+    private final Map<String, String> indexes = Maps.newTreeMap();
+
+    public List<JoinShape> getJoins() {
+        return joins;
+    }
+
+    /**
+     * Return the join whose scans are exactly the given tables, null if there isn't one.
+     */
+    public JoinShape getJoin(Set<String> tables) {
+        for (JoinShape join : joins) {
+            if (join.getTables().equals(tables)) {
+                return join;
+            }
+        }
+        return null;
+    }
+
+    public String getIndexName(String label) {
+        return indexes.get(label);
+    }
+
+    /**
+     * Capture the shape of the physical plan, the labels of the scans are given by {@link #labelRelations}.
+     */
+    public static PlanShape capture(OptExpression physicalPlan, Map<Integer, String> relationLabels,
+                                    ColumnRefFactory factory) {
+        PlanShape shape = new PlanShape();
+        shape.collect(physicalPlan, relationLabels, factory);
+        return shape;
+    }
+
+    private Set<String> collect(OptExpression expression, Map<Integer, String> relationLabels,
+                                ColumnRefFactory factory) {
+        Operator operator = expression.getOp();
+        if (operator instanceof PhysicalScanOperator) {
+            String label = getScanLabel(operator, relationLabels, factory);
+            if (operator instanceof PhysicalOlapScanOperator) {
+                PhysicalOlapScanOperator scan = (PhysicalOlapScanOperator) operator;
+                String indexName = ((OlapTable) scan.getTable()).getIndexNameById(scan.getSelectedIndexId());
+                if (indexName != null) {
+                    indexes.put(label, indexName);
+                }
+            }
+            return Sets.newHashSet(label);
+        }
+
+        List<Set<String>> childTables = Lists.newArrayList();
+        Set<String> tables = Sets.newHashSet();
+        for (OptExpression child : expression.getInputs()) {
+            Set<String> childLabels = collect(child, relationLabels, factory);
+            childTables.add(childLabels);
+            tables.addAll(childLabels);
+        }
+        if (operator instanceof PhysicalHashJoinOperator) {
+            joins.add(new JoinShape(childTables.get(0), childTables.get(1), getDistribution(expression)));
+        }
+        return tables;
+    }
+
+    private static JoinDistribution getDistribution(OptExpression join) {
+        DistributionSpec.DistributionType left = getExchangeType(join.inputAt(0));
+        DistributionSpec.DistributionType right = getExchangeType(join.inputAt(1));
+        if (right == DistributionSpec.DistributionType.BROADCAST) {
+            return JoinDistribution.BROADCAST;
+        } else if (left == DistributionSpec.DistributionType.SHUFFLE &&
+                right == DistributionSpec.DistributionType.SHUFFLE) {
+            return JoinDistribution.SHUFFLE;
+        } else if (right == DistributionSpec.DistributionType.SHUFFLE) {
+            return JoinDistribution.BUCKET_SHUFFLE;
+        }
+        return JoinDistribution.LOCAL;
+    }
+
+    // the distribution type of the exchange of the join child, null if the child isn't exchanged
+    private static DistributionSpec.DistributionType getExchangeType(OptExpression child) {
+        while (child.getOp() instanceof PhysicalDecodeOperator) {
+            child = child.inputAt(0);
+        }
+        if (child.getOp() instanceof PhysicalDistributionOperator) {
+            return ((PhysicalDistributionOperator) child.getOp()).getDistributionSpec().getType();
+        }
+        return null;
+    }
+
+    /**
+     * Label the relations of the scans in the tree, return relation id -> label.
+     */
+    public static Map<Integer, String> labelRelations(OptExpression tree, ColumnRefFactory factory) {
+        // table name -> relation ids
+        Map<String, Set<Integer>> tableRelations = Maps.newTreeMap();
+        collectRelations(tree, factory, tableRelations);
+
+        Map<Integer, String> labels = Maps.newHashMap();
+        for (Map.Entry<String, Set<Integer>> entry : tableRelations.entrySet()) {
+            List<Integer> relationIds = Lists.newArrayList(entry.getValue());
+            Collections.sort(relationIds);
+            for (int i = 0; i < relationIds.size(); i++) {
+                String label = relationIds.size() == 1 ? entry.getKey() : entry.getKey() + "#" + (i + 1);
+                labels.put(relationIds.get(i), label);
+            }
+        }
+        return labels;
+    }
+
+    private static void collectRelations(OptExpression expression, ColumnRefFactory factory,
+                                         Map<String, Set<Integer>> tableRelations) {
+        Operator operator = expression.getOp();
+        if (isScan(operator)) {
+            int relationId = getRelationId(operator, factory);
+            if (relationId != -1) {
+                tableRelations.computeIfAbsent(getTableName(operator), k -> Sets.newHashSet()).add(relationId);
+            }
+        }
+        for (OptExpression child : expression.getInputs()) {
+            collectRelations(child, factory, tableRelations);
+        }
+    }
+
+    public static boolean isScan(Operator operator) {
+        return operator instanceof LogicalScanOperator || operator instanceof PhysicalScanOperator;
+    }
+
+    /**
+     * The label of the logical or physical scan, it's the table name if the relation isn't labeled.
+     */
+    public static String getScanLabel(Operator scan, Map<Integer, String> relationLabels, ColumnRefFactory factory) {
+        String label = relationLabels.get(getRelationId(scan, factory));
+        return label != null ? label : getTableName(scan);
+    }
+
+    private static String getTableName(Operator scan) {
+        return scan instanceof LogicalScanOperator ? ((LogicalScanOperator) scan).getTable().getName() :
+                ((PhysicalScanOperator) scan).getTable().getName();
+    }
+
+    private static int getRelationId(Operator scan, ColumnRefFactory factory) {
+        Map<ColumnRefOperator, Column> columns = scan instanceof LogicalScanOperator ?
+                ((LogicalScanOperator) scan).getColRefToColumnMetaMap() :
+                ((PhysicalScanOperator) scan).getColRefToColumnMetaMap();
+        if (columns.isEmpty()) {
+            return -1;
+        }
+        return factory.getRelationId(columns.keySet().iterator().next().getId());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PlanShape that = (PlanShape) o;
+        return joins.equals(that.joins) && indexes.equals(that.indexes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(joins, indexes);
+    }
+
+    /**
+     * Print the join trees like "((lineitem SHUFFLE orders) BROADCAST nation)", followed by the indexes.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ");
+        Set<JoinShape> printed = Sets.newHashSet();
+        for (int i = joins.size() - 1; i >= 0; i--) {
+            if (!printed.contains(joins.get(i))) {
+                joiner.add(printJoin(joins.get(i), printed));
+            }
+        }
+        for (Map.Entry<String, String> entry : indexes.entrySet()) {
+            joiner.add(entry.getKey() + ":" + entry.getValue());
+        }
+        return joiner.toString();
+    }
+
+    private String printJoin(JoinShape join, Set<JoinShape> printed) {
+        printed.add(join);
+        return "(" + printSide(join.getLeft(), printed) + " " + join.getDistribution() + " " +
+                printSide(join.getRight(), printed) + ")";
+    }
+
+    private String printSide(Set<String> tables, Set<JoinShape> printed) {
+        JoinShape join = getJoin(tables);
+        if (join != null) {
+            return printJoin(join, printed);
+        }
+        List<String> sorted = Lists.newArrayList(tables);
+        Collections.sort(sorted);
+        return String.join(",", sorted);
+    }
+}
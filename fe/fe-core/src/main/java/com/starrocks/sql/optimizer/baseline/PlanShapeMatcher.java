@@ -0,0 +1,120 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.baseline;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.sql.optimizer.Group;
+import com.starrocks.sql.optimizer.GroupExpression;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Constrain the optimizer of a query to the plan shape of its baseline:
+ * 1. The join orders of the baseline are added into the memo by JoinReorderBaseline.
+ * 2. A physical join whose scans are the same as a join of the baseline must have the same sides, and
+ * its right side must be broadcast if and only if it is broadcast in the baseline. The other joins
+ * are not constrained.
+ * 3. The olap scans select the indexes of the baseline if they are valid.
+ * <p>
+ * If the baseline doesn't fit the query any more, e.g. an index of it is dropped, there may be no plan
+ * satisfying it, and the optimizer plans the query without the baseline.
+ */
+public class PlanShapeMatcher {
+    private final PlanShape planShape;
+    private final Map<Integer, String> relationLabels;
+    private final ColumnRefFactory factory;
+
+    // group id -> the labels of the scans of the group
+    private final Map<Integer, Set<String>> groupTables = Maps.newHashMap();
+
+    public PlanShapeMatcher(PlanShape planShape, Map<Integer, String> relationLabels, ColumnRefFactory factory) {
+        this.planShape = planShape;
+        this.relationLabels = relationLabels;
+        this.factory = factory;
+    }
+
+    public PlanShape getPlanShape() {
+        return planShape;
+    }
+
+    public Set<String> getTables(OptExpression expression) {
+        if (PlanShape.isScan(expression.getOp())) {
+            return Sets.newHashSet(PlanShape.getScanLabel(expression.getOp(), relationLabels, factory));
+        }
+        Set<String> tables = Sets.newHashSet();
+        for (OptExpression child : expression.getInputs()) {
+            tables.addAll(getTables(child));
+        }
+        return tables;
+    }
+
+    public Set<String> getTables(Group group) {
+        Set<String> tables = groupTables.get(group.getId());
+        if (tables != null) {
+            return tables;
+        }
+
+        tables = Sets.newHashSet();
+        GroupExpression expression = group.getFirstLogicalExpression();
+        if (expression != null) {
+            if (PlanShape.isScan(expression.getOp())) {
+                tables.add(PlanShape.getScanLabel(expression.getOp(), relationLabels, factory));
+            }
+            for (Group child : expression.getInputs()) {
+                tables.addAll(getTables(child));
+            }
+        }
+        groupTables.put(group.getId(), tables);
+        return tables;
+    }
+
+    /**
+     * Filter the required properties of the children of the join by the baseline, return an empty list if the
+     * sides of the join are different from the baseline.
+     */
+    public List<List<PhysicalPropertySet>> filterRequiredProperties(
+            GroupExpression groupExpression, List<List<PhysicalPropertySet>> requiredPropertiesList) {
+        if (!(groupExpression.getOp() instanceof PhysicalHashJoinOperator)) {
+            return requiredPropertiesList;
+        }
+        Set<String> left = getTables(groupExpression.inputAt(0));
+        Set<String> right = getTables(groupExpression.inputAt(1));
+        Set<String> tables = Sets.newHashSet(left);
+        tables.addAll(right);
+        PlanShape.JoinShape join = planShape.getJoin(tables);
+        if (join == null) {
+            return requiredPropertiesList;
+        }
+        if (!join.getLeft().equals(left) || !join.getRight().equals(right)) {
+            return Collections.emptyList();
+        }
+
+        boolean broadcast = join.getDistribution() == PlanShape.JoinDistribution.BROADCAST;
+        return requiredPropertiesList.stream()
+                .filter(properties -> properties.get(1).getDistributionProperty().isBroadcast() == broadcast)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Return the index of the baseline if it's one of the candidates, otherwise return the best index.
+     */
+    public long selectIndex(LogicalOlapScanOperator scan, Set<Long> candidateIndexIds, long bestIndexId) {
+        String indexName = planShape.getIndexName(PlanShape.getScanLabel(scan, relationLabels, factory));
+        if (indexName == null) {
+            return bestIndexId;
+        }
+        Long indexId = ((OlapTable) scan.getTable()).getIndexIdByName(indexName);
+        return indexId != null && candidateIndexIds.contains(indexId) ? indexId : bestIndexId;
+    }
+}
@@ -11,13 +11,18 @@ import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.common.ErrorType;
 import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.sql.optimizer.ExpressionContext;
+import com.starrocks.sql.optimizer.Group;
 import com.starrocks.sql.optimizer.GroupExpression;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.DistributionSpec;
+import com.starrocks.sql.optimizer.base.HashDistributionSpec;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.OperatorVisitor;
+import com.starrocks.sql.optimizer.operator.logical.LogicalCTEAnchorOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalCTEConsumeOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalAssertOneRowOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalCTEAnchorOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalCTEConsumeOperator;
@@ -36,6 +41,7 @@ import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.rule.transformation.JoinPredicateUtils;
 import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.sql.optimizer.statistics.SkewEstimator;
 import com.starrocks.sql.optimizer.statistics.Statistics;
 import com.starrocks.sql.optimizer.statistics.StatisticsCalculator;
 import com.starrocks.sql.optimizer.statistics.StatisticsEstimateCoefficient;
@@ -62,6 +68,40 @@ public class CostModel {
         return expressionContext.getOp().accept(costEstimator, expressionContext);
     }
 
+    // The lower bound of the cost of any plan of the group, -1 if it's unknown.
+    // Every plan of a group reads the tables of the scans below it, and the cost of the other operators
+    // is never negative, so the bound is the sum of the lowest scan costs. The scan cost doesn't depend
+    // on the required property since the enforcers are costed on top of the scan.
+    public static double calculateCostLowerBound(Group group) {
+        GroupExpression logical = group.getFirstLogicalExpression();
+        Operator op = logical.getOp();
+        if (op instanceof LogicalScanOperator) {
+            if (group.getStatistics() == null || group.getPhysicalExpressions().isEmpty()) {
+                return -1;
+            }
+            return group.getPhysicalExpressions().stream().mapToDouble(CostModel::calculateCost).min()
+                    .orElse(-1);
+        }
+        if (op instanceof LogicalCTEConsumeOperator) {
+            // the consume may read the produced result instead of its inline plan
+            return 0;
+        }
+        if (op instanceof LogicalCTEAnchorOperator) {
+            // the CTE may be inlined, then the produce plan is removed
+            return calculateCostLowerBound(logical.getInputs().get(logical.arity() - 1));
+        }
+
+        double lowerBound = 0;
+        for (Group child : logical.getInputs()) {
+            double childLowerBound = calculateCostLowerBound(child);
+            if (childLowerBound < 0) {
+                return -1;
+            }
+            lowerBound += childLowerBound;
+        }
+        return lowerBound;
+    }
+
     public static double getRealCost(CostEstimate costEstimate) {
         double cpuCostWeight = 0.5;
         double memoryCostWeight = 2;
@@ -118,6 +158,15 @@ public class CostModel {
                     inputStatistics.getComputeSize());
         }
 
+        @Override
+        public CostEstimate visitPhysicalPartitionTopN(PhysicalPartitionTopNOperator node, ExpressionContext context) {
+            Statistics statistics = context.getStatistics();
+            Statistics inputStatistics = context.getChildStatistics(0);
+
+            return CostEstimate.of(inputStatistics.getComputeSize(), statistics.getComputeSize(),
+                    inputStatistics.getComputeSize());
+        }
+
         boolean canGenerateOneStageAggNode(ExpressionContext context) {
             // 1. Must do two stage aggregate if child operator is LogicalRepeatOperator
             //   If the repeat node is used as the input node of the Exchange node.
@@ -257,6 +306,24 @@ public class CostModel {
             return costEstimate;
         }
 
+        // The streaming local aggregation gives up pre-aggregation if the reduction of rows is poor, estimate
+        // whether it happens by the rows of the local aggregation in each instance.
+        private boolean isStreamingLocalAgg(PhysicalHashAggregateOperator node, Statistics statistics,
+                                            Statistics inputStatistics) {
+            SessionVariable sessionVariable = ConnectContext.get().getSessionVariable();
+            if (!sessionVariable.isEnableCostBasedAggStage() || !node.getType().isLocal() ||
+                    !node.isUseStreamingPreAgg() || node.getGroupBys().isEmpty()) {
+                return false;
+            }
+            String streamingPreAggregationMode = sessionVariable.getStreamingPreaggregationMode();
+            if (streamingPreAggregationMode.equals("force_streaming")) {
+                return true;
+            }
+            return streamingPreAggregationMode.equals("auto") &&
+                    statistics.getOutputRowCount() >= inputStatistics.getOutputRowCount() *
+                            StatisticsEstimateCoefficient.STREAMING_EXTRA_COST_THRESHOLD_COEFFICIENT;
+        }
+
         @Override
         public CostEstimate visitPhysicalHashAggregate(PhysicalHashAggregateOperator node, ExpressionContext context) {
             if (!needGenerateOneStageAggNode(context) && !node.isSplit() && node.getType().isGlobal()) {
@@ -265,6 +332,10 @@ public class CostModel {
 
             Statistics statistics = context.getStatistics();
             Statistics inputStatistics = context.getChildStatistics(0);
+            if (isStreamingLocalAgg(node, statistics, inputStatistics)) {
+                // BE passes through most of the rows, and the hash table stops growing
+                return CostEstimate.ofCpu(inputStatistics.getComputeSize());
+            }
             CostEstimate otherExtraCost = computeAggFunExtraCost(node, statistics, inputStatistics);
             return CostEstimate.addCost(CostEstimate.of(inputStatistics.getComputeSize(),
                     CostEstimate.isZero(otherExtraCost) ? statistics.getComputeSize() : 0, 0),
@@ -299,6 +370,12 @@ public class CostModel {
                                     statistics.getOutputSize(outputColumns) * beNum * parallelExecInstanceNum);
                     break;
                 case SHUFFLE:
+                    // the hottest instance of skewed shuffle slows down the whole stage
+                    double skewFactor = sessionVariable.isEnableSkewOptimize() ? computeShuffleSkewFactor(
+                            (HashDistributionSpec) distributionSpec, context, sessionVariable) : 1;
+                    result = CostEstimate.of(statistics.getOutputSize(outputColumns) * skewFactor, 0,
+                            statistics.getOutputSize(outputColumns) * skewFactor);
+                    break;
                 case GATHER:
                     result = CostEstimate.of(statistics.getOutputSize(outputColumns), 0,
                             statistics.getOutputSize(outputColumns));
@@ -311,6 +388,20 @@ public class CostModel {
             return result;
         }
 
+        private double computeShuffleSkewFactor(HashDistributionSpec distributionSpec, ExpressionContext context,
+                                                SessionVariable sessionVariable) {
+            Statistics statistics = context.getStatistics();
+            List<Integer> shuffleColumns = distributionSpec.getShuffleColumns();
+            List<ColumnRefOperator> columns = statistics.getColumnStatistics().keySet().stream()
+                    .filter(column -> shuffleColumns.contains(column.getId())).collect(Collectors.toList());
+            if (columns.size() != shuffleColumns.size()) {
+                return 1;
+            }
+            int instanceNum = SkewEstimator.estimateInstanceNum(sessionVariable);
+            double skewFactor = SkewEstimator.estimateSkewFactor(statistics, columns, instanceNum);
+            return skewFactor >= sessionVariable.getSkewFactorThreshold() ? skewFactor : 1;
+        }
+
         private int getParallelExecInstanceNum(ExpressionContext context) {
             return Math.min(ConnectContext.get().getSessionVariable().getDegreeOfParallelism(),
                     context.getRootProperty().getLeftMostScanTabletsNum());
@@ -19,6 +19,7 @@ import com.starrocks.sql.optimizer.operator.logical.LogicalLimitOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalMetaScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalMysqlScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalSchemaScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalTableFunctionOperator;
@@ -35,6 +36,8 @@ public class OperatorBuilderFactory {
             return new LogicalAggregationOperator.Builder();
         } else if (operator instanceof LogicalTopNOperator) {
             return new LogicalTopNOperator.Builder();
+        } else if (operator instanceof LogicalPartitionTopNOperator) {
+            return new LogicalPartitionTopNOperator.Builder();
         } else if (operator instanceof LogicalOlapScanOperator) {
             return new LogicalOlapScanOperator.Builder();
         } else if (operator instanceof LogicalHiveScanOperator) {
@@ -22,6 +22,7 @@ public enum OperatorType {
     LOGICAL_FILTER,
     LOGICAL_LIMIT,
     LOGICAL_TOPN,
+    LOGICAL_PARTITION_TOPN,
     LOGICAL_APPLY,
     LOGICAL_ASSERT_ONE_ROW,
     LOGICAL_WINDOW,
@@ -54,6 +55,7 @@ public enum OperatorType {
     PHYSICAL_PROJECT,
     PHYSICAL_SORT,
     PHYSICAL_TOPN,
+    PHYSICAL_PARTITION_TOPN,
     PHYSICAL_UNION,
     PHYSICAL_EXCEPT,
     PHYSICAL_INTERSECT,
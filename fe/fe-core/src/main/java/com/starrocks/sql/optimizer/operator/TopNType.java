@@ -0,0 +1,31 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.operator;
+
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.thrift.TTopNType;
+
+// The ranking function by which the rows of each partition are limited
+public enum TopNType {
+    ROW_NUMBER,
+    RANK,
+    DENSE_RANK;
+
+    // null if the function is not a ranking function
+    public static TopNType parse(String fnName) {
+        switch (fnName) {
+            case FunctionSet.ROW_NUMBER:
+                return ROW_NUMBER;
+            case FunctionSet.RANK:
+                return RANK;
+            case FunctionSet.DENSE_RANK:
+                return DENSE_RANK;
+            default:
+                return null;
+        }
+    }
+
+    public TTopNType toThrift() {
+        return TTopNType.valueOf(name());
+    }
+}
@@ -0,0 +1,141 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.optimizer.operator.logical;
+
+import com.google.common.collect.ImmutableList;
+import com.starrocks.sql.optimizer.ExpressionContext;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptExpressionVisitor;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.Ordering;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.OperatorVisitor;
+import com.starrocks.sql.optimizer.operator.SortPhase;
+import com.starrocks.sql.optimizer.operator.TopNType;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keep the rows whose rank in their partition is not greater than the partition limit, the rank is computed
+ * by the ranking function of TopNType over the partition by columns and the order by elements.
+ * <p>
+ * It's planned below the window whose ranking function is filtered by the rank predicate, the PARTIAL phase
+ * filters the rows of each instance before shuffle, and the FINAL phase filters the rows of each partition
+ * after shuffle.
+ */
+public class LogicalPartitionTopNOperator extends LogicalOperator {
+    private final List<ColumnRefOperator> partitionByColumns;
+    private final List<Ordering> orderByElements;
+    private final long partitionLimit;
+    private final TopNType topNType;
+    private final SortPhase sortPhase;
+
+    public LogicalPartitionTopNOperator(List<ColumnRefOperator> partitionByColumns, List<Ordering> orderByElements,
+                                        long partitionLimit, TopNType topNType, SortPhase sortPhase) {
+        super(OperatorType.LOGICAL_PARTITION_TOPN);
+        this.partitionByColumns = ImmutableList.copyOf(partitionByColumns);
+        this.orderByElements = ImmutableList.copyOf(orderByElements);
+        this.partitionLimit = partitionLimit;
+        this.topNType = topNType;
+        this.sortPhase = sortPhase;
+    }
+
+    private LogicalPartitionTopNOperator(Builder builder) {
+        super(OperatorType.LOGICAL_PARTITION_TOPN, builder.getLimit(), builder.getPredicate(),
+                builder.getProjection());
+        this.partitionByColumns = builder.partitionByColumns;
+        this.orderByElements = builder.orderByElements;
+        this.partitionLimit = builder.partitionLimit;
+        this.topNType = builder.topNType;
+        this.sortPhase = builder.sortPhase;
+    }
+
+    public List<ColumnRefOperator> getPartitionByColumns() {
+        return partitionByColumns;
+    }
+
+    public List<Ordering> getOrderByElements() {
+        return orderByElements;
+    }
+
+    public long getPartitionLimit() {
+        return partitionLimit;
+    }
+
+    public TopNType getTopNType() {
+        return topNType;
+    }
+
+    public SortPhase getSortPhase() {
+        return sortPhase;
+    }
+
+    @Override
+    public ColumnRefSet getOutputColumns(ExpressionContext expressionContext) {
+        if (projection != null) {
+            return new ColumnRefSet(new ArrayList<>(projection.getColumnRefMap().keySet()));
+        } else {
+            return expressionContext.getChildLogicalProperty(0).getOutputColumns();
+        }
+    }
+
+    @Override
+    public <R, C> R accept(OperatorVisitor<R, C> visitor, C context) {
+        return visitor.visitLogicalPartitionTopN(this, context);
+    }
+
+    @Override
+    public <R, C> R accept(OptExpressionVisitor<R, C> visitor, OptExpression optExpression, C context) {
+        return visitor.visitLogicalPartitionTopN(optExpression, context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        LogicalPartitionTopNOperator that = (LogicalPartitionTopNOperator) o;
+        return partitionLimit == that.partitionLimit && topNType == that.topNType && sortPhase == that.sortPhase &&
+                Objects.equals(partitionByColumns, that.partitionByColumns) &&
+                Objects.equals(orderByElements, that.orderByElements);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), partitionByColumns, orderByElements, partitionLimit, topNType,
+                sortPhase);
+    }
+
+    public static class Builder
+            extends LogicalOperator.Builder<LogicalPartitionTopNOperator, LogicalPartitionTopNOperator.Builder> {
+        private List<ColumnRefOperator> partitionByColumns;
+        private List<Ordering> orderByElements;
+        private long partitionLimit;
+        private TopNType topNType;
+        private SortPhase sortPhase;
+
+        @Override
+        public LogicalPartitionTopNOperator build() {
+            return new LogicalPartitionTopNOperator(this);
+        }
+
+        @Override
+        public LogicalPartitionTopNOperator.Builder withOperator(LogicalPartitionTopNOperator topNOperator) {
+            super.withOperator(topNOperator);
+            this.partitionByColumns = topNOperator.partitionByColumns;
+            this.orderByElements = topNOperator.orderByElements;
+            this.partitionLimit = topNOperator.partitionLimit;
+            this.topNType = topNOperator.topNType;
+            this.sortPhase = topNOperator.sortPhase;
+            return this;
+        }
+    }
+}
@@ -19,6 +19,8 @@ public class PhysicalHashJoinOperator extends PhysicalOperator {
     private final JoinOperator joinType;
     private final ScalarOperator onPredicate;
     private final String joinHint;
+    // the join keys are skewed, see SkewRewriteRule
+    private boolean skewed = false;
 
     public PhysicalHashJoinOperator(JoinOperator joinType,
                                     ScalarOperator onPredicate,
@@ -47,6 +49,14 @@ public class PhysicalHashJoinOperator extends PhysicalOperator {
         return joinHint;
     }
 
+    public void setSkewed(boolean skewed) {
+        this.skewed = skewed;
+    }
+
+    public boolean isSkewed() {
+        return skewed;
+    }
+
     @Override
     public <R, C> R accept(OperatorVisitor<R, C> visitor, C context) {
         return visitor.visitPhysicalHashJoin(this, context);
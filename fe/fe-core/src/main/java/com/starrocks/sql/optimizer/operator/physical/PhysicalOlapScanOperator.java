@@ -34,6 +34,8 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
 
     private boolean isPreAggregation;
     private String turnOffReason;
+    // The normalized logical predicate to key the statistics feedback, null if the feedback is disabled
+    private String feedbackPredicate;
 
     private List<Pair<Integer, ColumnDict>> globalDicts = Lists.newArrayList();
     // For the simple predicate k1 = "olap", could apply global dict optimization,
@@ -86,6 +88,14 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
         this.turnOffReason = turnOffReason;
     }
 
+    public String getFeedbackPredicate() {
+        return feedbackPredicate;
+    }
+
+    public void setFeedbackPredicate(String feedbackPredicate) {
+        this.feedbackPredicate = feedbackPredicate;
+    }
+
     public List<Pair<Integer, ColumnDict>> getGlobalDicts() {
         return globalDicts;
     }
@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.optimizer.operator.physical;
+
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptExpressionVisitor;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.Ordering;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.OperatorVisitor;
+import com.starrocks.sql.optimizer.operator.Projection;
+import com.starrocks.sql.optimizer.operator.SortPhase;
+import com.starrocks.sql.optimizer.operator.TopNType;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+
+import java.util.List;
+import java.util.Objects;
+
+public class PhysicalPartitionTopNOperator extends PhysicalOperator {
+    private final List<ColumnRefOperator> partitionByColumns;
+    private final List<Ordering> orderByElements;
+    private final long partitionLimit;
+    private final TopNType topNType;
+    private final SortPhase sortPhase;
+
+    public PhysicalPartitionTopNOperator(List<ColumnRefOperator> partitionByColumns,
+                                         List<Ordering> orderByElements,
+                                         long partitionLimit,
+                                         TopNType topNType,
+                                         SortPhase sortPhase,
+                                         long limit,
+                                         ScalarOperator predicate,
+                                         Projection projection) {
+        super(OperatorType.PHYSICAL_PARTITION_TOPN);
+        this.partitionByColumns = partitionByColumns;
+        this.orderByElements = orderByElements;
+        this.partitionLimit = partitionLimit;
+        this.topNType = topNType;
+        this.sortPhase = sortPhase;
+
+        this.limit = limit;
+        this.predicate = predicate;
+        this.projection = projection;
+    }
+
+    public List<ColumnRefOperator> getPartitionByColumns() {
+        return partitionByColumns;
+    }
+
+    public List<Ordering> getOrderByElements() {
+        return orderByElements;
+    }
+
+    public long getPartitionLimit() {
+        return partitionLimit;
+    }
+
+    public TopNType getTopNType() {
+        return topNType;
+    }
+
+    public SortPhase getSortPhase() {
+        return sortPhase;
+    }
+
+    @Override
+    public <R, C> R accept(OperatorVisitor<R, C> visitor, C context) {
+        return visitor.visitPhysicalPartitionTopN(this, context);
+    }
+
+    @Override
+    public <R, C> R accept(OptExpressionVisitor<R, C> visitor, OptExpression optExpression, C context) {
+        return visitor.visitPhysicalPartitionTopN(optExpression, context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PhysicalPartitionTopNOperator that = (PhysicalPartitionTopNOperator) o;
+        return partitionLimit == that.partitionLimit && topNType == that.topNType && sortPhase == that.sortPhase &&
+                Objects.equals(partitionByColumns, that.partitionByColumns) &&
+                Objects.equals(orderByElements, that.orderByElements);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitionByColumns, orderByElements, partitionLimit, topNType, sortPhase);
+    }
+
+    @Override
+    public ColumnRefSet getUsedColumns() {
+        ColumnRefSet set = super.getUsedColumns();
+        set.union(partitionByColumns);
+        orderByElements.forEach(o -> set.union(o.getColumnRef()));
+        return set;
+    }
+}
@@ -19,6 +19,7 @@ import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.Pair;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptExpressionVisitor;
@@ -368,6 +369,7 @@ public class AddDecodeNodeForDictStringRule implements PhysicalOperatorTreeRewri
                             scanOperator.getSelectedTabletId(),
                             scanOperator.getProjection());
                     newOlapScan.setPreAggregation(scanOperator.isPreAggregation());
+                    newOlapScan.setFeedbackPredicate(scanOperator.getFeedbackPredicate());
                     newOlapScan.setGlobalDicts(globalDicts);
                     newOlapScan.setGlobalDictStringColumns(globalDictStringColumns);
                     newOlapScan.setDictStringIdToIntIds(dictStringIdToIntIds);
@@ -738,8 +740,14 @@ public class AddDecodeNodeForDictStringRule implements PhysicalOperatorTreeRewri
                     continue;
                 }
 
+                if (MetricRepo.isInit) {
+                    MetricRepo.COUNTER_LOW_CARDINALITY_COLUMN.increase(1L);
+                }
                 // Condition 3: the varchar column has collected global dict
                 if (IDictManager.getInstance().hasGlobalDict(table.getId(), column.getName(), version)) {
+                    if (MetricRepo.isInit) {
+                        MetricRepo.COUNTER_GLOBAL_DICT_HIT.increase(1L);
+                    }
                     if (!tableIdToStringColumnIds.containsKey(table.getId())) {
                         List<Integer> integers = Lists.newArrayList();
                         integers.add(column.getId());
@@ -762,6 +770,9 @@ public class AddDecodeNodeForDictStringRule implements PhysicalOperatorTreeRewri
 
         OptExpression rewriteExpr = root.getOp().accept(new DecodeVisitor(), root, context);
         if (context.hasEncoded) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_QUERY_GLOBAL_DICT_OPTIMIZED.increase(1L);
+            }
             return generateDecodeOExpr(context, Collections.singletonList(rewriteExpr));
         }
         return rewriteExpr;
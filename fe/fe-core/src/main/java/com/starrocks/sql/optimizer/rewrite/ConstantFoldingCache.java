@@ -0,0 +1,87 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rewrite;
+
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.TimeUtils;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Results of FE constant folding within one query, so the same function call on the same
+ * constants (e.g. repeated date arithmetic in generated SQL) is only evaluated once.
+ * Results are keyed by the session time zone as well, since functions like from_unixtime and
+ * unix_timestamp fold differently per time zone.
+ * Owned by the ConnectContext and cleared when a new statement starts; not thread safe.
+ */
+public class ConstantFoldingCache {
+    private final Map<Key, ConstantOperator> folded = Maps.newHashMap();
+    private long hitCount = 0;
+
+    public ConstantOperator get(CallOperator call) {
+        ConstantOperator result = folded.get(new Key(call, call.getChildren()));
+        if (result == null) {
+            return null;
+        }
+        hitCount++;
+        // callers may change the type of the folded constant
+        return (ConstantOperator) result.clone();
+    }
+
+    public void put(CallOperator call, ConstantOperator result) {
+        if (folded.size() >= Config.max_planner_constant_folding_cache_size) {
+            return;
+        }
+        List<ScalarOperator> args = call.getChildren().stream().map(ScalarOperator::clone).collect(Collectors.toList());
+        folded.put(new Key(call, args), (ConstantOperator) result.clone());
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void clear() {
+        folded.clear();
+        hitCount = 0;
+    }
+
+    private static class Key {
+        private final String fnName;
+        private final Type type;
+        private final List<ScalarOperator> args;
+        private final String timeZone;
+
+        Key(CallOperator call, List<ScalarOperator> args) {
+            this.fnName = call.getFnName();
+            this.type = call.getType();
+            this.args = args;
+            this.timeZone = TimeUtils.getTimeZone().getID();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return fnName.equals(key.fnName) && type.equals(key.type) && args.equals(key.args) &&
+                    timeZone.equals(key.timeZone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fnName, type, args, timeZone);
+        }
+    }
+}
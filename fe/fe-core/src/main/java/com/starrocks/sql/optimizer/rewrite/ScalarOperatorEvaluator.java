@@ -5,14 +5,15 @@ package com.starrocks.sql.optimizer.rewrite;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
 import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.ScalarType;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.rewrite.FEFunction;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
@@ -21,7 +22,9 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -134,6 +137,14 @@ public enum ScalarOperatorEvaluator {
 
         FunctionInvoker invoker = functions.get(signature);
 
+        ConstantFoldingCache foldingCache = getFoldingCache(fn);
+        if (foldingCache != null) {
+            ConstantOperator folded = foldingCache.get(root);
+            if (folded != null) {
+                return folded;
+            }
+        }
+
         try {
             ConstantOperator operator = invoker.invoke(root.getChildren());
 
@@ -144,6 +155,9 @@ public enum ScalarOperatorEvaluator {
                 operator.setType(fn.getReturnType());
             }
 
+            if (foldingCache != null) {
+                foldingCache.put(root, operator);
+            }
             return operator;
         } catch (AnalysisException e) {
             LOG.debug("failed to invoke", e);
@@ -152,13 +166,47 @@ public enum ScalarOperatorEvaluator {
         return root;
     }
 
+    private ConstantFoldingCache getFoldingCache(Function fn) {
+        if (FunctionSet.nonDeterministicFunctions.contains(fn.functionName())) {
+            return null;
+        }
+        ConnectContext ctx = ConnectContext.get();
+        return ctx == null ? null : ctx.getConstantFoldingCache();
+    }
+
     private static class FunctionInvoker {
         private final Method method;
         private final FunctionSignature signature;
+        // Bound once at registration, takes the spread arguments as Object[] and returns the ConstantOperator,
+        // so folding doesn't go through Method.invoke and its access checks for every call.
+        private final MethodHandle handle;
+        private final int parameterCount;
+        // index of the ConstantOperator... parameter, or -1 if the method has no variable arguments
+        private final int varArgsIndex;
 
         public FunctionInvoker(Method method, FunctionSignature signature) {
             this.method = method;
             this.signature = signature;
+
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            this.parameterCount = parameterTypes.length;
+            int index = -1;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i].isArray()) {
+                    Preconditions.checkArgument(parameterTypes.length == i + 1);
+                    index = i;
+                }
+            }
+            this.varArgsIndex = index;
+
+            try {
+                this.handle = MethodHandles.lookup().unreflect(method)
+                        .asFixedArity()
+                        .asSpreader(Object[].class, parameterCount)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Can't access FE function " + method.getName(), e);
+            }
         }
 
         public Method getMethod() {
@@ -171,27 +219,26 @@ public enum ScalarOperatorEvaluator {
 
         // Function doesn't support array type
         public ConstantOperator invoke(List<ScalarOperator> args) throws AnalysisException {
-            final List<Object> invokeArgs = createInvokeArgs(args);
+            final Object[] invokeArgs = createInvokeArgs(args);
             try {
-                return (ConstantOperator) method.invoke(null, invokeArgs.toArray());
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+                return (ConstantOperator) (Object) handle.invokeExact(invokeArgs);
+            } catch (AnalysisException e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new AnalysisException(e.getLocalizedMessage());
             }
         }
 
-        private List<Object> createInvokeArgs(List<ScalarOperator> args) throws AnalysisException {
-            final List<Object> invokeArgs = Lists.newArrayList();
-            for (int index = 0; index < method.getParameterTypes().length; index++) {
-                final Class<?> argType = method.getParameterTypes()[index];
-
-                if (argType.isArray()) {
-                    Preconditions.checkArgument(method.getParameterTypes().length == index + 1);
-                    final List<ConstantOperator> variableArgs = Lists.newArrayList();
+        private Object[] createInvokeArgs(List<ScalarOperator> args) throws AnalysisException {
+            final Object[] invokeArgs = new Object[parameterCount];
+            for (int index = 0; index < parameterCount; index++) {
+                if (index == varArgsIndex) {
+                    ConstantOperator[] variableArgs = new ConstantOperator[Math.max(args.size() - index, 0)];
                     Set<Type> checkSet = Sets.newHashSet();
 
                     for (int variableArgIndex = index; variableArgIndex < args.size(); variableArgIndex++) {
                         ConstantOperator arg = (ConstantOperator) args.get(variableArgIndex);
-                        variableArgs.add(arg);
+                        variableArgs[variableArgIndex - index] = arg;
                         checkSet.add(arg.getType());
                     }
 
@@ -199,12 +246,9 @@ public enum ScalarOperatorEvaluator {
                     if (checkSet.size() > 1) {
                         throw new AnalysisException("Function's args does't match.");
                     }
-
-                    ConstantOperator[] argsArray = new ConstantOperator[variableArgs.size()];
-                    argsArray = variableArgs.toArray(argsArray);
-                    invokeArgs.add(argsArray);
+                    invokeArgs[index] = variableArgs;
                 } else {
-                    invokeArgs.add(args.get(index));
+                    invokeArgs[index] = args.get(index);
                 }
             }
             return invokeArgs;
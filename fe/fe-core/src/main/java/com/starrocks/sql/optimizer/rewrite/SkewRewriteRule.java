@@ -0,0 +1,104 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rewrite;
+
+import com.google.common.collect.Lists;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.PlannerProfile;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptExpressionVisitor;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalDistributionOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.transformation.JoinPredicateUtils;
+import com.starrocks.sql.optimizer.statistics.SkewEstimator;
+import com.starrocks.sql.optimizer.task.TaskContext;
+
+import java.util.List;
+
+/**
+ * Mark the joins whose keys are skewed in the chosen plan, and record the decisions in the planner profile.
+ * <p>
+ * The shuffle of skewed join keys is penalized by the cost model, so broadcast join is chosen for it if
+ * the right child is small enough. The join is marked as skewed to show the decision in explain.
+ * The aggregations of skewed grouping keys are salted before optimization, see SaltSkewedAggregationRule.
+ */
+public class SkewRewriteRule implements PhysicalOperatorTreeRewriteRule {
+    @Override
+    public OptExpression rewrite(OptExpression root, TaskContext taskContext) {
+        SessionVariable sessionVariable = ConnectContext.get().getSessionVariable();
+        if (!sessionVariable.isEnableSkewOptimize()) {
+            return root;
+        }
+        int instanceNum = SkewEstimator.estimateInstanceNum(sessionVariable);
+        root.getOp().accept(new SkewVisitor(instanceNum, sessionVariable.getSkewFactorThreshold()), root, null);
+        return root;
+    }
+
+    private static class SkewVisitor extends OptExpressionVisitor<Void, Void> {
+        private final int instanceNum;
+        private final double threshold;
+
+        SkewVisitor(int instanceNum, double threshold) {
+            this.instanceNum = instanceNum;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public Void visit(OptExpression optExpression, Void context) {
+            for (OptExpression input : optExpression.getInputs()) {
+                input.getOp().accept(this, input, null);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitPhysicalHashJoin(OptExpression optExpression, Void context) {
+            PhysicalHashJoinOperator join = (PhysicalHashJoinOperator) optExpression.getOp();
+            if (join.getOnPredicate() == null) {
+                return visit(optExpression, context);
+            }
+            ColumnRefSet leftColumns = optExpression.inputAt(0).getOutputColumns();
+            ColumnRefSet rightColumns = optExpression.inputAt(1).getOutputColumns();
+            List<ColumnRefOperator> leftKeys = Lists.newArrayList();
+            List<ColumnRefOperator> rightKeys = Lists.newArrayList();
+            for (BinaryPredicateOperator predicate : JoinPredicateUtils.getEqConj(leftColumns, rightColumns,
+                    Utils.extractConjuncts(join.getOnPredicate()))) {
+                for (ScalarOperator child : predicate.getChildren()) {
+                    if (!child.isColumnRef()) {
+                        continue;
+                    }
+                    ColumnRefOperator column = (ColumnRefOperator) child;
+                    if (leftColumns.contains(column)) {
+                        leftKeys.add(column);
+                    } else if (rightColumns.contains(column)) {
+                        rightKeys.add(column);
+                    }
+                }
+            }
+
+            if ((!leftKeys.isEmpty() && SkewEstimator.isSkewed(optExpression.inputAt(0).getStatistics(), leftKeys,
+                    instanceNum, threshold)) ||
+                    (!rightKeys.isEmpty() && SkewEstimator.isSkewed(optExpression.inputAt(1).getStatistics(),
+                            rightKeys, instanceNum, threshold))) {
+                join.setSkewed(true);
+                PlannerProfile.addSkewDecision(join.getJoinType() + "(" + leftKeys + " = " + rightKeys + "): " +
+                        getDistribution(optExpression.inputAt(1)));
+            }
+            return visit(optExpression, context);
+        }
+
+        private static String getDistribution(OptExpression rightChild) {
+            if (rightChild.getOp() instanceof PhysicalDistributionOperator) {
+                PhysicalDistributionOperator distribution = (PhysicalDistributionOperator) rightChild.getOp();
+                return distribution.getDistributionSpec().getType().name().toLowerCase();
+            }
+            return "local";
+        }
+    }
+}
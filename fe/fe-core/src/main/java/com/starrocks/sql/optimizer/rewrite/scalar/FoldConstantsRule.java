@@ -2,6 +2,7 @@
 
 package com.starrocks.sql.optimizer.rewrite.scalar;
 
+import com.google.common.collect.Lists;
 import com.starrocks.catalog.Type;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
@@ -16,7 +17,9 @@ import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriteContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class FoldConstantsRule extends BottomUpScalarOperatorRewriteRule {
     private static final Logger LOG = LogManager.getLogger(FoldConstantsRule.class);
@@ -37,7 +40,7 @@ public class FoldConstantsRule extends BottomUpScalarOperatorRewriteRule {
         }
 
         if (notAllConstant(predicate.getChildren())) {
-            return predicate;
+            return removeDuplicateInValues(predicate);
         }
 
         ConstantOperator child1 = (ConstantOperator) predicate.getChild(0);
@@ -54,6 +57,33 @@ public class FoldConstantsRule extends BottomUpScalarOperatorRewriteRule {
         return ConstantOperator.createBoolean(predicate.isNotIn());
     }
 
+    //
+    // The values of IN-list are folded bottom-up before the IN predicate itself, so once all values are
+    // constant, drop the duplicates in one pass instead of carrying them through the later rules.
+    //
+    // example:
+    //        a IN (1, 2, 1, cast('2' as int))
+    //
+    // After rule:
+    //        a IN (1, 2)
+    //
+    private ScalarOperator removeDuplicateInValues(InPredicateOperator predicate) {
+        List<ScalarOperator> values = predicate.getChildren().subList(1, predicate.getChildren().size());
+        if (values.size() < 2 || notAllConstant(values)) {
+            return predicate;
+        }
+
+        Set<ScalarOperator> distinctValues = new LinkedHashSet<>(values);
+        if (distinctValues.size() == values.size()) {
+            return predicate;
+        }
+
+        List<ScalarOperator> children = Lists.newArrayListWithCapacity(distinctValues.size() + 1);
+        children.add(predicate.getChild(0));
+        children.addAll(distinctValues);
+        return new InPredicateOperator(predicate.isNotIn(), children);
+    }
+
     //
     // Add cast function when children's type different with parent required type
     //
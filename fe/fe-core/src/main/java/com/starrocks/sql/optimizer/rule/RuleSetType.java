@@ -16,4 +16,5 @@ public enum RuleSetType {
     COLLECT_CTE,
     INLINE_CTE,
     INLINE_ONE_CTE,
+    UNIQUE_KEY_REWRITE,
 }
@@ -15,7 +15,13 @@ public enum RuleType {
     TF_LIMIT_TABLETS_PRUNE,
     TF_SPLIT_AGGREGATE,
     TF_SPLIT_TOPN,
+    TF_PUSH_DOWN_PARTITION_TOPN,
     TF_PUSH_DOWN_JOIN_AGG,
+    TF_PUSH_DOWN_PARTIAL_AGG_JOIN,
+    TF_ELIMINATE_JOIN_WITH_UNIQUE_KEY,
+    TF_PRUNE_GROUP_BY_KEYS,
+    TF_FILTER_NULL_JOIN_KEY,
+    TF_SALT_SKEWED_AGGREGATION,
     TF_PARTITION_PREDICATE_PRUNE,
 
     TF_MERGE_LIMIT_DIRECT,
@@ -91,6 +97,8 @@ public enum RuleType {
 
     TF_MATERIALIZED_VIEW,
 
+    TF_ASYNC_MATERIALIZED_VIEW,
+
     TF_MERGE_TWO_AGG_RULE,
 
     TF_REWRITE_MULTI_DISTINCT,
@@ -135,6 +143,7 @@ public enum RuleType {
     IMP_PROJECT,
     IMP_SORT,
     IMP_TOPN,
+    IMP_PARTITION_TOPN,
     IMP_ASSERT_ONE_ROW,
     IMP_ANALYTIC,
     IMP_VALUES,
@@ -10,6 +10,7 @@ import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.pattern.Pattern;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
 import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.statistic.StatisticFeedbackStore;
 
 import java.util.List;
 
@@ -32,6 +33,10 @@ public class OlapScanImplementationRule extends ImplementationRule {
                 scan.getSelectedPartitionId(),
                 scan.getSelectedTabletId(),
                 scan.getProjection());
+        if (context.getSessionVariable().isEnableStatisticsFeedback()) {
+            // normalize the logical predicate, the physical one may be rewritten, e.g. by the global dict
+            physicalOlapScan.setFeedbackPredicate(StatisticFeedbackStore.normalizePredicate(scan.getPredicate()));
+        }
 
         OptExpression result = new OptExpression(physicalOlapScan);
         return Lists.newArrayList(result);
@@ -0,0 +1,36 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.implementation;
+
+import com.google.common.collect.Lists;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalPartitionTopNOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+
+import java.util.List;
+
+public class PartitionTopNImplementationRule extends ImplementationRule {
+    public PartitionTopNImplementationRule() {
+        super(RuleType.IMP_PARTITION_TOPN,
+                Pattern.create(OperatorType.LOGICAL_PARTITION_TOPN, OperatorType.PATTERN_LEAF));
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        LogicalPartitionTopNOperator logicalTopN = (LogicalPartitionTopNOperator) input.getOp();
+        PhysicalPartitionTopNOperator physicalTopN =
+                new PhysicalPartitionTopNOperator(logicalTopN.getPartitionByColumns(),
+                        logicalTopN.getOrderByElements(),
+                        logicalTopN.getPartitionLimit(),
+                        logicalTopN.getTopNType(),
+                        logicalTopN.getSortPhase(),
+                        logicalTopN.getLimit(),
+                        logicalTopN.getPredicate(),
+                        logicalTopN.getProjection());
+        return Lists.newArrayList(OptExpression.create(physicalTopN, input.getInputs()));
+    }
+}
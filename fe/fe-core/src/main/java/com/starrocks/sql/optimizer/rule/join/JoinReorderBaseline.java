@@ -0,0 +1,92 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.join;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.baseline.PlanShape;
+import com.starrocks.sql.optimizer.baseline.PlanShapeMatcher;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Build the join order of the plan baseline, the sides of the joins are kept as they are in the baseline.
+ * There is no result if the atoms can't be joined as the baseline.
+ */
+public class JoinReorderBaseline extends JoinOrder {
+    private final PlanShapeMatcher planShapeMatcher;
+    private final List<Set<String>> atomTables = Lists.newArrayList();
+    private OptExpression bestPlanRoot;
+
+    public JoinReorderBaseline(OptimizerContext context) {
+        super(context);
+        this.planShapeMatcher = context.getPlanShapeMatcher();
+    }
+
+    @Override
+    protected void enumerate() {
+        List<GroupInfo> atoms = joinLevels.get(1).groups;
+        Set<String> allTables = Sets.newHashSet();
+        for (GroupInfo atom : atoms) {
+            Set<String> tables = planShapeMatcher.getTables(atom.bestExprInfo.expr);
+            // the atom can't be identified
+            if (tables.isEmpty() || atomTables.contains(tables)) {
+                return;
+            }
+            atomTables.add(tables);
+            allTables.addAll(tables);
+        }
+
+        GroupInfo root = buildGroup(allTables);
+        if (root != null) {
+            bestPlanRoot = root.bestExprInfo.expr;
+        }
+    }
+
+    private GroupInfo buildGroup(Set<String> tables) {
+        for (int i = 0; i < atomSize; ++i) {
+            if (atomTables.get(i).equals(tables)) {
+                return joinLevels.get(1).groups.get(i);
+            }
+        }
+
+        PlanShape.JoinShape join = planShapeMatcher.getPlanShape().getJoin(tables);
+        if (join == null) {
+            return null;
+        }
+        GroupInfo leftGroup = buildGroup(join.getLeft());
+        GroupInfo rightGroup = buildGroup(join.getRight());
+        if (leftGroup == null || rightGroup == null) {
+            return null;
+        }
+
+        ExpressionInfo joinExpr = buildJoinExpr(leftGroup, rightGroup);
+        if (joinExpr.leftChildExpr != leftGroup) {
+            // buildJoinExpr puts the smaller side on the right, swap it back
+            OptExpression expr = OptExpression.create(joinExpr.expr.getOp(), joinExpr.expr.inputAt(1),
+                    joinExpr.expr.inputAt(0));
+            joinExpr = new ExpressionInfo(expr, leftGroup, rightGroup);
+        }
+        joinExpr.expr.deriveLogicalPropertyItself();
+        calculateStatistics(joinExpr.expr);
+        computeCost(joinExpr, true);
+
+        BitSet joinBitSet = new BitSet();
+        joinBitSet.or(leftGroup.atoms);
+        joinBitSet.or(rightGroup.atoms);
+        GroupInfo groupInfo = new GroupInfo(joinBitSet);
+        groupInfo.bestExprInfo = joinExpr;
+        groupInfo.lowestExprCost = joinExpr.cost;
+        return groupInfo;
+    }
+
+    @Override
+    public List<OptExpression> getResult() {
+        return bestPlanRoot == null ? Collections.emptyList() : Lists.newArrayList(bestPlanRoot);
+    }
+}
@@ -135,6 +135,9 @@ public class ReorderJoinRule extends Rule {
                 MultiJoinNode multiJoinNode = MultiJoinNode.toMultiJoinNode(innerJoinRoot);
 
                 enumerate(new JoinReorderLeftDeep(context), context, innerJoinRoot, multiJoinNode);
+                if (context.getPlanShapeMatcher() != null) {
+                    enumerate(new JoinReorderBaseline(context), context, innerJoinRoot, multiJoinNode);
+                }
                 // If there is no statistical information, the DP and greedy reorder algorithm are disabled,
                 // and the query plan degenerates to the left deep tree
                 if (Utils.hasUnknownColumnsStats(input) && !FeConstants.runningUnitTest) {
@@ -0,0 +1,479 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.catalog.AsyncMaterializedView;
+import com.starrocks.catalog.AsyncMaterializedViewMgr;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.HashDistributionInfo;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Type;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.DistributionSpec;
+import com.starrocks.sql.optimizer.base.HashDistributionDesc;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CastOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.Rule;
+import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.optimizer.transformer.RelationTransformer;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrite select-project-join-group by (SPJG) query with async materialized views.
+ * <p>
+ * A materialized view can answer a SPJG query if:
+ * 1. they have the same base tables
+ * 2. the predicates of the view are a subset of the predicates of the query, and the residual
+ * predicates can be computed on the view output
+ * 3. the grouping keys and aggregate functions of the query can be computed on the view output,
+ * sum/min/max/count can be rolled up if the query groups by a subset of the view grouping keys
+ * <p>
+ * Only the materialized views which are fresh, or stale within the session staleness tolerance are used.
+ */
+public class AsyncMaterializedViewRule extends Rule {
+    private static final Logger LOG = LogManager.getLogger(AsyncMaterializedViewRule.class);
+
+    // materialized view id -> descriptor of its definition, it's rebuilt once the view is refreshed
+    // and evicted once the view is removed
+    private static final Map<Long, CachedViewDescriptor> VIEW_DESCRIPTORS = new ConcurrentHashMap<>();
+
+    private ColumnRefFactory factory;
+    private long stalenessSecond;
+
+    public AsyncMaterializedViewRule() {
+        super(RuleType.TF_ASYNC_MATERIALIZED_VIEW, Pattern.create(OperatorType.PATTERN));
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        AsyncMaterializedViewMgr mgr = context.getCatalog().getAsyncMaterializedViewMgr();
+        if (!context.getSessionVariable().isEnableAsyncMaterializedViewRewrite() || mgr == null || mgr.isEmpty()) {
+            return Lists.newArrayList(input);
+        }
+        this.factory = context.getColumnRefFactory();
+        this.stalenessSecond = context.getSessionVariable().getAsyncMaterializedViewStalenessSecond();
+        return Lists.newArrayList(rewrite(input, mgr));
+    }
+
+    private OptExpression rewrite(OptExpression expression, AsyncMaterializedViewMgr mgr) {
+        Operator operator = expression.getOp();
+        if (operator instanceof LogicalAggregationOperator || operator instanceof LogicalProjectOperator) {
+            SPJGDescriptor query = SPJGDescriptor.build(expression);
+            if (query != null) {
+                for (AsyncMaterializedView mv : mgr.getAsyncMaterializedViews(query.getTableIds())) {
+                    OlapTable mvTable = mv.getTable();
+                    if (mvTable == null || !mv.isUsable(stalenessSecond)) {
+                        continue;
+                    }
+                    ViewDescriptor view = getViewDescriptor(mv);
+                    if (view == null || view.outputs.size() != mvTable.getBaseSchema().size()) {
+                        continue;
+                    }
+                    OptExpression result = tryRewrite(expression, query, mvTable, view);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < expression.arity(); i++) {
+            expression.setChild(i, rewrite(expression.inputAt(i), mgr));
+        }
+        return expression;
+    }
+
+    private OptExpression tryRewrite(OptExpression expression, SPJGDescriptor query, OlapTable mvTable,
+                                     ViewDescriptor view) {
+        if (!query.getConjuncts().keySet().containsAll(view.descriptor.getConjuncts().keySet())) {
+            return null;
+        }
+        if (view.descriptor.isAggregate() && !query.isAggregate()) {
+            return null;
+        }
+
+        MaterializedViewScan mvScan = new MaterializedViewScan(mvTable);
+
+        // residual predicates must be computed on the view output, for aggregate view they can
+        // only reference the grouping keys
+        List<ScalarOperator> residuals = Lists.newArrayList();
+        for (Map.Entry<String, ScalarOperator> entry : query.getConjuncts().entrySet()) {
+            if (view.descriptor.getConjuncts().containsKey(entry.getKey())) {
+                continue;
+            }
+            ScalarOperator residual = rewriteOnView(entry.getValue(), query, view, mvScan);
+            if (residual == null) {
+                return null;
+            }
+            residuals.add(residual);
+        }
+        OptExpression scan = mvScan.build(Utils.compoundAnd(residuals));
+
+        if (!query.isAggregate()) {
+            // SPJ query on SPJ view
+            Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+            for (ColumnRefOperator ref : ((LogicalProjectOperator) expression.getOp()).getColumnRefMap().keySet()) {
+                ScalarOperator rewritten = rewriteOnView(query.resolve(ref), query, view, mvScan);
+                if (rewritten == null) {
+                    return null;
+                }
+                projection.put(ref, rewritten);
+            }
+            return OptExpression.create(new LogicalProjectOperator(projection), scan);
+        }
+
+        LogicalAggregationOperator aggregation = query.getAggregation();
+        Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+        for (ColumnRefOperator key : aggregation.getGroupingKeys()) {
+            ScalarOperator rewritten = rewriteOnView(query.resolve(key), query, view, mvScan);
+            if (rewritten == null) {
+                return null;
+            }
+            projection.put(key, rewritten);
+        }
+
+        if (!view.descriptor.isAggregate()) {
+            // SPJG query on SPJ view, compute the aggregation on the view
+            for (CallOperator call : aggregation.getAggregations().values()) {
+                for (int columnId : call.getUsedColumns().getColumnIds()) {
+                    ColumnRefOperator ref = factory.getColumnRef(columnId);
+                    ScalarOperator rewritten = rewriteOnView(query.resolve(ref), query, view, mvScan);
+                    if (rewritten == null) {
+                        return null;
+                    }
+                    projection.put(ref, rewritten);
+                }
+            }
+            return OptExpression.create(aggregation,
+                    OptExpression.create(new LogicalProjectOperator(projection), scan));
+        }
+
+        // SPJG query on SPJG view
+        if (query.canonicalGroupingKeys().equals(view.descriptor.canonicalGroupingKeys())) {
+            // same grouping keys, the view rows are the query rows
+            if (aggregation.hasLimit() && aggregation.getPredicate() != null) {
+                return null;
+            }
+            for (Map.Entry<ColumnRefOperator, CallOperator> entry : aggregation.getAggregations().entrySet()) {
+                Integer index = view.aggregateOutputs.get(query.canonicalAggregate(entry.getValue()));
+                if (index == null) {
+                    return null;
+                }
+                ScalarOperator column = castIfNecessary(mvScan.getColumn(index), entry.getKey().getType());
+                if (column == null) {
+                    return null;
+                }
+                projection.put(entry.getKey(), column);
+            }
+            OptExpression result = OptExpression.create(
+                    new LogicalProjectOperator(projection, aggregation.getLimit()), scan);
+            if (aggregation.getPredicate() != null) {
+                result = OptExpression.create(new LogicalFilterOperator(aggregation.getPredicate()), result);
+            }
+            return result;
+        }
+
+        // roll up the view aggregation
+        Map<ColumnRefOperator, CallOperator> rollupAggregations = Maps.newHashMap();
+        // the rolled up SUM of count is NULL on empty input, the scalar aggregation must return 0 for it
+        Map<ColumnRefOperator, ColumnRefOperator> scalarCountOutputs = Maps.newHashMap();
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : aggregation.getAggregations().entrySet()) {
+            CallOperator call = entry.getValue();
+            Integer index = view.aggregateOutputs.get(query.canonicalAggregate(call));
+            if (index == null) {
+                return null;
+            }
+            CallOperator rollup = createRollupCall(call, mvScan.getColumn(index), entry.getKey().getType());
+            if (rollup == null) {
+                return null;
+            }
+            projection.put(mvScan.getColumn(index), mvScan.getColumn(index));
+            ColumnRefOperator output = entry.getKey();
+            if (call.getFnName().equals(FunctionSet.COUNT) && aggregation.getGroupingKeys().isEmpty()) {
+                output = factory.create(FunctionSet.SUM, entry.getKey().getType(), true);
+                scalarCountOutputs.put(entry.getKey(), output);
+            }
+            rollupAggregations.put(output, rollup);
+        }
+        OptExpression viewInput = OptExpression.create(new LogicalProjectOperator(projection), scan);
+        if (scalarCountOutputs.isEmpty()) {
+            LogicalAggregationOperator rollupAggregation = new LogicalAggregationOperator(aggregation.getType(),
+                    aggregation.getGroupingKeys(), aggregation.getPartitionByColumns(), rollupAggregations,
+                    false, -1, aggregation.getLimit(), aggregation.getPredicate());
+            return OptExpression.create(rollupAggregation, viewInput);
+        }
+
+        if (aggregation.hasLimit() && aggregation.getPredicate() != null) {
+            return null;
+        }
+        LogicalAggregationOperator rollupAggregation = new LogicalAggregationOperator(aggregation.getType(),
+                aggregation.getGroupingKeys(), aggregation.getPartitionByColumns(), rollupAggregations,
+                false, -1, Operator.DEFAULT_LIMIT, null);
+        Map<ColumnRefOperator, ScalarOperator> outputs = Maps.newHashMap();
+        for (ColumnRefOperator key : aggregation.getAggregations().keySet()) {
+            ColumnRefOperator sum = scalarCountOutputs.get(key);
+            outputs.put(key, sum == null ? key : new CallOperator(FunctionSet.IF_NULL, key.getType(),
+                    Lists.newArrayList(sum, ConstantOperator.createBigint(0)),
+                    Expr.getBuiltinFunction(FunctionSet.IF_NULL, new Type[] {Type.BIGINT, Type.BIGINT},
+                            Function.CompareMode.IS_IDENTICAL)));
+        }
+        OptExpression result = OptExpression.create(new LogicalProjectOperator(outputs, aggregation.getLimit()),
+                OptExpression.create(rollupAggregation, viewInput));
+        if (aggregation.getPredicate() != null) {
+            result = OptExpression.create(new LogicalFilterOperator(aggregation.getPredicate()), result);
+        }
+        return result;
+    }
+
+    private CallOperator createRollupCall(CallOperator call, ColumnRefOperator column, Type returnType) {
+        String fnName;
+        switch (call.getFnName()) {
+            case FunctionSet.SUM:
+            case FunctionSet.COUNT:
+                fnName = FunctionSet.SUM;
+                break;
+            case FunctionSet.MIN:
+            case FunctionSet.MAX:
+                fnName = call.getFnName();
+                break;
+            default:
+                return null;
+        }
+        // the result type of decimal v3 sum depends on the input precision, don't roll up it
+        if (column.getType().isDecimalV3()) {
+            return null;
+        }
+        Function fn = Expr.getBuiltinFunction(fnName, new Type[] {column.getType()},
+                Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF);
+        if (fn == null || !fn.getReturnType().equals(returnType)) {
+            return null;
+        }
+        return new CallOperator(fnName, returnType, Lists.newArrayList(column), fn);
+    }
+
+    /**
+     * Rewrite expression on query scan columns to expression on view columns,
+     * return null if the expression can't be computed on the view output.
+     */
+    private ScalarOperator rewriteOnView(ScalarOperator operator, SPJGDescriptor query, ViewDescriptor view,
+                                         MaterializedViewScan mvScan) {
+        Integer index = view.keyOutputs.get(query.canonical(operator));
+        if (index != null) {
+            return castIfNecessary(mvScan.getColumn(index), operator.getType());
+        }
+        if (operator instanceof ConstantOperator) {
+            return operator;
+        }
+        if (operator instanceof ColumnRefOperator) {
+            return null;
+        }
+        ScalarOperator result = operator.clone();
+        for (int i = 0; i < result.getChildren().size(); i++) {
+            ScalarOperator child = rewriteOnView(operator.getChild(i), query, view, mvScan);
+            if (child == null) {
+                return null;
+            }
+            result.setChild(i, child);
+        }
+        return result;
+    }
+
+    private static ScalarOperator castIfNecessary(ColumnRefOperator column, Type type) {
+        if (column.getType().equals(type)) {
+            return column;
+        }
+        // CTAS may widen the string length of view columns, other type changes are not safe
+        if (column.getType().isStringType() && type.isStringType()) {
+            return new CastOperator(type, column, true);
+        }
+        return null;
+    }
+
+    private static ViewDescriptor getViewDescriptor(AsyncMaterializedView mv) {
+        CachedViewDescriptor cached = VIEW_DESCRIPTORS.get(mv.getId());
+        if (cached != null && cached.isValid(mv)) {
+            return cached.descriptor;
+        }
+        ConnectContext session = ConnectContext.get();
+        if (session == null) {
+            return null;
+        }
+        ViewDescriptor descriptor = buildViewDescriptor(mv, session);
+        VIEW_DESCRIPTORS.put(mv.getId(), new CachedViewDescriptor(mv, descriptor));
+        return descriptor;
+    }
+
+    public static void invalidateViewDescriptor(long mvId) {
+        VIEW_DESCRIPTORS.remove(mvId);
+    }
+
+    private static ViewDescriptor buildViewDescriptor(AsyncMaterializedView mv, ConnectContext session) {
+        try {
+            StatementBase stmt = SqlParser.parse(mv.getDefinition(), session.getSessionVariable().getSqlMode()).get(0);
+            Analyzer.analyze(stmt, session);
+            LogicalPlan plan = new RelationTransformer(new ColumnRefFactory(), session)
+                    .transform(((QueryStatement) stmt).getQueryRelation());
+            return ViewDescriptor.build(plan.getRoot(), plan.getOutputColumn());
+        } catch (Exception e) {
+            LOG.warn("build descriptor of async materialized view {} failed", mv.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * The descriptor built from the view at its last refresh, null if the definition is not SPJG or can't be
+     * analyzed, which is retried after the view is refreshed.
+     */
+    private static class CachedViewDescriptor {
+        private final String definition;
+        private final long refreshTime;
+        private final ViewDescriptor descriptor;
+
+        CachedViewDescriptor(AsyncMaterializedView mv, ViewDescriptor descriptor) {
+            this.definition = mv.getDefinition();
+            this.refreshTime = mv.getLastRefreshTime();
+            this.descriptor = descriptor;
+        }
+
+        boolean isValid(AsyncMaterializedView mv) {
+            return definition.equals(mv.getDefinition()) && refreshTime == mv.getLastRefreshTime();
+        }
+    }
+
+    private static class ViewDescriptor {
+        private SPJGDescriptor descriptor;
+        private List<ColumnRefOperator> outputs;
+        // canonical scalar expression -> view output index
+        private final Map<String, Integer> keyOutputs = Maps.newHashMap();
+        // canonical aggregate function -> view output index
+        private final Map<String, Integer> aggregateOutputs = Maps.newHashMap();
+
+        static ViewDescriptor build(OptExpression root, List<ColumnRefOperator> outputs) {
+            ViewDescriptor view = new ViewDescriptor();
+            view.outputs = outputs;
+
+            Map<ColumnRefOperator, ScalarOperator> topProjection = null;
+            OptExpression spjg = root;
+            if (root.getOp() instanceof LogicalProjectOperator &&
+                    root.inputAt(0).getOp() instanceof LogicalAggregationOperator) {
+                topProjection = ((LogicalProjectOperator) root.getOp()).getColumnRefMap();
+                spjg = root.inputAt(0);
+            }
+            view.descriptor = SPJGDescriptor.build(spjg);
+            if (view.descriptor == null) {
+                return null;
+            }
+
+            if (!view.descriptor.isAggregate()) {
+                for (int i = 0; i < outputs.size(); i++) {
+                    view.keyOutputs.putIfAbsent(
+                            view.descriptor.canonical(view.descriptor.resolve(outputs.get(i))), i);
+                }
+                return view;
+            }
+
+            LogicalAggregationOperator aggregation = view.descriptor.getAggregation();
+            for (int i = 0; i < outputs.size(); i++) {
+                ScalarOperator output = topProjection == null ? outputs.get(i) : topProjection.get(outputs.get(i));
+                if (!(output instanceof ColumnRefOperator)) {
+                    // computed on the aggregation result, can't be used for rewrite
+                    continue;
+                }
+                if (aggregation.getGroupingKeys().contains(output)) {
+                    view.keyOutputs.putIfAbsent(view.descriptor.canonical(view.descriptor.resolve(output)), i);
+                } else if (aggregation.getAggregations().containsKey(output)) {
+                    view.aggregateOutputs.putIfAbsent(
+                            view.descriptor.canonicalAggregate(aggregation.getAggregations().get(output)), i);
+                }
+            }
+            // the view rows must be identified by the grouping keys
+            Set<String> groupingKeys = view.descriptor.canonicalGroupingKeys();
+            if (!view.keyOutputs.keySet().containsAll(groupingKeys)) {
+                return null;
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Scan operator of the materialized view table, the column refs are created on demand.
+     */
+    private class MaterializedViewScan {
+        private final OlapTable table;
+        private final List<ColumnRefOperator> columns = Lists.newArrayList();
+
+        MaterializedViewScan(OlapTable table) {
+            this.table = table;
+            int relationId = factory.getNextRelationId();
+            for (Column column : table.getBaseSchema()) {
+                ColumnRefOperator ref = factory.create(column.getName(), column.getType(), column.isAllowNull());
+                factory.updateColumnToRelationIds(ref.getId(), relationId);
+                factory.updateColumnRefToColumns(ref, column, table);
+                columns.add(ref);
+            }
+        }
+
+        ColumnRefOperator getColumn(int index) {
+            return columns.get(index);
+        }
+
+        OptExpression build(ScalarOperator predicate) {
+            Map<ColumnRefOperator, Column> colRefToColumnMetaMap = Maps.newHashMap();
+            Map<Column, ColumnRefOperator> columnMetaToColRefMap = Maps.newHashMap();
+            for (int i = 0; i < columns.size(); i++) {
+                colRefToColumnMetaMap.put(columns.get(i), table.getBaseSchema().get(i));
+                columnMetaToColRefMap.put(table.getBaseSchema().get(i), columns.get(i));
+            }
+
+            HashDistributionInfo distributionInfo = (HashDistributionInfo) table.getDefaultDistributionInfo();
+            List<Integer> hashDistributeColumns = Lists.newArrayList();
+            for (Column column : distributionInfo.getDistributionColumns()) {
+                hashDistributeColumns.add(columnMetaToColRefMap.get(column).getId());
+            }
+            HashDistributionDesc hashDistributionDesc =
+                    new HashDistributionDesc(hashDistributeColumns, HashDistributionDesc.SourceType.LOCAL);
+
+            return OptExpression.create(new LogicalOlapScanOperator(table,
+                    colRefToColumnMetaMap,
+                    columnMetaToColRefMap,
+                    DistributionSpec.createHashDistributionSpec(hashDistributionDesc),
+                    Operator.DEFAULT_LIMIT,
+                    predicate,
+                    table.getBaseIndexId(),
+                    null,
+                    null,
+                    Lists.newArrayList(),
+                    Lists.newArrayList()));
+        }
+    }
+}
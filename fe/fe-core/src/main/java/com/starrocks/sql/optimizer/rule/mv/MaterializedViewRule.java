@@ -108,6 +108,10 @@ public class MaterializedViewRule extends Rule {
             }
 
             long bestIndex = selectBestIndexes(scan, candidateIndexIdToSchema, relationId);
+            if (context.getPlanShapeMatcher() != null) {
+                bestIndex = context.getPlanShapeMatcher()
+                        .selectIndex(scan, candidateIndexIdToSchema.keySet(), bestIndex);
+            }
 
             if (bestIndex == scan.getSelectedIndexId()) {
                 continue;
@@ -0,0 +1,189 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Column;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ReplaceColumnRefRewriter;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Describe a select-project-join-group by (SPJG) expression in a canonical form, which is independent
+ * of the column ref ids of a plan, so a query and a materialized view definition can be compared.
+ * <p>
+ * A column of a base table is canonicalized to "tableId.columnName", every expression is expanded
+ * through the projections down to the base table columns before canonicalization.
+ * Only inner/cross joins of olap tables without self join are supported.
+ */
+public class SPJGDescriptor {
+    private final Set<Long> tableIds = Sets.newHashSet();
+    // scan column ref -> canonical column ref
+    private final Map<ColumnRefOperator, ScalarOperator> canonicalColumns = Maps.newHashMap();
+    // column ref defined by projection -> expression on scan column refs
+    private final Map<ColumnRefOperator, ScalarOperator> definitions = Maps.newHashMap();
+    // canonical string -> conjunct on scan column refs
+    private final Map<String, ScalarOperator> conjuncts = Maps.newLinkedHashMap();
+
+    private LogicalAggregationOperator aggregation;
+
+    private SPJGDescriptor() {
+    }
+
+    /**
+     * Build descriptor for the expression rooted at an aggregation over SPJ,
+     * or at a SPJ expression, return null if the expression is not a supported SPJG.
+     */
+    public static SPJGDescriptor build(OptExpression root) {
+        SPJGDescriptor descriptor = new SPJGDescriptor();
+        OptExpression spj = root;
+        if (root.getOp() instanceof LogicalAggregationOperator) {
+            LogicalAggregationOperator aggregation = (LogicalAggregationOperator) root.getOp();
+            if (aggregation.isSplit() || aggregation.getProjection() != null) {
+                return null;
+            }
+            for (CallOperator call : aggregation.getAggregations().values()) {
+                if (call.isDistinct()) {
+                    return null;
+                }
+            }
+            descriptor.aggregation = aggregation;
+            spj = root.inputAt(0);
+        }
+
+        List<ScalarOperator> predicates = Lists.newArrayList();
+        if (!descriptor.collect(spj, predicates)) {
+            return null;
+        }
+
+        ScalarOperatorRewriter scalarRewriter = new ScalarOperatorRewriter();
+        for (ScalarOperator predicate : predicates) {
+            for (ScalarOperator conjunct : Utils.extractConjuncts(descriptor.resolve(predicate))) {
+                conjunct = scalarRewriter.rewrite(conjunct, ScalarOperatorRewriter.DEFAULT_REWRITE_RULES);
+                descriptor.conjuncts.put(descriptor.canonical(conjunct), conjunct);
+            }
+        }
+        return descriptor;
+    }
+
+    private boolean collect(OptExpression expression, List<ScalarOperator> predicates) {
+        Operator operator = expression.getOp();
+        if (operator.hasLimit() || operator.getProjection() != null) {
+            return false;
+        }
+        if (operator.getPredicate() != null) {
+            predicates.add(operator.getPredicate());
+        }
+
+        if (operator instanceof LogicalOlapScanOperator) {
+            LogicalOlapScanOperator scan = (LogicalOlapScanOperator) operator;
+            if (scan.getPartitionNames() != null || !scan.getHintsTabletIds().isEmpty() ||
+                    !tableIds.add(scan.getTable().getId())) {
+                return false;
+            }
+            for (Map.Entry<ColumnRefOperator, Column> entry : scan.getColRefToColumnMetaMap().entrySet()) {
+                ColumnRefOperator ref = entry.getKey();
+                canonicalColumns.put(ref, new ColumnRefOperator(0, ref.getType(),
+                        scan.getTable().getId() + "." + entry.getValue().getName(), ref.isNullable()));
+            }
+            return true;
+        } else if (operator instanceof LogicalJoinOperator) {
+            LogicalJoinOperator join = (LogicalJoinOperator) operator;
+            if (!join.isInnerOrCrossJoin()) {
+                return false;
+            }
+            if (join.getOnPredicate() != null) {
+                predicates.add(join.getOnPredicate());
+            }
+            return collect(expression.inputAt(0), predicates) && collect(expression.inputAt(1), predicates);
+        } else if (operator instanceof LogicalFilterOperator) {
+            return collect(expression.inputAt(0), predicates);
+        } else if (operator instanceof LogicalProjectOperator) {
+            if (!collect(expression.inputAt(0), predicates)) {
+                return false;
+            }
+            // children are collected first, so the definitions of child columns are already resolved
+            for (Map.Entry<ColumnRefOperator, ScalarOperator> entry :
+                    ((LogicalProjectOperator) operator).getColumnRefMap().entrySet()) {
+                if (!entry.getKey().equals(entry.getValue())) {
+                    definitions.put(entry.getKey(), resolve(entry.getValue()));
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public Set<Long> getTableIds() {
+        return tableIds;
+    }
+
+    public Map<String, ScalarOperator> getConjuncts() {
+        return conjuncts;
+    }
+
+    public boolean isAggregate() {
+        return aggregation != null;
+    }
+
+    public LogicalAggregationOperator getAggregation() {
+        return aggregation;
+    }
+
+    /**
+     * Expand the expression through projections to the scan column refs.
+     */
+    public ScalarOperator resolve(ScalarOperator operator) {
+        return operator.clone().accept(new ReplaceColumnRefRewriter(definitions), null);
+    }
+
+    /**
+     * Canonical string of expression on scan column refs.
+     */
+    public String canonical(ScalarOperator operator) {
+        ScalarOperator canonical = operator.clone().accept(new ReplaceColumnRefRewriter(canonicalColumns), null);
+        if (canonical instanceof BinaryPredicateOperator &&
+                ((BinaryPredicateOperator) canonical).getBinaryType().isEquivalence()) {
+            // a = b is the same as b = a
+            String left = canonical.getChild(0).toString();
+            String right = canonical.getChild(1).toString();
+            String op = ((BinaryPredicateOperator) canonical).getBinaryType().toString();
+            return left.compareTo(right) <= 0 ? left + " " + op + " " + right : right + " " + op + " " + left;
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Canonical string of aggregate call whose arguments are not resolved.
+     */
+    public String canonicalAggregate(CallOperator call) {
+        return call.getFnName() + "(" + call.getChildren().stream()
+                .map(arg -> canonical(resolve(arg))).collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * Canonical strings of the grouping keys.
+     */
+    public Set<String> canonicalGroupingKeys() {
+        return aggregation.getGroupingKeys().stream()
+                .map(key -> canonical(resolve(key))).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,113 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.JoinOperator;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.LogicalProperty;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.rule.RuleType;
+
+import java.util.Collections;
+import java.util.List;
+
+// Use the unique keys of join children to simplify the join, whose output is consumed by the parent
+// Project or Aggregation.
+//
+// 1. Eliminate outer join: if every row of the preserved side matches at most one row of the other
+//    side, that is the other side is unique on its equal on columns, and the parent doesn't use any
+//    column of the other side, the join outputs exactly the rows of the preserved side.
+//        Project                Project
+//           |                      |
+//     Left Outer Join     =>     LEFT
+//       /       \
+//    LEFT     RIGHT(unique on join keys)
+//
+// 2. Semi join to inner join: if the other side is unique on its equal on columns, every row of the
+//    preserved side is output at most once by inner join too. Inner join can be reordered with the
+//    other joins.
+//
+public class EliminateJoinWithUniqueKeyRule extends TransformationRule {
+    public static final EliminateJoinWithUniqueKeyRule PROJECT_JOIN =
+            new EliminateJoinWithUniqueKeyRule(OperatorType.LOGICAL_PROJECT);
+    public static final EliminateJoinWithUniqueKeyRule AGGREGATE_JOIN =
+            new EliminateJoinWithUniqueKeyRule(OperatorType.LOGICAL_AGGR);
+
+    private EliminateJoinWithUniqueKeyRule(OperatorType parentType) {
+        super(RuleType.TF_ELIMINATE_JOIN_WITH_UNIQUE_KEY, Pattern.create(parentType)
+                .addChildren(Pattern.create(OperatorType.LOGICAL_JOIN)
+                        .addChildren(Pattern.create(OperatorType.PATTERN_LEAF))
+                        .addChildren(Pattern.create(OperatorType.PATTERN_LEAF))));
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        if (!context.getSessionVariable().isEnableUniqueKeyOptimize()) {
+            return false;
+        }
+        LogicalJoinOperator join = (LogicalJoinOperator) input.inputAt(0).getOp();
+        JoinOperator joinType = join.getJoinType();
+        if (!joinType.isLeftOuterJoin() && !joinType.isRightOuterJoin() && !joinType.isSemiJoin()) {
+            return false;
+        }
+        return join.getOnPredicate() != null && join.getProjection() == null && !join.hasLimit();
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        OptExpression joinExpression = input.inputAt(0);
+        LogicalJoinOperator join = (LogicalJoinOperator) joinExpression.getOp();
+        JoinOperator joinType = join.getJoinType();
+        LogicalProperty left = getLogicalProperty(joinExpression.inputAt(0));
+        LogicalProperty right = getLogicalProperty(joinExpression.inputAt(1));
+
+        // the side whose rows match at most one row of the other side
+        int preservedIndex = joinType.isLeftOuterJoin() || joinType.isLeftSemiJoin() ? 0 : 1;
+        LogicalProperty preserved = preservedIndex == 0 ? left : right;
+        LogicalProperty other = preservedIndex == 0 ? right : left;
+        ColumnRefSet otherJoinColumns = JoinPredicateUtils.getEqualOnColumns(join.getOnPredicate(),
+                other.getOutputColumns(), preserved.getOutputColumns());
+        if (!other.isUnique(otherJoinColumns)) {
+            return Collections.emptyList();
+        }
+
+        if (joinType.isOuterJoin()) {
+            // the predicate after join may filter the null-extended rows
+            if (join.getPredicate() != null || getUsedColumns(input).isIntersect(other.getOutputColumns())) {
+                return Collections.emptyList();
+            }
+            return Lists.newArrayList(OptExpression.create(input.getOp(), joinExpression.inputAt(preservedIndex)));
+        }
+
+        LogicalJoinOperator innerJoin = new LogicalJoinOperator.Builder().withOperator(join)
+                .setJoinType(JoinOperator.INNER_JOIN)
+                .build();
+        return Lists.newArrayList(OptExpression.create(input.getOp(),
+                OptExpression.create(innerJoin, joinExpression.getInputs())));
+    }
+
+    private static LogicalProperty getLogicalProperty(OptExpression expression) {
+        return expression.getGroupExpression().getGroup().getLogicalProperty();
+    }
+
+    // The columns of join output used by the parent
+    private static ColumnRefSet getUsedColumns(OptExpression input) {
+        ColumnRefSet usedColumns = new ColumnRefSet();
+        if (input.getOp() instanceof LogicalProjectOperator) {
+            LogicalProjectOperator project = (LogicalProjectOperator) input.getOp();
+            project.getColumnRefMap().values().forEach(s -> usedColumns.union(s.getUsedColumns()));
+        } else {
+            LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+            usedColumns.union(aggregation.getGroupingKeys());
+            aggregation.getAggregations().values().forEach(s -> usedColumns.union(s.getUsedColumns()));
+        }
+        return usedColumns;
+    }
+}
@@ -0,0 +1,96 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.JoinOperator;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+
+import java.util.Collections;
+import java.util.List;
+
+// NULL is the most common heavy hitter of join keys, all the rows with NULL key are shuffled to the same
+// instance, but they never match any row by the equal on predicate. Add `IS NOT NULL` of the nullable
+// join keys to the on predicate, which is pushed down to the child by PushDownJoinOnClauseRule later,
+// so the rows with NULL key are filtered before shuffle.
+//
+// The predicate is only added for the side whose unmatched rows are not output by join:
+// 1. Inner Join and Semi Join: both sides
+// 2. Left Outer Join: right side
+// 3. Right Outer Join: left side
+// Anti Join and Full Outer Join output the unmatched rows of both sides or NULL-aware, so they are skipped.
+//
+public class FilterNullJoinKeyRule extends TransformationRule {
+    public FilterNullJoinKeyRule() {
+        super(RuleType.TF_FILTER_NULL_JOIN_KEY, Pattern.create(OperatorType.LOGICAL_JOIN)
+                .addChildren(Pattern.create(OperatorType.PATTERN_LEAF), Pattern.create(OperatorType.PATTERN_LEAF)));
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        if (!context.getSessionVariable().isEnableSkewOptimize()) {
+            return false;
+        }
+        LogicalJoinOperator join = (LogicalJoinOperator) input.getOp();
+        JoinOperator joinType = join.getJoinType();
+        if (!joinType.isInnerJoin() && !joinType.isSemiJoin() &&
+                !joinType.isLeftOuterJoin() && !joinType.isRightOuterJoin()) {
+            return false;
+        }
+        return join.getOnPredicate() != null && !join.isHasPushDownJoinOnClause();
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        LogicalJoinOperator join = (LogicalJoinOperator) input.getOp();
+        JoinOperator joinType = join.getJoinType();
+        ColumnRefSet leftColumns = input.getChildOutputColumns(0);
+        ColumnRefSet rightColumns = input.getChildOutputColumns(1);
+
+        ColumnRefSet filteredColumns = new ColumnRefSet();
+        if (!joinType.isLeftOuterJoin()) {
+            filteredColumns.union(leftColumns);
+        }
+        if (!joinType.isRightOuterJoin()) {
+            filteredColumns.union(rightColumns);
+        }
+
+        List<ScalarOperator> conjuncts = Utils.extractConjuncts(join.getOnPredicate());
+        List<ScalarOperator> notNullPredicates = Lists.newArrayList();
+        for (BinaryPredicateOperator predicate : JoinPredicateUtils.getEqConj(leftColumns, rightColumns, conjuncts)) {
+            if (predicate.getBinaryType() != BinaryPredicateOperator.BinaryType.EQ) {
+                continue;
+            }
+            for (ScalarOperator child : predicate.getChildren()) {
+                if (!child.isColumnRef() || !child.isNullable() ||
+                        !filteredColumns.contains((ColumnRefOperator) child)) {
+                    continue;
+                }
+                ScalarOperator notNull = new IsNullPredicateOperator(true, child);
+                if (!conjuncts.contains(notNull) && !notNullPredicates.contains(notNull)) {
+                    notNullPredicates.add(notNull);
+                }
+            }
+        }
+        if (notNullPredicates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        notNullPredicates.add(0, join.getOnPredicate());
+        LogicalJoinOperator newJoin = new LogicalJoinOperator.Builder().withOperator(join)
+                .setOnPredicate(Utils.compoundAnd(notNullPredicates))
+                .build();
+        return Lists.newArrayList(OptExpression.create(newJoin, input.getInputs()));
+    }
+}
@@ -55,6 +55,25 @@ public class JoinPredicateUtils {
         return eqConjuncts;
     }
 
+    // Return the columns of child which are compared with the columns of other child by the equal on predicates.
+    // Only the predicates whose child side is a column are considered, since a unique key is made up of columns.
+    public static ColumnRefSet getEqualOnColumns(ScalarOperator onPredicate, ColumnRefSet childColumns,
+                                                 ColumnRefSet otherChildColumns) {
+        ColumnRefSet result = new ColumnRefSet();
+        if (onPredicate == null) {
+            return result;
+        }
+        for (BinaryPredicateOperator predicate : getEqConj(childColumns, otherChildColumns,
+                Utils.extractConjuncts(onPredicate))) {
+            for (ScalarOperator child : predicate.getChildren()) {
+                if (child.isColumnRef() && childColumns.contains((ColumnRefOperator) child)) {
+                    result.union((ColumnRefOperator) child);
+                }
+            }
+        }
+        return result;
+    }
+
     public static boolean isEqualBinaryPredicate(ScalarOperator predicate) {
         if (predicate instanceof BinaryPredicateOperator) {
             BinaryPredicateOperator binaryPredicate = (BinaryPredicateOperator) predicate;
@@ -0,0 +1,92 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.Expr;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.LogicalProperty;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.starrocks.catalog.Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF;
+
+// Remove the grouping keys which are functionally dependent on the other grouping keys, the removed
+// keys are output by ANY_VALUE, since all the rows of a group have the same value of them.
+// eg. select c_custkey, c_name, sum(o_totalprice) from customer join orders on c_custkey = o_custkey
+//     group by c_custkey, c_name
+// c_custkey is the primary key of customer, so the aggregation only needs to group by c_custkey.
+public class PruneGroupByKeysRule extends TransformationRule {
+    public PruneGroupByKeysRule() {
+        super(RuleType.TF_PRUNE_GROUP_BY_KEYS, Pattern.create(OperatorType.LOGICAL_AGGR)
+                .addChildren(Pattern.create(OperatorType.PATTERN_LEAF)));
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        if (!context.getSessionVariable().isEnableUniqueKeyOptimize()) {
+            return false;
+        }
+        LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+        return aggregation.getType().isGlobal() && !aggregation.isSplit() &&
+                aggregation.getGroupingKeys().size() > 1 &&
+                aggregation.getAggregations().values().stream().noneMatch(CallOperator::isDistinct);
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+        LogicalProperty childProperty = input.inputAt(0).getGroupExpression().getGroup().getLogicalProperty();
+        if (childProperty.getFunctionalDependencies().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<ColumnRefOperator> groupingKeys = Lists.newArrayList(aggregation.getGroupingKeys());
+        List<ColumnRefOperator> removedKeys = Lists.newArrayList();
+        // keep at least one key, the aggregation without grouping keys outputs one row for empty input
+        for (int i = groupingKeys.size() - 1; i >= 0 && groupingKeys.size() > 1; i--) {
+            ColumnRefOperator key = groupingKeys.remove(i);
+            if (childProperty.getDeterminedColumns(new ColumnRefSet(groupingKeys)).contains(key)) {
+                removedKeys.add(key);
+            } else {
+                groupingKeys.add(i, key);
+            }
+        }
+        if (removedKeys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<ColumnRefOperator, CallOperator> aggregations = Maps.newHashMap(aggregation.getAggregations());
+        for (ColumnRefOperator key : removedKeys) {
+            Function fn = Expr.getBuiltinFunction(FunctionSet.ANY_VALUE, new Type[] {key.getType()},
+                    IS_NONSTRICT_SUPERTYPE_OF);
+            if (fn == null) {
+                return Collections.emptyList();
+            }
+            aggregations.put(key, new CallOperator(FunctionSet.ANY_VALUE, key.getType(),
+                    Lists.newArrayList(key), fn));
+        }
+
+        LogicalAggregationOperator newAggregation = new LogicalAggregationOperator.Builder()
+                .withOperator(aggregation)
+                .setGroupingKeys(groupingKeys)
+                .setPartitionByColumns(groupingKeys)
+                .setAggregations(aggregations)
+                .build();
+        return Lists.newArrayList(OptExpression.create(newAggregation, input.getInputs()));
+    }
+}
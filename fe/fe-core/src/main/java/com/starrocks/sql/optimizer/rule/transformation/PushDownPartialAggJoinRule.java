@@ -0,0 +1,202 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.JoinOperator;
+import com.starrocks.catalog.AggregateFunction;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.operator.AggType;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.statistics.Statistics;
+import com.starrocks.sql.optimizer.statistics.StatisticsCalculator;
+import com.starrocks.sql.optimizer.statistics.StatisticsEstimateCoefficient;
+
+import java.util.List;
+import java.util.Map;
+
+// Eager aggregation: push the partial aggregation below join
+// Before:
+//      Aggregation(GLOBAL)
+//            |
+//          Join
+//        /      \
+//     LEFT     RIGHT
+//
+// After:
+//      Aggregation(GLOBAL, merge)
+//            |
+//          Join
+//        /      \
+//   Aggregation  RIGHT
+//    (LOCAL)
+//       |
+//     LEFT
+//
+// The local aggregation groups by the grouping keys and join columns of its side, so every
+// group is joined to the same rows as the rows in it, and the global aggregation merges the
+// partial results of groups. It's an alternative of the memo, the cost model chooses it only
+// when the local aggregation reduces the rows of join enough.
+//
+// Requirements:
+// 1. Must be Inner-Join, Left-Semi-Join (push to left) or Right-Semi-Join (push to right)
+// 2. Aggregate isn't split, has grouping keys, and the functions are non-distinct SUM/COUNT/MIN/MAX
+//    whose arguments all come from the pushed side
+// 3. The estimated rows of local aggregation is less than the input rows of pushed side
+//
+public class PushDownPartialAggJoinRule extends TransformationRule {
+    private static final PushDownPartialAggJoinRule INSTANCE = new PushDownPartialAggJoinRule();
+
+    private PushDownPartialAggJoinRule() {
+        super(RuleType.TF_PUSH_DOWN_PARTIAL_AGG_JOIN, Pattern.create(OperatorType.LOGICAL_AGGR)
+                .addChildren(Pattern.create(OperatorType.LOGICAL_JOIN)
+                        .addChildren(Pattern.create(OperatorType.PATTERN_LEAF))
+                        .addChildren(Pattern.create(OperatorType.PATTERN_LEAF))));
+    }
+
+    public static PushDownPartialAggJoinRule getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        LogicalAggregationOperator agg = (LogicalAggregationOperator) input.getOp();
+        if (!agg.getType().isGlobal() || agg.isSplit() || agg.getGroupingKeys().isEmpty()) {
+            return false;
+        }
+        if (!agg.getAggregations().values().stream().allMatch(PushDownPartialAggJoinRule::canSplit)) {
+            return false;
+        }
+
+        LogicalJoinOperator join = (LogicalJoinOperator) input.inputAt(0).getOp();
+        JoinOperator joinType = join.getJoinType();
+        if (!joinType.isInnerJoin() && !joinType.isLeftSemiJoin() && !joinType.isRightSemiJoin()) {
+            return false;
+        }
+        return join.getOnPredicate() != null && join.getProjection() == null && !join.hasLimit();
+    }
+
+    private static boolean canSplit(CallOperator call) {
+        if (call.isDistinct() || !(call.getFunction() instanceof AggregateFunction)) {
+            return false;
+        }
+        String fnName = call.getFnName();
+        if (fnName.equals(FunctionSet.MIN) || fnName.equals(FunctionSet.MAX)) {
+            // string columns may be rewritten by global dict, keep their aggregation above join
+            return !call.getType().isStringType();
+        }
+        if (!fnName.equals(FunctionSet.SUM) && !fnName.equals(FunctionSet.COUNT)) {
+            return false;
+        }
+        // the partial results pass through join, so they must have the same type as the final results
+        Type intermediateType = ((AggregateFunction) call.getFunction()).getIntermediateType();
+        return intermediateType == null || intermediateType.equals(call.getType());
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        JoinOperator joinType = ((LogicalJoinOperator) input.inputAt(0).getOp()).getJoinType();
+
+        List<OptExpression> result = Lists.newArrayList();
+        if (!joinType.isRightSemiJoin()) {
+            OptExpression pushed = pushDownToChild(input, 0, context.getColumnRefFactory());
+            if (pushed != null) {
+                result.add(pushed);
+            }
+        }
+        if (!joinType.isLeftSemiJoin()) {
+            OptExpression pushed = pushDownToChild(input, 1, context.getColumnRefFactory());
+            if (pushed != null) {
+                result.add(pushed);
+            }
+        }
+        return result;
+    }
+
+    private OptExpression pushDownToChild(OptExpression input, int childIndex, ColumnRefFactory factory) {
+        LogicalAggregationOperator agg = (LogicalAggregationOperator) input.getOp();
+        OptExpression joinExpression = input.inputAt(0);
+        LogicalJoinOperator join = (LogicalJoinOperator) joinExpression.getOp();
+        ColumnRefSet childOutput = joinExpression.getChildOutputColumns(childIndex);
+
+        for (CallOperator call : agg.getAggregations().values()) {
+            if (!childOutput.containsAll(call.getUsedColumns())) {
+                return null;
+            }
+        }
+
+        // grouping keys of local aggregation: the grouping keys and join columns from the pushed side
+        ColumnRefSet keyColumns = new ColumnRefSet(agg.getGroupingKeys());
+        keyColumns.union(join.getOnPredicate().getUsedColumns());
+        if (join.getPredicate() != null) {
+            keyColumns.union(join.getPredicate().getUsedColumns());
+        }
+        keyColumns.intersect(childOutput);
+        if (keyColumns.isEmpty()) {
+            return null;
+        }
+        List<ColumnRefOperator> partialKeys = Lists.newArrayList();
+        for (int id : keyColumns.getColumnIds()) {
+            partialKeys.add(factory.getColumnRef(id));
+        }
+
+        OptExpression child = joinExpression.inputAt(childIndex);
+        if (!isReducedByPartialAgg(child, partialKeys)) {
+            return null;
+        }
+
+        Map<ColumnRefOperator, CallOperator> localAggregations = Maps.newHashMap();
+        Map<ColumnRefOperator, CallOperator> globalAggregations = Maps.newHashMap();
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : agg.getAggregations().entrySet()) {
+            ColumnRefOperator column = entry.getKey();
+            CallOperator aggregation = entry.getValue();
+            localAggregations.put(column, new CallOperator(aggregation.getFnName(), aggregation.getType(),
+                    aggregation.getChildren(), aggregation.getFunction()));
+            globalAggregations.put(column, new CallOperator(aggregation.getFnName(), aggregation.getType(),
+                    Lists.newArrayList(column), aggregation.getFunction()));
+        }
+
+        LogicalAggregationOperator local =
+                new LogicalAggregationOperator(AggType.LOCAL, partialKeys, localAggregations);
+        OptExpression localExpression = OptExpression.create(local, child);
+
+        List<OptExpression> joinInputs = Lists.newArrayList(joinExpression.getInputs());
+        joinInputs.set(childIndex, localExpression);
+        OptExpression newJoin = OptExpression.create(join, joinInputs);
+
+        LogicalAggregationOperator global = new LogicalAggregationOperator.Builder().withOperator(agg)
+                .setType(AggType.GLOBAL)
+                .setAggregations(globalAggregations)
+                .setSplit()
+                .build();
+        return OptExpression.create(global, newJoin);
+    }
+
+    // Use the group NDV of partial keys to estimate whether the local aggregation reduces the join input.
+    // If the statistics are not derived yet, leave the choice to the cost model.
+    private boolean isReducedByPartialAgg(OptExpression child, List<ColumnRefOperator> partialKeys) {
+        Statistics statistics = child.getGroupExpression() == null ? null :
+                child.getGroupExpression().getGroup().getStatistics();
+        if (statistics == null || statistics.getOutputRowCount() <= 0) {
+            return true;
+        }
+        if (!statistics.getColumnStatistics().keySet().containsAll(partialKeys)) {
+            return true;
+        }
+        double groupRows = StatisticsCalculator.computeGroupByStatistics(partialKeys, statistics, Maps.newHashMap());
+        return groupRows <= statistics.getOutputRowCount() *
+                StatisticsEstimateCoefficient.EAGER_AGGREGATION_REDUCTION_THRESHOLD_COEFFICIENT;
+    }
+}
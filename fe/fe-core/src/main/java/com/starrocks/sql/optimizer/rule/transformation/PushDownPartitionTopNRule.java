@@ -0,0 +1,135 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.SortPhase;
+import com.starrocks.sql.optimizer.operator.TopNType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalPartitionTopNOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalWindowOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Push down the rank predicate of the window to a partition TopN below it, e.g.
+// select * from (select *, row_number() over (partition by a order by b) rn from t) x where rn <= 3
+//
+//      Filter(rn <= 3)                    Filter(rn <= 3)
+//            |                                  |
+//   Window(row_number() as rn)    =>  Window(row_number() as rn)
+//            |                                  |
+//          Child                    PartitionTopN(a, b, 3, FINAL)
+//                                               |
+//                                   PartitionTopN(a, b, 3, PARTIAL)
+//                                               |
+//                                             Child
+//
+// The rows whose rank is greater than the limit never pass the filter, and removing them doesn't change the
+// rank of the others, since the rows before a kept row in its partition are all kept. The PARTIAL phase
+// limits the rows of each instance before shuffle, which is a superset of the top rows of the partition,
+// and the FINAL phase limits the rows of each partition after shuffle.
+// The window is skipped if it computes any function other than ranking functions, which may use the
+// filtered rows.
+public class PushDownPartitionTopNRule extends TransformationRule {
+    private static final PushDownPartitionTopNRule INSTANCE = new PushDownPartitionTopNRule();
+
+    private PushDownPartitionTopNRule() {
+        super(RuleType.TF_PUSH_DOWN_PARTITION_TOPN, Pattern.create(OperatorType.LOGICAL_FILTER)
+                .addChildren(Pattern.create(OperatorType.LOGICAL_WINDOW, OperatorType.PATTERN_LEAF)));
+    }
+
+    public static PushDownPartitionTopNRule getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        if (!context.getSessionVariable().isEnablePartitionTopN()) {
+            return false;
+        }
+        LogicalWindowOperator window = (LogicalWindowOperator) input.inputAt(0).getOp();
+        if (window.getPartitionExpressions().isEmpty() || window.getOrderByElements().isEmpty() ||
+                !window.getPartitionExpressions().stream().allMatch(ScalarOperator::isColumnRef)) {
+            return false;
+        }
+        if (!window.getWindowCall().values().stream().allMatch(call -> TopNType.parse(call.getFnName()) != null)) {
+            return false;
+        }
+        // the partition TopN has been pushed down
+        return !(input.inputAt(0).inputAt(0).getOp() instanceof LogicalPartitionTopNOperator);
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        LogicalFilterOperator filter = (LogicalFilterOperator) input.getOp();
+        OptExpression windowExpression = input.inputAt(0);
+        LogicalWindowOperator window = (LogicalWindowOperator) windowExpression.getOp();
+
+        long partitionLimit = Long.MAX_VALUE;
+        TopNType topNType = null;
+        for (ScalarOperator conjunct : Utils.extractConjuncts(filter.getPredicate())) {
+            if (!(conjunct instanceof BinaryPredicateOperator) || !conjunct.getChild(0).isColumnRef() ||
+                    !(conjunct.getChild(1) instanceof ConstantOperator)) {
+                continue;
+            }
+            CallOperator call = window.getWindowCall().get((ColumnRefOperator) conjunct.getChild(0));
+            long limit = getPartitionLimit((BinaryPredicateOperator) conjunct);
+            if (call != null && limit > 0 && limit < partitionLimit) {
+                partitionLimit = limit;
+                topNType = TopNType.parse(call.getFnName());
+            }
+        }
+        if (topNType == null) {
+            return Collections.emptyList();
+        }
+
+        List<ColumnRefOperator> partitionByColumns = window.getPartitionExpressions().stream()
+                .map(ColumnRefOperator.class::cast).collect(Collectors.toList());
+        LogicalPartitionTopNOperator partialTopN = new LogicalPartitionTopNOperator(partitionByColumns,
+                window.getOrderByElements(), partitionLimit, topNType, SortPhase.PARTIAL);
+        LogicalPartitionTopNOperator finalTopN = new LogicalPartitionTopNOperator(partitionByColumns,
+                window.getOrderByElements(), partitionLimit, topNType, SortPhase.FINAL);
+
+        OptExpression topNExpression = OptExpression.create(finalTopN,
+                OptExpression.create(partialTopN, windowExpression.getInputs()));
+        OptExpression newWindowExpression = OptExpression.create(window, topNExpression);
+        return Lists.newArrayList(OptExpression.create(filter, newWindowExpression));
+    }
+
+    // rank <= n and rank = n need the rows whose rank <= n, rank < n needs the rows whose rank <= n - 1.
+    // 0 means the predicate can't limit the rank.
+    private static long getPartitionLimit(BinaryPredicateOperator predicate) {
+        ConstantOperator constant = (ConstantOperator) predicate.getChild(1);
+        if (constant.isNull() || !constant.getType().isIntegerType()) {
+            return 0;
+        }
+        long value;
+        try {
+            value = Long.parseLong(constant.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        switch (predicate.getBinaryType()) {
+            case EQ:
+            case LE:
+                return value;
+            case LT:
+                return value - 1;
+            default:
+                return 0;
+        }
+    }
+}
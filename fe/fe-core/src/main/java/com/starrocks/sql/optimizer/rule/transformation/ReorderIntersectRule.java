@@ -2,7 +2,6 @@
 package com.starrocks.sql.optimizer.rule.transformation;
 
 import com.google.common.collect.Lists;
-import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptimizerContext;
 import com.starrocks.sql.optimizer.operator.OperatorType;
@@ -26,7 +25,7 @@ public class ReorderIntersectRule extends TransformationRule {
     public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
         LogicalIntersectOperator intersectOperator = (LogicalIntersectOperator) input.getOp();
         OptExpression intersectOpt = input.getGroupExpression().getGroup().extractLogicalTree();
-        calculateStatistics(intersectOpt, context);
+        StatisticsCalculator.calculateStatistics(intersectOpt, context);
         OptExpression o = intersectOpt.getInputs().stream().min(
                 Comparator.comparingDouble(c -> c.getStatistics().getOutputRowCount())).get();
 
@@ -48,21 +47,4 @@ public class ReorderIntersectRule extends TransformationRule {
                 new LogicalIntersectOperator.Builder().withOperator(intersectOperator)
                         .setChildOutputColumns(childOutputColumns).build(), newChildList));
     }
-
-    private void calculateStatistics(OptExpression expr, OptimizerContext context) {
-        // Avoid repeated calculate
-        if (expr.getStatistics() != null) {
-            return;
-        }
-
-        for (OptExpression child : expr.getInputs()) {
-            calculateStatistics(child, context);
-        }
-
-        ExpressionContext expressionContext = new ExpressionContext(expr);
-        StatisticsCalculator statisticsCalculator = new StatisticsCalculator(
-                expressionContext, context.getColumnRefFactory(), context);
-        statisticsCalculator.estimatorStats();
-        expr.setStatistics(expressionContext.getStatistics());
-    }
 }
@@ -0,0 +1,171 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.Expr;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.PlannerProfile;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.AggType;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.statistics.SkewEstimator;
+import com.starrocks.sql.optimizer.statistics.StatisticsCalculator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// All the rows of a hot grouping key are shuffled to the same instance by the aggregation, and the streaming
+// preaggregation passes the rows through when the local aggregation doesn't reduce them enough. Salt the
+// grouping keys skewed by a heavy hitter (see SkewEstimator) with a random bucket, so the rows of the hot key
+// are spread among the instances and aggregated partially before they are merged by the grouping keys:
+//
+//     Agg(group by k, f(x))             Agg(group by k, merge(p))
+//             |                 =>                  |
+//           Child                  Agg(group by k, salt, p = f(x))
+//                                                   |
+//                                  Project(*, salt = floor(rand() * N))
+//                                                   |
+//                                                 Child
+//
+// N is the number of instances of the shuffle. Only the aggregate functions which can be merged from the
+// partial results are supported: SUM, COUNT, MIN and MAX. The grouping keys are not empty, so every group
+// of the merge aggregation has a partial result, and the sum of counts is never NULL.
+public class SaltSkewedAggregationRule extends TransformationRule {
+    private static final String SALT_COLUMN_NAME = "skew_salt";
+
+    public SaltSkewedAggregationRule() {
+        super(RuleType.TF_SALT_SKEWED_AGGREGATION, Pattern.create(OperatorType.LOGICAL_AGGR)
+                .addChildren(Pattern.create(OperatorType.PATTERN_LEAF)));
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        if (!context.getSessionVariable().isEnableSkewOptimize()) {
+            return false;
+        }
+        LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+        if (!aggregation.getType().isGlobal() || aggregation.isSplit() || aggregation.getGroupingKeys().isEmpty()) {
+            return false;
+        }
+        // neither the partial nor the merge aggregation of a salted aggregation is salted again
+        if (input.inputAt(0).getOp() instanceof LogicalAggregationOperator ||
+                aggregation.getGroupingKeys().stream().anyMatch(key -> SALT_COLUMN_NAME.equals(key.getName()))) {
+            return false;
+        }
+        for (CallOperator call : aggregation.getAggregations().values()) {
+            if (call.isDistinct() || getMergeFunctionName(call.getFnName()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+        int instanceNum = SkewEstimator.estimateInstanceNum(context.getSessionVariable());
+        OptExpression child = input.getGroupExpression().getGroup().extractLogicalTree().inputAt(0);
+        StatisticsCalculator.calculateStatistics(child, context);
+        if (!SkewEstimator.isSkewedByHeavyHitter(child.getStatistics(), aggregation.getGroupingKeys(), instanceNum,
+                context.getSessionVariable().getSkewFactorThreshold())) {
+            return Collections.emptyList();
+        }
+
+        ColumnRefFactory factory = context.getColumnRefFactory();
+        ScalarOperator salt = createSalt(instanceNum);
+        if (salt == null) {
+            return Collections.emptyList();
+        }
+        Map<ColumnRefOperator, CallOperator> partialAggregations = Maps.newHashMap();
+        Map<ColumnRefOperator, CallOperator> mergeAggregations = Maps.newHashMap();
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : aggregation.getAggregations().entrySet()) {
+            CallOperator call = entry.getValue();
+            ColumnRefOperator partial = factory.create(call, call.getType(), call.isNullable());
+            CallOperator merge = createMergeCall(call.getFnName(), partial, entry.getKey().getType());
+            if (merge == null) {
+                return Collections.emptyList();
+            }
+            partialAggregations.put(partial, call);
+            mergeAggregations.put(entry.getKey(), merge);
+        }
+
+        Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+        for (int columnId : input.getChildOutputColumns(0).getColumnIds()) {
+            ColumnRefOperator column = factory.getColumnRef(columnId);
+            projection.put(column, column);
+        }
+        ColumnRefOperator saltColumn = factory.create(SALT_COLUMN_NAME, salt.getType(), salt.isNullable());
+        projection.put(saltColumn, salt);
+
+        List<ColumnRefOperator> saltedKeys = Lists.newArrayList(aggregation.getGroupingKeys());
+        saltedKeys.add(saltColumn);
+        LogicalAggregationOperator partialAggregation =
+                new LogicalAggregationOperator(AggType.GLOBAL, saltedKeys, partialAggregations);
+        LogicalAggregationOperator mergeAggregation = new LogicalAggregationOperator.Builder()
+                .withOperator(aggregation).setAggregations(mergeAggregations).build();
+
+        PlannerProfile.addSkewDecision("Aggregate(group by " + aggregation.getGroupingKeys() + "): salt into " +
+                instanceNum + " buckets");
+        return Lists.newArrayList(OptExpression.create(mergeAggregation,
+                OptExpression.create(partialAggregation,
+                        OptExpression.create(new LogicalProjectOperator(projection), input.getInputs()))));
+    }
+
+    private static String getMergeFunctionName(String fnName) {
+        switch (fnName) {
+            case FunctionSet.SUM:
+            case FunctionSet.COUNT:
+                return FunctionSet.SUM;
+            case FunctionSet.MIN:
+            case FunctionSet.MAX:
+                return fnName;
+            default:
+                return null;
+        }
+    }
+
+    private static CallOperator createMergeCall(String fnName, ColumnRefOperator partial, Type returnType) {
+        // the result type of decimal v3 sum depends on the input precision, don't merge it
+        if (partial.getType().isDecimalV3()) {
+            return null;
+        }
+        String mergeFnName = getMergeFunctionName(fnName);
+        Function fn = Expr.getBuiltinFunction(mergeFnName, new Type[] {partial.getType()},
+                Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF);
+        if (fn == null || !fn.getReturnType().equals(returnType)) {
+            return null;
+        }
+        return new CallOperator(mergeFnName, returnType, Lists.newArrayList(partial), fn);
+    }
+
+    // floor(rand() * N), a random bucket in [0, N)
+    private static ScalarOperator createSalt(int buckets) {
+        Function rand = Expr.getBuiltinFunction(FunctionSet.RAND, new Type[] {}, Function.CompareMode.IS_IDENTICAL);
+        Function multiply = Expr.getBuiltinFunction(FunctionSet.MULTIPLY, new Type[] {Type.DOUBLE, Type.DOUBLE},
+                Function.CompareMode.IS_IDENTICAL);
+        Function floor = Expr.getBuiltinFunction(FunctionSet.FLOOR, new Type[] {Type.DOUBLE},
+                Function.CompareMode.IS_IDENTICAL);
+        if (rand == null || multiply == null || floor == null) {
+            return null;
+        }
+        CallOperator random = new CallOperator(FunctionSet.RAND, Type.DOUBLE, Lists.newArrayList(), rand);
+        CallOperator scaled = new CallOperator(FunctionSet.MULTIPLY, Type.DOUBLE,
+                Lists.newArrayList(random, ConstantOperator.createDouble(buckets)), multiply);
+        return new CallOperator(FunctionSet.FLOOR, floor.getReturnType(), Lists.newArrayList(scaled), floor);
+    }
+}
@@ -8,9 +8,11 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
 import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.sql.optimizer.base.ColumnIdentifier;
 import com.starrocks.thrift.TGlobalDict;
@@ -19,7 +21,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,13 +32,29 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.starrocks.statistic.StatisticExecutor.queryDictSync;
 
+/**
+ * The global dicts are maintained incrementally.
+ * When a load finds values not in the dict of a column, the dict is marked as stale instead of being removed,
+ * so the following loads can still check their values with it. The next query which wants to use the stale dict
+ * reloads the dict in background, and merges the reloaded values into the old dict, the codes of the old values
+ * are kept and the new values get appended codes. The dict is replaced by the reloaded one to drop the deleted
+ * values after being merged Config.low_cardinality_dict_max_merge_times times, if the merged dict is too large,
+ * or if the appended codes would break the order of the values.
+ */
 public class CacheDictManager implements IDictManager {
     private static final Logger LOG = LogManager.getLogger(CacheDictManager.class);
     private static final Set<ColumnIdentifier> noDictStringColumns = Sets.newConcurrentHashSet();
     private static final Set<Long> forbiddenDictTableIds = Sets.newConcurrentHashSet();
+    // columns whose dict miss some values of loaded data
+    private static final Set<ColumnIdentifier> staleDictColumns = Sets.newConcurrentHashSet();
+    private static final Set<ColumnIdentifier> refreshingDictColumns = Sets.newConcurrentHashSet();
+    // the order of dict values in BE, MIN/MAX on dict columns compare the codes instead of the values
+    private static final Comparator<String> DICT_VALUE_ORDER = Comparator.comparing(
+            value -> value.getBytes(StandardCharsets.UTF_8), UnsignedBytes.lexicographicalComparator());
 
     public static final Integer LOW_CARDINALITY_THRESHOLD = 255;
 
@@ -203,9 +223,10 @@ public class CacheDictManager implements IDictManager {
             if (!realResult.isPresent()) {
                 LOG.debug("Invalidate column {} dict cache because don't present", columnName);
                 dictStatistics.synchronous().invalidate(columnIdentifier);
-            } else if (realResult.get().getVersionTime() < versionTime) {
-                LOG.debug("Invalidate column {} dict cache because out of date", columnName);
-                dictStatistics.synchronous().invalidate(columnIdentifier);
+            } else if (staleDictColumns.contains(columnIdentifier) || realResult.get().getVersionTime() < versionTime) {
+                LOG.debug("Refresh column {} dict cache because out of date", columnName);
+                refreshGlobalDict(columnIdentifier);
+                return false;
             } else {
                 return true;
             }
@@ -230,11 +251,87 @@ public class CacheDictManager implements IDictManager {
         return dictStatistics.asMap().containsKey(columnIdentifier);
     }
 
+    // The dict is kept for checking the values of loads, and will be refreshed incrementally when being queried
     @Override
     public void removeGlobalDict(long tableId, String columnName) {
-        LOG.debug("remove dict for column {}", columnName);
+        LOG.debug("mark dict stale for column {}", columnName);
         ColumnIdentifier columnIdentifier = new ColumnIdentifier(tableId, columnName);
-        dictStatistics.synchronous().invalidate(columnIdentifier);
+        if (dictStatistics.synchronous().asMap().containsKey(columnIdentifier)) {
+            staleDictColumns.add(columnIdentifier);
+        }
+    }
+
+    /**
+     * Reload the dict of column in background and merge it into the cached dict.
+     * The stale mark is cleared before reloading, so a load committed during reloading marks it again.
+     */
+    private void refreshGlobalDict(ColumnIdentifier columnIdentifier) {
+        if (!refreshingDictColumns.add(columnIdentifier)) {
+            return;
+        }
+        staleDictColumns.remove(columnIdentifier);
+        dictLoader.asyncLoad(columnIdentifier, ForkJoinPool.commonPool()).whenComplete((newDict, e) -> {
+            try {
+                if (e != null || !newDict.isPresent()) {
+                    LOG.debug("Invalidate column {} dict cache because reload failed", columnIdentifier, e);
+                    dictStatistics.synchronous().invalidate(columnIdentifier);
+                    return;
+                }
+                dictStatistics.synchronous().asMap().computeIfPresent(columnIdentifier,
+                        (k, oldDict) -> mergeColumnDict(k, oldDict, newDict.get()));
+            } finally {
+                refreshingDictColumns.remove(columnIdentifier);
+            }
+        });
+    }
+
+    /**
+     * Merge the values of newDict into oldDict, the codes of values in oldDict are kept, and the new values
+     * get the codes following the max code of oldDict. The codes must keep the order of the values, so if
+     * some new value sorts before the max value of oldDict, the reloaded dict is used instead.
+     */
+    static Optional<ColumnDict> mergeColumnDict(ColumnIdentifier columnIdentifier, Optional<ColumnDict> oldDict,
+                                                ColumnDict newDict) {
+        if (!oldDict.isPresent() || oldDict.get().getMergedTimes() >= Config.low_cardinality_dict_max_merge_times) {
+            return Optional.of(newDict);
+        }
+
+        ImmutableMap<String, Integer> oldValues = oldDict.get().getDict();
+        String maxValue = oldValues.entrySet().stream().max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey).orElse(null);
+        List<String> newValues = new ArrayList<>();
+        for (String value : newDict.getDict().keySet()) {
+            if (!oldValues.containsKey(value)) {
+                if (maxValue != null && DICT_VALUE_ORDER.compare(value, maxValue) < 0) {
+                    LOG.debug("replace column {} dict because new values can't be appended in order",
+                            columnIdentifier.getColumnName());
+                    return Optional.of(newDict);
+                }
+                newValues.add(value);
+            }
+        }
+        newValues.sort(DICT_VALUE_ORDER);
+
+        Map<String, Integer> values = new HashMap<>(oldValues);
+        int nextCode = oldValues.isEmpty() ? 1 : oldValues.get(maxValue) + 1;
+        for (String value : newValues) {
+            values.put(value, nextCode++);
+        }
+        if (values.size() > LOW_CARDINALITY_THRESHOLD + 1) {
+            // the deleted values may be still in old dict, use the reloaded dict directly
+            LOG.debug("replace column {} dict because merged dict is too large", columnIdentifier.getColumnName());
+            return Optional.of(newDict);
+        }
+
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_GLOBAL_DICT_MERGE.increase(1L);
+        }
+        return Optional.of(new ColumnDict(ImmutableMap.copyOf(values), newDict.getVersionTime(),
+                oldDict.get().getMergedTimes() + 1));
+    }
+
+    public static long getCachedDictNum() {
+        return getInstance().dictStatistics.synchronous().estimatedSize();
     }
 
     @Override
@@ -250,10 +347,15 @@ public class CacheDictManager implements IDictManager {
             return;
         }
 
+        // the values of previous loads are missing in a stale dict, it can't be made up to date
+        if (staleDictColumns.contains(columnIdentifier)) {
+            return;
+        }
+
         Optional<ColumnDict> columnDictOptional = dictStatistics.synchronous().get(columnIdentifier);
         Preconditions.checkState(columnDictOptional != null && columnDictOptional.isPresent());
         ColumnDict columnDict = columnDictOptional.get();
-        ColumnDict newColumnDict = new ColumnDict(columnDict.getDict(), versionTime);
+        ColumnDict newColumnDict = new ColumnDict(columnDict.getDict(), versionTime, columnDict.getMergedTimes());
         dictStatistics.synchronous().put(columnIdentifier, Optional.of(newColumnDict));
         LOG.debug("update dict for column {}, version {}", columnName, versionTime);
     }
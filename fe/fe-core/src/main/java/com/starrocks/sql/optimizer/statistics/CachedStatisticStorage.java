@@ -18,6 +18,7 @@ import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.ErrorCode;
 import com.starrocks.common.ErrorReport;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.statistic.StatisticExecutor;
 import com.starrocks.statistic.StatisticUtils;
 import com.starrocks.thrift.TStatisticData;
@@ -29,6 +30,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +40,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.starrocks.sql.optimizer.Utils.getLongFromDateTime;
 
@@ -117,6 +120,13 @@ public class CachedStatisticStorage implements StatisticStorage {
             .maximumSize(Config.statistic_cache_columns)
             .buildAsync(loader);
 
+    // (table id, column) -> statistics of all collected partitions
+    AsyncLoadingCache<CacheKey, Map<Long, PartitionColumnStatistic>> cachedPartitionStatistics = Caffeine.newBuilder()
+            .expireAfterWrite(Config.statistic_update_interval_sec * 2, TimeUnit.SECONDS)
+            .refreshAfterWrite(Config.statistic_update_interval_sec, TimeUnit.SECONDS)
+            .maximumSize(Config.statistic_cache_columns)
+            .buildAsync(this::loadPartitionStatistics);
+
     @Override
     public void expireColumnStatistics(Table table, List<String> columns) {
         List<CacheKey> allKeys = Lists.newArrayList();
@@ -125,6 +135,16 @@ public class CachedStatisticStorage implements StatisticStorage {
             allKeys.add(key);
         }
         cachedStatistics.synchronous().invalidateAll(allKeys);
+        cachedPartitionStatistics.synchronous().invalidateAll(allKeys);
+    }
+
+    private Map<Long, PartitionColumnStatistic> loadPartitionStatistics(CacheKey cacheKey) throws Exception {
+        Map<Long, PartitionColumnStatistic> result = new HashMap<>();
+        for (TStatisticData data : statisticExecutor.queryPartitionStatisticSync(cacheKey.tableId,
+                ImmutableList.of(cacheKey.column))) {
+            result.put(data.partitionId, new PartitionColumnStatistic(data.rowCount, convert2ColumnStatistics(data)));
+        }
+        return result;
     }
 
     private List<TStatisticData> queryStatisticsData(long tableId, String column) throws Exception {
@@ -204,7 +224,9 @@ public class CachedStatisticStorage implements StatisticStorage {
             return ColumnStatistic.unknown();
         }
 
+        long startTime = System.nanoTime();
         CompletableFuture<Optional<ColumnStatistic>> result = cachedStatistics.get(new CacheKey(table.getId(), column));
+        PlannerProfile.addStatsLookup(result.isDone(), System.nanoTime() - startTime);
         if (result.isDone()) {
             Optional<ColumnStatistic> realResult;
             try {
@@ -246,7 +268,9 @@ public class CachedStatisticStorage implements StatisticStorage {
             cacheKeys.add(new CacheKey(tableId, column));
         }
 
+        long startTime = System.nanoTime();
         CompletableFuture<Map<CacheKey, Optional<ColumnStatistic>>> result = cachedStatistics.getAll(cacheKeys);
+        PlannerProfile.addStatsLookup(result.isDone(), System.nanoTime() - startTime);
         if (result.isDone()) {
             List<ColumnStatistic> columnStatistics = new ArrayList<>();
             Map<CacheKey, Optional<ColumnStatistic>> realResult;
@@ -271,10 +295,104 @@ public class CachedStatisticStorage implements StatisticStorage {
         }
     }
 
+    /**
+     * Merge the statistics of the selected partitions if all of them are collected, otherwise
+     * return the table statistics
+     */
+    @Override
+    public List<ColumnStatistic> getColumnStatistics(Table table, Collection<Long> partitionIds,
+                                                     List<String> columns) {
+        List<ColumnStatistic> tableStatistics = getColumnStatistics(table, columns);
+        if (!Config.enable_partition_statistic_collect || partitionIds.isEmpty()
+                || StatisticUtils.statisticTableBlackListCheck(table.getId())
+                || !StatisticUtils.checkPartitionStatisticTableStateNormal()) {
+            return tableStatistics;
+        }
+
+        List<ColumnStatistic> columnStatistics = new ArrayList<>();
+        for (int i = 0; i < columns.size(); ++i) {
+            long startTime = System.nanoTime();
+            CompletableFuture<Map<Long, PartitionColumnStatistic>> result =
+                    cachedPartitionStatistics.get(new CacheKey(table.getId(), columns.get(i)));
+            PlannerProfile.addStatsLookup(result.isDone(), System.nanoTime() - startTime);
+
+            ColumnStatistic columnStatistic = tableStatistics.get(i);
+            if (result.isDone()) {
+                try {
+                    Map<Long, PartitionColumnStatistic> partitionStatistics = result.get();
+                    if (partitionStatistics.keySet().containsAll(partitionIds)) {
+                        columnStatistic = mergePartitionStatistics(
+                                partitionIds.stream().map(partitionStatistics::get).collect(Collectors.toList()),
+                                columnStatistic);
+                    }
+                } catch (Exception e) {
+                    LOG.warn(e);
+                }
+            }
+            columnStatistics.add(columnStatistic);
+        }
+        return columnStatistics;
+    }
+
+    /**
+     * Row count, null count and data size of partitions are added up, min and max are the bounds of all
+     * partitions. The ndv of partitions can't be added up because the values may overlap, it is bounded by
+     * the max ndv of partitions and the table ndv.
+     */
+    static ColumnStatistic mergePartitionStatistics(List<PartitionColumnStatistic> partitionStatistics,
+                                                    ColumnStatistic tableStatistic) {
+        double rowCount = 0;
+        double nullCount = 0;
+        double dataSize = 0;
+        double maxDistinctValues = 0;
+        double sumDistinctValues = 0;
+        double minValue = Double.POSITIVE_INFINITY;
+        double maxValue = Double.NEGATIVE_INFINITY;
+        for (PartitionColumnStatistic partitionStatistic : partitionStatistics) {
+            ColumnStatistic statistic = partitionStatistic.statistic;
+            rowCount += partitionStatistic.rowCount;
+            nullCount += statistic.getNullsFraction() * partitionStatistic.rowCount;
+            dataSize += statistic.getAverageRowSize() * partitionStatistic.rowCount;
+            maxDistinctValues = Math.max(maxDistinctValues, statistic.getDistinctValuesCount());
+            sumDistinctValues += statistic.getDistinctValuesCount();
+            // min and max of empty partition are unknown
+            if (partitionStatistic.rowCount > 0) {
+                minValue = Math.min(minValue, statistic.getMinValue());
+                maxValue = Math.max(maxValue, statistic.getMaxValue());
+            }
+        }
+        if (minValue > maxValue) {
+            minValue = Double.NEGATIVE_INFINITY;
+            maxValue = Double.POSITIVE_INFINITY;
+        }
+
+        double distinctValues = sumDistinctValues;
+        if (!tableStatistic.isUnknown()) {
+            distinctValues = Math.min(distinctValues, tableStatistic.getDistinctValuesCount());
+        }
+        distinctValues = Math.max(distinctValues, maxDistinctValues);
+
+        return ColumnStatistic.builder().setMinValue(minValue).
+                setMaxValue(maxValue).
+                setDistinctValuesCount(Math.max(distinctValues, 1)).
+                setAverageRowSize(dataSize / Math.max(rowCount, 1)).
+                setNullsFraction(nullCount / Math.max(rowCount, 1)).build();
+    }
+
     public void addColumnStatistic(Table table, String column, ColumnStatistic columnStatistic) {
         this.cachedStatistics.synchronous().put(new CacheKey(table.getId(), column), Optional.of(columnStatistic));
     }
 
+    static class PartitionColumnStatistic {
+        private final long rowCount;
+        private final ColumnStatistic statistic;
+
+        public PartitionColumnStatistic(long rowCount, ColumnStatistic statistic) {
+            this.rowCount = rowCount;
+            this.statistic = statistic;
+        }
+    }
+
     static class CacheKey {
         private final long tableId;
         private final String column;
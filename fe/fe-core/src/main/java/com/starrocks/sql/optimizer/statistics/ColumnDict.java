@@ -8,11 +8,19 @@ import com.google.common.collect.ImmutableMap;
 public final class ColumnDict {
     private final ImmutableMap<String, Integer> dict;
     private final long versionTime;
+    // the times of merging new values into the dict since it is collected,
+    // the codes of values are kept and the new values are appended
+    private final int mergedTimes;
 
     public ColumnDict(ImmutableMap<String, Integer> dict, long versionTime) {
+        this(dict, versionTime, 0);
+    }
+
+    public ColumnDict(ImmutableMap<String, Integer> dict, long versionTime, int mergedTimes) {
         Preconditions.checkState(dict.size() > 0 && dict.size() <= 256);
         this.dict = dict;
         this.versionTime = versionTime;
+        this.mergedTimes = mergedTimes;
     }
 
     public ImmutableMap<String, Integer> getDict() {
@@ -22,4 +30,8 @@ public final class ColumnDict {
     public long getVersionTime() {
         return versionTime;
     }
-}
\ No newline at end of file
+
+    public int getMergedTimes() {
+        return mergedTimes;
+    }
+}
@@ -0,0 +1,91 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.starrocks.catalog.Catalog;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+
+import java.util.Collection;
+
+/**
+ * Estimate the skew of hash distribution on some columns from the column statistics.
+ * <p>
+ * The rows of the hottest key are sent to the same instance by hash distribution. Without histograms,
+ * the hottest key of a column is either NULL, whose share is the nulls fraction, or any value of a
+ * low NDV column, whose share is (1 - nulls fraction) / NDV. The share of the hottest key of multi
+ * columns is estimated as the product of the columns, as the columns are regarded as independent.
+ * <p>
+ * The skew factor is the rows of the hottest instance divided by the average rows of instances, it's 1
+ * for uniform distribution. Unknown statistics are regarded as not skewed.
+ * <p>
+ * The hottest key is a heavy hitter only if it's NULL of some column, which is hotter than any value of the
+ * column. The values of a low NDV column have the same share, so the local aggregation reduces their rows
+ * well, while all the NULLs of a heavy hitter column are sent to one instance.
+ */
+public class SkewEstimator {
+    private SkewEstimator() {
+    }
+
+    // The number of instances among which the rows are distributed by hash, it's shared by the cost model and
+    // the rewrite rules, so they agree on whether a distribution is skewed
+    public static int estimateInstanceNum(SessionVariable sessionVariable) {
+        return Math.max(1, Catalog.getCurrentSystemInfo().getBackendIds(true).size()) *
+                Math.max(1, sessionVariable.getDegreeOfParallelism());
+    }
+
+    public static double estimateHotKeyShare(Statistics statistics, Collection<ColumnRefOperator> columns) {
+        if (statistics == null || columns.isEmpty()) {
+            return 0;
+        }
+        double share = 1;
+        for (ColumnRefOperator column : columns) {
+            ColumnStatistic columnStatistic = statistics.getColumnStatistics().get(column);
+            if (columnStatistic == null || columnStatistic.isUnknown()) {
+                return 0;
+            }
+            double nullsFraction = columnStatistic.getNullsFraction();
+            double valueShare = (1 - nullsFraction) / Math.max(1, columnStatistic.getDistinctValuesCount());
+            share *= Math.max(nullsFraction, valueShare);
+        }
+        return share;
+    }
+
+    public static double estimateHeavyHitterShare(Statistics statistics, Collection<ColumnRefOperator> columns) {
+        if (statistics == null) {
+            return 0;
+        }
+        for (ColumnRefOperator column : columns) {
+            ColumnStatistic columnStatistic = statistics.getColumnStatistics().get(column);
+            if (columnStatistic != null && !columnStatistic.isUnknown() && columnStatistic.getNullsFraction() >
+                    (1 - columnStatistic.getNullsFraction()) / Math.max(1, columnStatistic.getDistinctValuesCount())) {
+                return estimateHotKeyShare(statistics, columns);
+            }
+        }
+        return 0;
+    }
+
+    public static double estimateSkewFactor(Statistics statistics, Collection<ColumnRefOperator> columns,
+                                            int instanceNum) {
+        return estimateSkewFactor(statistics, estimateHotKeyShare(statistics, columns), instanceNum);
+    }
+
+    private static double estimateSkewFactor(Statistics statistics, double hotKeyShare, int instanceNum) {
+        if (statistics == null || instanceNum <= 1) {
+            return 1;
+        }
+        // few rows can't fill all the instances
+        double instances = Math.min(instanceNum, Math.max(1, statistics.getOutputRowCount()));
+        return Math.max(1, hotKeyShare * instances);
+    }
+
+    public static boolean isSkewed(Statistics statistics, Collection<ColumnRefOperator> columns, int instanceNum,
+                                   double threshold) {
+        return estimateSkewFactor(statistics, columns, instanceNum) >= threshold;
+    }
+
+    public static boolean isSkewedByHeavyHitter(Statistics statistics, Collection<ColumnRefOperator> columns,
+                                                int instanceNum, double threshold) {
+        return estimateSkewFactor(statistics, estimateHeavyHitterShare(statistics, columns), instanceNum) >= threshold;
+    }
+}
@@ -4,6 +4,7 @@ package com.starrocks.sql.optimizer.statistics;
 
 import com.starrocks.catalog.Table;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface StatisticStorage {
@@ -11,6 +12,14 @@ public interface StatisticStorage {
 
     List<ColumnStatistic> getColumnStatistics(Table table, List<String> columns);
 
+    /**
+     * Get the column statistics of the selected partitions, fall back to table statistics by default
+     */
+    default List<ColumnStatistic> getColumnStatistics(Table table, Collection<Long> partitionIds,
+                                                      List<String> columns) {
+        return getColumnStatistics(table, columns);
+    }
+
     void expireColumnStatistics(Table table, List<String> columns);
 
     void addColumnStatistic(Table table, String column, ColumnStatistic columnStatistic);
@@ -39,6 +39,8 @@ import com.starrocks.sql.optimizer.OptimizerContext;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.LogicalProperty;
+import com.starrocks.sql.optimizer.operator.AggType;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.operator.OperatorVisitor;
 import com.starrocks.sql.optimizer.operator.Projection;
@@ -62,6 +64,7 @@ import com.starrocks.sql.optimizer.operator.logical.LogicalMetaScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalMysqlScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalScanOperator;
@@ -91,6 +94,7 @@ import com.starrocks.sql.optimizer.operator.physical.PhysicalMysqlScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalNoCTEOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalProjectOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalScanOperator;
@@ -106,6 +110,7 @@ import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.PredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.optimizer.rule.transformation.JoinPredicateUtils;
+import com.starrocks.statistic.StatisticFeedbackStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.mortbay.log.Log;
@@ -151,6 +156,27 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         expressionContext.getOp().accept(this, expressionContext);
     }
 
+    /**
+     * Calculate the statistics of a logical tree extracted from memo bottom up, which is used by the rewrite
+     * rules applied before the statistics are derived in memo.
+     */
+    public static void calculateStatistics(OptExpression expr, OptimizerContext context) {
+        // Avoid repeated calculate
+        if (expr.getStatistics() != null) {
+            return;
+        }
+
+        for (OptExpression child : expr.getInputs()) {
+            calculateStatistics(child, context);
+        }
+
+        ExpressionContext expressionContext = new ExpressionContext(expr);
+        StatisticsCalculator statisticsCalculator = new StatisticsCalculator(
+                expressionContext, context.getColumnRefFactory(), context);
+        statisticsCalculator.estimatorStats();
+        expr.setStatistics(expressionContext.getStatistics());
+    }
+
     @Override
     public Void visitOperator(Operator node, ExpressionContext context) {
         ScalarOperator predicate = null;
@@ -197,24 +223,27 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
 
     @Override
     public Void visitLogicalOlapScan(LogicalOlapScanOperator node, ExpressionContext context) {
+        String feedbackPredicate = optimizerContext.getSessionVariable().isEnableStatisticsFeedback() ?
+                StatisticFeedbackStore.normalizePredicate(node.getPredicate()) : null;
         return computeOlapScanNode(node, context, node.getTable(), node.getSelectedPartitionId(),
-                node.getColRefToColumnMetaMap());
+                node.getColRefToColumnMetaMap(), feedbackPredicate);
     }
 
     @Override
     public Void visitPhysicalOlapScan(PhysicalOlapScanOperator node, ExpressionContext context) {
         return computeOlapScanNode(node, context, node.getTable(), node.getSelectedPartitionId(),
-                node.getColRefToColumnMetaMap());
+                node.getColRefToColumnMetaMap(), node.getFeedbackPredicate());
     }
 
     private Void computeOlapScanNode(Operator node, ExpressionContext context, Table table,
                                      Collection<Long> selectedPartitionIds,
-                                     Map<ColumnRefOperator, Column> colRefToColumnMetaMap) {
+                                     Map<ColumnRefOperator, Column> colRefToColumnMetaMap,
+                                     String feedbackPredicate) {
         Preconditions.checkState(context.arity() == 0);
         // 1. get table row count
         long tableRowCount = getTableRowCount(table, node);
         // 2. get required columns statistics
-        Statistics.Builder builder = estimateScanColumns(table, colRefToColumnMetaMap);
+        Statistics.Builder builder = estimateScanColumns(table, selectedPartitionIds, colRefToColumnMetaMap);
         if (tableRowCount <= 1) {
             builder.setTableRowCountMayInaccurate(true);
         }
@@ -234,7 +263,20 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         builder.setOutputRowCount(tableRowCount);
         // 4. estimate cardinality
         context.setStatistics(builder.build());
-        return visitOperator(node, context);
+        visitOperator(node, context);
+        // 5. correct the cardinality by the actual rows of the same predicate executed before
+        if (feedbackPredicate != null) {
+            double correction = StatisticFeedbackStore.getInstance().getCorrection(table.getId(), feedbackPredicate);
+            if (correction != 1) {
+                Statistics statistics = context.getStatistics();
+                double rowCount = min(max(tableRowCount, 1), max(1, statistics.getOutputRowCount() * correction));
+                if (node.hasLimit()) {
+                    rowCount = min(rowCount, node.getLimit());
+                }
+                context.setStatistics(Statistics.buildFrom(statistics).setOutputRowCount(rowCount).build());
+            }
+        }
+        return null;
     }
 
     @Override
@@ -348,10 +390,24 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
     }
 
     private Statistics.Builder estimateScanColumns(Table table, Map<ColumnRefOperator, Column> colRefToColumnMetaMap) {
+        return estimateScanColumns(table, null, colRefToColumnMetaMap);
+    }
+
+    // use the statistics of selected partitions if the scan is pruned by partition
+    private Statistics.Builder estimateScanColumns(Table table, Collection<Long> selectedPartitionIds,
+                                                   Map<ColumnRefOperator, Column> colRefToColumnMetaMap) {
         Statistics.Builder builder = Statistics.builder();
         List<ColumnRefOperator> requiredColumns = new ArrayList<>(colRefToColumnMetaMap.keySet());
-        List<ColumnStatistic> columnStatisticList = Catalog.getCurrentStatisticStorage().getColumnStatistics(table,
-                requiredColumns.stream().map(ColumnRefOperator::getName).collect(Collectors.toList()));
+        List<String> columnNames =
+                requiredColumns.stream().map(ColumnRefOperator::getName).collect(Collectors.toList());
+        List<ColumnStatistic> columnStatisticList;
+        if (selectedPartitionIds != null && !selectedPartitionIds.isEmpty() && table instanceof OlapTable
+                && selectedPartitionIds.size() < ((OlapTable) table).getPartitions().size()) {
+            columnStatisticList = Catalog.getCurrentStatisticStorage()
+                    .getColumnStatistics(table, selectedPartitionIds, columnNames);
+        } else {
+            columnStatisticList = Catalog.getCurrentStatisticStorage().getColumnStatistics(table, columnNames);
+        }
         Preconditions.checkState(requiredColumns.size() == columnStatisticList.size());
         for (int i = 0; i < requiredColumns.size(); ++i) {
             builder.addColumnStatistic(requiredColumns.get(i), columnStatisticList.get(i));
@@ -622,15 +678,16 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
 
     @Override
     public Void visitLogicalAggregation(LogicalAggregationOperator node, ExpressionContext context) {
-        return computeAggregateNode(node, context, node.getGroupingKeys(), node.getAggregations());
+        return computeAggregateNode(node, context, node.getType(), node.getGroupingKeys(), node.getAggregations());
     }
 
     @Override
     public Void visitPhysicalHashAggregate(PhysicalHashAggregateOperator node, ExpressionContext context) {
-        return computeAggregateNode(node, context, node.getGroupBys(), node.getAggregations());
+        return computeAggregateNode(node, context, node.getType(), node.getGroupBys(), node.getAggregations());
     }
 
-    private Void computeAggregateNode(Operator node, ExpressionContext context, List<ColumnRefOperator> groupBys,
+    private Void computeAggregateNode(Operator node, ExpressionContext context, AggType type,
+                                      List<ColumnRefOperator> groupBys,
                                       Map<ColumnRefOperator, CallOperator> aggregations) {
         Preconditions.checkState(context.arity() == 1);
         Statistics.Builder builder = Statistics.builder();
@@ -639,6 +696,10 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         //Update the statistics of the GroupBy column
         Map<ColumnRefOperator, ColumnStatistic> groupStatisticsMap = new HashMap<>();
         double rowCount = computeGroupByStatistics(groupBys, inputStatistics, groupStatisticsMap);
+        if (type.isLocal() && optimizerContext.getSessionVariable().isEnableCostBasedAggStage()) {
+            rowCount = computeLocalAggregateRowCount(rowCount, inputStatistics.getOutputRowCount(),
+                    getLocalAggregateInstanceNum(context));
+        }
 
         //Update Node Statistics
         builder.addColumnStatistics(groupStatisticsMap);
@@ -655,6 +716,32 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         return visitOperator(node, context);
     }
 
+    /**
+     * Estimate the output rows of the local aggregation. Each instance aggregates inputRows / instanceNum rows,
+     * which fall into groups * (1 - (1 - 1 / groups) ^ (inputRows / instanceNum)) groups if the rows are
+     * distributed to the groups uniformly, so the local aggregation reduces few rows if the groups are
+     * much more than the rows of each instance.
+     */
+    public static double computeLocalAggregateRowCount(double groups, double inputRows, int instanceNum) {
+        if (groups <= 1) {
+            return min(inputRows, instanceNum);
+        }
+        double rowsPerInstance = inputRows / instanceNum;
+        double groupsPerInstance = -groups * Math.expm1(rowsPerInstance * Math.log1p(-1 / groups));
+        return min(inputRows, groupsPerInstance * instanceNum);
+    }
+
+    // the local aggregation runs in each instance of its fragment, which is bounded by the scan tablets
+    private int getLocalAggregateInstanceNum(ExpressionContext context) {
+        int beNum = max(1, Catalog.getCurrentSystemInfo().getBackendIds(true).size());
+        int instanceNum = optimizerContext.getSessionVariable().getDegreeOfParallelism() * beNum;
+        LogicalProperty property = context.getRootProperty();
+        if (property != null && property.getLeftMostScanTabletsNum() > 0) {
+            instanceNum = min(instanceNum, property.getLeftMostScanTabletsNum());
+        }
+        return max(1, instanceNum);
+    }
+
     public static double computeGroupByStatistics(List<ColumnRefOperator> groupBys, Statistics inputStatistics,
                                                   Map<ColumnRefOperator, ColumnStatistic> groupStatisticsMap) {
         for (ColumnRefOperator groupByColumn : groupBys) {
@@ -1156,6 +1243,31 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         return visitOperator(node, context);
     }
 
+    @Override
+    public Void visitLogicalPartitionTopN(LogicalPartitionTopNOperator node, ExpressionContext context) {
+        return computePartitionTopNNode(context, node, node.getPartitionByColumns(), node.getPartitionLimit());
+    }
+
+    @Override
+    public Void visitPhysicalPartitionTopN(PhysicalPartitionTopNOperator node, ExpressionContext context) {
+        return computePartitionTopNNode(context, node, node.getPartitionByColumns(), node.getPartitionLimit());
+    }
+
+    private Void computePartitionTopNNode(ExpressionContext context, Operator node,
+                                          List<ColumnRefOperator> partitionByColumns, long partitionLimit) {
+        Preconditions.checkState(context.arity() == 1);
+
+        Statistics.Builder builder = Statistics.builder();
+        Statistics inputStatistics = context.getChildStatistics(0);
+        builder.addColumnStatistics(inputStatistics.getColumnStatistics());
+        // each partition outputs partitionLimit rows at most, ties of rank may output more, ignore them
+        double partitionCount = computeGroupByStatistics(partitionByColumns, inputStatistics, Maps.newHashMap());
+        builder.setOutputRowCount(min(inputStatistics.getOutputRowCount(), partitionCount * partitionLimit));
+
+        context.setStatistics(builder.build());
+        return visitOperator(node, context);
+    }
+
     @Override
     public Void visitLogicalAssertOneRow(LogicalAssertOneRowOperator node, ExpressionContext context) {
         return computeAssertOneRowNode(context);
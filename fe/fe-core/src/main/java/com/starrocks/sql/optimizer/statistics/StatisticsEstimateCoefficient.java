@@ -23,4 +23,6 @@ public class StatisticsEstimateCoefficient {
     public static final double OVERLAP_INFINITE_RANGE_FILTER_COEFFICIENT = 0.5;
     // used in compute extra cost for multi distinct function, estimate whether to trigger streaming
     public static final double STREAMING_EXTRA_COST_THRESHOLD_COEFFICIENT = 0.8;
+    // the partial aggregation is pushed below join only if it reduces the rows of join input to this ratio
+    public static final double EAGER_AGGREGATION_REDUCTION_THRESHOLD_COEFFICIENT = 0.5;
 }
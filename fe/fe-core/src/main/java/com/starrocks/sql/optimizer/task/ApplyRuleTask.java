@@ -6,11 +6,15 @@ import com.google.common.collect.Lists;
 import com.starrocks.common.Pair;
 import com.starrocks.sql.optimizer.GroupExpression;
 import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
 import com.starrocks.sql.optimizer.operator.pattern.Pattern;
 import com.starrocks.sql.optimizer.rule.Binder;
 import com.starrocks.sql.optimizer.rule.Rule;
+import com.starrocks.sql.optimizer.rule.RuleType;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ApplyRuleTask firstly applies a rule, then
@@ -26,6 +30,14 @@ import java.util.List;
  */
 
 public class ApplyRuleTask extends OptimizerTask {
+    // The join exploration rules, which are skipped once the memo exceeds its budget
+    private static final Set<RuleType> JOIN_EXPLORATION_RULES = EnumSet.of(
+            RuleType.TF_JOIN_ASSOCIATIVITY,
+            RuleType.TF_JOIN_COMMUTATIVITY,
+            RuleType.TF_JOIN_COMMUTATIVITY_WITHOUT_INNER,
+            RuleType.TF_JOIN_SEMI_REORDER,
+            RuleType.TF_PUSH_DOWN_PARTIAL_AGG_JOIN);
+
     private final GroupExpression groupExpression;
     private final Rule rule;
 
@@ -48,6 +60,12 @@ public class ApplyRuleTask extends OptimizerTask {
             return;
         }
 
+        if (exceedMemoBudget()) {
+            context.getOptimizerContext().getPlannerProfile().setMemoBudgetExceeded();
+            groupExpression.setRuleExplored(rule);
+            return;
+        }
+
         // Apply rule and get all new OptExpressions
         Pattern pattern = rule.getPattern();
         Binder binder = new Binder(pattern, groupExpression);
@@ -59,7 +77,10 @@ public class ApplyRuleTask extends OptimizerTask {
                 continue;
             }
 
+            long startTime = System.nanoTime();
             newExpressions.addAll(rule.transform(extractExpr, context.getOptimizerContext()));
+            context.getOptimizerContext().getPlannerProfile()
+                    .addRuleApply(rule.type(), System.nanoTime() - startTime);
             extractExpr = binder.next();
         }
 
@@ -88,4 +109,14 @@ public class ApplyRuleTask extends OptimizerTask {
 
         groupExpression.setRuleExplored(rule);
     }
+
+    // Stop exploring the join orders if the memo is too large, the plans found so far are still costed
+    private boolean exceedMemoBudget() {
+        if (!JOIN_EXPLORATION_RULES.contains(rule.type())) {
+            return false;
+        }
+        OptimizerContext optimizerContext = context.getOptimizerContext();
+        return optimizerContext.getMemo().getGroupExpressions().size() >
+                optimizerContext.getSessionVariable().getCboMaxMemoExpressions();
+    }
 }
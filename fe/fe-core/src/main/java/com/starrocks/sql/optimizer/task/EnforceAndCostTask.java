@@ -6,6 +6,7 @@ import com.google.common.collect.Lists;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.common.Pair;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.optimizer.ChildOutputPropertyGuarantor;
 import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.Group;
@@ -19,6 +20,7 @@ import com.starrocks.sql.optimizer.base.DistributionSpec;
 import com.starrocks.sql.optimizer.base.GatherDistributionSpec;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
 import com.starrocks.sql.optimizer.base.SortProperty;
+import com.starrocks.sql.optimizer.baseline.PlanShapeMatcher;
 import com.starrocks.sql.optimizer.cost.CostModel;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalDistributionOperator;
@@ -124,6 +126,12 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
                 }
 
                 if (childBestExpr == null) {
+                    // The children to be optimized cost at least their lower bound, skip the group expression
+                    // if it can't be better than the upper bound
+                    if (exceedUpperBound(curChildIndex)) {
+                        context.getOptimizerContext().getPlannerProfile().addMemoPruned();
+                        break;
+                    }
                     // We haven't optimized child group
                     prevChildIndex = curChildIndex;
                     optimizeChildGroup(requiredProperty, childGroup);
@@ -197,12 +205,27 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
         localCost = 0;
         curTotalCost = 0;
 
-        // TODO(kks): do Lower Bound Pruning here
         RequiredPropertyDeriver requiredPropertyDeriver = new RequiredPropertyDeriver(context.getRequiredProperty());
         requiredPropertiesList = requiredPropertyDeriver.getRequiredProps(groupExpression);
+        PlanShapeMatcher planShapeMatcher = context.getOptimizerContext().getPlanShapeMatcher();
+        if (planShapeMatcher != null) {
+            requiredPropertiesList = planShapeMatcher.filterRequiredProperties(groupExpression, requiredPropertiesList);
+        }
         curChildIndex = 0;
     }
 
+    private boolean exceedUpperBound(int childIndex) {
+        SessionVariable sessionVariable = context.getOptimizerContext().getSessionVariable();
+        if (!sessionVariable.isCboEnableCostLowerBoundPrune() || sessionVariable.isSetUseNthExecPlan()) {
+            return false;
+        }
+        double lowerBound = curTotalCost;
+        for (int i = childIndex; i < groupExpression.getInputs().size(); i++) {
+            lowerBound += groupExpression.getInputs().get(i).getCostLowerBound();
+        }
+        return lowerBound > context.getUpperBoundCost();
+    }
+
     private void optimizeChildGroup(PhysicalPropertySet inputProperty, Group childGroup) {
         pushTask((EnforceAndCostTask) clone());
         double newUpperBound = context.getUpperBoundCost() - curTotalCost;
@@ -2,6 +2,7 @@
 
 package com.starrocks.sql.optimizer.task;
 
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.optimizer.Group;
 import com.starrocks.sql.optimizer.GroupExpression;
 
@@ -29,10 +30,15 @@ public class OptimizeGroupTask extends OptimizerTask {
 
     @Override
     public void execute() {
-        // 1 Group Cost LB > Context Cost UB
-        // 2 Group has optimized given the context
-        if (group.getCostLowerBound() >= context.getUpperBoundCost() ||
-                group.hasBestExpression(context.getRequiredProperty())) {
+        // 1 Group has optimized given the context
+        // 2 Group Cost LB > Context Cost UB
+        if (group.hasBestExpression(context.getRequiredProperty())) {
+            return;
+        }
+        SessionVariable sessionVariable = context.getOptimizerContext().getSessionVariable();
+        if (sessionVariable.isCboEnableCostLowerBoundPrune() && !sessionVariable.isSetUseNthExecPlan() &&
+                group.getCostLowerBound() >= context.getUpperBoundCost()) {
+            context.getOptimizerContext().getPlannerProfile().addMemoPruned();
             return;
         }
 
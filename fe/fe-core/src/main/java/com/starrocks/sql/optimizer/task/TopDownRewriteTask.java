@@ -46,7 +46,10 @@ public abstract class TopDownRewriteTask extends OptimizerTask {
                     extractExpr = binder.next();
                     continue;
                 }
+                long startTime = System.nanoTime();
                 newExpressions.addAll(rule.transform(extractExpr, context.getOptimizerContext()));
+                context.getOptimizerContext().getPlannerProfile()
+                        .addRuleApply(rule.type(), System.nanoTime() - startTime);
                 Preconditions.checkState(newExpressions.size() <= 1,
                         "Rewrite rule should provide at most 1 expression");
 
@@ -235,8 +235,13 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
             queryStatement.setIsExplain(true, getExplainType(context.explainDesc()));
         }
 
+        PartitionNames targetPartitionNames = null;
+        if (context.partitionNames() != null) {
+            targetPartitionNames = (PartitionNames) visit(context.partitionNames());
+        }
+
         return new InsertStmt(
-                new InsertTarget(targetTableName, null),
+                new InsertTarget(targetTableName, targetPartitionNames),
                 context.label == null ? null : context.label.getText(),
                 targetColumnNames,
                 queryStatement,
@@ -51,6 +51,7 @@ import com.starrocks.planner.MetaScanNode;
 import com.starrocks.planner.MultiCastPlanFragment;
 import com.starrocks.planner.MysqlScanNode;
 import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.PartitionTopNNode;
 import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.PlanNode;
 import com.starrocks.planner.ProjectNode;
@@ -96,6 +97,7 @@ import com.starrocks.sql.optimizer.operator.physical.PhysicalJDBCScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalMetaScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalMysqlScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalProjectOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalRepeatOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalScanOperator;
@@ -505,6 +507,7 @@ public class PlanFragmentBuilder {
             OlapScanNode scanNode = new OlapScanNode(context.getNextNodeId(), tupleDescriptor, "OlapScanNode");
             scanNode.setLimit(node.getLimit());
             scanNode.computeStatistics(optExpr.getStatistics());
+            scanNode.setFeedbackPredicate(node.getFeedbackPredicate());
 
             // set tablet
             try {
@@ -1675,6 +1678,7 @@ public class PlanFragmentBuilder {
                 }
 
                 hashJoinNode.setDistributionMode(distributionMode);
+                hashJoinNode.setSkewed(node.isSkewed());
                 hashJoinNode.getConjuncts().addAll(conjuncts);
                 hashJoinNode.setLimit(node.getLimit());
                 hashJoinNode.computeStatistics(optExpr.getStatistics());
@@ -1688,6 +1692,10 @@ public class PlanFragmentBuilder {
                         (ConnectContext.get().getSessionVariable().getEnableGlobalRuntimeFilter() ||
                                 ConnectContext.get().getSessionVariable().isEnablePipelineEngine());
                 if (shouldBuildGlobalRuntimeFilter) {
+                    if (ConnectContext.get().getSessionVariable().isEnableCostBasedRuntimeFilter()) {
+                        hashJoinNode.setRuntimeFilterStatistics(optExpr.inputAt(0).getStatistics(),
+                                optExpr.inputAt(1).getStatistics());
+                    }
                     hashJoinNode.buildRuntimeFilters(runtimeFilterIdIdGenerator, hashJoinNode.getChild(1),
                             hashJoinNode.getEqJoinConjuncts(), joinOperator);
                 }
@@ -2173,6 +2181,35 @@ public class PlanFragmentBuilder {
             return inputFragment;
         }
 
+        @Override
+        public PlanFragment visitPhysicalPartitionTopN(OptExpression optExpr, ExecPlan context) {
+            PlanFragment inputFragment = visit(optExpr.inputAt(0), context);
+            PhysicalPartitionTopNOperator topN = (PhysicalPartitionTopNOperator) optExpr.getOp();
+            ScalarOperatorToExpr.FormatterContext formatterContext =
+                    new ScalarOperatorToExpr.FormatterContext(context.getColRefToExpr());
+
+            List<Expr> partitionExprs = topN.getPartitionByColumns().stream()
+                    .map(c -> ScalarOperatorToExpr.buildExecExpression(c, formatterContext))
+                    .collect(Collectors.toList());
+            List<Expr> sortExprs = topN.getOrderByElements().stream()
+                    .map(o -> ScalarOperatorToExpr.buildExecExpression(o.getColumnRef(), formatterContext))
+                    .collect(Collectors.toList());
+            SortInfo sortInfo = new SortInfo(sortExprs,
+                    topN.getOrderByElements().stream().map(Ordering::isAscending).collect(Collectors.toList()),
+                    topN.getOrderByElements().stream().map(Ordering::isNullsFirst).collect(Collectors.toList()));
+
+            PartitionTopNNode partitionTopNNode = new PartitionTopNNode(context.getNextNodeId(),
+                    inputFragment.getPlanRoot(), partitionExprs, sortInfo, topN.getPartitionLimit(),
+                    topN.getTopNType(), topN.getSortPhase());
+            partitionTopNNode.getConjuncts().addAll(Utils.extractConjuncts(topN.getPredicate()).stream()
+                    .map(d -> ScalarOperatorToExpr.buildExecExpression(d, formatterContext))
+                    .collect(Collectors.toList()));
+            partitionTopNNode.setLimit(topN.getLimit());
+            partitionTopNNode.computeStatistics(optExpr.getStatistics());
+            inputFragment.setPlanRoot(partitionTopNNode);
+            return inputFragment;
+        }
+
         @Override
         public PlanFragment visitPhysicalTableFunction(OptExpression optExpression, ExecPlan context) {
             PlanFragment inputFragment = visit(optExpression.inputAt(0), context);
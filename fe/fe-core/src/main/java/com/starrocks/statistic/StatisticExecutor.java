@@ -2,6 +2,7 @@
 
 package com.starrocks.statistic;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -15,6 +16,7 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Table;
 import com.starrocks.cluster.ClusterNamespace;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.Coordinator;
@@ -60,6 +62,7 @@ public class StatisticExecutor {
     private static final Logger LOG = LogManager.getLogger(StatisticExecutor.class);
 
     private static final int STATISTIC_DATA_VERSION = 1;
+    private static final int PARTITION_STATISTIC_DATA_VERSION = 2;
     private static final int STATISTIC_DICT_VERSION = 101;
 
     private static final String QUERY_STATISTIC_TEMPLATE =
@@ -93,6 +96,31 @@ public class StatisticExecutor {
 
     private static final String DELETE_TEMPLATE = "DELETE FROM " + Constants.StatisticsTableName + " WHERE ";
 
+    private static final String QUERY_PARTITION_STATISTIC_TEMPLATE =
+            "SELECT cast(" + PARTITION_STATISTIC_DATA_VERSION + " as INT), update_time, db_id, table_id, partition_id,"
+                    + " column_name, row_count, data_size, hll_cardinality(ndv), null_count, max, min, version"
+                    + " FROM " + Constants.PartitionStatisticsTableName
+                    + " WHERE 1 = 1";
+
+    private static final String INSERT_PARTITION_STATISTIC_TEMPLATE =
+            "INSERT INTO " + Constants.PartitionStatisticsTableName;
+
+    private static final String INSERT_SELECT_PARTITION_TEMPLATE =
+            "SELECT $tableId, $partitionId, '$columnName', $dbId, '$tableName', '$partitionName', '$dbName', "
+                    + "$version, COUNT(1), $dataSize, $hllFunction, $countNullFunction, $maxFunction, $minFunction, "
+                    + "NOW() FROM $tableName PARTITION(`$partitionName`)";
+
+    // merge the statistics of all partitions into table statistics, ndv is merged by hll sketch
+    private static final String INSERT_SELECT_MERGE_PARTITION_TEMPLATE =
+            "SELECT $tableId, '$columnName', $dbId, '$tableName', '$dbName', IFNULL(SUM(row_count), 0), "
+                    + "IFNULL(SUM(data_size), 0), IFNULL(hll_union_agg(ndv), 0), IFNULL(SUM(null_count), 0), "
+                    + "$maxFunction, $minFunction, NOW() "
+                    + "FROM " + Constants.PartitionStatisticsTableName
+                    + " WHERE table_id = $tableId AND column_name = '$columnName'";
+
+    private static final String DELETE_PARTITION_TEMPLATE =
+            "DELETE FROM " + Constants.PartitionStatisticsTableName + " WHERE ";
+
     private static final String SELECT_EXPIRE_TABLE_TEMPLATE =
             "SELECT DISTINCT table_id" + " FROM " + Constants.StatisticsTableName + " WHERE 1 = 1 ";
 
@@ -108,7 +136,18 @@ public class StatisticExecutor {
     }
 
     public List<TStatisticData> queryStatisticSync(Long dbId, Long tableId, List<String> columnNames) throws Exception {
-        String sql = buildQuerySQL(dbId, tableId, columnNames);
+        return executeStatisticQuery(buildQuerySQL(QUERY_STATISTIC_TEMPLATE, dbId, tableId, columnNames));
+    }
+
+    /**
+     * Query the statistics of all partitions of the table, the partition id is set to
+     * {@link TStatisticData#partitionId} and the partition version is set to {@link TStatisticData#meta_version}
+     */
+    public List<TStatisticData> queryPartitionStatisticSync(Long tableId, List<String> columnNames) throws Exception {
+        return executeStatisticQuery(buildQuerySQL(QUERY_PARTITION_STATISTIC_TEMPLATE, null, tableId, columnNames));
+    }
+
+    private List<TStatisticData> executeStatisticQuery(String sql) throws Exception {
         Map<String, Database> dbs = Maps.newHashMap();
 
         ConnectContext context = StatisticUtils.buildConnectContext();
@@ -202,7 +241,8 @@ public class StatisticExecutor {
             return statistics;
         }
 
-        if (version == STATISTIC_DATA_VERSION || version == STATISTIC_DICT_VERSION) {
+        if (version == STATISTIC_DATA_VERSION || version == PARTITION_STATISTIC_DATA_VERSION
+                || version == STATISTIC_DICT_VERSION) {
             TDeserializer deserializer = new TDeserializer(new TCompactProtocol.Factory());
             for (TResultBatch resultBatch : sqlResult) {
                 for (ByteBuffer bb : resultBatch.rows) {
@@ -229,6 +269,12 @@ public class StatisticExecutor {
 
     public void collectStatisticSync(Long dbId, Long tableId, List<String> columnNames, boolean isSample, long rows)
             throws Exception {
+        if (!isSample && Config.enable_partition_statistic_collect
+                && StatisticUtils.checkPartitionStatisticTableStateNormal()) {
+            collectPartitionStatisticSync(dbId, tableId, columnNames);
+            return;
+        }
+
         // split column
         for (List<String> list : Lists.partition(columnNames, splitColumnsByRows(dbId, tableId, rows, isSample))) {
             String sql;
@@ -251,19 +297,85 @@ public class StatisticExecutor {
         }
     }
 
-    public void expireStatisticSync(List<String> tableIds) {
-        StringBuilder sql = new StringBuilder(DELETE_TEMPLATE);
-        sql.append(" table_id IN (").append(StringUtils.join(tableIds, ",")).append(")");
-        LOG.debug("Expire statistic SQL: {}", sql);
+    /**
+     * Full collect the statistics by partition, only the partitions whose visible version changed since the
+     * last collection are scanned, then the statistics of all partitions are merged into table statistics.
+     */
+    public void collectPartitionStatisticSync(Long dbId, Long tableId, List<String> columnNames) throws Exception {
+        Database db = Catalog.getCurrentCatalog().getDb(dbId);
+        OlapTable table = (OlapTable) db.getTable(tableId);
+
+        // partition id -> column name -> collected partition version
+        Map<Long, Map<String, Long>> collectedVersions = Maps.newHashMap();
+        for (TStatisticData data : queryPartitionStatisticSync(tableId, columnNames)) {
+            collectedVersions.computeIfAbsent(data.getPartitionId(), k -> Maps.newHashMap())
+                    .put(data.getColumnName(), data.getMeta_version());
+        }
+
+        List<Partition> changedPartitions = Lists.newArrayList();
+        Set<Long> partitionIds = Sets.newHashSet();
+        for (Partition partition : table.getPartitions()) {
+            partitionIds.add(partition.getId());
+            long version = partition.getVisibleVersion();
+            Map<String, Long> versions = collectedVersions.getOrDefault(partition.getId(), Collections.emptyMap());
+            if (columnNames.stream().anyMatch(c -> !Long.valueOf(version).equals(versions.get(c)))) {
+                changedPartitions.add(partition);
+            }
+        }
+        List<Long> droppedPartitionIds = collectedVersions.keySet().stream()
+                .filter(id -> !partitionIds.contains(id)).collect(Collectors.toList());
+
+        if (!droppedPartitionIds.isEmpty()) {
+            executeDML(DELETE_PARTITION_TEMPLATE + "table_id = " + tableId
+                    + " AND partition_id IN (" + StringUtils.join(droppedPartitionIds, ",") + ")");
+        }
+
+        String columnNameList = columnNames.stream().map(s -> "'" + s + "'").collect(Collectors.joining(","));
+        for (Partition partition : changedPartitions) {
+            // hll sketch of ndv is merged with the stale one, so delete it first
+            executeDML(DELETE_PARTITION_TEMPLATE + "table_id = " + tableId + " AND partition_id = "
+                    + partition.getId() + " AND column_name IN (" + columnNameList + ")");
+
+            long rowCount = Math.max(partition.getBaseIndex().getRowCount(), 1L);
+            for (List<String> list : Lists.partition(columnNames, (int) (5000000L / rowCount + 1))) {
+                executeDML(buildPartitionInsertSQL(db, table, partition, list));
+            }
+        }
+
+        LOG.info("Collect partition statistic of table {}, changed partitions {}, dropped partitions {}",
+                table.getName(), changedPartitions.size(), droppedPartitionIds.size());
+        executeDML(buildMergePartitionInsertSQL(db, table, columnNames));
+    }
+
+    @VisibleForTesting
+    void executeDML(String sql) throws Exception {
+        LOG.debug("Collect statistic SQL: {}", sql);
 
         ConnectContext context = StatisticUtils.buildConnectContext();
-        StatementBase parsedStmt;
-        try {
-            parsedStmt = parseSQL(sql.toString(), context);
-            StmtExecutor executor = new StmtExecutor(context, parsedStmt);
-            executor.execute();
-        } catch (Exception e) {
-            LOG.warn("Execute statistic table expire fail.", e);
+        StatementBase parsedStmt = parseSQL(sql, context);
+        StmtExecutor executor = new StmtExecutor(context, parsedStmt);
+        executor.execute();
+
+        if (context.getState().getStateType() == QueryState.MysqlStateType.ERR) {
+            throw new DdlException(context.getState().getErrorMessage());
+        }
+    }
+
+    public void expireStatisticSync(List<String> tableIds) {
+        for (String deleteTemplate : ImmutableList.of(DELETE_TEMPLATE, DELETE_PARTITION_TEMPLATE)) {
+            StringBuilder sql = new StringBuilder(deleteTemplate);
+            sql.append(" table_id IN (").append(StringUtils.join(tableIds, ",")).append(")");
+            LOG.debug("Expire statistic SQL: {}", sql);
+
+            ConnectContext context = StatisticUtils.buildConnectContext();
+            StatementBase parsedStmt;
+            try {
+                parsedStmt = parseSQL(sql.toString(), context);
+                StmtExecutor executor = new StmtExecutor(context, parsedStmt);
+                executor.execute();
+            } catch (Exception e) {
+                LOG.warn("Execute statistic table expire fail.", e);
+            }
         }
     }
 
@@ -342,8 +454,8 @@ public class StatisticExecutor {
         return execPlan;
     }
 
-    private String buildQuerySQL(Long dbId, Long tableId, List<String> columnNames) {
-        StringBuilder where = new StringBuilder(QUERY_STATISTIC_TEMPLATE);
+    private String buildQuerySQL(String template, Long dbId, Long tableId, List<String> columnNames) {
+        StringBuilder where = new StringBuilder(template);
         if (null != dbId) {
             where.append(" AND db_id = ").append(dbId);
         }
@@ -446,6 +558,82 @@ public class StatisticExecutor {
         return builder.substring(0, builder.length() - "UNION ALL ".length());
     }
 
+    private String buildPartitionInsertSQL(Database db, OlapTable table, Partition partition,
+                                           List<String> columnNames) {
+        StringBuilder builder = new StringBuilder(INSERT_PARTITION_STATISTIC_TEMPLATE).append(" ");
+
+        for (String name : columnNames) {
+            VelocityContext context = new VelocityContext();
+            Column column = table.getColumn(name);
+
+            context.put("dbId", db.getId());
+            context.put("tableId", table.getId());
+            context.put("partitionId", partition.getId());
+            context.put("partitionName", partition.getName());
+            context.put("version", partition.getVisibleVersion());
+            context.put("columnName", name);
+            context.put("dbName", db.getFullName());
+            context.put("tableName", ClusterNamespace.getNameFromFullName(db.getFullName()) + "." + table.getName());
+            context.put("dataSize", getDataSize(column, false));
+
+            if (!column.getType().canStatistic()) {
+                context.put("hllFunction", "hll_empty()");
+                context.put("countNullFunction", "0");
+                context.put("maxFunction", "''");
+                context.put("minFunction", "''");
+            } else {
+                context.put("hllFunction", "hll_raw_agg(hll_hash(CAST(`" + name + "` AS VARCHAR)))");
+                context.put("countNullFunction", "COUNT(1) - COUNT(`" + name + "`)");
+                context.put("maxFunction", "IFNULL(MAX(`" + name + "`), '')");
+                context.put("minFunction", "IFNULL(MIN(`" + name + "`), '')");
+            }
+
+            StringWriter sw = new StringWriter();
+            DEFAULT_VELOCITY_ENGINE.evaluate(context, sw, "", INSERT_SELECT_PARTITION_TEMPLATE);
+
+            builder.append(sw.toString());
+            builder.append(" UNION ALL ");
+        }
+
+        return builder.substring(0, builder.length() - "UNION ALL ".length());
+    }
+
+    private String buildMergePartitionInsertSQL(Database db, OlapTable table, List<String> columnNames) {
+        StringBuilder builder = new StringBuilder(INSERT_STATISTIC_TEMPLATE).append(" ");
+
+        for (String name : columnNames) {
+            VelocityContext context = new VelocityContext();
+            Column column = table.getColumn(name);
+
+            context.put("dbId", db.getId());
+            context.put("tableId", table.getId());
+            context.put("columnName", name);
+            context.put("dbName", db.getFullName());
+            context.put("tableName", ClusterNamespace.getNameFromFullName(db.getFullName()) + "." + table.getName());
+
+            if (!column.getType().canStatistic()) {
+                context.put("maxFunction", "''");
+                context.put("minFunction", "''");
+            } else if (column.getPrimitiveType().isCharFamily()) {
+                context.put("maxFunction", "IFNULL(MAX(NULLIF(max, '')), '')");
+                context.put("minFunction", "IFNULL(MIN(NULLIF(min, '')), '')");
+            } else {
+                // max and min are stored as string, compare them by the column type
+                String type = column.getType().toSql();
+                context.put("maxFunction", "IFNULL(MAX(CAST(NULLIF(max, '') AS " + type + ")), '')");
+                context.put("minFunction", "IFNULL(MIN(CAST(NULLIF(min, '') AS " + type + ")), '')");
+            }
+
+            StringWriter sw = new StringWriter();
+            DEFAULT_VELOCITY_ENGINE.evaluate(context, sw, "", INSERT_SELECT_MERGE_PARTITION_TEMPLATE);
+
+            builder.append(sw.toString());
+            builder.append(" UNION ALL ");
+        }
+
+        return builder.substring(0, builder.length() - "UNION ALL ".length());
+    }
+
     private String buildSampleInsertSQL(Long dbId, Long tableId, List<String> columnNames, long rows) {
         Database db = Catalog.getCurrentCatalog().getDb(dbId);
         OlapTable table = (OlapTable) db.getTable(tableId);
@@ -0,0 +1,244 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.Counter;
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.PlanNode;
+import com.starrocks.planner.ScanNode;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ReplaceColumnRefRewriter;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keep the actual rows of the recent scans with predicates, which are collected from the query profile.
+ * <p>
+ * A scan is keyed by the table and the normalized predicate, the predicates of the same text are regarded as
+ * the same though their column ids differ among queries. The optimizer multiplies the estimated rows of a
+ * recurring predicate by the correction, which is updated by the ratio of the actual rows to the estimated
+ * rows after each execution.
+ * <p>
+ * The feedback is only kept in memory and bounded by Config.statistic_feedback_max_entries, it's lost when
+ * FE restarts, and the least recently used predicates are evicted. It's collected on the FE coordinating the
+ * query, which may be a follower that can't write the edit log, and journaling every executed scan would
+ * cost far more than relearning the corrections after a restart.
+ */
+public class StatisticFeedbackStore {
+    // OLAP_SCAN_NODE (id=0) of non pipeline engine, OLAP_SCAN (plan_node_id=0) of pipeline engine
+    private static final Pattern SCAN_PROFILE_NAME = Pattern.compile("^OLAP_SCAN(_NODE)? \\((plan_node_)?id=(\\d+)\\)");
+    private static final String ROWS_RETURNED = "RowsReturned";
+    private static final String COMMON_METRICS = "CommonMetrics";
+    private static final String PULL_ROW_NUM = "PullRowNum";
+
+    private static final StatisticFeedbackStore INSTANCE = new StatisticFeedbackStore();
+
+    private final Map<Key, Feedback> feedbacks = new LinkedHashMap<Key, Feedback>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Feedback> eldest) {
+            return size() > Config.statistic_feedback_max_entries;
+        }
+    };
+
+    public static StatisticFeedbackStore getInstance() {
+        return INSTANCE;
+    }
+
+    // Replace the column ids with 0 and sort the conjuncts, so the same predicate of different queries has the
+    // same text
+    public static String normalizePredicate(ScalarOperator predicate) {
+        if (predicate == null) {
+            return null;
+        }
+        Map<ColumnRefOperator, ScalarOperator> replaceMap = Maps.newHashMap();
+        for (ColumnRefOperator column : Utils.extractColumnRef(predicate)) {
+            replaceMap.put(column, new ColumnRefOperator(0, column.getType(), column.getName(), column.isNullable()));
+        }
+        ReplaceColumnRefRewriter rewriter = new ReplaceColumnRefRewriter(replaceMap);
+        return Utils.extractConjuncts(predicate).stream()
+                .map(conjunct -> conjunct.clone().accept(rewriter, null).toString())
+                .sorted()
+                .collect(Collectors.joining(" AND "));
+    }
+
+    public synchronized double getCorrection(long tableId, String predicate) {
+        if (predicate == null) {
+            return 1;
+        }
+        Feedback feedback = feedbacks.get(new Key(tableId, predicate));
+        return feedback == null ? 1 : feedback.correction;
+    }
+
+    public synchronized void addFeedback(long tableId, String tableName, String predicate, long estimatedRows,
+                                         long actualRows) {
+        if (predicate == null || estimatedRows <= 0 || actualRows < 0) {
+            return;
+        }
+        Feedback feedback = feedbacks.computeIfAbsent(new Key(tableId, predicate),
+                key -> new Feedback(tableName, predicate));
+        feedback.update(estimatedRows, actualRows);
+    }
+
+    /**
+     * Collect the actual rows of the OLAP scans from the query profile. The plan with limit may finish before
+     * all the rows are scanned, and the runtime filters reduce the rows of scans, the actual rows of them are
+     * not the rows selected by the predicate, so they are skipped.
+     */
+    public void collect(List<PlanFragment> fragments, List<ScanNode> scanNodes, RuntimeProfile queryProfile) {
+        if (queryProfile == null || fragments.stream().anyMatch(f -> hasLimit(f.getPlanRoot()))) {
+            return;
+        }
+        Map<Integer, Long> actualRows = Maps.newHashMap();
+        collectActualRows(queryProfile, actualRows);
+        for (ScanNode scanNode : scanNodes) {
+            if (!(scanNode instanceof OlapScanNode) || !scanNode.getProbeRuntimeFilters().isEmpty()) {
+                continue;
+            }
+            OlapScanNode olapScanNode = (OlapScanNode) scanNode;
+            Long rows = actualRows.get(olapScanNode.getId().asInt());
+            if (rows == null || olapScanNode.getFeedbackPredicate() == null) {
+                continue;
+            }
+            addFeedback(olapScanNode.getOlapTable().getId(), olapScanNode.getOlapTable().getName(),
+                    olapScanNode.getFeedbackPredicate(), olapScanNode.getCardinality(), rows);
+        }
+    }
+
+    private static boolean hasLimit(PlanNode node) {
+        if (node.hasLimit()) {
+            return true;
+        }
+        return node.getChildren().stream().anyMatch(StatisticFeedbackStore::hasLimit);
+    }
+
+    // Sum the rows of all the instances of each scan node
+    private static void collectActualRows(RuntimeProfile profile, Map<Integer, Long> actualRows) {
+        for (Map.Entry<String, RuntimeProfile> entry : profile.getChildMap().entrySet()) {
+            Matcher matcher = SCAN_PROFILE_NAME.matcher(entry.getKey());
+            if (!matcher.find()) {
+                collectActualRows(entry.getValue(), actualRows);
+                continue;
+            }
+            RuntimeProfile scanProfile = entry.getValue();
+            Counter counter = scanProfile.getCounter(ROWS_RETURNED);
+            if (counter == null && scanProfile.getChildMap().containsKey(COMMON_METRICS)) {
+                counter = scanProfile.getChildMap().get(COMMON_METRICS).getCounter(PULL_ROW_NUM);
+            }
+            if (counter != null) {
+                actualRows.merge(Integer.parseInt(matcher.group(3)), counter.getValue(), Long::sum);
+            }
+        }
+    }
+
+    // The feedbacks sorted by q-error descending, the worst estimations first
+    public synchronized List<Feedback> getWorstFeedbacks() {
+        return feedbacks.values().stream()
+                .sorted(Comparator.comparingDouble(Feedback::getQError).reversed())
+                .collect(Collectors.toCollection(Lists::newArrayList));
+    }
+
+    public synchronized void clear() {
+        feedbacks.clear();
+    }
+
+    private static class Key {
+        private final long tableId;
+        private final String predicate;
+
+        Key(long tableId, String predicate) {
+            this.tableId = tableId;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return tableId == key.tableId && predicate.equals(key.predicate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableId, predicate);
+        }
+    }
+
+    public static class Feedback {
+        private final String tableName;
+        private final String predicate;
+        private long estimatedRows;
+        private long actualRows;
+        private long count;
+        private long updateTime;
+        private double correction = 1;
+
+        Feedback(String tableName, String predicate) {
+            this.tableName = tableName;
+            this.predicate = predicate;
+        }
+
+        // The estimation has applied the correction, so the new correction is the old one multiplied by
+        // the remaining error
+        void update(long estimatedRows, long actualRows) {
+            this.estimatedRows = estimatedRows;
+            this.actualRows = actualRows;
+            this.count++;
+            this.updateTime = System.currentTimeMillis();
+            this.correction *= (double) Math.max(1, actualRows) / estimatedRows;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public String getPredicate() {
+            return predicate;
+        }
+
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        public long getActualRows() {
+            return actualRows;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getUpdateTime() {
+            return updateTime;
+        }
+
+        public double getCorrection() {
+            return correction;
+        }
+
+        // max(estimated / actual, actual / estimated), 1 is the exact estimation
+        public double getQError() {
+            double estimated = Math.max(1, estimatedRows);
+            double actual = Math.max(1, actualRows);
+            return Math.max(estimated / actual, actual / estimated);
+        }
+    }
+}
@@ -77,6 +77,14 @@ public class StatisticUtils {
     }
 
     public static boolean checkStatisticTableStateNormal() {
+        return checkStatisticTableStateNormal(Constants.StatisticsTableName);
+    }
+
+    public static boolean checkPartitionStatisticTableStateNormal() {
+        return checkStatisticTableStateNormal(Constants.PartitionStatisticsTableName);
+    }
+
+    private static boolean checkStatisticTableStateNormal(String tableName) {
         Database db = Catalog.getCurrentCatalog().getDb(Constants.StatisticsDBName);
 
         // check database
@@ -85,7 +93,7 @@ public class StatisticUtils {
         }
 
         // check table
-        OlapTable table = (OlapTable) db.getTable(Constants.StatisticsTableName);
+        OlapTable table = (OlapTable) db.getTable(tableName);
         if (table == null) {
             return false;
         }
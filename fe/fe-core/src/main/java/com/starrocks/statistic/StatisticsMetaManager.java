@@ -14,6 +14,7 @@ import com.starrocks.analysis.HashDistributionDesc;
 import com.starrocks.analysis.KeysDesc;
 import com.starrocks.analysis.TableName;
 import com.starrocks.analysis.TypeDef;
+import com.starrocks.catalog.AggregateType;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.KeysType;
@@ -67,9 +68,42 @@ public class StatisticsMetaManager extends MasterDaemon {
                 new ColumnDef("min", new TypeDef(minType)),
                 new ColumnDef("update_time", new TypeDef(ScalarType.createType(PrimitiveType.DATETIME)))
         );
+
+        ScalarType partitionNameType = ScalarType.createVarcharType(65530);
+        partitionNameType.setAssignedStrLenInColDefinition();
+
+        // ndv is kept as hll sketch, so the statistics of partitions can be merged,
+        // the statistics of a partition is deleted before it is collected again, see StatisticExecutor
+        PARTITION_COLUMNS = ImmutableList.of(
+                keyColumn("table_id", ScalarType.createType(PrimitiveType.BIGINT)),
+                keyColumn("partition_id", ScalarType.createType(PrimitiveType.BIGINT)),
+                keyColumn("column_name", columnNameType),
+                keyColumn("db_id", ScalarType.createType(PrimitiveType.BIGINT)),
+                valueColumn("table_name", tableNameType, AggregateType.REPLACE),
+                valueColumn("partition_name", partitionNameType, AggregateType.REPLACE),
+                valueColumn("db_name", dbNameType, AggregateType.REPLACE),
+                valueColumn("version", ScalarType.createType(PrimitiveType.BIGINT), AggregateType.REPLACE),
+                valueColumn("row_count", ScalarType.createType(PrimitiveType.BIGINT), AggregateType.REPLACE),
+                valueColumn("data_size", ScalarType.createType(PrimitiveType.BIGINT), AggregateType.REPLACE),
+                valueColumn("ndv", ScalarType.createHllType(), AggregateType.HLL_UNION),
+                valueColumn("null_count", ScalarType.createType(PrimitiveType.BIGINT), AggregateType.REPLACE),
+                valueColumn("max", maxType, AggregateType.REPLACE),
+                valueColumn("min", minType, AggregateType.REPLACE),
+                valueColumn("update_time", ScalarType.createType(PrimitiveType.DATETIME), AggregateType.REPLACE)
+        );
     }
 
     private static final List<ColumnDef> COLUMNS;
+    private static final List<ColumnDef> PARTITION_COLUMNS;
+
+    private static ColumnDef keyColumn(String name, ScalarType type) {
+        return new ColumnDef(name, new TypeDef(type), true, null, false, ColumnDef.DefaultValueDef.NOT_SET, "");
+    }
+
+    private static ColumnDef valueColumn(String name, ScalarType type, AggregateType aggregateType) {
+        return new ColumnDef(name, new TypeDef(type), false, aggregateType, false,
+                ColumnDef.DefaultValueDef.NOT_SET, "");
+    }
 
     public StatisticsMetaManager() {
         super("statistics meta manager", 60 * 1000);
@@ -93,16 +127,16 @@ public class StatisticsMetaManager extends MasterDaemon {
         return checkDatabaseExist();
     }
 
-    private boolean checkTableExist() {
+    private boolean checkTableExist(String tableName) {
         Database db = Catalog.getCurrentCatalog().getDb(Constants.StatisticsDBName);
         Preconditions.checkState(db != null);
-        return db.getTable(Constants.StatisticsTableName) != null;
+        return db.getTable(tableName) != null;
     }
 
-    private boolean checkReplicateNormal() {
+    private boolean checkReplicateNormal(String tableName) {
         Database db = Catalog.getCurrentCatalog().getDb(Constants.StatisticsDBName);
         Preconditions.checkState(db != null);
-        OlapTable table = (OlapTable) db.getTable(Constants.StatisticsTableName);
+        OlapTable table = (OlapTable) db.getTable(tableName);
         Preconditions.checkState(table != null);
 
         for (Partition partition : table.getPartitions()) {
@@ -119,22 +153,37 @@ public class StatisticsMetaManager extends MasterDaemon {
             "table_id", "column_name", "db_id"
     );
 
-    private boolean createTable() {
-        LOG.info("create statistics table start");
-        TableName tableName = new TableName(Constants.StatisticsDBName,
-                Constants.StatisticsTableName);
+    private static final List<String> partitionKeyColumnNames = ImmutableList.of(
+            "table_id", "partition_id", "column_name", "db_id"
+    );
+
+    private boolean createTable(String table) {
+        LOG.info("create statistics table {} start", table);
+        TableName tableName = new TableName(Constants.StatisticsDBName, table);
         Map<String, String> properties = Maps.newHashMap();
         int defaultReplicationNum = Math.min(3,
                 Catalog.getCurrentSystemInfo().getBackendIds(true).size());
         properties.put(PropertyAnalyzer.PROPERTIES_REPLICATION_NUM, Integer.toString(defaultReplicationNum));
-        CreateTableStmt stmt = new CreateTableStmt(false, false,
-                tableName, COLUMNS, "olap",
-                new KeysDesc(KeysType.UNIQUE_KEYS, keyColumnNames),
-                null,
-                new HashDistributionDesc(10, keyColumnNames),
-                properties,
-                null,
-                "");
+        CreateTableStmt stmt;
+        if (Constants.PartitionStatisticsTableName.equals(table)) {
+            stmt = new CreateTableStmt(false, false,
+                    tableName, PARTITION_COLUMNS, "olap",
+                    new KeysDesc(KeysType.AGG_KEYS, partitionKeyColumnNames),
+                    null,
+                    new HashDistributionDesc(10, ImmutableList.of("table_id", "partition_id")),
+                    properties,
+                    null,
+                    "");
+        } else {
+            stmt = new CreateTableStmt(false, false,
+                    tableName, COLUMNS, "olap",
+                    new KeysDesc(KeysType.UNIQUE_KEYS, keyColumnNames),
+                    null,
+                    new HashDistributionDesc(10, keyColumnNames),
+                    properties,
+                    null,
+                    "");
+        }
         Analyzer analyzer = new Analyzer(Catalog.getCurrentCatalog(),
                 StatisticUtils.buildConnectContext());
         try {
@@ -149,13 +198,13 @@ public class StatisticsMetaManager extends MasterDaemon {
             LOG.warn("Failed to create table" + e.getMessage());
             return false;
         }
-        LOG.info("create statistics table done");
-        return checkTableExist();
+        LOG.info("create statistics table {} done", table);
+        return checkTableExist(table);
     }
 
-    private boolean dropTable() {
-        LOG.info("drop statistics table start");
-        TableName tableName = new TableName(Constants.StatisticsDBName, Constants.StatisticsTableName);
+    private boolean dropTable(String table) {
+        LOG.info("drop statistics table {} start", table);
+        TableName tableName = new TableName(Constants.StatisticsDBName, table);
         DropTableStmt stmt = new DropTableStmt(true, tableName, true);
 
         try {
@@ -164,8 +213,8 @@ public class StatisticsMetaManager extends MasterDaemon {
             LOG.warn("Failed to drop table" + e.getMessage());
             return false;
         }
-        LOG.info("drop statistics table done");
-        return !checkTableExist();
+        LOG.info("drop statistics table {} done", table);
+        return !checkTableExist(table);
     }
 
     private void trySleep(long millis) {
@@ -187,18 +236,20 @@ public class StatisticsMetaManager extends MasterDaemon {
             trySleep(10000);
         }
 
-        while (checkTableExist() && !checkReplicateNormal()) {
-            if (dropTable()) {
-                break;
+        for (String table : ImmutableList.of(Constants.StatisticsTableName, Constants.PartitionStatisticsTableName)) {
+            while (checkTableExist(table) && !checkReplicateNormal(table)) {
+                if (dropTable(table)) {
+                    break;
+                }
+                trySleep(10000);
             }
-            trySleep(10000);
-        }
 
-        while (!checkTableExist()) {
-            if (createTable()) {
-                break;
+            while (!checkTableExist(table)) {
+                if (createTable(table)) {
+                    break;
+                }
+                trySleep(10000);
             }
-            trySleep(10000);
         }
     }
 }
@@ -21,56 +21,92 @@
 
 package com.starrocks.task;
 
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Table;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.thrift.TPushType;
 import com.starrocks.thrift.TTaskType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Task queue
+ * <p>
+ * Tasks are sharded by backend and task type, each shard is a concurrent map from signature to task,
+ * so there is no global lock, and tasks of different backends never contend with each other.
+ * An operation on a single task is atomic, an operation on multiple tasks is not a snapshot.
  */
 public class AgentTaskQueue {
     private static final Logger LOG = LogManager.getLogger(AgentTaskQueue.class);
 
-    // backend id -> (task type -> (signature -> agent task))
-    private static Table<Long, TTaskType, Map<Long, AgentTask>> tasks = HashBasedTable.create();
-    private static int taskNum = 0;
+    private static final int TASK_TYPE_NUM = TTaskType.values().length;
 
-    public static synchronized void addBatchTask(AgentBatchTask batchTask) {
+    // backend id -> (task type ordinal -> (signature -> agent task))
+    private static final ConcurrentMap<Long, BackendTasks> tasks = new ConcurrentHashMap<>();
+    // task type ordinal -> task num
+    private static final AtomicInteger[] taskNums = new AtomicInteger[TASK_TYPE_NUM];
+
+    static {
+        for (int i = 0; i < TASK_TYPE_NUM; i++) {
+            taskNums[i] = new AtomicInteger(0);
+        }
+    }
+
+    private static class BackendTasks {
+        @SuppressWarnings("unchecked")
+        private final Map<Long, AgentTask>[] typeTasks = new Map[TASK_TYPE_NUM];
+
+        BackendTasks() {
+            for (int i = 0; i < TASK_TYPE_NUM; i++) {
+                typeTasks[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        Map<Long, AgentTask> get(TTaskType type) {
+            return typeTasks[type.ordinal()];
+        }
+    }
+
+    private static Map<Long, AgentTask> getSignatureMap(long backendId, TTaskType type) {
+        BackendTasks backendTasks = tasks.get(backendId);
+        return backendTasks == null ? null : backendTasks.get(type);
+    }
+
+    private static void onRemoved(TTaskType type, int num) {
+        taskNums[type.ordinal()].addAndGet(-num);
+    }
+
+    public static void addBatchTask(AgentBatchTask batchTask) {
         for (AgentTask task : batchTask.getAllTasks()) {
             addTask(task);
         }
     }
 
-    public static synchronized boolean addTask(AgentTask task) {
+    public static boolean addTask(AgentTask task) {
         long backendId = task.getBackendId();
         TTaskType type = task.getTaskType();
 
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, type);
-        if (signatureMap == null) {
-            signatureMap = Maps.newHashMap();
-            tasks.put(backendId, type, signatureMap);
-        }
+        Map<Long, AgentTask> signatureMap = tasks.computeIfAbsent(backendId, k -> new BackendTasks()).get(type);
 
         long signature = task.getSignature();
-        if (signatureMap.containsKey(signature)) {
+        if (signatureMap.putIfAbsent(signature, task) != null) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_AGENT_TASK_ADD_CONFLICT.increase(1L);
+            }
             return false;
         }
-        signatureMap.put(signature, task);
-        ++taskNum;
+        taskNums[type.ordinal()].incrementAndGet();
         LOG.debug("add task: type[{}], backend[{}], signature[{}]", type, backendId, signature);
         if (type == TTaskType.PUSH) {
             PushTask pushTask = (PushTask) task;
@@ -82,36 +118,35 @@ public class AgentTaskQueue {
 
     // remove all task in AgentBatchTask.
     // the caller should make sure all tasks in AgentBatchTask is type of 'type'
-    public static synchronized void removeBatchTask(AgentBatchTask batchTask, TTaskType type) {
+    public static void removeBatchTask(AgentBatchTask batchTask, TTaskType type) {
         for (AgentTask task : batchTask.getAllTasks()) {
             removeTask(task.getBackendId(), type, task.getSignature());
         }
     }
 
-    public static synchronized void removeTask(long backendId, TTaskType type, long signature) {
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, type);
+    public static void removeTask(long backendId, TTaskType type, long signature) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, type);
         if (signatureMap == null) {
             return;
         }
-        if (!signatureMap.containsKey(signature)) {
+        if (signatureMap.remove(signature) == null) {
             return;
         }
-        signatureMap.remove(signature);
         LOG.debug("remove task: type[{}], backend[{}], signature[{}]", type, backendId, signature);
-        --taskNum;
+        onRemoved(type, 1);
     }
 
     /*
      * we cannot define a push task with only 'backendId', 'signature' and 'TTaskType'
      * add version, and TPushType to help
      */
-    public static synchronized void removePushTask(long backendId, long signature, long version,
-                                                   TPushType pushType, TTaskType taskType) {
-        if (!tasks.contains(backendId, taskType)) {
+    public static void removePushTask(long backendId, long signature, long version,
+                                      TPushType pushType, TTaskType taskType) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, taskType);
+        if (signatureMap == null) {
             return;
         }
 
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, taskType);
         AgentTask task = signatureMap.get(signature);
         if (task == null) {
             return;
@@ -122,56 +157,52 @@ public class AgentTaskQueue {
             return;
         }
 
-        signatureMap.remove(signature);
-        LOG.debug("remove task: type[{}], backend[{}], signature[{}]", taskType, backendId, signature);
-        --taskNum;
+        // only remove the task we checked, a new task with the same signature may be added in the meantime
+        if (signatureMap.remove(signature, task)) {
+            LOG.debug("remove task: type[{}], backend[{}], signature[{}]", taskType, backendId, signature);
+            onRemoved(taskType, 1);
+        }
     }
 
     /*
      * we cannot define a push task with only 'backendId', 'signature' and 'TTaskType'
      * add version, and TPushType to help
      */
-    public static synchronized void removePushTaskByTransactionId(long backendId, long transactionId,
-                                                   TPushType pushType, TTaskType taskType) {
-        if (!tasks.contains(backendId, taskType)) {
-            return;
-        }
-
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, taskType);
+    public static void removePushTaskByTransactionId(long backendId, long transactionId,
+                                                     TPushType pushType, TTaskType taskType) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, taskType);
         if (signatureMap == null) {
             return;
         }
 
         int numOfRemove = 0;
-        Iterator<Long> signatureIt = signatureMap.keySet().iterator();
-        while (signatureIt.hasNext()) {
-            Long signature = signatureIt.next();
-            AgentTask agentTask = signatureMap.get(signature);
+        for (Map.Entry<Long, AgentTask> entry : signatureMap.entrySet()) {
+            AgentTask agentTask = entry.getValue();
             if (agentTask instanceof PushTask) {
                 PushTask pushTask = (PushTask) agentTask;
-                if (pushTask.getPushType() == pushType && pushTask.getTransactionId() == transactionId) {
-                    signatureIt.remove();
-                    --taskNum;
+                if (pushTask.getPushType() == pushType && pushTask.getTransactionId() == transactionId
+                        && signatureMap.remove(entry.getKey(), agentTask)) {
                     ++numOfRemove;
                 }
             }
         }
+        onRemoved(taskType, numOfRemove);
 
         LOG.info("remove task: type[{}], backend[{}], transactionId[{}], numOfRemove[{}]",
                 taskType, backendId, transactionId, numOfRemove);
 
     }
 
-    public static synchronized void removeTaskOfType(TTaskType type, long signature) {
-        // be id -> (signature -> task)
-        Map<Long, Map<Long, AgentTask>> map = tasks.column(type);
-        for (Map<Long, AgentTask> innerMap : map.values()) {
-            innerMap.remove(signature);
+    public static void removeTaskOfType(TTaskType type, long signature) {
+        for (BackendTasks backendTasks : tasks.values()) {
+            if (backendTasks.get(type).remove(signature) != null) {
+                onRemoved(type, 1);
+            }
         }
     }
 
-    public static synchronized AgentTask getTask(long backendId, TTaskType type, long signature) {
-        Map<Long, AgentTask> signatureMap = tasks.get(backendId, type);
+    public static AgentTask getTask(long backendId, TTaskType type, long signature) {
+        Map<Long, AgentTask> signatureMap = getSignatureMap(backendId, type);
         if (signatureMap == null) {
             return null;
         }
@@ -179,30 +210,29 @@ public class AgentTaskQueue {
     }
 
     // this is just for unit test
-    public static synchronized List<AgentTask> getTask(TTaskType type) {
+    public static List<AgentTask> getTask(TTaskType type) {
         List<AgentTask> res = Lists.newArrayList();
-        for (Map<Long, AgentTask> agentTasks : tasks.column(TTaskType.ALTER).values()) {
-            res.addAll(agentTasks.values());
+        for (BackendTasks backendTasks : tasks.values()) {
+            res.addAll(backendTasks.get(type).values());
         }
         return res;
     }
 
-    public static synchronized List<AgentTask> getDiffTasks(long backendId, Map<TTaskType, Set<Long>> runningTasks) {
+    public static List<AgentTask> getDiffTasks(long backendId, Map<TTaskType, Set<Long>> runningTasks) {
         List<AgentTask> diffTasks = new ArrayList<AgentTask>();
-        if (!tasks.containsRow(backendId)) {
+        BackendTasks backendTasks = tasks.get(backendId);
+        if (backendTasks == null) {
             return diffTasks;
         }
 
-        Map<TTaskType, Map<Long, AgentTask>> backendAllTasks = tasks.row(backendId);
-        for (Map.Entry<TTaskType, Map<Long, AgentTask>> entry : backendAllTasks.entrySet()) {
-            TTaskType taskType = entry.getKey();
-            Map<Long, AgentTask> tasks = entry.getValue();
-            Set<Long> excludeSignatures = new HashSet<Long>();
-            if (runningTasks.containsKey(taskType)) {
-                excludeSignatures = runningTasks.get(taskType);
+        for (TTaskType taskType : TTaskType.values()) {
+            Map<Long, AgentTask> typeTasks = backendTasks.get(taskType);
+            if (typeTasks.isEmpty()) {
+                continue;
             }
+            Set<Long> excludeSignatures = runningTasks.getOrDefault(taskType, Collections.emptySet());
 
-            for (Map.Entry<Long, AgentTask> taskEntry : tasks.entrySet()) {
+            for (Map.Entry<Long, AgentTask> taskEntry : typeTasks.entrySet()) {
                 long signature = taskEntry.getKey();
                 AgentTask task = taskEntry.getValue();
                 if (!excludeSignatures.contains(signature)) {
@@ -214,86 +244,72 @@ public class AgentTaskQueue {
         return diffTasks;
     }
 
-    public static synchronized void removeReplicaRelatedTasks(long backendId, long tabletId) {
-        if (!tasks.containsRow(backendId)) {
+    public static void removeReplicaRelatedTasks(long backendId, long tabletId) {
+        BackendTasks backendTasks = tasks.get(backendId);
+        if (backendTasks == null) {
             return;
         }
 
-        Map<TTaskType, Map<Long, AgentTask>> backendTasks = tasks.row(backendId);
         for (TTaskType type : TTaskType.values()) {
-            if (backendTasks.containsKey(type)) {
-                Map<Long, AgentTask> typeTasks = backendTasks.get(type);
-                if (type == TTaskType.REALTIME_PUSH) {
-                    Iterator<AgentTask> taskIterator = typeTasks.values().iterator();
-                    while (taskIterator.hasNext()) {
-                        PushTask realTimePushTask = (PushTask) taskIterator.next();
-                        if (tabletId == realTimePushTask.getTabletId()) {
-                            taskIterator.remove();
-                        }
-                    }
-                } else {
-                    if (typeTasks.containsKey(tabletId)) {
-                        typeTasks.remove(tabletId);
-                        LOG.debug("remove task: type[{}], backend[{}], signature[{}]", type, backendId, tabletId);
-                        --taskNum;
+            Map<Long, AgentTask> typeTasks = backendTasks.get(type);
+            if (type == TTaskType.REALTIME_PUSH) {
+                Iterator<AgentTask> taskIterator = typeTasks.values().iterator();
+                while (taskIterator.hasNext()) {
+                    PushTask realTimePushTask = (PushTask) taskIterator.next();
+                    if (tabletId == realTimePushTask.getTabletId()) {
+                        taskIterator.remove();
+                        onRemoved(type, 1);
                     }
                 }
+            } else {
+                if (typeTasks.remove(tabletId) != null) {
+                    LOG.debug("remove task: type[{}], backend[{}], signature[{}]", type, backendId, tabletId);
+                    onRemoved(type, 1);
+                }
             }
         } // end for types
     }
 
     // only for test now
-    public static synchronized void clearAllTasks() {
+    public static void clearAllTasks() {
         tasks.clear();
-        taskNum = 0;
+        for (AtomicInteger taskNum : taskNums) {
+            taskNum.set(0);
+        }
     }
 
-    public static synchronized int getTaskNum() {
+    public static int getTaskNum() {
+        int taskNum = 0;
+        for (AtomicInteger num : taskNums) {
+            taskNum += num.get();
+        }
         return taskNum;
     }
 
-    public static synchronized Multimap<Long, Long> getTabletIdsByType(TTaskType type) {
+    public static int getTaskNum(TTaskType type) {
+        return taskNums[type.ordinal()].get();
+    }
+
+    public static Multimap<Long, Long> getTabletIdsByType(TTaskType type) {
         Multimap<Long, Long> tabletIds = HashMultimap.create();
-        Map<Long, Map<Long, AgentTask>> taskMap = tasks.column(type);
-        if (taskMap != null) {
-            for (Map<Long, AgentTask> signatureMap : taskMap.values()) {
-                for (AgentTask task : signatureMap.values()) {
-                    tabletIds.put(task.getDbId(), task.getTabletId());
-                }
+        for (BackendTasks backendTasks : tasks.values()) {
+            for (AgentTask task : backendTasks.get(type).values()) {
+                tabletIds.put(task.getDbId(), task.getTabletId());
             }
         }
         return tabletIds;
     }
 
-    public static synchronized int getTaskNum(long backendId, TTaskType type, boolean isFailed) {
+    public static int getTaskNum(long backendId, TTaskType type, boolean isFailed) {
         int taskNum = 0;
         if (backendId != -1) {
-            Map<Long, AgentTask> taskMap = tasks.get(backendId, type);
+            Map<Long, AgentTask> taskMap = getSignatureMap(backendId, type);
             if (taskMap != null) {
-                if (isFailed) {
-                    for (AgentTask task : taskMap.values()) {
-                        if (task.getFailedTimes() > 0) {
-                            ++taskNum;
-                        }
-                    }
-                } else {
-                    taskNum += taskMap.size();
-                }
+                taskNum += countTasks(taskMap, isFailed);
             }
         } else {
-            Map<Long, Map<Long, AgentTask>> taskMap = tasks.column(type);
-            if (taskMap != null) {
-                for (Map<Long, AgentTask> signatureMap : taskMap.values()) {
-                    if (isFailed) {
-                        for (AgentTask task : signatureMap.values()) {
-                            if (task.getFailedTimes() > 0) {
-                                ++taskNum;
-                            }
-                        }
-                    } else {
-                        taskNum += signatureMap.size();
-                    }
-                }
+            for (BackendTasks backendTasks : tasks.values()) {
+                taskNum += countTasks(backendTasks.get(type), isFailed);
             }
         }
 
@@ -302,8 +318,21 @@ public class AgentTaskQueue {
         return taskNum;
     }
 
-    public static synchronized List<AgentTask> getFailedTask(long backendId, TTaskType type) {
-        Map<Long, AgentTask> taskMap = tasks.get(backendId, type);
+    private static int countTasks(Map<Long, AgentTask> taskMap, boolean isFailed) {
+        if (!isFailed) {
+            return taskMap.size();
+        }
+        int taskNum = 0;
+        for (AgentTask task : taskMap.values()) {
+            if (task.getFailedTimes() > 0) {
+                ++taskNum;
+            }
+        }
+        return taskNum;
+    }
+
+    public static List<AgentTask> getFailedTask(long backendId, TTaskType type) {
+        Map<Long, AgentTask> taskMap = getSignatureMap(backendId, type);
         List<AgentTask> tasks = Lists.newArrayList();
         if (taskMap != null) {
             for (AgentTask task : taskMap.values()) {
@@ -315,4 +344,3 @@ public class AgentTaskQueue {
         return tasks;
     }
 }
-
@@ -0,0 +1,74 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.analysis;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.AnalysisException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class BackupStmtTest {
+
+    private static BackupStmt analyzeProperties(Map<String, String> properties) throws AnalysisException {
+        BackupStmt stmt = new BackupStmt(new LabelName("db1", "label1"), "repo", Lists.newArrayList(), properties);
+        stmt.analyzeProperties();
+        return stmt;
+    }
+
+    private static void assertAnalyzeFails(Map<String, String> properties, String message) {
+        try {
+            analyzeProperties(properties);
+            Assert.fail("analyze should fail with: " + message);
+        } catch (AnalysisException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void testFullBackup() throws AnalysisException {
+        BackupStmt stmt = analyzeProperties(Maps.newHashMap());
+        Assert.assertEquals(BackupStmt.BackupType.FULL, stmt.getType());
+        Assert.assertNull(stmt.getBaseSnapshot());
+        Assert.assertNull(stmt.getBaseBackupTimestamp());
+    }
+
+    @Test
+    public void testIncrementalBackup() throws AnalysisException {
+        Map<String, String> properties = Maps.newHashMap();
+        properties.put("base_snapshot", "label0");
+        // specifying a base snapshot implies an incremental backup
+        BackupStmt stmt = analyzeProperties(properties);
+        Assert.assertEquals(BackupStmt.BackupType.INCREMENTAL, stmt.getType());
+        Assert.assertEquals("label0", stmt.getBaseSnapshot());
+        Assert.assertNull(stmt.getBaseBackupTimestamp());
+
+        properties.put("type", "incremental");
+        properties.put("base_backup_timestamp", "2022-01-01-00-00-00");
+        stmt = analyzeProperties(properties);
+        Assert.assertEquals(BackupStmt.BackupType.INCREMENTAL, stmt.getType());
+        Assert.assertEquals("2022-01-01-00-00-00", stmt.getBaseBackupTimestamp());
+    }
+
+    @Test
+    public void testInvalidIncrementalBackup() {
+        Map<String, String> properties = Maps.newHashMap();
+        properties.put("type", "incremental");
+        assertAnalyzeFails(properties, "must specify the base snapshot");
+
+        properties = Maps.newHashMap();
+        properties.put("base_snapshot", "label1");
+        assertAnalyzeFails(properties, "can not be the same as the backup label");
+
+        properties = Maps.newHashMap();
+        properties.put("base_backup_timestamp", "2022-01-01-00-00-00");
+        assertAnalyzeFails(properties, "must be specified with base_snapshot");
+
+        properties = Maps.newHashMap();
+        properties.put("base_snapshot", "label0");
+        properties.put("base_label", "label0");
+        assertAnalyzeFails(properties, "Unknown backup job properties");
+    }
+}
@@ -21,6 +21,17 @@
 
 package com.starrocks.backup;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.backup.BackupJobInfo.BackupTableInfo;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.MaterializedIndex.IndexExtState;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.AnalysisException;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -34,6 +45,8 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
 
 public class BackupJobInfoTest {
 
@@ -181,4 +194,87 @@ public class BackupJobInfoTest {
             tmpFile.delete();
         }
     }
+
+    @Test
+    public void testIncrementalSnapshotLabel() throws IOException {
+        BackupJobInfo jobInfo = BackupJobInfo.fromFile(fileName);
+        Assert.assertNull(jobInfo.baseLabel);
+        // partition1 of table1 is reused from the base snapshot
+        jobInfo.baseLabel = "snapshot0";
+        jobInfo.getTableInfo("table1").getPartInfo("partition1").snapshotLabel = "snapshot0";
+
+        BackupJobInfo newInfo = new BackupJobInfo();
+        File tmpFile = new File("./tmp_incremental");
+        try {
+            DataOutputStream out = new DataOutputStream(new FileOutputStream(tmpFile));
+            jobInfo.write(out);
+            out.flush();
+            out.close();
+
+            DataInputStream in = new DataInputStream(new FileInputStream(tmpFile));
+            newInfo.readFields(in);
+            in.close();
+        } finally {
+            tmpFile.delete();
+        }
+
+        Assert.assertEquals("snapshot0", newInfo.baseLabel);
+        Assert.assertEquals("snapshot0", newInfo.getTableInfo("table1").getPartInfo("partition1").snapshotLabel);
+        Assert.assertNull(newInfo.getTableInfo("table1").getPartInfo("partition2").snapshotLabel);
+        Assert.assertEquals("snapshot0",
+                newInfo.getSnapshotLabel(new RestoreFileMapping.IdChain(10001L, 10002L, 10001L, 10004L, -1L)));
+        Assert.assertEquals("snapshot1",
+                newInfo.getSnapshotLabel(new RestoreFileMapping.IdChain(10001L, 10007L, 10001L, 10004L, -1L)));
+        Assert.assertEquals(10009L, newInfo.getTableInfo("table1").getPartInfo("partition1").getIdx(10009L).id);
+    }
+
+    private static Map<Long, SnapshotInfo> mockSnapshotInfos(Database db, OlapTable tbl) {
+        Map<Long, SnapshotInfo> snapshotInfos = Maps.newHashMap();
+        for (Partition part : tbl.getPartitions()) {
+            for (MaterializedIndex idx : part.getMaterializedIndices(IndexExtState.VISIBLE)) {
+                for (Tablet tablet : idx.getTablets()) {
+                    snapshotInfos.put(tablet.getId(), new SnapshotInfo(db.getId(), tbl.getId(), part.getId(),
+                            idx.getId(), tablet.getId(), -1, 0, "./path", Lists.newArrayList("seg_" + tablet.getId())));
+                }
+            }
+        }
+        return snapshotInfos;
+    }
+
+    @Test
+    public void testGetUnchangedPartition() throws AnalysisException {
+        Database db = CatalogMocker.mockDb();
+        OlapTable tbl = (OlapTable) db.getTable(CatalogMocker.TEST_TBL2_NAME);
+        List<Table> tbls = Lists.newArrayList(tbl);
+        BackupJobInfo base = BackupJobInfo.fromCatalog(1L, "base", CatalogMocker.TEST_DB_NAME,
+                CatalogMocker.TEST_DB_ID, tbls, mockSnapshotInfos(db, tbl));
+        Partition p1 = tbl.getPartition(CatalogMocker.TEST_PARTITION1_NAME);
+        Partition p2 = tbl.getPartition(CatalogMocker.TEST_PARTITION2_NAME);
+        Assert.assertNotNull(base.getUnchangedPartition(tbl, p1));
+        Assert.assertNotNull(base.getUnchangedPartition(tbl, p2));
+
+        // p1 is loaded after the base snapshot
+        p1.updateVisibleVersion(p1.getVisibleVersion() + 1);
+        Assert.assertNull(base.getUnchangedPartition(tbl, p1));
+        Assert.assertNotNull(base.getUnchangedPartition(tbl, p2));
+
+        BackupJobInfo incremental = BackupJobInfo.fromCatalog(2L, "incremental", CatalogMocker.TEST_DB_NAME,
+                CatalogMocker.TEST_DB_ID, tbls, mockSnapshotInfos(db, tbl), base);
+        Assert.assertEquals("base", incremental.baseLabel);
+        BackupTableInfo tblInfo = incremental.getTableInfo(CatalogMocker.TEST_TBL2_NAME);
+        Assert.assertNull(tblInfo.getPartInfo(CatalogMocker.TEST_PARTITION1_NAME).snapshotLabel);
+        Assert.assertEquals("base", tblInfo.getPartInfo(CatalogMocker.TEST_PARTITION2_NAME).snapshotLabel);
+
+        // the partition unchanged in a chain of incrementals refers to the snapshot which holds its files
+        BackupJobInfo next = BackupJobInfo.fromCatalog(3L, "next", CatalogMocker.TEST_DB_NAME,
+                CatalogMocker.TEST_DB_ID, tbls, mockSnapshotInfos(db, tbl), incremental);
+        tblInfo = next.getTableInfo(CatalogMocker.TEST_TBL2_NAME);
+        Assert.assertEquals("incremental", tblInfo.getPartInfo(CatalogMocker.TEST_PARTITION1_NAME).snapshotLabel);
+        Assert.assertEquals("base", tblInfo.getPartInfo(CatalogMocker.TEST_PARTITION2_NAME).snapshotLabel);
+
+        // the partition is recreated with the same name
+        Partition recreated = new Partition(p2.getId() + 1000, p2.getName(), p2.getBaseIndex(),
+                p2.getDistributionInfo());
+        Assert.assertNull(base.getUnchangedPartition(tbl, recreated));
+    }
 }
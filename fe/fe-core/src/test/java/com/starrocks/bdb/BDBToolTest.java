@@ -165,4 +165,10 @@ public class BDBToolTest {
         Assert.assertTrue(tool.run());
     }
 
+    @Test
+    public void testOpSizeStat() {
+        BDBToolOptions options = new BDBToolOptions(false, "12345", false, true, "23456", "", 0, 0);
+        BDBTool tool = new BDBTool(path, options);
+        Assert.assertTrue(tool.run());
+    }
 }
@@ -0,0 +1,70 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Map;
+
+public class AsyncMaterializedViewTest {
+
+    @Test
+    public void testExtractProperties() {
+        Map<String, String> properties = Maps.newHashMap();
+        properties.put("replication_num", "1");
+        properties.put("ASYNC_MV_REFRESH_INTERVAL_SEC", "600");
+        properties.put(AsyncMaterializedView.PROPERTIES_PARTITION_REF_TABLE, "t1");
+
+        Map<String, String> mvProperties = AsyncMaterializedView.extractProperties(properties);
+        Assert.assertEquals(1, properties.size());
+        Assert.assertEquals("1", properties.get("replication_num"));
+        Assert.assertEquals(2, mvProperties.size());
+        Assert.assertEquals("600", mvProperties.get(AsyncMaterializedView.PROPERTIES_REFRESH_INTERVAL));
+        Assert.assertEquals("t1", mvProperties.get(AsyncMaterializedView.PROPERTIES_PARTITION_REF_TABLE));
+
+        Assert.assertTrue(AsyncMaterializedView.extractProperties(null).isEmpty());
+    }
+
+    @Test
+    public void testRefreshState() throws Exception {
+        Map<Long, Long> baseTables = Maps.newHashMap();
+        baseTables.put(10L, 1L);
+        AsyncMaterializedView mv = new AsyncMaterializedView(100L, 1L, "SELECT 1", baseTables, 60, 10L);
+        // never refreshed
+        Assert.assertFalse(mv.isUsable(3600));
+
+        long now = System.currentTimeMillis();
+        Map<Long, Map<Long, Long>> versions = Maps.newHashMap();
+        Map<Long, Long> partitionVersions = Maps.newHashMap();
+        partitionVersions.put(11L, 2L);
+        versions.put(10L, partitionVersions);
+        mv.setRefreshState(now, versions);
+        Assert.assertFalse(mv.needRefresh(now + 1000));
+        Assert.assertTrue(mv.needRefresh(now + 60 * 1000));
+        // stale within tolerance
+        Assert.assertTrue(mv.isUsable(3600));
+
+        // the view moved to the swapped in table keeps its definition and refresh state
+        AsyncMaterializedView moved = mv.moveTo(200L);
+        Assert.assertEquals(200L, moved.getId());
+        Assert.assertEquals(mv.getDefinition(), moved.getDefinition());
+        Assert.assertEquals(mv.getBaseTables(), moved.getBaseTables());
+        Assert.assertEquals(now, moved.getLastRefreshTime());
+        Assert.assertTrue(moved.isUsable(3600));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        mv.write(new DataOutputStream(bytes));
+        AsyncMaterializedView read =
+                AsyncMaterializedView.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(100L, read.getId());
+        Assert.assertEquals(10L, read.getPartitionRefTableId());
+        Assert.assertEquals(now, read.getLastRefreshTime());
+        Assert.assertEquals(versions, read.getBaseTableVersions());
+    }
+}
@@ -245,4 +245,36 @@ public class FunctionSetTest {
         fn = functionSet.getFunction(desc, Function.CompareMode.IS_SUPERTYPE_OF);
         Assert.assertNull(fn);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResolveCacheAndSignatureIndex() {
+        // substr(VARCHAR(10), INT) is identical to the builtin substr(VARCHAR, INT) through string normalization
+        Type[] argTypes = {ScalarType.createVarcharType(10), Type.INT};
+        Function desc = new Function(new FunctionName("substr"), argTypes, Type.INVALID, false);
+        Function fn = functionSet.getFunction(desc, Function.CompareMode.IS_IDENTICAL);
+        Assert.assertNotNull(fn);
+        Assert.assertEquals(Type.VARCHAR, fn.getReturnType());
+
+        // resolved again from the cache
+        Function cached = functionSet.getFunction(desc, Function.CompareMode.IS_IDENTICAL);
+        Assert.assertSame(fn, cached);
+
+        // the compare mode is part of the cache key
+        argTypes = new Type[] {Type.VARCHAR, Type.TINYINT};
+        desc = new Function(new FunctionName("substr"), argTypes, Type.INVALID, false);
+        Assert.assertNull(functionSet.getFunction(desc, Function.CompareMode.IS_IDENTICAL));
+        fn = functionSet.getFunction(desc, Function.CompareMode.IS_SUPERTYPE_OF);
+        Assert.assertNotNull(fn);
+        Assert.assertEquals(Type.INT, fn.getArgs()[1]);
+        Assert.assertNull(functionSet.getFunction(desc, Function.CompareMode.IS_IDENTICAL));
+
+        // polymorphic functions are deduced per call even when the candidate is cached
+        argTypes = new Type[] {INT_ARRAY, Type.INT};
+        desc = new Function(new FunctionName("array_append"), argTypes, Type.INVALID, false);
+        Function first = functionSet.getFunction(desc, Function.CompareMode.IS_SUPERTYPE_OF);
+        Function second = functionSet.getFunction(desc, Function.CompareMode.IS_SUPERTYPE_OF);
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+        Assert.assertEquals(INT_ARRAY, second.getReturnType());
+    }
+}
@@ -0,0 +1,92 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.clone.TabletSchedCtx.Priority;
+import com.starrocks.clone.TabletSchedCtx.Type;
+import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.system.SystemInfoService;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TabletSchedulerTest {
+    @Mocked
+    private Catalog catalog;
+
+    private static TabletSchedCtx createTabletCtx(long partitionId, long tabletId, Priority priority) {
+        TabletSchedCtx ctx = new TabletSchedCtx(Type.REPAIR, "default_cluster",
+                1, 2, partitionId, 4, tabletId, System.currentTimeMillis());
+        ctx.setOrigPriority(priority);
+        return ctx;
+    }
+
+    @Test
+    public void testAddTabletConcurrently() throws InterruptedException {
+        TabletScheduler tabletScheduler = new TabletScheduler(catalog, new SystemInfoService(),
+                new TabletInvertedIndex(), new TabletSchedulerStat());
+        AtomicInteger addedNum = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                // every thread adds the same tablets, each tablet can only be added once
+                for (long tabletId = 0; tabletId < 1000; tabletId++) {
+                    if (tabletScheduler.addTablet(createTabletCtx(3, tabletId, Priority.NORMAL), false)
+                            == TabletScheduler.AddResult.ADDED) {
+                        addedNum.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Assert.assertEquals(1000, addedNum.get());
+        Assert.assertEquals(1000, tabletScheduler.getPendingNum());
+        Assert.assertEquals(1000, tabletScheduler.getTotalNum());
+        Assert.assertTrue(tabletScheduler.containsTablet(999));
+    }
+
+    @Test
+    public void testChangePriority() {
+        TabletScheduler tabletScheduler = new TabletScheduler(catalog, new SystemInfoService(),
+                new TabletInvertedIndex(), new TabletSchedulerStat());
+        tabletScheduler.addTablet(createTabletCtx(3, 1000, Priority.HIGH), false);
+        tabletScheduler.addTablet(createTabletCtx(5, 1001, Priority.NORMAL), false);
+        tabletScheduler.addTablet(createTabletCtx(3, 1002, Priority.LOW), false);
+
+        tabletScheduler.changeTabletsPriorityToVeryHigh(1, 2, Lists.newArrayList(5L));
+        List<TabletSchedCtx> batch = Deencapsulation.invoke(tabletScheduler, "getNextTabletCtxBatch");
+        Assert.assertEquals(3, batch.size());
+        Assert.assertEquals(1001, batch.get(0).getTabletId());
+        Assert.assertEquals(1000, batch.get(1).getTabletId());
+        Assert.assertEquals(1002, batch.get(2).getTabletId());
+    }
+
+    @Test
+    public void testRepairEta() {
+        TabletScheduler tabletScheduler = new TabletScheduler(catalog, new SystemInfoService(),
+                new TabletInvertedIndex(), new TabletSchedulerStat());
+        Assert.assertEquals(0, tabletScheduler.getRepairEtaSeconds(0));
+
+        for (long tabletId = 0; tabletId < 100; tabletId++) {
+            tabletScheduler.addTablet(createTabletCtx(3, tabletId, Priority.NORMAL), false);
+        }
+        // not being repaired yet
+        Assert.assertEquals(-1, tabletScheduler.getRepairEtaSeconds(0));
+
+        Deencapsulation.setField(tabletScheduler, "repairTabletsPerSecond", 10.0);
+        Assert.assertEquals(10, tabletScheduler.getRepairEtaSeconds(0));
+        // more unhealthy tablets are found by tablet checker
+        Assert.assertEquals(50, tabletScheduler.getRepairEtaSeconds(500));
+    }
+}
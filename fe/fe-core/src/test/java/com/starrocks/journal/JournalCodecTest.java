@@ -0,0 +1,152 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal;
+
+import com.google.common.base.Strings;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.common.io.CompactDataInput;
+import com.starrocks.common.io.CompactDataOutput;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.OperationType;
+import com.starrocks.persist.ReplicaPersistInfo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class JournalCodecTest {
+    private boolean enableCompactCodec;
+    private int compressThreshold;
+
+    private static class StringsWritable implements Writable {
+        private final String[] strings;
+
+        StringsWritable(String... strings) {
+            this.strings = strings;
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeInt(strings.length);
+            for (String s : strings) {
+                Text.writeString(out, s);
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        enableCompactCodec = Config.enable_journal_compact_codec;
+        compressThreshold = Config.journal_compress_threshold_bytes;
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeConstants.meta_version);
+        metaContext.setStarRocksMetaVersion(FeConstants.starrocks_meta_version);
+        metaContext.setThreadLocalInfo();
+    }
+
+    @After
+    public void tearDown() {
+        Config.enable_journal_compact_codec = enableCompactCodec;
+        Config.journal_compress_threshold_bytes = compressThreshold;
+        MetaContext.remove();
+    }
+
+    @Test
+    public void testCompactDataOutput() throws IOException {
+        CompactDataOutput out = new CompactDataOutput();
+        out.writeInt(0);
+        out.writeInt(-1);
+        out.writeInt(Integer.MIN_VALUE);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeLong(10001L);
+        out.writeLong(10002L);
+        out.writeLong(-1L);
+        out.writeLong(Long.MIN_VALUE);
+        out.writeLong(Long.MAX_VALUE);
+        out.writeBoolean(true);
+        out.writeShort(-3);
+        out.writeDouble(1.5);
+        out.writeFloat(-2.5f);
+        out.writeUTF("utf");
+        Text.writeString(out, "label");
+        Text.writeString(out, "label");
+
+        CompactDataInput in = new CompactDataInput(out.toByteArray());
+        Assert.assertEquals(0, in.readInt());
+        Assert.assertEquals(-1, in.readInt());
+        Assert.assertEquals(Integer.MIN_VALUE, in.readInt());
+        Assert.assertEquals(Integer.MAX_VALUE, in.readInt());
+        Assert.assertEquals(10001L, in.readLong());
+        Assert.assertEquals(10002L, in.readLong());
+        Assert.assertEquals(-1L, in.readLong());
+        Assert.assertEquals(Long.MIN_VALUE, in.readLong());
+        Assert.assertEquals(Long.MAX_VALUE, in.readLong());
+        Assert.assertTrue(in.readBoolean());
+        Assert.assertEquals(-3, in.readShort());
+        Assert.assertEquals(1.5, in.readDouble(), 0);
+        Assert.assertEquals(-2.5f, in.readFloat(), 0);
+        Assert.assertEquals("utf", in.readUTF());
+        Assert.assertEquals("label", Text.readString(in));
+        Assert.assertEquals("label", Text.readString(in));
+    }
+
+    @Test
+    public void testJournalEntity() throws IOException {
+        ReplicaPersistInfo info =
+                ReplicaPersistInfo.createForAdd(10001, 10002, 10003, 10004, 10005, 10006, 10007, 8, 0, 10, 11, 12, 14);
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_ADD_REPLICA);
+        entity.setData(info);
+
+        Config.enable_journal_compact_codec = false;
+        DataOutputBuffer legacy = new DataOutputBuffer(128);
+        entity.write(legacy);
+
+        Config.enable_journal_compact_codec = true;
+        DataOutputBuffer compact = new DataOutputBuffer(128);
+        entity.write(compact);
+        Assert.assertTrue(compact.getLength() < legacy.getLength());
+
+        // both encodings are readable
+        for (DataOutputBuffer buffer : new DataOutputBuffer[] {legacy, compact}) {
+            JournalEntity read = new JournalEntity();
+            read.readFields(new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength())));
+            Assert.assertEquals(OperationType.OP_ADD_REPLICA, read.getOpCode());
+            Assert.assertEquals(info, read.getData());
+        }
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        String longString = Strings.repeat("partition_commit_info", 100);
+        Writable data = new StringsWritable(longString, "a", longString + "b");
+
+        Config.journal_compress_threshold_bytes = -1;
+        DataOutputBuffer raw = new DataOutputBuffer(128);
+        JournalCodec.write(raw, data);
+
+        Config.journal_compress_threshold_bytes = 1024;
+        DataOutputBuffer compressed = new DataOutputBuffer(128);
+        JournalCodec.write(compressed, data);
+        Assert.assertTrue(compressed.getLength() < raw.getLength() / 4);
+
+        for (DataOutputBuffer buffer : new DataOutputBuffer[] {raw, compressed}) {
+            DataInput in = JournalCodec.read(
+                    new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength())));
+            Assert.assertEquals(3, in.readInt());
+            Assert.assertEquals(longString, Text.readString(in));
+            Assert.assertEquals("a", Text.readString(in));
+            Assert.assertEquals(longString + "b", Text.readString(in));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.io.Text;
+import com.starrocks.journal.bdbje.Timestamp;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.OperationType;
+import com.starrocks.transaction.TransactionState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PipelinedJournalReplayerTest {
+
+    private static class ListJournalCursor implements JournalCursor {
+        private final Iterator<JournalEntity> iterator;
+
+        ListJournalCursor(List<JournalEntity> entities) {
+            this.iterator = entities.iterator();
+        }
+
+        @Override
+        public JournalEntity next() {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static JournalEntity txnEntity(long dbId, long txnId) {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_UPSERT_TRANSACTION_STATE);
+        entity.setData(new TransactionState(dbId, Lists.newArrayList(), txnId, "label_" + txnId, null,
+                TransactionState.LoadJobSourceType.BACKEND_STREAMING, null, -1, 1000));
+        return entity;
+    }
+
+    private static JournalEntity timestampEntity() {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_TIMESTAMP);
+        entity.setData(new Timestamp());
+        return entity;
+    }
+
+    @Test
+    public void testReplay() {
+        List<JournalEntity> entities = Lists.newArrayList();
+        long txnId = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                entities.add(txnEntity(i % 7, txnId++));
+            }
+            entities.add(timestampEntity());
+        }
+
+        PipelinedJournalReplayer replayer = new PipelinedJournalReplayer(new MetaContext(), 3, 16);
+        Map<Long, Long> lastTxnIdOfDb = Maps.newConcurrentMap();
+        AtomicLong appliedTxn = new AtomicLong(0);
+        AtomicLong replayed = new AtomicLong(0);
+        long num = replayer.replay(new ListJournalCursor(entities), entity -> {
+            if (entity.getOpCode() == OperationType.OP_TIMESTAMP) {
+                // barrier, all journals before it are applied
+                Assert.assertEquals(replayed.get(), appliedTxn.get() + replayed.get() / 51);
+                Assert.assertEquals(0, (replayed.get() + 1) % 51);
+                return;
+            }
+            TransactionState state = (TransactionState) entity.getData();
+            Long last = lastTxnIdOfDb.put(state.getDbId(), state.getTransactionId());
+            // journals of one database are applied in order
+            Assert.assertTrue(last == null || last < state.getTransactionId());
+            appliedTxn.incrementAndGet();
+        }, replayed::addAndGet);
+
+        Assert.assertEquals(entities.size(), num);
+        Assert.assertEquals(entities.size(), replayed.get());
+        Assert.assertEquals(500, appliedTxn.get());
+    }
+
+    @Test
+    public void testReplayAfterMetaVersion() {
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(1);
+        List<JournalEntity> entities = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            entities.add(timestampEntity());
+        }
+        JournalEntity metaVersionEntity = new JournalEntity();
+        metaVersionEntity.setOpCode(OperationType.OP_META_VERSION);
+        metaVersionEntity.setData(new Text("2"));
+        entities.add(metaVersionEntity);
+        for (int i = 0; i < 20; i++) {
+            entities.add(timestampEntity());
+        }
+
+        // the meta version used to deserialize each journal, like the readers gated by meta version
+        List<Integer> readVersions = Collections.synchronizedList(Lists.newArrayList());
+        JournalCursor cursor = new ListJournalCursor(entities) {
+            @Override
+            public JournalEntity next() {
+                // the prefetch thread doesn't share the meta context changed by the apply
+                Assert.assertNotSame(metaContext, MetaContext.get());
+                JournalEntity entity = super.next();
+                if (entity != null) {
+                    readVersions.add(MetaContext.get().getMetaVersion());
+                }
+                return entity;
+            }
+        };
+
+        PipelinedJournalReplayer replayer = new PipelinedJournalReplayer(metaContext, 2, 16);
+        metaContext.setThreadLocalInfo();
+        AtomicLong replayed = new AtomicLong(0);
+        long num = replayer.replay(cursor, entity -> {
+            if (entity.getOpCode() == OperationType.OP_META_VERSION) {
+                MetaContext.get().setMetaVersion(Integer.parseInt(entity.getData().toString()));
+            }
+        }, replayed::addAndGet);
+
+        Assert.assertEquals(entities.size(), num);
+        Assert.assertEquals(entities.size(), replayed.get());
+        Assert.assertEquals(2, metaContext.getMetaVersion());
+        Assert.assertEquals(entities.size(), readVersions.size());
+        for (int i = 0; i < entities.size(); i++) {
+            Assert.assertEquals(i <= 20 ? 1 : 2, (int) readVersions.get(i));
+        }
+        MetaContext.remove();
+    }
+
+    @Test
+    public void testReplayEmptyCursor() {
+        PipelinedJournalReplayer replayer = new PipelinedJournalReplayer(new MetaContext(), 2, 4);
+        AtomicLong replayed = new AtomicLong(0);
+        Assert.assertEquals(0, replayer.replay(new ListJournalCursor(Lists.newArrayList()),
+                entity -> Assert.fail(), replayed::addAndGet));
+        Assert.assertEquals(0, replayed.get());
+    }
+}
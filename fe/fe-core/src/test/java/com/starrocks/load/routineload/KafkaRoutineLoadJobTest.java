@@ -34,6 +34,7 @@ import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
 import com.starrocks.common.LoadException;
 import com.starrocks.common.MetaNotFoundException;
 import com.starrocks.common.Pair;
@@ -145,6 +146,56 @@ public class KafkaRoutineLoadJobTest {
         Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
     }
 
+    @Test
+    public void testAdaptiveSchedule(@Mocked Catalog catalog,
+                                     @Mocked SystemInfoService systemInfoService) throws MetaNotFoundException {
+        List<Long> beIds = Lists.newArrayList(1L, 2L, 3L, 4L);
+        new Expectations() {
+            {
+                Catalog.getCurrentSystemInfo();
+                minTimes = 0;
+                result = systemInfoService;
+                systemInfoService.getClusterBackendIds(anyString, true);
+                minTimes = 0;
+                result = beIds;
+            }
+        };
+
+        KafkaRoutineLoadJob routineLoadJob = new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                1L, "127.0.0.1:9020", "topic1");
+        Deencapsulation.setField(routineLoadJob, "currentKafkaPartitions", Lists.newArrayList(1, 2, 3, 4));
+        KafkaProgress progress = (KafkaProgress) routineLoadJob.getProgress();
+        for (int partition = 1; partition <= 4; partition++) {
+            progress.addPartitionOffset(Pair.create(partition, 100L));
+        }
+        // lag is unknown before the latest offsets are fetched
+        Assert.assertEquals(-1L, routineLoadJob.getLag());
+
+        boolean enableAdaptiveSchedule = Config.enable_routine_load_adaptive_schedule;
+        try {
+            Config.enable_routine_load_adaptive_schedule = true;
+            Deencapsulation.setField(routineLoadJob, "taskRowsPerSecond", 100.0);
+
+            // quiet job, one task consumes the lag in one round
+            routineLoadJob.updateLatestPartitionOffsets(ImmutableMap.of(1, 200L, 2, 200L, 3, 100L, 4, 100L));
+            Assert.assertEquals(200L, routineLoadJob.getLag());
+            Assert.assertEquals(1, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Assert.assertEquals(Config.routine_load_task_consume_second, routineLoadJob.getTaskConsumeSecond());
+
+            // lagging job, use all the tasks and consume longer
+            routineLoadJob.updateLatestPartitionOffsets(ImmutableMap.of(1, 10100L));
+            Assert.assertEquals(10100L, routineLoadJob.getLag());
+            Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Assert.assertEquals(Config.routine_load_task_max_consume_second, routineLoadJob.getTaskConsumeSecond());
+
+            Config.enable_routine_load_adaptive_schedule = false;
+            Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+            Assert.assertEquals(Config.routine_load_task_consume_second, routineLoadJob.getTaskConsumeSecond());
+        } finally {
+            Config.enable_routine_load_adaptive_schedule = enableAdaptiveSchedule;
+        }
+    }
+
     @Test
     public void testDivideRoutineLoadJob(@Injectable RoutineLoadManager routineLoadManager,
                                          @Mocked RoutineLoadDesc routineLoadDesc)
@@ -21,12 +21,28 @@
 
 package com.starrocks.metric;
 
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
+import com.starrocks.load.routineload.RoutineLoadJob;
+import com.starrocks.load.routineload.RoutineLoadManager;
+import com.starrocks.metric.Metric.MetricUnit;
+import com.starrocks.metric.MetricRepo.MetricGroup;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class MetricsTest {
 
@@ -56,4 +72,115 @@ public class MetricsTest {
             }
         }
     }
+
+    @Test
+    public void testPrometheusSeriesLimit() {
+        int maxSeries = Config.metrics_max_series_per_name;
+        Config.metrics_max_series_per_name = 2;
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe", buffer);
+            for (int i = 0; i < 3; i++) {
+                GaugeMetricImpl<Long> gauge = new GaugeMetricImpl<>("test_series", MetricUnit.NOUNIT, "test");
+                gauge.setValue((long) i);
+                gauge.addLabel(new MetricLabel("id", String.valueOf(i)));
+                visitor.visit(gauge);
+            }
+            Assert.assertEquals("", visitor.build());
+
+            String metrics = buffer.toString(StandardCharsets.UTF_8);
+            Assert.assertTrue(metrics.contains("starrocks_fe_test_series{id=\"1\"} 1"));
+            Assert.assertFalse(metrics.contains("starrocks_fe_test_series{id=\"2\"}"));
+            Assert.assertTrue(metrics.contains("starrocks_fe_metrics_series_dropped 1"));
+        } finally {
+            buffer.release();
+            Config.metrics_max_series_per_name = maxSeries;
+        }
+    }
+
+    @Test
+    public void testGlobalDictCoverage() {
+        GaugeMetric<Double> coverage = (GaugeMetric<Double>) MetricRepo.getMetricsByName("global_dict_coverage").get(0);
+        Assert.assertEquals(MetricUnit.PERCENT, coverage.getUnit());
+        MetricRepo.COUNTER_LOW_CARDINALITY_COLUMN.increase(2L);
+        MetricRepo.COUNTER_GLOBAL_DICT_HIT.increase(1L);
+        long total = MetricRepo.COUNTER_LOW_CARDINALITY_COLUMN.getValue();
+        long hit = MetricRepo.COUNTER_GLOBAL_DICT_HIT.getValue();
+        // reported in percent, not as a ratio
+        Assert.assertEquals(hit * 100.0 / total, coverage.getValue(), 0.001);
+    }
+
+    @Test
+    public void testPrometheusSnapshot() {
+        long ttl = Config.metrics_snapshot_ttl_ms;
+        List<ByteBuf> buffers = new ArrayList<>();
+        try {
+            Config.metrics_snapshot_ttl_ms = 60 * 1000;
+            ByteBuf metrics = MetricRepo.getPrometheusMetric(EnumSet.of(MetricGroup.HISTOGRAM), false, true);
+            buffers.add(metrics);
+            Assert.assertTrue(metrics.toString(StandardCharsets.UTF_8).contains("starrocks_fe_query_latency_ms"));
+            // shared by the following scrapes without copying
+            ByteBuf shared = MetricRepo.getPrometheusMetric(EnumSet.of(MetricGroup.HISTOGRAM), false, true);
+            buffers.add(shared);
+            Assert.assertSame(metrics.array(), shared.array());
+            Assert.assertEquals(metrics.readableBytes(), shared.readableBytes());
+
+            Config.metrics_snapshot_ttl_ms = 0;
+            ByteBuf refreshed = MetricRepo.getPrometheusMetric(EnumSet.of(MetricGroup.HISTOGRAM), false, true);
+            buffers.add(refreshed);
+            Assert.assertNotSame(metrics.array(), refreshed.array());
+            // the replaced snapshot is alive until the scrapes holding it are done
+            Assert.assertTrue(metrics.refCnt() > 0);
+        } finally {
+            buffers.forEach(ByteBuf::release);
+            Config.metrics_snapshot_ttl_ms = ttl;
+        }
+    }
+
+    @Test
+    public void testRoutineLoadJobMetrics(@Mocked Catalog catalog,
+                                          @Injectable RoutineLoadManager routineLoadManager,
+                                          @Injectable RoutineLoadJob job1,
+                                          @Injectable RoutineLoadJob job2) {
+        new Expectations() {
+            {
+                Catalog.getCurrentCatalog();
+                result = catalog;
+                catalog.getRoutineLoadManager();
+                result = routineLoadManager;
+                routineLoadManager.getRoutineLoadJobByState((Set<RoutineLoadJob.JobState>) any);
+                result = Lists.newArrayList(job1, job2);
+                job1.getName();
+                result = "job1";
+                job1.getLag();
+                result = 10L;
+                job1.getRowsPerSecond();
+                result = 100.0;
+                job2.getName();
+                result = "job2";
+                job2.getLag();
+                result = 20L;
+                job2.getRowsPerSecond();
+                result = 200.0;
+            }
+        };
+
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe", buffer);
+            MetricRepo.collectRoutineLoadJobMetrics(visitor);
+            visitor.build();
+
+            String metrics = buffer.toString(StandardCharsets.UTF_8);
+            int lag1 = metrics.indexOf("starrocks_fe_routine_load_job_lag{job_name=\"job1\"} 10");
+            int lag2 = metrics.indexOf("starrocks_fe_routine_load_job_lag{job_name=\"job2\"} 20");
+            int rateType = metrics.indexOf("# TYPE starrocks_fe_routine_load_job_rows_per_second");
+            int rate1 = metrics.indexOf("starrocks_fe_routine_load_job_rows_per_second{job_name=\"job1\"} 100.0");
+            Assert.assertTrue(metrics, lag1 >= 0 && lag2 >= 0 && rate1 >= 0);
+            // the samples of each family are contiguous after its own TYPE line
+            Assert.assertTrue(metrics, lag1 < lag2 && lag2 < rateType && rateType < rate1);
+        } finally {
+            buffer.release();
+        }
+    }
 }
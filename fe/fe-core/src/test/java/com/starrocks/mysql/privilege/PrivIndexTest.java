@@ -0,0 +1,158 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql.privilege;
+
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrivIndexTest {
+    private static final Logger LOG = LogManager.getLogger(PrivIndexTest.class);
+
+    private static final int USER_NUM = 200;
+    private static final int DB_NUM = 20;
+    private static final int TBL_NUM = 50;
+
+    private UserPrivTable userPrivTable;
+    private DbPrivTable dbPrivTable;
+    private TablePrivTable tablePrivTable;
+
+    private static String getUser(int i) {
+        return "default_cluster:user" + i;
+    }
+
+    private static String getDb(int i) {
+        return "default_cluster:db" + i;
+    }
+
+    @Before
+    public void setUp() throws AnalysisException, DdlException {
+        userPrivTable = new UserPrivTable();
+        dbPrivTable = new DbPrivTable();
+        tablePrivTable = new TablePrivTable();
+        for (int u = 0; u < USER_NUM; u++) {
+            String user = getUser(u);
+            userPrivTable.addEntry(GlobalPrivEntry.create("%", user, false, new Password(new byte[0]),
+                    u % 50 == 0 ? PrivBitSet.of(Privilege.SELECT_PRIV) : PrivBitSet.of()), false, false);
+            // every user has privileges on some dbs, and on some tables of the other dbs
+            for (int d = u % 3; d < DB_NUM; d += 3) {
+                dbPrivTable.addEntry(DbPrivEntry.create("%", getDb(d), user, false,
+                        PrivBitSet.of(Privilege.SELECT_PRIV, Privilege.LOAD_PRIV)), false, false);
+            }
+            for (int d = (u + 1) % 3; d < DB_NUM; d += 3) {
+                tablePrivTable.addEntry(TablePrivEntry.create("%", getDb(d), user, "tbl" + (u % TBL_NUM) + "%",
+                        false, PrivBitSet.of(Privilege.SELECT_PRIV)), false, false);
+            }
+        }
+        dbPrivTable.addEntry(DbPrivEntry.create("%", "default_cluster:other%", getUser(1), false,
+                PrivBitSet.of(Privilege.ALTER_PRIV)), false, false);
+    }
+
+    private PrivBitSet getPrivsByScan(UserIdentity user, String db, String tbl) {
+        PrivBitSet privs = PrivBitSet.of();
+        userPrivTable.getPrivs(user, privs);
+        dbPrivTable.getPrivs(user, db, privs);
+        tablePrivTable.getPrivs(user, db, tbl, privs);
+        return privs;
+    }
+
+    private PrivBitSet getPrivsByIndex(PrivIndex index, UserIdentity user, String db, String tbl) {
+        PrivBitSet privs = PrivBitSet.of();
+        privs.or(index.getGlobalPrivs(user));
+        privs.or(index.getDbPrivs(user, db));
+        privs.or(index.getTblPrivs(user, db, tbl));
+        return privs;
+    }
+
+    @Test
+    public void testSameAsScan() {
+        PrivIndex index = PrivIndex.build(1, null, userPrivTable, dbPrivTable, tablePrivTable);
+        for (int u = 0; u < USER_NUM + 1; u++) {
+            UserIdentity user = UserIdentity.createAnalyzedUserIdentWithIp(getUser(u), "%");
+            for (int d = 0; d < DB_NUM; d++) {
+                for (int t = 0; t < TBL_NUM; t += 7) {
+                    Assert.assertEquals(getPrivsByScan(user, getDb(d), "tbl" + t),
+                            getPrivsByIndex(index, user, getDb(d), "tbl" + t));
+                }
+                Assert.assertEquals(tablePrivTable.hasPrivsOfDb(user, getDb(d)), index.hasTblPrivsOfDb(user, getDb(d)));
+            }
+        }
+        UserIdentity user = UserIdentity.createAnalyzedUserIdentWithIp(getUser(1), "%");
+        Assert.assertTrue(index.getDbPrivs(user, "default_cluster:other_x").satisfy(PrivPredicate.ALTER));
+        Assert.assertFalse(index.getDbPrivs(user, "default_cluster:other_x").satisfy(PrivPredicate.SELECT));
+    }
+
+    @Test
+    public void testRebuild() throws AnalysisException, DdlException {
+        UserIdentity user0 = UserIdentity.createAnalyzedUserIdentWithIp(getUser(0), "%");
+        UserIdentity user1 = UserIdentity.createAnalyzedUserIdentWithIp(getUser(1), "%");
+        PrivIndex index = PrivIndex.build(1, null, userPrivTable, dbPrivTable, tablePrivTable);
+        PrivBitSet user0Privs = index.getDbPrivs(user0, getDb(0));
+        Assert.assertFalse(index.getDbPrivs(user1, getDb(0)).satisfy(PrivPredicate.SELECT));
+
+        dbPrivTable.addEntry(DbPrivEntry.create("%", getDb(0), getUser(1), false,
+                PrivBitSet.of(Privilege.SELECT_PRIV)), false, false);
+        index = PrivIndex.build(2, index, userPrivTable, dbPrivTable, tablePrivTable);
+        Assert.assertEquals(2, index.getVersion());
+        Assert.assertTrue(index.getDbPrivs(user1, getDb(0)).satisfy(PrivPredicate.SELECT));
+        // the resolved privileges of unchanged user are kept
+        Assert.assertSame(user0Privs, index.getDbPrivs(user0, getDb(0)));
+    }
+
+    @Test
+    public void testBoundedCache() {
+        long cacheSize = Config.privilege_index_cache_size;
+        Config.privilege_index_cache_size = 2;
+        try {
+            PrivIndex index = PrivIndex.build(1, null, userPrivTable, dbPrivTable, tablePrivTable);
+            UserIdentity user = UserIdentity.createAnalyzedUserIdentWithIp(getUser(1), "%");
+            // the names checked by the user may not exist, the resolved privileges are evicted and resolved again
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < 100; i++) {
+                    String db = i % 2 == 0 ? getDb(i % DB_NUM) : "default_cluster:other" + i;
+                    String tbl = "tbl" + i;
+                    Assert.assertEquals(getPrivsByScan(user, db, tbl), getPrivsByIndex(index, user, db, tbl));
+                    Assert.assertEquals(tablePrivTable.hasPrivsOfDb(user, db), index.hasTblPrivsOfDb(user, db));
+                }
+            }
+        } finally {
+            Config.privilege_index_cache_size = cacheSize;
+        }
+    }
+
+    @Test
+    public void testCheckPrivBenchmark() {
+        PrivIndex index = PrivIndex.build(1, null, userPrivTable, dbPrivTable, tablePrivTable);
+        UserIdentity user = UserIdentity.createAnalyzedUserIdentWithIp(getUser(USER_NUM - 1), "%");
+        int loops = 20000;
+
+        long start = System.nanoTime();
+        int scanSatisfied = 0;
+        for (int i = 0; i < loops; i++) {
+            if (getPrivsByScan(user, getDb(i % DB_NUM), "tbl" + (i % TBL_NUM)).satisfy(PrivPredicate.SELECT)) {
+                scanSatisfied++;
+            }
+        }
+        long scanNs = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int indexSatisfied = 0;
+        for (int i = 0; i < loops; i++) {
+            if (getPrivsByIndex(index, user, getDb(i % DB_NUM), "tbl" + (i % TBL_NUM))
+                    .satisfy(PrivPredicate.SELECT)) {
+                indexSatisfied++;
+            }
+        }
+        long indexNs = System.nanoTime() - start;
+
+        Assert.assertEquals(scanSatisfied, indexSatisfied);
+        LOG.info("check {} privileges with {} db entries and {} table entries, scan: {} ms, index: {} ms",
+                loops, dbPrivTable.entries.size(), tablePrivTable.entries.size(), scanNs / 1000000, indexNs / 1000000);
+    }
+}
@@ -0,0 +1,126 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.service;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Table.TableType;
+import com.starrocks.catalog.Type;
+import com.starrocks.mysql.privilege.Auth;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.thrift.TColumnDef;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MetadataSnapshotCacheTest {
+    @Mocked
+    private Catalog catalog;
+    @Mocked
+    private Auth auth;
+
+    private final UserIdentity user = UserIdentity.createAnalyzedUserIdentWithIp("default_cluster:u1", "%");
+
+    @Before
+    public void setUp() {
+        new Expectations() {
+            {
+                Catalog.getCurrentCatalog();
+                minTimes = 0;
+                result = catalog;
+
+                catalog.getAuth();
+                minTimes = 0;
+                result = auth;
+            }
+        };
+    }
+
+    private static Table createTable(long id, String name) {
+        List<Column> schema = Lists.newArrayList(new Column("k1", Type.INT),
+                new Column("v1", ScalarType.createVarchar(10)));
+        return new Table(id, name, TableType.MYSQL, schema);
+    }
+
+    private static List<String> getNames(List<Table> tables) {
+        return tables.stream().map(Table::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testTableSnapshot() {
+        MetadataSnapshotCache cache = new MetadataSnapshotCache();
+        Database db = new Database(1, "default_cluster:db1");
+        db.createTable(createTable(12, "t2"));
+        db.createTable(createTable(11, "t1"));
+
+        List<Table> tables = cache.getTables(db);
+        Assert.assertEquals(Lists.newArrayList("t1", "t2"), getNames(tables));
+        Assert.assertSame(tables, cache.getTables(db));
+
+        db.dropTable("t1");
+        db.createTable(createTable(13, "t0"));
+        Assert.assertEquals(Lists.newArrayList("t0", "t2"), getNames(cache.getTables(db)));
+    }
+
+    @Test
+    public void testVisibleTables() {
+        MetadataSnapshotCache cache = new MetadataSnapshotCache();
+        Database db = new Database(1, "default_cluster:db1");
+        db.createTable(createTable(11, "t1"));
+        db.createTable(createTable(12, "t2"));
+
+        new Expectations() {
+            {
+                auth.getVersion();
+                result = 1;
+                auth.checkTblPriv(user, "default_cluster:db1", "t1", PrivPredicate.SHOW);
+                result = true;
+                auth.checkTblPriv(user, "default_cluster:db1", "t2", PrivPredicate.SHOW);
+                result = false;
+            }
+        };
+        Assert.assertEquals(Lists.newArrayList("t1"), getNames(cache.getVisibleTables(user, db.getFullName(), db)));
+        Assert.assertTrue(cache.isTableVisible(user, db.getFullName(), db, "t1"));
+        Assert.assertFalse(cache.isTableVisible(user, db.getFullName(), db, "t2"));
+
+        // privileges are changed
+        new Expectations() {
+            {
+                auth.getVersion();
+                result = 2;
+                auth.checkTblPriv(user, "default_cluster:db1", anyString, PrivPredicate.SHOW);
+                result = true;
+            }
+        };
+        Assert.assertEquals(Lists.newArrayList("t1", "t2"),
+                getNames(cache.getVisibleTables(user, db.getFullName(), db)));
+    }
+
+    @Test
+    public void testColumnDefs() {
+        MetadataSnapshotCache cache = new MetadataSnapshotCache();
+        Database db = new Database(1, "default_cluster:db1");
+        Table table = createTable(11, "t1");
+        db.createTable(table);
+
+        List<TColumnDef> columnDefs = cache.getColumnDefs(db, table);
+        Assert.assertEquals(2, columnDefs.size());
+        Assert.assertEquals("k1", columnDefs.get(0).getColumnDesc().getColumnName());
+        Assert.assertSame(columnDefs, cache.getColumnDefs(db, table));
+
+        table.setNewFullSchema(Lists.newArrayList(new Column("k2", Type.BIGINT)));
+        columnDefs = cache.getColumnDefs(db, table);
+        Assert.assertEquals(1, columnDefs.size());
+        Assert.assertEquals("k2", columnDefs.get(0).getColumnDesc().getColumnName());
+    }
+}
@@ -0,0 +1,71 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql;
+
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.optimizer.rule.RuleType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PlannerProfileTest {
+
+    @Test
+    public void testProfile() {
+        PlannerProfile profile = new PlannerProfile();
+        Assert.assertTrue(profile.isEmpty());
+
+        profile.addPhaseTime(PlannerProfile.Phase.ANALYZE, TimeUnit.MICROSECONDS.toNanos(10));
+        profile.addPhaseTime(PlannerProfile.Phase.ANALYZE, TimeUnit.MICROSECONDS.toNanos(5));
+        profile.addPhaseTime(PlannerProfile.Phase.TOTAL, TimeUnit.MICROSECONDS.toNanos(20));
+        profile.addRuleApply(RuleType.TF_PARTITION_PRUNE, TimeUnit.MICROSECONDS.toNanos(3));
+        profile.addRuleApply(RuleType.TF_PARTITION_PRUNE, TimeUnit.MICROSECONDS.toNanos(4));
+        profile.addRuleApply(RuleType.TF_MERGE_LIMIT_DIRECT, TimeUnit.MICROSECONDS.toNanos(1));
+        profile.setMemoSize(3, 7);
+        profile.addMemoPruned();
+        profile.setMemoBudgetExceeded();
+
+        Assert.assertFalse(profile.isEmpty());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(15), profile.getPhaseTimeNs(PlannerProfile.Phase.ANALYZE));
+        Assert.assertEquals(2, profile.getRuleApplyCount(RuleType.TF_PARTITION_PRUNE));
+
+        RuntimeProfile runtimeProfile = profile.buildProfile();
+        Assert.assertEquals("15us", runtimeProfile.getInfoString("Analyze"));
+        Assert.assertEquals("3", runtimeProfile.getInfoString("MemoGroups"));
+        Assert.assertEquals("7", runtimeProfile.getInfoString("MemoExpressions"));
+        Assert.assertEquals("1", runtimeProfile.getInfoString("MemoPruned"));
+        Assert.assertEquals("true", runtimeProfile.getInfoString("MemoBudgetExceeded"));
+        // the most expensive rule comes first
+        Assert.assertEquals("TF_PARTITION_PRUNE: 2/7us, TF_MERGE_LIMIT_DIRECT: 1/1us",
+                runtimeProfile.getInfoString("Rules"));
+
+        profile.reset();
+        Assert.assertTrue(profile.isEmpty());
+        Assert.assertEquals(0, profile.getRuleApplyCount(RuleType.TF_PARTITION_PRUNE));
+        Assert.assertEquals(0, profile.getMemoGroupCount());
+        Assert.assertEquals(0, profile.getMemoPrunedCount());
+        Assert.assertFalse(profile.isMemoBudgetExceeded());
+    }
+
+    @Test
+    public void testScopedTimer() {
+        ConnectContext ctx = new ConnectContext(null);
+        ctx.setThreadLocalInfo();
+        try {
+            try (PlannerProfile.ScopedTimer ignored = PlannerProfile.getScopedTimer(PlannerProfile.Phase.TOTAL)) {
+                PlannerProfile.addStatsLookup(true, 100);
+                PlannerProfile.addStatsLookup(false, 100);
+            }
+            Assert.assertFalse(ctx.getPlannerProfile().isEmpty());
+            Assert.assertEquals(2, ctx.getPlannerProfile().getStatsLookupCount());
+            Assert.assertEquals(1, ctx.getPlannerProfile().getStatsMissCount());
+
+            ctx.setStartTime();
+            Assert.assertTrue(ctx.getPlannerProfile().isEmpty());
+        } finally {
+            ConnectContext.remove();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ScalarOperatorEvaluatorTest {
@@ -136,4 +137,65 @@ public class ScalarOperatorEvaluatorTest {
         assertEquals(result, operator);
     }
 
+    @Test
+    public void evaluationFoldingCache() {
+        ConnectContext ctx = new ConnectContext(null);
+        ctx.setThreadLocalInfo();
+        ctx.setStartTime();
+
+        Function fn = new Function(new FunctionName("concat"), new Type[] {Type.VARCHAR}, Type.VARCHAR, false);
+        ScalarOperator first = null;
+        for (int i = 0; i < 2; i++) {
+            CallOperator operator = new CallOperator("concat", Type.VARCHAR,
+                    Lists.newArrayList(ConstantOperator.createVarchar("a"), ConstantOperator.createVarchar("b")));
+            new Expectations(operator) {
+                {
+                    operator.getFunction();
+                    result = fn;
+                }
+            };
+
+            ScalarOperator result = ScalarOperatorEvaluator.INSTANCE.evaluation(operator);
+            assertEquals("ab", ((ConstantOperator) result).getVarchar());
+            if (first == null) {
+                first = result;
+            } else {
+                assertEquals(first, result);
+                assertTrue(first != result);
+            }
+        }
+        assertEquals(1, ctx.getConstantFoldingCache().getHitCount());
+
+        ctx.setStartTime();
+        assertEquals(0, ctx.getConstantFoldingCache().getHitCount());
+    }
+
+    @Test
+    public void evaluationFoldingCacheTimeZone() {
+        ConnectContext ctx = new ConnectContext(null);
+        ctx.setThreadLocalInfo();
+        ctx.setStartTime();
+
+        Function fn = new Function(new FunctionName("from_unixtime"), new Type[] {Type.INT}, Type.VARCHAR, false);
+        String[] timeZones = {"UTC", "Asia/Shanghai", "UTC"};
+        String[] results = new String[timeZones.length];
+        for (int i = 0; i < timeZones.length; i++) {
+            ctx.getSessionVariable().setTimeZone(timeZones[i]);
+            CallOperator operator = new CallOperator("from_unixtime", Type.VARCHAR,
+                    Lists.newArrayList(ConstantOperator.createInt(0)));
+            new Expectations(operator) {
+                {
+                    operator.getFunction();
+                    result = fn;
+                }
+            };
+
+            ScalarOperator result = ScalarOperatorEvaluator.INSTANCE.evaluation(operator);
+            results[i] = ((ConstantOperator) result).getVarchar();
+        }
+        assertNotEquals(results[0], results[1]);
+        assertEquals(results[0], results[2]);
+        // only the second UTC evaluation is served by the cache
+        assertEquals(1, ctx.getConstantFoldingCache().getHitCount());
+    }
 }
\ No newline at end of file
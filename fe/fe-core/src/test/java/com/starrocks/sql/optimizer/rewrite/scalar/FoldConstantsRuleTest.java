@@ -99,6 +99,40 @@ public class FoldConstantsRuleTest {
         assertEquals(ConstantOperator.createNull(Type.BOOLEAN), rule.apply(ipo2, null));
     }
 
+    @Test
+    public void applyInRemoveDuplicateValues() {
+        ColumnRefOperator column = new ColumnRefOperator(1, Type.INT, "a", true);
+        InPredicateOperator in = new InPredicateOperator(column,
+                ConstantOperator.createInt(1),
+                ConstantOperator.createInt(2),
+                ConstantOperator.createInt(1),
+                ConstantOperator.createInt(2));
+        assertEquals(new InPredicateOperator(column, ConstantOperator.createInt(1), ConstantOperator.createInt(2)),
+                rule.apply(in, null));
+
+        // NOT IN keeps its negation, the NULLs are deduplicated but kept
+        InPredicateOperator notIn = new InPredicateOperator(true, column,
+                ConstantOperator.createNull(Type.INT),
+                ConstantOperator.createInt(3),
+                ConstantOperator.createNull(Type.INT));
+        assertEquals(new InPredicateOperator(true, column, ConstantOperator.createNull(Type.INT),
+                ConstantOperator.createInt(3)), rule.apply(notIn, null));
+
+        // the literals of different types are not the same value for the rule
+        InPredicateOperator mixed = new InPredicateOperator(column,
+                ConstantOperator.createInt(1),
+                ConstantOperator.createBigint(1),
+                ConstantOperator.createVarchar("1"));
+        assertEquals(mixed, rule.apply(mixed, null));
+
+        // not all values are constant
+        InPredicateOperator notConstant = new InPredicateOperator(column,
+                ConstantOperator.createInt(1),
+                new ColumnRefOperator(2, Type.INT, "b", true),
+                ConstantOperator.createInt(1));
+        assertEquals(notConstant, rule.apply(notConstant, null));
+    }
+
     @Test
     public void applyIsNull() {
         IsNullPredicateOperator inpo1 =
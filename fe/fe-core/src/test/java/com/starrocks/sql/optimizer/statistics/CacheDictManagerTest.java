@@ -0,0 +1,83 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.sql.optimizer.base.ColumnIdentifier;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class CacheDictManagerTest {
+    private static final ColumnIdentifier COLUMN = new ColumnIdentifier(1, "c1");
+
+    @Test
+    public void testMergeColumnDict() {
+        ColumnDict oldDict = new ColumnDict(ImmutableMap.of("a", 1, "b", 2, "c", 3), 1);
+        // "b" is deleted, "d" and "e" are loaded
+        ColumnDict newDict = new ColumnDict(ImmutableMap.of("a", 1, "c", 2, "d", 3, "e", 4), 2);
+
+        Optional<ColumnDict> merged = CacheDictManager.mergeColumnDict(COLUMN, Optional.of(oldDict), newDict);
+        Assert.assertTrue(merged.isPresent());
+        Assert.assertEquals(ImmutableMap.of("a", 1, "b", 2, "c", 3, "d", 4, "e", 5), merged.get().getDict());
+        Assert.assertEquals(2, merged.get().getVersionTime());
+        Assert.assertEquals(1, merged.get().getMergedTimes());
+    }
+
+    @Test
+    public void testReplaceColumnDict() {
+        ColumnDict newDict = new ColumnDict(ImmutableMap.of("a", 1, "c", 2), 2);
+        Assert.assertSame(newDict, CacheDictManager.mergeColumnDict(COLUMN, Optional.empty(), newDict).get());
+
+        // merged too many times
+        ColumnDict oldDict = new ColumnDict(ImmutableMap.of("a", 1, "b", 2), 1,
+                Config.low_cardinality_dict_max_merge_times);
+        Assert.assertSame(newDict, CacheDictManager.mergeColumnDict(COLUMN, Optional.of(oldDict), newDict).get());
+
+        // merged dict is too large
+        ImmutableMap.Builder<String, Integer> oldValues = ImmutableMap.builder();
+        ImmutableMap.Builder<String, Integer> newValues = ImmutableMap.builder();
+        for (int i = 1; i <= 200; i++) {
+            oldValues.put("a" + i, i);
+            newValues.put("b" + i, i);
+        }
+        newDict = new ColumnDict(newValues.build(), 2);
+        oldDict = new ColumnDict(oldValues.build(), 1);
+        Assert.assertSame(newDict, CacheDictManager.mergeColumnDict(COLUMN, Optional.of(oldDict), newDict).get());
+    }
+
+    private static String decode(Map<String, Integer> dict, int code) {
+        return dict.entrySet().stream().filter(e -> e.getValue() == code).findFirst().get().getKey();
+    }
+
+    @Test
+    public void testMinMaxOverMergedDict() {
+        List<String> rows = Lists.newArrayList("b", "d", "c", "e");
+        ColumnDict oldDict = new ColumnDict(ImmutableMap.of("b", 1, "c", 2), 1);
+
+        // the new values sort after the old ones, they are appended in order
+        ColumnDict newDict = new ColumnDict(ImmutableMap.of("b", 1, "c", 2, "d", 3, "e", 4), 2);
+        Map<String, Integer> merged =
+                CacheDictManager.mergeColumnDict(COLUMN, Optional.of(oldDict), newDict).get().getDict();
+        Assert.assertEquals(ImmutableMap.of("b", 1, "c", 2, "d", 3, "e", 4), merged);
+        List<Integer> codes = rows.stream().map(merged::get).collect(Collectors.toList());
+        Assert.assertEquals("b", decode(merged, Collections.min(codes)));
+        Assert.assertEquals("e", decode(merged, Collections.max(codes)));
+
+        // "a" would get a code greater than "c", MIN on the codes would return "b"
+        rows.add("a");
+        newDict = new ColumnDict(ImmutableMap.of("a", 1, "b", 2, "c", 3, "d", 4, "e", 5), 2);
+        ColumnDict replaced = CacheDictManager.mergeColumnDict(COLUMN, Optional.of(oldDict), newDict).get();
+        Assert.assertSame(newDict, replaced);
+        codes = rows.stream().map(replaced.getDict()::get).collect(Collectors.toList());
+        Assert.assertEquals("a", decode(replaced.getDict(), Collections.min(codes)));
+        Assert.assertEquals("e", decode(replaced.getDict(), Collections.max(codes)));
+    }
+}
@@ -8,17 +8,21 @@ import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.statistic.Constants;
 import com.starrocks.statistic.StatisticExecutor;
+import com.starrocks.statistic.StatisticUtils;
 import com.starrocks.system.SystemInfoService;
 import com.starrocks.thrift.TStatisticData;
 import com.starrocks.utframe.StarRocksAssert;
 import com.starrocks.utframe.UtFrameUtils;
 import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
 import mockit.Mocked;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -231,4 +235,106 @@ public class CachedStatisticStorageTest {
         Assert.assertEquals(0, columnStatistic.getAverageRowSize(), 0.001);
         Assert.assertEquals(0, columnStatistic.getNullsFraction(), 0.001);
     }
+
+    @Test
+    public void testMergePartitionStatistics() {
+        ColumnStatistic p1 = ColumnStatistic.builder().setMinValue(1).setMaxValue(10)
+                .setNullsFraction(0.1).setAverageRowSize(4).setDistinctValuesCount(10).build();
+        ColumnStatistic p2 = ColumnStatistic.builder().setMinValue(5).setMaxValue(20)
+                .setNullsFraction(0.3).setAverageRowSize(8).setDistinctValuesCount(15).build();
+        // empty partition
+        ColumnStatistic p3 = ColumnStatistic.builder().setNullsFraction(0).setAverageRowSize(0)
+                .setDistinctValuesCount(0).build();
+        List<CachedStatisticStorage.PartitionColumnStatistic> partitions = ImmutableList.of(
+                new CachedStatisticStorage.PartitionColumnStatistic(100, p1),
+                new CachedStatisticStorage.PartitionColumnStatistic(100, p2),
+                new CachedStatisticStorage.PartitionColumnStatistic(0, p3));
+
+        ColumnStatistic merged = CachedStatisticStorage.mergePartitionStatistics(partitions, ColumnStatistic.unknown());
+        Assert.assertEquals(1, merged.getMinValue(), 0.001);
+        Assert.assertEquals(20, merged.getMaxValue(), 0.001);
+        Assert.assertEquals(0.2, merged.getNullsFraction(), 0.001);
+        Assert.assertEquals(6, merged.getAverageRowSize(), 0.001);
+        Assert.assertEquals(25, merged.getDistinctValuesCount(), 0.001);
+
+        // ndv is bounded by table ndv, but not less than the max ndv of partitions
+        ColumnStatistic table = ColumnStatistic.builder().setDistinctValuesCount(18).build();
+        Assert.assertEquals(18, CachedStatisticStorage.mergePartitionStatistics(partitions, table)
+                .getDistinctValuesCount(), 0.001);
+        table = ColumnStatistic.builder().setDistinctValuesCount(12).build();
+        Assert.assertEquals(15, CachedStatisticStorage.mergePartitionStatistics(partitions, table)
+                .getDistinctValuesCount(), 0.001);
+    }
+
+    private static TStatisticData partitionStatisticData(OlapTable table, long partitionId, long rowCount,
+                                                         String min, String max, long ndv) {
+        TStatisticData data = new TStatisticData();
+        data.setDbId(connectContext.getCatalog().getDb("default_cluster:test").getId());
+        data.setTableId(table.getId());
+        data.setPartitionId(partitionId);
+        data.setColumnName("v1");
+        data.setRowCount(rowCount);
+        data.setDataSize(rowCount * 8);
+        data.setNullCount(0);
+        data.setCountDistinct(ndv);
+        data.setMin(min);
+        data.setMax(max);
+        return data;
+    }
+
+    @Test
+    public void testGetPartitionColumnStatistics() throws Exception {
+        Database db = connectContext.getCatalog().getDb("default_cluster:test");
+        OlapTable table = (OlapTable) db.getTable("t0");
+        new MockUp<StatisticUtils>() {
+            @Mock
+            public boolean checkStatisticTableStateNormal() {
+                return true;
+            }
+
+            @Mock
+            public boolean checkPartitionStatisticTableStateNormal() {
+                return true;
+            }
+        };
+        new Expectations() {{
+            statisticExecutor.queryPartitionStatisticSync(table.getId(), ImmutableList.of("v1"));
+            result = ImmutableList.of(partitionStatisticData(table, 1, 100, "1", "10", 10),
+                    partitionStatisticData(table, 2, 100, "5", "20", 15));
+            minTimes = 0;
+        }};
+
+        CachedStatisticStorage storage = new CachedStatisticStorage();
+        storage.addColumnStatistic(table, "v1", ColumnStatistic.builder().setMinValue(0).setMaxValue(100)
+                .setNullsFraction(0).setAverageRowSize(8).setDistinctValuesCount(18).build());
+        storage.cachedPartitionStatistics.get(new CachedStatisticStorage.CacheKey(table.getId(), "v1")).get();
+
+        boolean enablePartitionStatistic = Config.enable_partition_statistic_collect;
+        try {
+            Config.enable_partition_statistic_collect = true;
+            ColumnStatistic merged = storage.getColumnStatistics(table, ImmutableList.of(1L, 2L),
+                    ImmutableList.of("v1")).get(0);
+            Assert.assertEquals(1, merged.getMinValue(), 0.001);
+            Assert.assertEquals(20, merged.getMaxValue(), 0.001);
+            // bounded by the table ndv
+            Assert.assertEquals(18, merged.getDistinctValuesCount(), 0.001);
+
+            ColumnStatistic single = storage.getColumnStatistics(table, ImmutableList.of(2L),
+                    ImmutableList.of("v1")).get(0);
+            Assert.assertEquals(5, single.getMinValue(), 0.001);
+            Assert.assertEquals(15, single.getDistinctValuesCount(), 0.001);
+
+            // partition 3 is not collected, fall back to the table statistics
+            ColumnStatistic fallback = storage.getColumnStatistics(table, ImmutableList.of(1L, 3L),
+                    ImmutableList.of("v1")).get(0);
+            Assert.assertEquals(100, fallback.getMaxValue(), 0.001);
+
+            Config.enable_partition_statistic_collect = false;
+            ColumnStatistic disabled = storage.getColumnStatistics(table, ImmutableList.of(1L),
+                    ImmutableList.of("v1")).get(0);
+            Assert.assertEquals(100, disabled.getMaxValue(), 0.001);
+        } finally {
+            Config.enable_partition_statistic_collect = enablePartitionStatistic;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SkewEstimatorTest {
+    private final ColumnRefOperator lowNdvColumn = new ColumnRefOperator(1, Type.VARCHAR, "low_ndv", true);
+    private final ColumnRefOperator nullColumn = new ColumnRefOperator(2, Type.BIGINT, "half_null", true);
+    private final ColumnRefOperator unknownColumn = new ColumnRefOperator(3, Type.BIGINT, "unknown", true);
+
+    private Statistics buildStatistics(double rowCount) {
+        return Statistics.builder()
+                .setOutputRowCount(rowCount)
+                .addColumnStatistic(lowNdvColumn, new ColumnStatistic(0, 2, 0, 1, 3))
+                .addColumnStatistic(nullColumn, new ColumnStatistic(0, 100, 0.5, 8, 100))
+                .addColumnStatistic(unknownColumn, ColumnStatistic.unknown())
+                .build();
+    }
+
+    @Test
+    public void testLowNdvIsNotHeavyHitter() {
+        Statistics statistics = buildStatistics(1000000);
+        Assert.assertEquals(1.0 / 3, SkewEstimator.estimateHotKeyShare(statistics, Lists.newArrayList(lowNdvColumn)),
+                0.0001);
+        Assert.assertEquals(0, SkewEstimator.estimateHeavyHitterShare(statistics,
+                Lists.newArrayList(lowNdvColumn)), 0.0001);
+        // 3 values among 48 instances, the shuffle is skewed but the values are not heavy hitters
+        Assert.assertTrue(SkewEstimator.isSkewed(statistics, Lists.newArrayList(lowNdvColumn), 48, 4));
+        Assert.assertFalse(SkewEstimator.isSkewedByHeavyHitter(statistics, Lists.newArrayList(lowNdvColumn), 48, 4));
+    }
+
+    @Test
+    public void testNullHeavyHitter() {
+        Statistics statistics = buildStatistics(1000000);
+        Assert.assertEquals(0.5, SkewEstimator.estimateHeavyHitterShare(statistics, Lists.newArrayList(nullColumn)),
+                0.0001);
+        Assert.assertEquals(8, SkewEstimator.estimateSkewFactor(statistics, Lists.newArrayList(nullColumn), 16),
+                0.0001);
+        Assert.assertTrue(SkewEstimator.isSkewedByHeavyHitter(statistics, Lists.newArrayList(nullColumn), 16, 4));
+
+        // the hottest key is NULL of half_null and any value of low_ndv
+        Assert.assertEquals(0.5 / 3, SkewEstimator.estimateHeavyHitterShare(statistics,
+                Lists.newArrayList(nullColumn, lowNdvColumn)), 0.0001);
+        Assert.assertFalse(SkewEstimator.isSkewedByHeavyHitter(statistics,
+                Lists.newArrayList(nullColumn, lowNdvColumn), 16, 4));
+        Assert.assertTrue(SkewEstimator.isSkewedByHeavyHitter(statistics,
+                Lists.newArrayList(nullColumn, lowNdvColumn), 48, 4));
+    }
+
+    @Test
+    public void testNotSkewed() {
+        // few rows can't fill all the instances
+        Statistics statistics = buildStatistics(2);
+        Assert.assertEquals(1, SkewEstimator.estimateSkewFactor(statistics, Lists.newArrayList(nullColumn), 16),
+                0.0001);
+
+        statistics = buildStatistics(1000000);
+        Assert.assertEquals(0, SkewEstimator.estimateHeavyHitterShare(statistics,
+                Lists.newArrayList(nullColumn, unknownColumn)), 0.0001);
+        Assert.assertEquals(1, SkewEstimator.estimateSkewFactor(statistics, Lists.newArrayList(unknownColumn), 16),
+                0.0001);
+        Assert.assertEquals(1, SkewEstimator.estimateSkewFactor(null, Lists.newArrayList(nullColumn), 16), 0.0001);
+    }
+}
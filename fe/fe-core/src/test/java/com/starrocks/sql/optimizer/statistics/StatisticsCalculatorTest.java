@@ -32,6 +32,8 @@ import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.statistic.StatisticFeedbackStore;
 import com.starrocks.utframe.StarRocksAssert;
 import com.starrocks.utframe.UtFrameUtils;
 import mockit.Expectations;
@@ -116,6 +118,15 @@ public class StatisticsCalculatorTest {
                 expressionContext.getStatistics().getOutputRowCount(), 0.001);
     }
 
+    @Test
+    public void testLocalAggregateRowCount() {
+        Assert.assertEquals(3, StatisticsCalculator.computeLocalAggregateRowCount(1, 100, 3), 0.01);
+        // the rows of each instance are much more than the groups
+        Assert.assertEquals(30, StatisticsCalculator.computeLocalAggregateRowCount(10, 1000000, 3), 0.01);
+        // the rows of each instance are much less than the groups
+        Assert.assertEquals(1000, StatisticsCalculator.computeLocalAggregateRowCount(1e9, 1000, 3), 0.01);
+    }
+
     @Test
     public void testLogicalUnion() throws Exception {
         // child 1 output column
@@ -454,6 +465,69 @@ public class StatisticsCalculatorTest {
         starRocksAssert.dropTable("test_all_type");
     }
 
+    @Test
+    public void testLogicalOlapTableScanFeedback(@Mocked CachedStatisticStorage cachedStatisticStorage)
+            throws Exception {
+        starRocksAssert.withTable("CREATE TABLE `test_feedback` (\n" +
+                "  `v1` bigint NULL COMMENT \"\",\n" +
+                "  `v2` bigint NULL COMMENT \"\"\n" +
+                ") ENGINE=OLAP\n" +
+                "DUPLICATE KEY(`v1`)\n" +
+                "DISTRIBUTED BY HASH(`v1`) BUCKETS 3\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+        ColumnRefOperator v2 = columnRefFactory.create("v2", Type.BIGINT, true);
+        OlapTable table =
+                (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("test_feedback");
+
+        new Expectations() {
+            {
+                cachedStatisticStorage.getColumnStatistics(table, Lists.newArrayList("v2"));
+                result = new ColumnStatistic(0, 100, 0, 8, 100);
+                minTimes = 0;
+            }
+        };
+        for (Partition partition : table.getPartitions()) {
+            partition.getBaseIndex().setRowCount(10000);
+        }
+        List<Long> partitionIds = table.getPartitions().stream().map(Partition::getId).collect(Collectors.toList());
+        ScalarOperator predicate = BinaryPredicateOperator.eq(v2, ConstantOperator.createBigint(1));
+        String feedbackPredicate = StatisticFeedbackStore.normalizePredicate(predicate);
+
+        optimizerContext.getSessionVariable().setEnableStatisticsFeedback(true);
+        try {
+            // the actual rows of the predicate are 10 times of the estimation
+            StatisticFeedbackStore.getInstance().addFeedback(table.getId(), "test_feedback", feedbackPredicate,
+                    100, 1000);
+            Assert.assertEquals(1000, estimateOlapScanRowCount(table, v2, partitionIds, predicate), 0.001);
+
+            // the feedback of other predicates are not used
+            ScalarOperator otherPredicate = BinaryPredicateOperator.eq(v2, ConstantOperator.createBigint(2));
+            Assert.assertEquals(100, estimateOlapScanRowCount(table, v2, partitionIds, otherPredicate), 0.001);
+
+            optimizerContext.getSessionVariable().setEnableStatisticsFeedback(false);
+            Assert.assertEquals(100, estimateOlapScanRowCount(table, v2, partitionIds, predicate), 0.001);
+        } finally {
+            StatisticFeedbackStore.getInstance().clear();
+            optimizerContext.getSessionVariable().setEnableStatisticsFeedback(false);
+            starRocksAssert.dropTable("test_feedback");
+        }
+    }
+
+    private double estimateOlapScanRowCount(OlapTable table, ColumnRefOperator column, List<Long> partitionIds,
+                                            ScalarOperator predicate) {
+        Column columnMeta = table.getColumn(column.getName());
+        LogicalOlapScanOperator olapScanOperator = new LogicalOlapScanOperator(table,
+                ImmutableMap.of(column, columnMeta), ImmutableMap.of(columnMeta, column), null, -1, predicate,
+                table.getBaseIndexId(), partitionIds, null, Lists.newArrayList(), Lists.newArrayList());
+        GroupExpression groupExpression = new GroupExpression(olapScanOperator, Lists.newArrayList());
+        groupExpression.setGroup(new Group(0));
+        ExpressionContext expressionContext = new ExpressionContext(groupExpression);
+        new StatisticsCalculator(expressionContext, columnRefFactory, optimizerContext).estimatorStats();
+        return expressionContext.getStatistics().getOutputRowCount();
+    }
+
     @Test
     public void testJoinEstimateWithMultiColumns() {
         // child 1 output column
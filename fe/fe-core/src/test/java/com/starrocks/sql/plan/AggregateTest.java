@@ -2,12 +2,24 @@
 
 package com.starrocks.sql.plan;
 
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
 import com.starrocks.common.FeConstants;
 import com.starrocks.sql.common.StarRocksPlannerException;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashAggregateOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.sql.optimizer.statistics.MockTpchStatisticStorage;
+import com.starrocks.thrift.TExplainLevel;
+import mockit.Mock;
+import mockit.MockUp;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+
 public class AggregateTest extends PlanTestBase {
     @Test
     public void testHaving() throws Exception {
@@ -691,4 +703,124 @@ public class AggregateTest extends PlanTestBase {
         connectContext.getSessionVariable().setNewPlanerAggStage(0);
         FeConstants.runningUnitTest = false;
     }
+
+    @Test
+    public void testCostBasedAggStage() throws Exception {
+        OlapTable lineitem = (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("lineitem");
+        long rowCount = lineitem.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        // about 1M groups of 2M rows, each of the 16 instances of the local aggregation reduces few rows
+        String highNdvSql = "select l_partkey, l_linenumber, l_returnflag, count(*) from lineitem " +
+                "group by l_partkey, l_linenumber, l_returnflag";
+        String lowNdvSql = "select l_returnflag, count(*) from lineitem group by l_returnflag";
+        setTableStatistics(lineitem, 2000000);
+        try {
+            withSessionVariable(sv -> sv.setParallelExecInstanceNum(16), () -> {
+                String plan = getFragmentPlan(highNdvSql);
+                Assert.assertTrue(plan, plan.contains("AGGREGATE (update serialize)"));
+            });
+
+            withSessionVariable(sv -> {
+                sv.setParallelExecInstanceNum(16);
+                sv.setEnableCostBasedAggStage(true);
+            }, () -> {
+                String plan = getFragmentPlan(highNdvSql);
+                Assert.assertFalse(plan, plan.contains("AGGREGATE (update serialize)"));
+                Assert.assertTrue(plan, plan.contains("AGGREGATE (update finalize)"));
+
+                plan = getFragmentPlan(lowNdvSql);
+                Assert.assertTrue(plan, plan.contains("AGGREGATE (update serialize)"));
+            });
+        } finally {
+            setTableStatistics(lineitem, rowCount);
+        }
+    }
+
+    @Test
+    public void testEagerAggregation() throws Exception {
+        OlapTable lineitem = (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("lineitem");
+        OlapTable orders = (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("orders");
+        long lineitemRowCount = lineitem.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        long ordersRowCount = orders.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        String sql = "select o_orderdate, count(*) from lineitem join orders on l_orderkey = o_orderkey " +
+                "group by o_orderdate";
+        setTableStatistics(lineitem, 6000000);
+        setTableStatistics(orders, 1500000);
+        try {
+            ExecPlan execPlan = getExecPlan(sql);
+            Assert.assertFalse(hasAggregationBelowJoin(execPlan.getPhysicalPlan()));
+
+            withSessionVariable(sv -> sv.setEnableEagerAggregation(true), () -> {
+                // lineitem is aggregated by the join key before joining orders
+                ExecPlan eagerPlan = getExecPlan(sql);
+                Assert.assertTrue(hasAggregationBelowJoin(eagerPlan.getPhysicalPlan()));
+                String plan = eagerPlan.getExplainString(TExplainLevel.NORMAL);
+                Assert.assertTrue(plan, plan.contains("group by: 1: L_ORDERKEY"));
+                Assert.assertTrue(plan, plan.contains("AGGREGATE (merge finalize)"));
+            });
+        } finally {
+            setTableStatistics(lineitem, lineitemRowCount);
+            setTableStatistics(orders, ordersRowCount);
+        }
+    }
+
+    private static boolean hasAggregationBelowJoin(OptExpression expression) {
+        if (expression.getOp() instanceof PhysicalHashJoinOperator) {
+            return expression.getInputs().stream().anyMatch(AggregateTest::hasAggregation);
+        }
+        return expression.getInputs().stream().anyMatch(AggregateTest::hasAggregationBelowJoin);
+    }
+
+    private static boolean hasAggregation(OptExpression expression) {
+        return expression.getOp() instanceof PhysicalHashAggregateOperator ||
+                expression.getInputs().stream().anyMatch(AggregateTest::hasAggregation);
+    }
+
+    @Test
+    public void testSkewAggregation() throws Exception {
+        OlapTable lineitem = (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("lineitem");
+        OlapTable t0 = (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("t0");
+        long lineitemRowCount = lineitem.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        long t0RowCount = t0.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        setTableStatistics(lineitem, 6000000);
+        setTableStatistics(t0, 6000000);
+        try {
+            withSessionVariable(sv -> {
+                sv.setEnableSkewOptimize(true);
+                sv.setParallelExecInstanceNum(16);
+            }, () -> {
+                // NDV of l_returnflag is 3, the local aggregation reduces the rows of each value well
+                connectContext.getPlannerProfile().reset();
+                String plan = getFragmentPlan("select l_returnflag, count(*) from lineitem group by l_returnflag");
+                Assert.assertFalse(plan, plan.contains("skew_salt"));
+                Assert.assertTrue(connectContext.getPlannerProfile().getSkewDecisions().isEmpty());
+
+                // half of v2 is NULL, which is a heavy hitter
+                new MockUp<MockTpchStatisticStorage>() {
+                    @Mock
+                    public ColumnStatistic getColumnStatistic(Table table, String column) {
+                        if (table.getName().equals("t0") && column.equals("v2")) {
+                            return new ColumnStatistic(0, 100, 0.5, 8, 100);
+                        }
+                        return ColumnStatistic.unknown();
+                    }
+                };
+                connectContext.getPlannerProfile().reset();
+                getFragmentPlan("select v2, sum(v3) from t0 group by v2");
+                List<String> decisions = connectContext.getPlannerProfile().getSkewDecisions();
+                Assert.assertFalse(decisions.isEmpty());
+                Assert.assertTrue(decisions.toString(), decisions.stream()
+                        .allMatch(decision -> decision.startsWith("Aggregate") && decision.contains("salt into")));
+
+                // count distinct can't be merged from the partial results
+                connectContext.getPlannerProfile().reset();
+                plan = getFragmentPlan("select v2, count(distinct v3) from t0 group by v2");
+                Assert.assertFalse(plan, plan.contains("skew_salt"));
+                Assert.assertTrue(connectContext.getPlannerProfile().getSkewDecisions().stream()
+                        .noneMatch(decision -> decision.startsWith("Aggregate")));
+            });
+        } finally {
+            setTableStatistics(lineitem, lineitemRowCount);
+            setTableStatistics(t0, t0RowCount);
+        }
+    }
 }
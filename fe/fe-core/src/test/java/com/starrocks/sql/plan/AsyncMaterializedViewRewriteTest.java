@@ -0,0 +1,194 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.AsyncMaterializedView;
+import com.starrocks.catalog.AsyncMaterializedViewMgr;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Pair;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.utframe.UtFrameUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class AsyncMaterializedViewRewriteTest extends PlanTestBase {
+    private static final String JOIN_AGG_VIEW = "SELECT v1, v4, sum(v3) AS s, count(v6) AS c " +
+            "FROM t0 JOIN t1 ON v1 = v4 GROUP BY v1, v4";
+    private static final String JOIN_VIEW = "SELECT v1, v2, v4, v5 FROM t0 JOIN t1 ON v1 = v4 WHERE v2 > 1";
+
+    private final List<AsyncMaterializedView> views = Lists.newArrayList();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        starRocksAssert.withTable("CREATE TABLE `mv_join_agg` (\n" +
+                "  `v1` bigint NULL,\n" +
+                "  `v4` bigint NULL,\n" +
+                "  `s` bigint NULL,\n" +
+                "  `c` bigint NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "DUPLICATE KEY(`v1`)\n" +
+                "DISTRIBUTED BY HASH(`v1`) BUCKETS 3\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+        starRocksAssert.withTable("CREATE TABLE `mv_join` (\n" +
+                "  `v1` bigint NULL,\n" +
+                "  `v2` bigint NULL,\n" +
+                "  `v4` bigint NULL,\n" +
+                "  `v5` bigint NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "DUPLICATE KEY(`v1`)\n" +
+                "DISTRIBUTED BY HASH(`v1`) BUCKETS 3\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+    }
+
+    @After
+    public void after() {
+        AsyncMaterializedViewMgr mgr = Catalog.getCurrentCatalog().getAsyncMaterializedViewMgr();
+        for (AsyncMaterializedView mv : views) {
+            mgr.replayRemoveAsyncMaterializedView(mv);
+        }
+        views.clear();
+    }
+
+    private AsyncMaterializedView addView(String tableName, String definition,
+                                          Map<Long, Map<Long, Long>> versions, long refreshTime) {
+        Database db = Catalog.getCurrentCatalog().getDb("default_cluster:test");
+        Map<Long, Long> baseTables = Maps.newHashMap();
+        baseTables.put(db.getTable("t0").getId(), db.getId());
+        baseTables.put(db.getTable("t1").getId(), db.getId());
+        OlapTable table = (OlapTable) db.getTable(tableName);
+        AsyncMaterializedView mv = new AsyncMaterializedView(table.getId(), db.getId(), definition, baseTables,
+                3600, AsyncMaterializedView.NONE_REF_TABLE);
+        mv.setRefreshState(refreshTime, versions == null ? mv.collectBaseTableVersions() : versions);
+        Catalog.getCurrentCatalog().getAsyncMaterializedViewMgr().replayAddAsyncMaterializedView(mv);
+        views.add(mv);
+        return mv;
+    }
+
+    private AsyncMaterializedView addFreshView(String tableName, String definition) {
+        return addView(tableName, definition, null, System.currentTimeMillis());
+    }
+
+    private String plan(String sql) throws Exception {
+        connectContext.getPlannerProfile().reset();
+        return getFragmentPlan(sql);
+    }
+
+    @Test
+    public void testExactMatch() throws Exception {
+        addFreshView("mv_join_agg", JOIN_AGG_VIEW);
+        String plan = plan("select v1, v4, sum(v3), count(v6) from t0 join t1 on v1 = v4 group by v1, v4");
+        Assert.assertTrue(plan, plan.contains("TABLE: mv_join_agg"));
+        Assert.assertFalse(plan, plan.contains("TABLE: t0"));
+        Assert.assertFalse(plan, plan.contains("AGGREGATE"));
+    }
+
+    @Test
+    public void testRollup() throws Exception {
+        addFreshView("mv_join_agg", JOIN_AGG_VIEW);
+        String plan = plan("select v1, sum(v3), count(v6) from t0 join t1 on v1 = v4 group by v1");
+        Assert.assertTrue(plan, plan.contains("TABLE: mv_join_agg"));
+        Assert.assertFalse(plan, plan.contains("TABLE: t0"));
+        // count is rolled up as the sum of the partial counts
+        Assert.assertTrue(plan, plan.contains("sum("));
+        Assert.assertFalse(plan, plan.contains("count("));
+    }
+
+    @Test
+    public void testRollupScalarCount() throws Exception {
+        addFreshView("mv_join_agg", JOIN_AGG_VIEW);
+        // sum of an empty view is NULL, while count of an empty input is 0
+        String plan = plan("select count(v6) from t0 join t1 on v1 = v4");
+        Assert.assertTrue(plan, plan.contains("TABLE: mv_join_agg"));
+        Assert.assertTrue(plan, plan.contains("ifnull("));
+    }
+
+    @Test
+    public void testResidualPredicate() throws Exception {
+        addFreshView("mv_join", JOIN_VIEW);
+        String plan = plan("select v1, v5 from t0 join t1 on v1 = v4 where v2 > 1 and v5 = 3");
+        Assert.assertTrue(plan, plan.contains("TABLE: mv_join"));
+        Assert.assertFalse(plan, plan.contains("TABLE: t0"));
+        Assert.assertTrue(plan, plan.contains("= 3"));
+
+        // the view doesn't contain the rows with v2 <= 1
+        plan = plan("select v1, v5 from t0 join t1 on v1 = v4 where v5 = 3");
+        Assert.assertFalse(plan, plan.contains("TABLE: mv_join"));
+    }
+
+    @Test
+    public void testRejectUnusableView() throws Exception {
+        String sql = "select v1, v4, sum(v3), count(v6) from t0 join t1 on v1 = v4 group by v1, v4";
+
+        // never refreshed
+        AsyncMaterializedView mv = addView("mv_join_agg", JOIN_AGG_VIEW, null, 0);
+        String plan = plan(sql);
+        Assert.assertFalse(plan, plan.contains("TABLE: mv_join_agg"));
+        Assert.assertTrue(plan, plan.contains("TABLE: t0"));
+        after();
+
+        // base tables were loaded after the refresh
+        Map<Long, Map<Long, Long>> versions = Maps.newHashMap();
+        for (Map.Entry<Long, Map<Long, Long>> entry : mv.collectBaseTableVersions().entrySet()) {
+            Map<Long, Long> partitionVersions = Maps.newHashMap();
+            entry.getValue().forEach((partition, version) -> partitionVersions.put(partition, version - 1));
+            versions.put(entry.getKey(), partitionVersions);
+        }
+        addView("mv_join_agg", JOIN_AGG_VIEW, versions, System.currentTimeMillis());
+        plan = plan(sql);
+        Assert.assertFalse(plan, plan.contains("TABLE: mv_join_agg"));
+
+        // the stale view is used within the tolerated staleness
+        connectContext.getSessionVariable().setAsyncMaterializedViewStalenessSecond(3600);
+        try {
+            plan = plan(sql);
+            Assert.assertTrue(plan, plan.contains("TABLE: mv_join_agg"));
+        } finally {
+            connectContext.getSessionVariable().setAsyncMaterializedViewStalenessSecond(0);
+        }
+    }
+
+    private Pair<Table, Column> getSourceColumn(String sql, int index) throws Exception {
+        QueryStatement stmt = (QueryStatement) UtFrameUtils.parseStmtWithNewParser(sql, connectContext);
+        return AsyncMaterializedViewMgr.getSourceColumn(stmt.getQueryRelation(), index);
+    }
+
+    @Test
+    public void testPartitionColumnSource() throws Exception {
+        Database db = Catalog.getCurrentCatalog().getDb("default_cluster:test");
+        Table join1 = db.getTable("join1");
+        Table join2 = db.getTable("join2");
+
+        Pair<Table, Column> source = getSourceColumn("SELECT id, dt AS day FROM join1", 1);
+        Assert.assertEquals(join1, source.first);
+        Assert.assertEquals("dt", source.second.getName());
+
+        source = getSourceColumn("SELECT join1.id, join2.dt FROM join1 JOIN join2 ON join1.id = join2.id", 1);
+        Assert.assertEquals(join2, source.first);
+        Assert.assertEquals("dt", source.second.getName());
+
+        source = getSourceColumn("SELECT t.day, sum(join2.id) FROM (SELECT dt AS day, id FROM join1) t " +
+                "JOIN join2 ON t.id = join2.id GROUP BY t.day", 0);
+        Assert.assertEquals(join1, source.first);
+        Assert.assertEquals("dt", source.second.getName());
+
+        // computed columns don't keep the partition ranges of the base table
+        Assert.assertNull(getSourceColumn("SELECT dt + 1, id FROM join1", 0));
+        Assert.assertNull(getSourceColumn("SELECT dt FROM join1 UNION ALL SELECT dt FROM join2", 0));
+    }
+}
@@ -2,11 +2,14 @@
 
 package com.starrocks.sql.plan;
 
+import com.starrocks.analysis.IsNullPredicate;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.FeConstants;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.ScanNode;
 import com.starrocks.sql.analyzer.SemanticException;
 import com.starrocks.sql.optimizer.OptimizerContext;
 import com.starrocks.sql.optimizer.rule.RuleSet;
@@ -2158,4 +2161,51 @@ public class JoinTest extends PlanTestBase {
                 "  |  equal join conjunct: 22: cast = 11: t1a");
         FeConstants.runningUnitTest = false;
     }
+
+    @Test
+    public void testUniqueKeyOptimize() throws Exception {
+        withSessionVariable(sv -> sv.setEnableUniqueKeyOptimize(true), () -> {
+            // tprimary is unique on pk, and none of its columns is used
+            String sql = "select t0.v1, t0.v2 from t0 left join tprimary on t0.v1 = tprimary.pk";
+            String plan = getFragmentPlan(sql);
+            Assert.assertFalse(plan.contains("LEFT OUTER JOIN"));
+            Assert.assertFalse(plan.contains("tprimary"));
+
+            sql = "select t0.v1, tprimary.v2 from t0 left join tprimary on t0.v1 = tprimary.pk";
+            plan = getFragmentPlan(sql);
+            assertContains(plan, "LEFT OUTER JOIN");
+
+            sql = "select t0.v1 from t0 left join tprimary on t0.v1 = tprimary.v2";
+            plan = getFragmentPlan(sql);
+            assertContains(plan, "LEFT OUTER JOIN");
+
+            sql = "select v1 from t0 where v1 in (select pk from tprimary)";
+            plan = getFragmentPlan(sql);
+            assertContains(plan, "INNER JOIN");
+            Assert.assertFalse(plan.contains("LEFT SEMI JOIN"));
+
+            sql = "select pk, tprimary.v1, sum(t0.v2) from tprimary join t0 on pk = t0.v1 " +
+                    "group by pk, tprimary.v1";
+            plan = getFragmentPlan(sql);
+            assertContains(plan, "any_value");
+        });
+    }
+
+    @Test
+    public void testSkewJoinFilterNullKey() throws Exception {
+        withSessionVariable(sv -> sv.setEnableSkewOptimize(true), () -> {
+            String plan = getFragmentPlan("select * from t0 join t1 on t0.v1 = t1.v4");
+            assertContains(plan, "1: v1 IS NOT NULL");
+            assertContains(plan, "4: v4 IS NOT NULL");
+
+            // the unmatched rows of left outer join are output, only the rows of t1 with NULL key are filtered
+            ExecPlan execPlan = getExecPlan("select * from t0 left join t1 on t0.v1 = t1.v4");
+            for (ScanNode scanNode : execPlan.getScanNodes()) {
+                boolean filtered = scanNode.getConjuncts().stream().anyMatch(conjunct ->
+                        conjunct instanceof IsNullPredicate && ((IsNullPredicate) conjunct).isNotNull());
+                String tableName = ((OlapScanNode) scanNode).getOlapTable().getName();
+                Assert.assertEquals(tableName, tableName.equals("t1"), filtered);
+            }
+        });
+    }
 }
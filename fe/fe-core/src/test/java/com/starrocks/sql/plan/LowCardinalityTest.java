@@ -4,6 +4,8 @@ package com.starrocks.sql.plan;
 
 import com.starrocks.catalog.ScalarType;
 import com.starrocks.common.FeConstants;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.utframe.StarRocksAssert;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -987,4 +989,21 @@ public class LowCardinalityTest extends PlanTestBase {
                 "TTypeNode(type:SCALAR, scalar_type:TScalarType(type:VARCHAR, len:-1))])]"));
     }
 
+    @Test
+    public void testStatisticsFeedbackPredicateOnDictColumn() throws Exception {
+        // the feedback is keyed by the logical predicate, which isn't changed by the dict rewrite
+        String sql = "select count(*) from supplier where S_ADDRESS = 'kks' group by S_ADDRESS";
+        withSessionVariable(sv -> sv.setEnableStatisticsFeedback(true), () -> {
+            ExecPlan execPlan = getExecPlan(sql);
+            Assert.assertTrue(execPlan.getExplainString(TExplainLevel.NORMAL).contains("DictExpr("));
+            String predicate = ((OlapScanNode) execPlan.getScanNodes().get(0)).getFeedbackPredicate();
+            Assert.assertNotNull(predicate);
+            Assert.assertFalse(predicate, predicate.contains("DictExpr"));
+
+            withSessionVariable(sv -> sv.setEnableLowCardinalityOptimize(false), () -> {
+                OlapScanNode scanNode = (OlapScanNode) getExecPlan(sql).getScanNodes().get(0);
+                Assert.assertEquals(predicate, scanNode.getFeedbackPredicate());
+            });
+        });
+    }
 }
@@ -2,6 +2,8 @@
 
 package com.starrocks.sql.plan;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.starrocks.catalog.Catalog;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.FeConstants;
@@ -9,6 +11,8 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Map;
+
 public class MultiJoinReorderTest extends PlanTestBase {
 
     @BeforeClass
@@ -497,4 +501,62 @@ public class MultiJoinReorderTest extends PlanTestBase {
         String plan = getFragmentPlan(sql);
         Assert.assertTrue(plan.contains("17:CROSS JOIN"));
     }
+
+    @Test
+    public void testMemoBudgetAndCostLowerBoundPrune() throws Exception {
+        String sql = "select n_name, sum(l_extendedprice * (1 - l_discount)) as revenue " +
+                "from customer, orders, lineitem, supplier, nation, region " +
+                "where c_custkey = o_custkey and l_orderkey = o_orderkey and l_suppkey = s_suppkey " +
+                "and c_nationkey = s_nationkey and s_nationkey = n_nationkey and n_regionkey = r_regionkey " +
+                "and r_name = 'AFRICA' group by n_name";
+        Map<String, Long> tableRowCounts = ImmutableMap.<String, Long>builder()
+                .put("customer", 150000L).put("orders", 1500000L).put("lineitem", 6000000L)
+                .put("supplier", 10000L).put("nation", 25L).put("region", 5L).build();
+        Map<OlapTable, Long> originRowCounts = Maps.newHashMap();
+        for (Map.Entry<String, Long> entry : tableRowCounts.entrySet()) {
+            OlapTable table =
+                    (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable(entry.getKey());
+            originRowCounts.put(table, table.getPartitions().iterator().next().getBaseIndex().getRowCount());
+            setTableStatistics(table, entry.getValue());
+        }
+        try {
+            // the exhaustive join reorder of 6 tables exceeds the budget, fall back to the greedy join reorder
+            withSessionVariable(sv -> {
+                sv.setMaxTransformReorderJoins(8);
+                sv.setCboMaxMemoExpressions(100);
+            }, () -> {
+                connectContext.getPlannerProfile().reset();
+                String plan = getFragmentPlan(sql);
+                Assert.assertTrue(connectContext.getPlannerProfile().isMemoBudgetExceeded());
+                for (String table : tableRowCounts.keySet()) {
+                    Assert.assertTrue(plan, plan.contains("TABLE: " + table));
+                }
+            });
+
+            withSessionVariable(sv -> {
+                sv.setMaxTransformReorderJoins(8);
+            }, () -> {
+                connectContext.getPlannerProfile().reset();
+                getFragmentPlan(sql);
+                Assert.assertFalse(connectContext.getPlannerProfile().isMemoBudgetExceeded());
+                Assert.assertEquals(0, connectContext.getPlannerProfile().getMemoPrunedCount());
+            });
+
+            // the group expressions which can't be cheaper than the best plan found are not optimized
+            withSessionVariable(sv -> {
+                sv.setMaxTransformReorderJoins(8);
+                sv.setCboEnableCostLowerBoundPrune(true);
+            }, () -> {
+                connectContext.getPlannerProfile().reset();
+                String plan = getFragmentPlan(sql);
+                Assert.assertFalse(connectContext.getPlannerProfile().isMemoBudgetExceeded());
+                Assert.assertTrue(connectContext.getPlannerProfile().getMemoPrunedCount() > 0);
+                for (String table : tableRowCounts.keySet()) {
+                    Assert.assertTrue(plan, plan.contains("TABLE: " + table));
+                }
+            });
+        } finally {
+            originRowCounts.forEach(PlanTestBase::setTableStatistics);
+        }
+    }
 }
@@ -0,0 +1,171 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Catalog;
+import com.starrocks.common.FeConstants;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.sql.PlannerProfile;
+import com.starrocks.sql.optimizer.baseline.PlanBaseline;
+import com.starrocks.sql.optimizer.baseline.PlanBaselineMgr;
+import com.starrocks.sql.optimizer.baseline.PlanShape;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PlanBaselineTest extends DistributedEnvPlanTestBase {
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        DistributedEnvPlanTestBase.beforeClass();
+        FeConstants.runningUnitTest = true;
+    }
+
+    @After
+    public void after() {
+        PlanBaselineMgr mgr = Catalog.getCurrentCatalog().getPlanBaselineMgr();
+        List<Long> ids = Lists.newArrayList();
+        for (PlanBaseline baseline : mgr.getAllPlanBaselines()) {
+            ids.add(baseline.getId());
+        }
+        mgr.removePlanBaselines(ids);
+    }
+
+    private String plan(String sql) throws Exception {
+        connectContext.getPlannerProfile().reset();
+        return getFragmentPlan(sql);
+    }
+
+    private static PlanShape copyWithTopJoin(PlanShape shape, PlanShape.JoinShape join) {
+        PlanShape copy = GsonUtils.GSON.fromJson(GsonUtils.GSON.toJson(shape), PlanShape.class);
+        copy.getJoins().set(copy.getJoins().size() - 1, join);
+        return copy;
+    }
+
+    private static PlanShape.JoinShape getTopJoin(PlanShape shape) {
+        return shape.getJoins().get(shape.getJoins().size() - 1);
+    }
+
+    @Test
+    public void testCapturePlanShape() throws Exception {
+        String sql = "select count(*) from customer, orders, nation " +
+                "where c_custkey = o_custkey and c_nationkey = n_nationkey and o_orderdate > '1995-01-01'";
+        PlanBaselineMgr mgr = Catalog.getCurrentCatalog().getPlanBaselineMgr();
+        connectContext.getPlannerProfile().reset();
+        PlanBaseline baseline = mgr.addPlanBaseline(sql, connectContext);
+        PlanShape shape = baseline.getPlanShape();
+        Assert.assertEquals(2, shape.getJoins().size());
+        Assert.assertEquals(3, getTopJoin(shape).getTables().size());
+        Assert.assertNotNull(shape.getIndexName("orders"));
+        Assert.assertEquals(shape, GsonUtils.GSON.fromJson(GsonUtils.GSON.toJson(shape), PlanShape.class));
+
+        // the queries differing in literals share the baseline
+        plan(sql.replace("1995-01-01", "1996-01-01"));
+        PlannerProfile profile = connectContext.getPlannerProfile();
+        Assert.assertEquals(baseline.getDigest(), profile.getPlanDigest());
+        Assert.assertSame(baseline, profile.getPlanBaseline());
+        Assert.assertFalse(profile.isPlanBaselineMissed());
+        Assert.assertEquals(shape, profile.getPlanShape());
+
+        connectContext.getSessionVariable().setEnablePlanBaseline(false);
+        try {
+            plan(sql);
+            Assert.assertNull(connectContext.getPlannerProfile().getPlanBaseline());
+            Assert.assertTrue(connectContext.getPlannerProfile().isPlanBaselineCandidate());
+        } finally {
+            connectContext.getSessionVariable().setEnablePlanBaseline(true);
+        }
+    }
+
+    @Test
+    public void testPinJoinOrderAndDistribution() throws Exception {
+        String sql = "select count(*) from customer, orders, nation " +
+                "where c_custkey = o_custkey and c_nationkey = n_nationkey";
+        PlanBaselineMgr mgr = Catalog.getCurrentCatalog().getPlanBaselineMgr();
+        connectContext.getPlannerProfile().reset();
+        PlanBaseline baseline = mgr.addPlanBaseline(sql, connectContext);
+
+        // swap the sides of the top join and shuffle it
+        PlanShape.JoinShape top = getTopJoin(baseline.getPlanShape());
+        PlanShape.JoinShape pinnedTop = new PlanShape.JoinShape(top.getRight(), top.getLeft(),
+                PlanShape.JoinDistribution.SHUFFLE);
+        PlanShape pinned = copyWithTopJoin(baseline.getPlanShape(), pinnedTop);
+        mgr.replayAddPlanBaseline(new PlanBaseline(baseline.getId(), baseline.getDigest(), sql, pinned, 0));
+
+        plan(sql);
+        PlannerProfile profile = connectContext.getPlannerProfile();
+        Assert.assertFalse(profile.isPlanBaselineMissed());
+        PlanShape.JoinShape actualTop = getTopJoin(profile.getPlanShape());
+        Assert.assertEquals(pinnedTop.getLeft(), actualTop.getLeft());
+        Assert.assertEquals(pinnedTop.getRight(), actualTop.getRight());
+        Assert.assertNotEquals(PlanShape.JoinDistribution.BROADCAST, actualTop.getDistribution());
+    }
+
+    @Test
+    public void testBaselineMissed() throws Exception {
+        String sql = "select l_orderkey from lineitem join[broadcast] orders where l_orderkey = o_orderkey";
+        PlanBaselineMgr mgr = Catalog.getCurrentCatalog().getPlanBaselineMgr();
+        connectContext.getPlannerProfile().reset();
+        PlanBaseline baseline = mgr.addPlanBaseline(sql, connectContext);
+        PlanShape.JoinShape top = getTopJoin(baseline.getPlanShape());
+        Assert.assertEquals(PlanShape.JoinDistribution.BROADCAST, top.getDistribution());
+
+        // the hint can't be satisfied with the baseline, the query is planned without it
+        PlanShape pinned = copyWithTopJoin(baseline.getPlanShape(),
+                new PlanShape.JoinShape(top.getLeft(), top.getRight(), PlanShape.JoinDistribution.SHUFFLE));
+        mgr.replayAddPlanBaseline(new PlanBaseline(baseline.getId(), baseline.getDigest(), sql, pinned, 0));
+
+        String plan = plan(sql);
+        Assert.assertTrue(connectContext.getPlannerProfile().isPlanBaselineMissed());
+        Assert.assertTrue(plan.contains("join op: INNER JOIN (BROADCAST)"));
+    }
+
+    @Test
+    public void testEvolve() throws Exception {
+        String sql = "select count(*) from customer, orders where c_custkey = o_custkey";
+        PlanBaselineMgr mgr = Catalog.getCurrentCatalog().getPlanBaselineMgr();
+        connectContext.getPlannerProfile().reset();
+        PlanBaseline baseline = mgr.addPlanBaseline(sql, connectContext);
+        PlanShape.JoinShape top = getTopJoin(baseline.getPlanShape());
+        PlanShape candidate = copyWithTopJoin(baseline.getPlanShape(),
+                new PlanShape.JoinShape(top.getRight(), top.getLeft(), PlanShape.JoinDistribution.SHUFFLE));
+
+        PlannerProfile accepted = new PlannerProfile();
+        accepted.setPlanDigest(baseline.getDigest());
+        accepted.setPlanBaseline(baseline);
+        accepted.setPlanShape(baseline.getPlanShape());
+        PlannerProfile other = new PlannerProfile();
+        other.setPlanDigest(baseline.getDigest());
+        other.setPlanBaselineCandidate();
+        other.setPlanShape(candidate);
+        // planned without the baseline because of a hint
+        PlannerProfile missed = new PlannerProfile();
+        missed.setPlanDigest(baseline.getDigest());
+        missed.setPlanBaseline(baseline);
+        missed.setPlanBaselineMissed();
+        missed.setPlanShape(candidate);
+
+        for (int i = 0; i < 3; i++) {
+            mgr.onQueryFinished(accepted, 100);
+            mgr.onQueryFinished(missed, 1);
+        }
+        Assert.assertEquals(100, baseline.getAcceptedAvgMs());
+        Assert.assertEquals(0, baseline.getCandidateAvgMs());
+        // not fast enough
+        for (int i = 0; i < 3; i++) {
+            mgr.onQueryFinished(other, 90);
+        }
+        Assert.assertSame(baseline, mgr.getPlanBaseline(baseline.getDigest()));
+
+        for (int i = 0; i < 3; i++) {
+            mgr.onQueryFinished(other, 10);
+        }
+        PlanBaseline evolved = mgr.getPlanBaseline(baseline.getDigest());
+        Assert.assertEquals(baseline.getId(), evolved.getId());
+        Assert.assertEquals(candidate, evolved.getPlanShape());
+        Assert.assertTrue(evolved.getEvolveTime() > 0);
+    }
+}
@@ -10,6 +10,8 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.FeConstants;
 import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.RuntimeFilterDescription;
 import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
 import com.starrocks.sql.optimizer.statistics.MockTpchStatisticStorage;
 import com.starrocks.utframe.StarRocksAssert;
@@ -22,6 +24,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class PlanFragmentWithCostTest extends PlanTestBase {
 
@@ -972,4 +975,40 @@ public class PlanFragmentWithCostTest extends PlanTestBase {
                 "  |  \n" +
                 "  0:OlapScanNode");
     }
+
+    @Test
+    public void testCostBasedRuntimeFilter() throws Exception {
+        Catalog catalog = connectContext.getCatalog();
+        OlapTable lineitem = (OlapTable) catalog.getDb("default_cluster:test").getTable("lineitem");
+        OlapTable supplier = (OlapTable) catalog.getDb("default_cluster:test").getTable("supplier");
+        long lineitemRowCount = lineitem.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        long supplierRowCount = supplier.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        setTableStatistics(lineitem, 6000000);
+        setTableStatistics(supplier, 10000);
+        String sql = "select count(*) from lineitem join supplier on l_suppkey = s_suppkey where s_nationkey = 1";
+        try {
+            String plan = getCostExplain(sql);
+            Assert.assertTrue(plan, plan.contains("build runtime filters:"));
+            Assert.assertFalse(plan, plan.contains("type = "));
+
+            withSessionVariable(sv -> sv.setEnableCostBasedRuntimeFilter(true), () -> {
+                // the filtered supplier is small and broadcast, most of the suppliers are filtered by IN filter
+                ExecPlan execPlan = getExecPlan(sql);
+                List<RuntimeFilterDescription> filters = Lists.newArrayList();
+                for (PlanFragment fragment : execPlan.getFragments()) {
+                    fragment.collectBuildRuntimeFilters(fragment.getPlanRoot());
+                    filters.addAll(fragment.getBuildRuntimeFilters().values());
+                }
+                Assert.assertEquals(1, filters.size());
+                Assert.assertEquals(RuntimeFilterDescription.RuntimeFilterType.IN, filters.get(0).getFilterType());
+                Assert.assertEquals(0.96, filters.get(0).getEstimatedSelectivity(), 0.01);
+
+                String costPlan = getCostExplain(sql);
+                Assert.assertTrue(costPlan, costPlan.contains("type = IN, selectivity = 0.9"));
+            });
+        } finally {
+            setTableStatistics(lineitem, lineitemRowCount);
+            setTableStatistics(supplier, supplierRowCount);
+        }
+    }
 }
@@ -12,6 +12,7 @@ import com.starrocks.common.FeConstants;
 import com.starrocks.common.Pair;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.optimizer.statistics.MockTpchStatisticStorage;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.utframe.StarRocksAssert;
@@ -34,6 +35,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -892,6 +894,27 @@ public class PlanTestBase {
         }
     }
 
+    @FunctionalInterface
+    protected interface PlanCheck {
+        void check() throws Exception;
+    }
+
+    /**
+     * Run the check with a copy of the session variable changed by the setter, the session variable of
+     * connectContext is restored after the check, even if it fails.
+     */
+    protected static void withSessionVariable(Consumer<SessionVariable> setter, PlanCheck check) throws Exception {
+        SessionVariable origin = connectContext.getSessionVariable();
+        SessionVariable sessionVariable = (SessionVariable) origin.clone();
+        setter.accept(sessionVariable);
+        connectContext.setSessionVariable(sessionVariable);
+        try {
+            check.check();
+        } finally {
+            connectContext.setSessionVariable(origin);
+        }
+    }
+
     public ExecPlan getExecPlan(String sql) throws Exception {
         return UtFrameUtils.getPlanAndFragment(connectContext, sql).second;
     }
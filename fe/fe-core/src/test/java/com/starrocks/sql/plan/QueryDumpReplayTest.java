@@ -0,0 +1,127 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.FeConstants;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.utframe.QueryDumpReplayer;
+import com.starrocks.utframe.UtFrameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Replay the query dumps by {@link QueryDumpReplayer}.
+ * <p>
+ * To check an optimizer change against the production query dumps, record the baseline plans before the change:
+ * mvn test -Dtest=QueryDumpReplayTest#testReplayDumpDir -Dquery_dump_dir=dumps -Dquery_dump_baseline_dir=baseline
+ * -Dquery_dump_record_baseline=true
+ * then run it again without query_dump_record_baseline after the change, the report shows the plan time
+ * percentiles, the memo sizes and the changed plans. The report is logged, or written to the file given by
+ * -Dquery_dump_report.
+ */
+public class QueryDumpReplayTest {
+    private static final Logger LOG = LogManager.getLogger(QueryDumpReplayTest.class);
+
+    public static String runningDir = "fe/mocked/QueryDumpReplayTest/" + UUID.randomUUID().toString() + "/";
+    public static ConnectContext connectContext;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster(runningDir);
+        connectContext = UtFrameUtils.createDefaultCtx();
+        FeConstants.runningUnitTest = true;
+    }
+
+    private static File getDumpFile(String name) {
+        String path = Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResource("sql")).getPath();
+        return new File(path + "/query_dump/" + name + QueryDumpReplayer.DUMP_SUFFIX);
+    }
+
+    @Test
+    public void testReplayDumpDir() throws Exception {
+        String dumpDir = System.getProperty("query_dump_dir");
+        if (dumpDir == null) {
+            return;
+        }
+        String baselineDir = System.getProperty("query_dump_baseline_dir");
+        QueryDumpReplayer replayer = new QueryDumpReplayer(connectContext);
+        List<QueryDumpReplayer.ReplayResult> results = replayer.replay(new File(dumpDir),
+                baselineDir == null ? null : new File(baselineDir));
+        if (baselineDir != null && Boolean.parseBoolean(System.getProperty("query_dump_record_baseline"))) {
+            QueryDumpReplayer.writeBaseline(results, new File(baselineDir));
+        }
+        String report = QueryDumpReplayer.report(results);
+        String reportFile = System.getProperty("query_dump_report");
+        if (reportFile != null) {
+            Files.write(new File(reportFile).toPath(), report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            LOG.info("query dump replay report:\n{}", report);
+        }
+    }
+
+    @Test
+    public void testReplayWithBaseline() throws Exception {
+        List<File> dumpFiles = Lists.newArrayList(getDumpFile("tpch17"), getDumpFile("ssb10"));
+        File baselineDir = temporaryFolder.newFolder("baseline");
+        QueryDumpReplayer replayer = new QueryDumpReplayer(connectContext);
+
+        List<QueryDumpReplayer.ReplayResult> results = replayer.replay(dumpFiles, baselineDir);
+        Assert.assertEquals(2, results.size());
+        for (QueryDumpReplayer.ReplayResult result : results) {
+            Assert.assertFalse(result.getError(), result.isFailed());
+            Assert.assertTrue(result.getPlanTimeNs() > 0);
+            Assert.assertTrue(result.getMemoExpressionCount() >= result.getMemoGroupCount());
+            Assert.assertTrue(result.getMemoGroupCount() > 0);
+            Assert.assertNull(result.getPlanDiff());
+        }
+        QueryDumpReplayer.writeBaseline(results, baselineDir);
+
+        // the replay is stable
+        results = replayer.replay(dumpFiles, baselineDir);
+        for (QueryDumpReplayer.ReplayResult result : results) {
+            Assert.assertNull(result.getPlanDiff(), result.getPlanDiff());
+        }
+
+        File baselineFile = new File(baselineDir, "ssb10" + QueryDumpReplayer.BASELINE_SUFFIX);
+        Files.write(baselineFile.toPath(), "PLAN FRAGMENT 0\n  OUTPUT EXPRS:".getBytes(StandardCharsets.UTF_8));
+        results = replayer.replay(dumpFiles, baselineDir);
+        Assert.assertNull(results.get(0).getPlanDiff());
+        Assert.assertNotNull(results.get(1).getPlanDiff());
+
+        String report = QueryDumpReplayer.report(results);
+        Assert.assertTrue(report, report.startsWith("Dumps: 2, Failed: 0\nPlanTime(ms): p50="));
+        Assert.assertTrue(report, report.contains("ssb10: "));
+        Assert.assertTrue(report, report.contains("plan changed at line "));
+    }
+
+    @Test
+    public void testReplayInvalidDump() throws Exception {
+        File dumpFile = temporaryFolder.newFile("invalid" + QueryDumpReplayer.DUMP_SUFFIX);
+        Files.write(dumpFile.toPath(), "not a query dump".getBytes(StandardCharsets.UTF_8));
+
+        QueryDumpReplayer replayer = new QueryDumpReplayer(connectContext);
+        List<QueryDumpReplayer.ReplayResult> results = replayer.replay(temporaryFolder.getRoot(), null);
+        Assert.assertEquals(1, results.size());
+        Assert.assertTrue(results.get(0).isFailed());
+
+        String report = QueryDumpReplayer.report(results);
+        Assert.assertTrue(report, report.startsWith("Dumps: 1, Failed: 1\n"));
+        Assert.assertTrue(report, report.contains("invalid: failed, "));
+    }
+}
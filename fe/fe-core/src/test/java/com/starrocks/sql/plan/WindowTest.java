@@ -2,10 +2,19 @@
 
 package com.starrocks.sql.plan;
 
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.OlapTable;
 import com.starrocks.sql.analyzer.SemanticException;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.operator.SortPhase;
+import com.starrocks.sql.optimizer.operator.TopNType;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalPartitionTopNOperator;
+import com.starrocks.thrift.TExplainLevel;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+
 public class WindowTest extends PlanTestBase {
     @Test
     public void testLagWindowFunction() throws Exception {
@@ -154,4 +163,60 @@ public class WindowTest extends PlanTestBase {
                 + "join t1 on x0.v3 = t1.v4 order by x0.v3, t1.v4 limit 100;";
         getFragmentPlan(sql);
     }
+
+    @Test
+    public void testPartitionTopN() throws Exception {
+        OlapTable customer = (OlapTable) connectContext.getCatalog().getDb("default_cluster:test").getTable("customer");
+        long rowCount = customer.getPartitions().iterator().next().getBaseIndex().getRowCount();
+        String sql = "select * from (select c_custkey, row_number() over (partition by c_nationkey " +
+                "order by c_acctbal desc) rn from customer) t where rn <= 3";
+        setTableStatistics(customer, 150000);
+        try {
+            String plan = getFragmentPlan(sql);
+            Assert.assertFalse(plan, plan.contains("PARTITION-TOP-N"));
+
+            withSessionVariable(sv -> sv.setEnablePartitionTopN(true), () -> {
+                ExecPlan execPlan = getExecPlan(sql);
+                List<PhysicalPartitionTopNOperator> topNs = collectPartitionTopN(execPlan.getPhysicalPlan());
+                Assert.assertEquals(2, topNs.size());
+                Assert.assertEquals(SortPhase.FINAL, topNs.get(0).getSortPhase());
+                Assert.assertEquals(SortPhase.PARTIAL, topNs.get(1).getSortPhase());
+                for (PhysicalPartitionTopNOperator topN : topNs) {
+                    Assert.assertEquals(TopNType.ROW_NUMBER, topN.getTopNType());
+                    Assert.assertEquals(3, topN.getPartitionLimit());
+                }
+                String topNPlan = execPlan.getExplainString(TExplainLevel.NORMAL);
+                Assert.assertTrue(topNPlan, topNPlan.contains("PARTITION-TOP-N"));
+                Assert.assertTrue(topNPlan, topNPlan.contains("partition limit: 3"));
+
+                String rankSql = "select * from (select c_custkey, rank() over (partition by c_nationkey " +
+                        "order by c_acctbal desc) rk from customer) t where rk < 3";
+                topNs = collectPartitionTopN(getExecPlan(rankSql).getPhysicalPlan());
+                Assert.assertEquals(2, topNs.size());
+                for (PhysicalPartitionTopNOperator topN : topNs) {
+                    Assert.assertEquals(TopNType.RANK, topN.getTopNType());
+                    Assert.assertEquals(2, topN.getPartitionLimit());
+                }
+
+                // the other window functions need all the rows of the partition
+                String sumSql = "select * from (select c_custkey, row_number() over (partition by c_nationkey " +
+                        "order by c_acctbal desc) rn, sum(c_acctbal) over (partition by c_nationkey " +
+                        "order by c_acctbal desc) s from customer) t where rn <= 3";
+                Assert.assertTrue(collectPartitionTopN(getExecPlan(sumSql).getPhysicalPlan()).isEmpty());
+            });
+        } finally {
+            setTableStatistics(customer, rowCount);
+        }
+    }
+
+    private static List<PhysicalPartitionTopNOperator> collectPartitionTopN(OptExpression expression) {
+        List<PhysicalPartitionTopNOperator> topNs = Lists.newArrayList();
+        if (expression.getOp() instanceof PhysicalPartitionTopNOperator) {
+            topNs.add((PhysicalPartitionTopNOperator) expression.getOp());
+        }
+        for (OptExpression input : expression.getInputs()) {
+            topNs.addAll(collectPartitionTopN(input));
+        }
+        return topNs;
+    }
 }
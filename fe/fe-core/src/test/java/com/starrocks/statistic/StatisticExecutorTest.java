@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.thrift.TStatisticData;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+public class StatisticExecutorTest {
+    private static final String runningDir = "fe/mocked/StatisticExecutorTest/" + UUID.randomUUID() + "/";
+
+    private static ConnectContext connectContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster(runningDir);
+        connectContext = UtFrameUtils.createDefaultCtx();
+        StarRocksAssert starRocksAssert = new StarRocksAssert(connectContext);
+        starRocksAssert.withDatabase("test").useDatabase("test");
+        starRocksAssert.withTable("CREATE TABLE `tp` (\n" +
+                "  `k1` date NULL,\n" +
+                "  `v1` bigint NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "DUPLICATE KEY(`k1`)\n" +
+                "PARTITION BY RANGE(`k1`)\n" +
+                "(PARTITION p1 VALUES LESS THAN (\"2021-01-01\"),\n" +
+                "PARTITION p2 VALUES LESS THAN (\"2021-02-01\"),\n" +
+                "PARTITION p3 VALUES LESS THAN (\"2021-03-01\"))\n" +
+                "DISTRIBUTED BY HASH(`v1`) BUCKETS 3\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+    }
+
+    private static TStatisticData collectedData(long partitionId, String column, long version) {
+        TStatisticData data = new TStatisticData();
+        data.setPartitionId(partitionId);
+        data.setColumnName(column);
+        data.setMeta_version(version);
+        return data;
+    }
+
+    @Test
+    public void testCollectChangedPartitions() throws Exception {
+        Database db = connectContext.getCatalog().getDb("default_cluster:test");
+        OlapTable table = (OlapTable) db.getTable("tp");
+        long p1 = table.getPartition("p1").getId();
+        long p2 = table.getPartition("p2").getId();
+        long version = table.getPartition("p1").getVisibleVersion();
+        long droppedPartitionId = 999999L;
+
+        List<String> sqls = Lists.newArrayList();
+        new MockUp<StatisticExecutor>() {
+            @Mock
+            public List<TStatisticData> queryPartitionStatisticSync(Long tableId, List<String> columnNames) {
+                // p1 is collected at the current version, p2 is loaded after the collection, v1 of p3 is never
+                // collected, and the last partition is dropped
+                return ImmutableList.of(collectedData(p1, "k1", version), collectedData(p1, "v1", version),
+                        collectedData(p2, "k1", version - 1), collectedData(p2, "v1", version - 1),
+                        collectedData(table.getPartition("p3").getId(), "k1", version),
+                        collectedData(droppedPartitionId, "k1", version));
+            }
+
+            @Mock
+            void executeDML(String sql) {
+                sqls.add(sql);
+            }
+        };
+
+        new StatisticExecutor().collectPartitionStatisticSync(db.getId(), table.getId(), ImmutableList.of("k1", "v1"));
+
+        Assert.assertTrue(sqls.get(0), sqls.get(0).startsWith("DELETE FROM " + Constants.PartitionStatisticsTableName));
+        Assert.assertTrue(sqls.get(0), sqls.get(0).contains("partition_id IN (" + droppedPartitionId + ")"));
+
+        String collectSqls = String.join("\n", sqls);
+        Assert.assertFalse(collectSqls.contains("PARTITION(`p1`)"));
+        Assert.assertTrue(collectSqls.contains("PARTITION(`p2`)"));
+        Assert.assertTrue(collectSqls.contains("PARTITION(`p3`)"));
+        // the stale sketches of the changed partitions are deleted before collected again
+        Assert.assertTrue(collectSqls.contains("partition_id = " + p2 + " AND column_name IN ('k1','v1')"));
+        Assert.assertFalse(collectSqls.contains("partition_id = " + p1));
+
+        // the table statistics are merged from all the partitions
+        String mergeSql = sqls.get(sqls.size() - 1);
+        Assert.assertTrue(mergeSql, mergeSql.startsWith("INSERT INTO " + Constants.StatisticsTableName));
+        Assert.assertTrue(mergeSql, mergeSql.contains("hll_union_agg(ndv)"));
+        Assert.assertTrue(mergeSql, mergeSql.contains("CAST(NULLIF(max, '') AS date)"));
+    }
+}
@@ -0,0 +1,81 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.statistic;
+
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class StatisticFeedbackStoreTest {
+    private final StatisticFeedbackStore store = new StatisticFeedbackStore();
+
+    @After
+    public void tearDown() {
+        Config.statistic_feedback_max_entries = 10000;
+    }
+
+    private static ScalarOperator createPredicate(int aId, int bId) {
+        ColumnRefOperator a = new ColumnRefOperator(aId, Type.INT, "a", true);
+        ColumnRefOperator b = new ColumnRefOperator(bId, Type.INT, "b", true);
+        return new CompoundPredicateOperator(CompoundPredicateOperator.CompoundType.AND,
+                BinaryPredicateOperator.eq(a, ConstantOperator.createInt(1)),
+                BinaryPredicateOperator.ge(b, ConstantOperator.createInt(10)));
+    }
+
+    @Test
+    public void testNormalizePredicate() {
+        ScalarOperator predicate = createPredicate(1, 2);
+        String normalized = StatisticFeedbackStore.normalizePredicate(predicate);
+        Assert.assertEquals(normalized, StatisticFeedbackStore.normalizePredicate(createPredicate(5, 3)));
+        // the conjuncts are sorted
+        Assert.assertEquals(normalized, StatisticFeedbackStore.normalizePredicate(
+                new CompoundPredicateOperator(CompoundPredicateOperator.CompoundType.AND,
+                        predicate.getChild(1), predicate.getChild(0))));
+        // the original predicate is not changed
+        Assert.assertEquals(1, ((ColumnRefOperator) predicate.getChild(0).getChild(0)).getId());
+        Assert.assertNull(StatisticFeedbackStore.normalizePredicate(null));
+    }
+
+    @Test
+    public void testCorrection() {
+        String predicate = StatisticFeedbackStore.normalizePredicate(createPredicate(1, 2));
+        Assert.assertEquals(1, store.getCorrection(1, predicate), 0.0001);
+
+        store.addFeedback(1, "t0", predicate, 100, 1000);
+        Assert.assertEquals(10, store.getCorrection(1, predicate), 0.0001);
+        Assert.assertEquals(1, store.getCorrection(2, predicate), 0.0001);
+
+        // the next estimation has been corrected
+        store.addFeedback(1, "t0", predicate, 1000, 500);
+        Assert.assertEquals(5, store.getCorrection(1, predicate), 0.0001);
+
+        List<StatisticFeedbackStore.Feedback> feedbacks = store.getWorstFeedbacks();
+        Assert.assertEquals(1, feedbacks.size());
+        Assert.assertEquals(2, feedbacks.get(0).getCount());
+        Assert.assertEquals(2, feedbacks.get(0).getQError(), 0.0001);
+    }
+
+    @Test
+    public void testEvictAndOrder() {
+        Config.statistic_feedback_max_entries = 2;
+        store.addFeedback(1, "t0", "p1", 100, 100);
+        store.addFeedback(1, "t0", "p2", 100, 10000);
+        store.getCorrection(1, "p1");
+        store.addFeedback(1, "t0", "p3", 100, 10);
+
+        // p2 is the least recently used
+        List<StatisticFeedbackStore.Feedback> feedbacks = store.getWorstFeedbacks();
+        Assert.assertEquals(2, feedbacks.size());
+        Assert.assertEquals("p3", feedbacks.get(0).getPredicate());
+        Assert.assertEquals("p1", feedbacks.get(1).getPredicate());
+    }
+}
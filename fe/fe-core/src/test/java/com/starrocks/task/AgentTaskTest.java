@@ -272,4 +272,40 @@ public class AgentTaskTest {
         Assert.assertEquals(1, AgentTaskQueue.getTaskNum(backendId1, TTaskType.DROP, true));
         Assert.assertEquals(2, AgentTaskQueue.getTaskNum(-1, TTaskType.DROP, true));
     }
+
+    @Test
+    public void concurrentAgentTaskQueueTest() throws InterruptedException {
+        AgentTaskQueue.clearAllTasks();
+
+        int threadNum = 8;
+        int taskNumPerThread = 1000;
+        List<Thread> threads = new LinkedList<>();
+        for (int i = 0; i < threadNum; i++) {
+            long backendId = backendId1 + i % 2;
+            long tabletIdStart = (long) i * taskNumPerThread;
+            threads.add(new Thread(() -> {
+                for (long tabletId = tabletIdStart; tabletId < tabletIdStart + taskNumPerThread; tabletId++) {
+                    AgentTaskQueue.addTask(new DropReplicaTask(backendId, tabletId, schemaHash1, false));
+                }
+                // remove half of the tasks
+                for (long tabletId = tabletIdStart; tabletId < tabletIdStart + taskNumPerThread; tabletId += 2) {
+                    AgentTaskQueue.removeTask(backendId, TTaskType.DROP, tabletId);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int remainNum = threadNum * taskNumPerThread / 2;
+        Assert.assertEquals(remainNum, AgentTaskQueue.getTaskNum());
+        Assert.assertEquals(remainNum, AgentTaskQueue.getTaskNum(TTaskType.DROP));
+        Assert.assertEquals(remainNum, AgentTaskQueue.getTask(TTaskType.DROP).size());
+        Assert.assertEquals(remainNum / 2, AgentTaskQueue.getDiffTasks(backendId1, new HashMap<>()).size());
+
+        AgentTaskQueue.removeReplicaRelatedTasks(backendId1, 1L);
+        Assert.assertEquals(remainNum - 1, AgentTaskQueue.getTaskNum(TTaskType.DROP));
+        AgentTaskQueue.clearAllTasks();
+    }
 }
@@ -0,0 +1,211 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.utframe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Pair;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.PlannerProfile;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.dump.QueryDumpInfo;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.thrift.TExplainLevel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replay the query dumps got from QueryDumpAction in bulk, to check the planning performance and the plans
+ * of the optimizer against a real workload.
+ * <p>
+ * Each dump is planned in the mocked catalog built from its schema, statistics and session variables, and
+ * its plan time and memo size are recorded. If a baseline directory is given, the COSTS explain of each
+ * dump is compared with the {@code <dump name>.plan} file in it, which can be written by
+ * {@link #writeBaseline}.
+ */
+public class QueryDumpReplayer {
+    public static final String DUMP_SUFFIX = ".json";
+    public static final String BASELINE_SUFFIX = ".plan";
+
+    public static class ReplayResult {
+        private final String name;
+        private long planTimeNs;
+        private int memoGroupCount;
+        private int memoExpressionCount;
+        private String plan;
+        private String baselinePlan;
+        private String error;
+
+        ReplayResult(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getPlanTimeNs() {
+            return planTimeNs;
+        }
+
+        public int getMemoGroupCount() {
+            return memoGroupCount;
+        }
+
+        public int getMemoExpressionCount() {
+            return memoExpressionCount;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        // the first different line of the plan and the baseline, null if they are the same or there is no baseline
+        public String getPlanDiff() {
+            if (plan == null || baselinePlan == null) {
+                return null;
+            }
+            String[] lines = plan.split("\n");
+            String[] baselineLines = baselinePlan.split("\n");
+            for (int i = 0; i < Math.max(lines.length, baselineLines.length); i++) {
+                String line = i < lines.length ? lines[i] : "";
+                String baselineLine = i < baselineLines.length ? baselineLines[i] : "";
+                if (!line.equals(baselineLine)) {
+                    return "line " + (i + 1) + ": expect [" + baselineLine.trim() + "], actual [" + line.trim() + "]";
+                }
+            }
+            return null;
+        }
+    }
+
+    private final ConnectContext connectContext;
+
+    public QueryDumpReplayer(ConnectContext connectContext) {
+        this.connectContext = connectContext;
+    }
+
+    // replay all the dumps in the directory by the order of their names
+    public List<ReplayResult> replay(File dumpDir, File baselineDir) throws IOException {
+        File[] files = Objects.requireNonNull(dumpDir.listFiles((dir, name) -> name.endsWith(DUMP_SUFFIX)),
+                "not a directory: " + dumpDir);
+        Arrays.sort(files);
+        return replay(Arrays.asList(files), baselineDir);
+    }
+
+    public List<ReplayResult> replay(List<File> dumpFiles, File baselineDir) throws IOException {
+        List<ReplayResult> results = Lists.newArrayList();
+        for (File dumpFile : dumpFiles) {
+            String name = dumpFile.getName().substring(0, dumpFile.getName().length() - DUMP_SUFFIX.length());
+            ReplayResult result = replay(name, new String(Files.readAllBytes(dumpFile.toPath()),
+                    StandardCharsets.UTF_8));
+            if (baselineDir != null) {
+                File baselineFile = new File(baselineDir, name + BASELINE_SUFFIX);
+                if (baselineFile.exists()) {
+                    result.baselinePlan = new String(Files.readAllBytes(baselineFile.toPath()),
+                            StandardCharsets.UTF_8);
+                }
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private ReplayResult replay(String name, String dumpJson) {
+        ReplayResult result = new ReplayResult(name);
+        try {
+            QueryDumpInfo dumpInfo = GsonUtils.GSON.fromJson(dumpJson, QueryDumpInfo.class);
+            String replaySql = UtFrameUtils.initMockEnv(connectContext, dumpInfo);
+            try {
+                PlannerProfile profile = connectContext.getPlannerProfile();
+                profile.reset();
+                long startTime = System.nanoTime();
+                Pair<OptExpression, ExecPlan> plan = UtFrameUtils.getPlanFromReplaySql(connectContext, replaySql);
+                result.planTimeNs = System.nanoTime() - startTime;
+                result.memoGroupCount = profile.getMemoGroupCount();
+                result.memoExpressionCount = profile.getMemoExpressionCount();
+                // the tablets are different in each replay
+                result.plan = Stream.of(plan.second.getExplainString(TExplainLevel.COSTS).split("\n"))
+                        .filter(line -> !line.contains("tabletList")).collect(Collectors.joining("\n"));
+            } finally {
+                UtFrameUtils.tearMockEnv();
+            }
+        } catch (Exception e) {
+            result.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        return result;
+    }
+
+    public static void writeBaseline(List<ReplayResult> results, File baselineDir) throws IOException {
+        Files.createDirectories(baselineDir.toPath());
+        for (ReplayResult result : results) {
+            if (!result.isFailed()) {
+                Files.write(new File(baselineDir, result.getName() + BASELINE_SUFFIX).toPath(),
+                        result.getPlan().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    public static String report(List<ReplayResult> results) {
+        List<ReplayResult> succeeded = results.stream().filter(r -> !r.isFailed()).collect(Collectors.toList());
+        StringBuilder sb = new StringBuilder();
+        sb.append("Dumps: ").append(results.size()).append(", Failed: ")
+                .append(results.size() - succeeded.size()).append("\n");
+        sb.append("PlanTime(ms): ").append(percentiles(succeeded,
+                r -> TimeUnit.NANOSECONDS.toMillis(r.getPlanTimeNs()))).append("\n");
+        sb.append("MemoGroups: ").append(percentiles(succeeded, ReplayResult::getMemoGroupCount)).append("\n");
+        sb.append("MemoExpressions: ").append(percentiles(succeeded, ReplayResult::getMemoExpressionCount))
+                .append("\n");
+
+        // the slowest dumps first
+        succeeded.sort((a, b) -> Long.compare(b.getPlanTimeNs(), a.getPlanTimeNs()));
+        for (ReplayResult result : succeeded) {
+            sb.append(result.getName()).append(": ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(result.getPlanTimeNs())).append("ms, memo ")
+                    .append(result.getMemoGroupCount()).append("/").append(result.getMemoExpressionCount());
+            String diff = result.getPlanDiff();
+            if (diff != null) {
+                sb.append(", plan changed at ").append(diff);
+            }
+            sb.append("\n");
+        }
+        for (ReplayResult result : results) {
+            if (result.isFailed()) {
+                sb.append(result.getName()).append(": failed, ").append(result.getError()).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String percentiles(List<ReplayResult> results, ToLongFunction<ReplayResult> value) {
+        List<Long> values = results.stream().map(value::applyAsLong).sorted().collect(Collectors.toList());
+        return "p50=" + percentile(values, 50) + " p90=" + percentile(values, 90) +
+                " p99=" + percentile(values, 99) + " max=" + percentile(values, 100);
+    }
+
+    // nearest-rank percentile of the sorted values, 0 if there is no value
+    static long percentile(List<Long> sortedValues, int percent) {
+        if (sortedValues.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sortedValues.size());
+        return sortedValues.get(Math.max(rank, 1) - 1);
+    }
+}
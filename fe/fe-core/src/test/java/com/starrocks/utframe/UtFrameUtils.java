@@ -374,7 +374,7 @@ public class UtFrameUtils {
         }
     }
 
-    private static String initMockEnv(ConnectContext connectContext, QueryDumpInfo replayDumpInfo) throws Exception {
+    static String initMockEnv(ConnectContext connectContext, QueryDumpInfo replayDumpInfo) throws Exception {
         // mock statistics table
         StarRocksAssert starRocksAssert = new StarRocksAssert(connectContext);
         if (!starRocksAssert.databaseExist("_statistics_")) {
@@ -441,7 +441,7 @@ public class UtFrameUtils {
         return replaySql;
     }
 
-    private static void tearMockEnv() {
+    static void tearMockEnv() {
         int backendId = 10002;
         int backendIdSize = Catalog.getCurrentSystemInfo().getBackendIds(true).size();
         for (int i = 1; i < backendIdSize; ++i) {
@@ -458,32 +458,38 @@ public class UtFrameUtils {
         String replaySql = initMockEnv(connectContext, replayDumpInfo);
 
         try {
-            StatementBase statementBase = com.starrocks.sql.parser.SqlParser.parse(replaySql, connectContext.getSessionVariable().getSqlMode()).get(0);
-            com.starrocks.sql.analyzer.Analyzer.analyze(statementBase, connectContext);
-
-            ColumnRefFactory columnRefFactory = new ColumnRefFactory();
-            LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, connectContext)
-                    .transform(((QueryStatement) statementBase).getQueryRelation());
-
-            Optimizer optimizer = new Optimizer();
-            OptExpression optimizedPlan = optimizer.optimize(
-                    connectContext,
-                    logicalPlan.getRoot(),
-                    new PhysicalPropertySet(),
-                    new ColumnRefSet(logicalPlan.getOutputColumn()),
-                    columnRefFactory);
-
-            ExecPlan execPlan = new PlanFragmentBuilder()
-                    .createPhysicalPlan(optimizedPlan, connectContext,
-                            logicalPlan.getOutputColumn(), columnRefFactory, new ArrayList<>());
-
+            Pair<OptExpression, ExecPlan> plan = getPlanFromReplaySql(connectContext, replaySql);
             OperatorStrings operatorPrinter = new OperatorStrings();
-            return new Pair<>(operatorPrinter.printOperator(optimizedPlan), execPlan);
+            return new Pair<>(operatorPrinter.printOperator(plan.first), plan.second);
         } finally {
             tearMockEnv();
         }
     }
 
+    static Pair<OptExpression, ExecPlan> getPlanFromReplaySql(ConnectContext connectContext, String replaySql)
+            throws Exception {
+        StatementBase statementBase = com.starrocks.sql.parser.SqlParser.parse(replaySql,
+                connectContext.getSessionVariable().getSqlMode()).get(0);
+        com.starrocks.sql.analyzer.Analyzer.analyze(statementBase, connectContext);
+
+        ColumnRefFactory columnRefFactory = new ColumnRefFactory();
+        LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, connectContext)
+                .transform(((QueryStatement) statementBase).getQueryRelation());
+
+        Optimizer optimizer = new Optimizer();
+        OptExpression optimizedPlan = optimizer.optimize(
+                connectContext,
+                logicalPlan.getRoot(),
+                new PhysicalPropertySet(),
+                new ColumnRefSet(logicalPlan.getOutputColumn()),
+                columnRefFactory);
+
+        ExecPlan execPlan = new PlanFragmentBuilder()
+                .createPhysicalPlan(optimizedPlan, connectContext,
+                        logicalPlan.getOutputColumn(), columnRefFactory, new ArrayList<>());
+        return new Pair<>(optimizedPlan, execPlan);
+    }
+
     private static String getThriftString(List<PlanFragment> fragments) {
         StringBuilder str = new StringBuilder();
         for (int i = 0; i < fragments.size(); ++i) {
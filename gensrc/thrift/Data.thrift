@@ -102,5 +102,7 @@ struct TStatisticData {
     12: optional TGlobalDict dict
     // the latest partition version for this table
     13: optional i64 meta_version
+    // partition of partition level statistics
+    14: optional i64 partitionId
 }
 
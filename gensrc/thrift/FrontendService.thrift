@@ -310,6 +310,9 @@ struct TGetTablesParams {
   4: optional string user_ip    // deprecated
   5: optional Types.TUserIdentity current_user_ident // to replace the user and user ip
   20: optional Types.TTableType type // getting a certain type of tables
+  // the tables matched are sorted by name, return the tables in [offset, offset + limit) only
+  21: optional i64 offset
+  22: optional i64 limit
 }
 
 struct TTableStatus {
@@ -61,6 +61,7 @@ enum TPlanNodeType {
   TABLE_FUNCTION_NODE,
   DECODE_NODE,
   JDBC_SCAN_NODE,
+  PARTITION_TOPN_NODE,
 }
 
 // phases of an execution node
@@ -563,6 +564,26 @@ struct TSortNode {
   22: optional list<Exprs.TExpr> analytic_partition_exprs
 }
 
+enum TTopNType {
+  ROW_NUMBER,
+  RANK,
+  DENSE_RANK
+}
+
+// Keep the rows whose rank in their partition is not greater than partition_limit, it's planned
+// below the analytic node whose ranking function is filtered, e.g.
+// row_number() over (partition by a order by b) <= 3
+struct TPartitionTopNNode {
+  1: required list<Exprs.TExpr> partition_exprs
+  // The ordering exprs are evaluated over the input row, the rows are output without
+  // materializing a sort tuple
+  2: required TSortInfo sort_info
+  3: required i64 partition_limit
+  4: required TTopNType type
+  // For profile attributes' printing: `Sort Keys`
+  5: optional string sql_sort_keys
+}
+
 enum TAnalyticWindowType {
   // Specifies the window as a logical offset
   RANGE,
@@ -910,6 +931,7 @@ struct TPlanNode {
   59: optional bool need_create_tuple_columns;
   // Scan node for jdbc
   60: optional TJDBCScanNode jdbc_scan_node;
+  61: optional TPartitionTopNNode partition_topn_node;
 }
 
 // A flattened representation of a tree of PlanNodes, obtained by depth-first